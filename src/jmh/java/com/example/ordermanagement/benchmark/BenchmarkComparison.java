@@ -0,0 +1,69 @@
+package com.example.ordermanagement.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Compares two JMH JSON result files, e.g. the {@code target/jmh-result.json} of two builds, and prints
+ * the relative change of every benchmark present in both. A change is flagged when the score intervals
+ * (score ± error at 99.9%) do not overlap.
+ *
+ * <pre>
+ * java -cp ... com.example.ordermanagement.benchmark.BenchmarkComparison baseline.json candidate.json
+ * </pre>
+ */
+public final class BenchmarkComparison {
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <candidate.json>");
+            System.exit(2);
+        }
+        Map<String, Result> baseline = read(new File(args[0]));
+        Map<String, Result> candidate = read(new File(args[1]));
+
+        System.out.printf("%-70s %14s %14s %9s%n", "Benchmark", "Baseline", "Candidate", "Change");
+        for (Map.Entry<String, Result> entry : baseline.entrySet()) {
+            Result before = entry.getValue();
+            Result after = candidate.get(entry.getKey());
+            if (after == null) {
+                System.out.printf("%-70s %14.3f %14s%n", entry.getKey(), before.score(), "-");
+                continue;
+            }
+            double change = (after.score() - before.score()) / before.score() * 100;
+            boolean significant = after.score() - after.error() > before.score() + before.error()
+                    || after.score() + after.error() < before.score() - before.error();
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%% %s%s%n", entry.getKey(), before.score(), after.score(),
+                    change, after.unit(), significant ? " *" : "");
+        }
+        candidate.keySet().stream()
+                .filter(name -> !baseline.containsKey(name))
+                .forEach(name -> System.out.printf("%-70s %14s %14.3f%n", name, "-", candidate.get(name).score()));
+    }
+
+    private static Map<String, Result> read(File file) throws IOException {
+        Map<String, Result> results = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder name = new StringBuilder(run.path("benchmark").asText()
+                    .replace(BenchmarkComparison.class.getPackageName() + ".", "")).append(" [").append(run.path("mode").asText());
+            run.path("params").fields().forEachRemaining(param ->
+                    name.append(", ").append(param.getKey()).append('=').append(param.getValue().asText()));
+            name.append(']');
+            JsonNode metric = run.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            results.put(name.toString(), new Result(metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, metric.path("scoreUnit").asText()));
+        }
+        return results;
+    }
+
+    private record Result(double score, double error, String unit) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.ordermanagement.benchmark;
+
+import com.example.ordermanagement.event.*;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization and deserialization of every domain event, through the Axon serializer the
+ * event store uses. The object mapper is configured like Spring Boot's, which Axon picks up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSerializationBenchmark {
+
+    @Param({"OrderCreatedEvent", "ItemAddedToOrderEvent", "ItemRemovedFromOrderEvent", "OrderConfirmedEvent",
+            "OrderProcessedEvent", "OrderShippedEvent", "OrderCancelledEvent", "ShippingAddressUpdatedEvent"})
+    public String eventType;
+
+    private JacksonSerializer serializer;
+    private Object event;
+    private SerializedObject<byte[]> serialized;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        serializer = JacksonSerializer.builder()
+                .objectMapper(Jackson2ObjectMapperBuilder.json()
+                        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                        .build())
+                .build();
+        event = events().get(eventType);
+        if (event == null) {
+            throw new IllegalArgumentException("Unknown event type: " + eventType);
+        }
+        serialized = serializer.serialize(event, byte[].class);
+    }
+
+    @Benchmark
+    public SerializedObject<byte[]> serialize() {
+        return serializer.serialize(event, byte[].class);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(serialized);
+    }
+
+    private static Map<String, Object> events() {
+        String orderId = "0f8fad5b-d9cb-469f-a165-70867728950e";
+        LocalDateTime now = LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_000);
+        return Map.of(
+                "OrderCreatedEvent", new OrderCreatedEvent(orderId, "CUST-001", "Jane Doe", "jane@example.com", "1 Main St, Springfield", now),
+                "ItemAddedToOrderEvent", new ItemAddedToOrderEvent(orderId, "PROD-001", "Wireless Keyboard", 2, new BigDecimal("49.99"), now),
+                "ItemRemovedFromOrderEvent", new ItemRemovedFromOrderEvent(orderId, "PROD-001", now),
+                "OrderConfirmedEvent", new OrderConfirmedEvent(orderId, now),
+                "OrderProcessedEvent", new OrderProcessedEvent(orderId, now),
+                "OrderShippedEvent", new OrderShippedEvent(orderId, "TRACK-123456789", now),
+                "OrderCancelledEvent", new OrderCancelledEvent(orderId, "Customer changed their mind", now),
+                "ShippingAddressUpdatedEvent", new ShippingAddressUpdatedEvent(orderId, "2 Side St, Shelbyville", now));
+    }
+}
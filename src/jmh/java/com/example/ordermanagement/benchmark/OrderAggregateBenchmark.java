@@ -0,0 +1,115 @@
+package com.example.ordermanagement.benchmark;
+
+import com.example.ordermanagement.aggregate.Order;
+import com.example.ordermanagement.command.AddItemToOrderCommand;
+import com.example.ordermanagement.command.CreateOrderCommand;
+import com.example.ordermanagement.event.*;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.EventSourcingRepository;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.axonframework.modelling.command.Aggregate;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading an {@link Order} from its event stream, and handling commands on the loaded aggregate, for
+ * streams of several lengths. The stream is an order creation followed by item additions and removals
+ * over a rotating set of products, like a long-lived basket.
+ *
+ * Command benchmarks roll their unit of work back, so the staged events are never appended and every
+ * invocation sees the same stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderAggregateBenchmark {
+
+    private static final int PRODUCTS = 20;
+
+    @Param({"10", "100", "1000"})
+    public int streamLength;
+
+    private EmbeddedEventStore eventStore;
+    private EventSourcingRepository<Order> repository;
+    private String orderId;
+    private AddItemToOrderCommand addItem;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        eventStore = EmbeddedEventStore.builder().storageEngine(new InMemoryEventStorageEngine()).build();
+        repository = EventSourcingRepository.builder(Order.class).eventStore(eventStore).build();
+        orderId = UUID.randomUUID().toString();
+        eventStore.publish(stream(orderId, streamLength));
+        addItem = new AddItemToOrderCommand(orderId, "PROD-NEW", "New product", 1, new BigDecimal("9.99"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        eventStore.shutDown();
+    }
+
+    @Benchmark
+    public Long replay() throws Exception {
+        DefaultUnitOfWork<?> unitOfWork = DefaultUnitOfWork.startAndGet(null);
+        try {
+            return repository.load(orderId).version();
+        } finally {
+            unitOfWork.rollback();
+        }
+    }
+
+    @Benchmark
+    public Long addItem() throws Exception {
+        DefaultUnitOfWork<?> unitOfWork = DefaultUnitOfWork.startAndGet(null);
+        try {
+            Aggregate<Order> order = repository.load(orderId);
+            order.execute(aggregate -> aggregate.handle(addItem));
+            return order.version();
+        } finally {
+            unitOfWork.rollback();
+        }
+    }
+
+    @Benchmark
+    public Object createOrder() throws Exception {
+        DefaultUnitOfWork<?> unitOfWork = DefaultUnitOfWork.startAndGet(null);
+        try {
+            CreateOrderCommand command = new CreateOrderCommand(UUID.randomUUID().toString(),
+                    "CUST-1", "Jane Doe", "jane@example.com", "1 Main St");
+            return repository.newInstance(() -> new Order(command)).identifier();
+        } finally {
+            unitOfWork.rollback();
+        }
+    }
+
+    static List<DomainEventMessage<?>> stream(String orderId, int length) {
+        LocalDateTime now = LocalDateTime.now();
+        List<DomainEventMessage<?>> events = new ArrayList<>(length);
+        events.add(message(orderId, 0, new OrderCreatedEvent(orderId, "CUST-1", "Jane Doe", "jane@example.com", "1 Main St", now)));
+        for (int sequence = 1; sequence < length; sequence++) {
+            String productId = "PROD-" + (sequence % PRODUCTS);
+            Object payload = sequence % 5 == 0
+                    ? new ItemRemovedFromOrderEvent(orderId, productId, now)
+                    : new ItemAddedToOrderEvent(orderId, productId, "Product " + productId, sequence % 3 + 1,
+                            BigDecimal.valueOf(sequence % 100 + 1, 2), now);
+            events.add(message(orderId, sequence, payload));
+        }
+        return events;
+    }
+
+    private static DomainEventMessage<?> message(String orderId, long sequence, Object payload) {
+        return new GenericDomainEventMessage<>("Order", orderId, sequence, payload);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.ordermanagement.benchmark;
+
+import com.example.ordermanagement.OrderManagementApplication;
+import com.example.ordermanagement.event.*;
+import com.example.ordermanagement.handler.OrderEventHandler;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The order projection writing to the embedded H2 database of the test profile. Events are passed to
+ * {@link OrderEventHandler} directly, one transaction per event as an event processor would, so the
+ * numbers cover the projection and not the event store.
+ *
+ * Every invocation projects a new order, so the tables grow over a run like they do in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderEventHandlerBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private OrderEventHandler handler;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(OrderManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("logging.level.root=WARN",
+                        "logging.level.org.axonframework=WARN",
+                        "logging.level.com.example.ordermanagement=WARN")
+                .run();
+        handler = context.getBean(OrderEventHandler.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String createOrder() {
+        String orderId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(tx -> handler.on(
+                new OrderCreatedEvent(orderId, "CUST-1", "Jane Doe", "jane@example.com", "1 Main St", now), 0));
+        return orderId;
+    }
+
+    @Benchmark
+    public String orderLifecycle() {
+        String orderId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(tx -> handler.on(
+                new OrderCreatedEvent(orderId, "CUST-1", "Jane Doe", "jane@example.com", "1 Main St", now), 0));
+        transactionTemplate.executeWithoutResult(tx -> handler.on(
+                new ItemAddedToOrderEvent(orderId, "PROD-1", "Keyboard", 1, new BigDecimal("49.99"), now), 1));
+        transactionTemplate.executeWithoutResult(tx -> handler.on(
+                new ItemAddedToOrderEvent(orderId, "PROD-2", "Mouse", 2, new BigDecimal("19.99"), now), 2));
+        transactionTemplate.executeWithoutResult(tx -> handler.on(
+                new ItemRemovedFromOrderEvent(orderId, "PROD-2", now), 3));
+        transactionTemplate.executeWithoutResult(tx -> handler.on(new OrderConfirmedEvent(orderId, now), 4));
+        transactionTemplate.executeWithoutResult(tx -> handler.on(new OrderProcessedEvent(orderId, now), 5));
+        transactionTemplate.executeWithoutResult(tx -> handler.on(new OrderShippedEvent(orderId, "TRACK-1", now), 6));
+        return orderId;
+    }
+}
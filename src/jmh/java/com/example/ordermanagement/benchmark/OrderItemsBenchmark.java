@@ -0,0 +1,72 @@
+package com.example.ordermanagement.benchmark;
+
+import com.example.ordermanagement.aggregate.OrderItems;
+import com.example.ordermanagement.event.ItemAddedToOrderEvent;
+import com.example.ordermanagement.event.ItemRemovedFromOrderEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Item bookkeeping of the order aggregate for orders of several sizes. Every benchmark leaves the item
+ * list as it found it, so its size stays at {@code itemCount} throughout.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderItemsBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int itemCount;
+
+    private OrderItems items;
+    private ItemAddedToOrderEvent replaceExisting;
+    private ItemAddedToOrderEvent addNew;
+    private ItemRemovedFromOrderEvent removeNew;
+    private String lastProductId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        items = new OrderItems();
+        for (int i = 0; i < itemCount; i++) {
+            items.on(item("PROD-" + i, now));
+        }
+        lastProductId = "PROD-" + (itemCount - 1);
+        replaceExisting = item(lastProductId, now);
+        addNew = item("PROD-NEW", now);
+        removeNew = new ItemRemovedFromOrderEvent("ORDER-1", "PROD-NEW", now);
+    }
+
+    @Benchmark
+    public BigDecimal replaceItem() {
+        items.on(replaceExisting);
+        return items.getTotalAmount();
+    }
+
+    @Benchmark
+    public BigDecimal addAndRemoveItem() {
+        items.on(addNew);
+        items.on(removeNew);
+        return items.getTotalAmount();
+    }
+
+    @Benchmark
+    public BigDecimal totalAmount() {
+        return items.getTotalAmount();
+    }
+
+    @Benchmark
+    public boolean containsItem() {
+        return items.containsItem(lastProductId);
+    }
+
+    private static ItemAddedToOrderEvent item(String productId, LocalDateTime now) {
+        return new ItemAddedToOrderEvent("ORDER-1", productId, "Product " + productId, 2, new BigDecimal("19.99"), now);
+    }
+}
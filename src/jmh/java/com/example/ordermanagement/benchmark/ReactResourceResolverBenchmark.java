@@ -0,0 +1,67 @@
+package com.example.ordermanagement.benchmark;
+
+import com.example.ordermanagement.config.WebConfig;
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.lang.reflect.Constructor;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Static resource resolution through the single-page-app resolver of {@link WebConfig}, chained to a
+ * {@link PathResourceResolver} over {@code classpath:/static/} as the resource handler registry sets it
+ * up: API paths skipped, an existing asset, an existing page, and a client-side route falling back to
+ * {@code index.html}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReactResourceResolverBenchmark {
+
+    @Param({"api/orders", "index.html", "assets/index-Bh7rK_iq.js", "orders/ORDER-1/items"})
+    public String path;
+
+    private ResourceResolver resolver;
+    private ResourceResolverChain chain;
+    private List<Resource> locations;
+    private HttpServletRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // The resolver is an implementation detail of WebConfig
+        Constructor<?> constructor = Class.forName(WebConfig.class.getName() + "$ReactResourceResolver").getDeclaredConstructor();
+        constructor.setAccessible(true);
+        resolver = (ResourceResolver) constructor.newInstance();
+        chain = new PathResolverChain(new PathResourceResolver());
+        locations = List.of(new ClassPathResource("static/"));
+        request = new MockHttpServletRequest("GET", "/" + path);
+    }
+
+    @Benchmark
+    public Resource resolve() {
+        return resolver.resolveResource(request, path, locations, chain);
+    }
+
+    private record PathResolverChain(PathResourceResolver delegate) implements ResourceResolverChain {
+
+        @Override
+        public Resource resolveResource(HttpServletRequest request, String requestPath, List<? extends Resource> locations) {
+            return delegate.resolveResource(request, requestPath, locations, this);
+        }
+
+        @Override
+        public String resolveUrlPath(String resourcePath, List<? extends Resource> locations) {
+            return delegate.resolveUrlPath(resourcePath, locations, this);
+        }
+    }
+}
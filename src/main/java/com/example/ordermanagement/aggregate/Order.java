@@ -13,7 +13,7 @@ import org.axonframework.spring.stereotype.Aggregate;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
-@Aggregate
+@Aggregate(cache = OrderAggregateCache.BEAN_NAME)
 public class Order {
 
     @AggregateIdentifier
@@ -0,0 +1,192 @@
+package com.example.ordermanagement.aggregate;
+
+import com.example.ordermanagement.monitoring.HeapFootprint;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.axonframework.common.Registration;
+import org.axonframework.common.caching.Cache;
+import org.axonframework.eventsourcing.AggregateCacheEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Keeps recently used {@link Order} aggregates in memory, so commands on them skip reading their event
+ * streams, bounded by the estimated size of the cached orders and their items rather than their number.
+ *
+ * Axon caches an aggregate after every command that changes it and drops it when a unit of work fails, so
+ * the cache never holds state that was not committed. Metrics are published as the {@code cache.*} meters
+ * tagged {@code cache=orderAggregates}.
+ */
+@Component(OrderAggregateCache.BEAN_NAME)
+public class OrderAggregateCache implements Cache, HeapFootprint {
+
+    public static final String BEAN_NAME = "orderAggregateCache";
+
+    // Approximate cost of the cache node, the Axon cache entry and the Order with its member objects
+    private static final long ORDER_OVERHEAD_BYTES = 400;
+    private static final long ITEM_OVERHEAD_BYTES = 120;
+    // Axon has no accessor for the cached aggregate root, so it is read from the entry's private field
+    private static final Field AGGREGATE_ROOT = ReflectionUtils.findField(AggregateCacheEntry.class, "aggregateRoot", Object.class);
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache;
+    private final List<EntryListener> listeners = new CopyOnWriteArrayList<>();
+
+    public OrderAggregateCache(MeterRegistry meterRegistry,
+                               @Value("${order-management.cache.aggregates.max-size:64MB}") DataSize maxSize) {
+        // Weighing every entry as an empty order would let the cache outgrow its bound unnoticed
+        if (AGGREGATE_ROOT == null) {
+            throw new IllegalStateException("This Axon version's AggregateCacheEntry has no aggregateRoot field, "
+                    + "so cached orders can not be weighed; adapt OrderAggregateCache.aggregateRoot to it");
+        }
+        ReflectionUtils.makeAccessible(AGGREGATE_ROOT);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Object key, Object value) -> (int) Math.min(Integer.MAX_VALUE, estimateSize(value)))
+                .removalListener((Object key, Object value, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) {
+                        listeners.forEach(listener -> listener.onEntryExpired(key));
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "orderAggregates");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> V get(K key) {
+        V value = (V) cache.getIfPresent(key);
+        if (value != null) {
+            listeners.forEach(listener -> listener.onEntryRead(key, value));
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        boolean updated = cache.asMap().put(key, value) != null;
+        listeners.forEach(listener -> {
+            if (updated) {
+                listener.onEntryUpdated(key, value);
+            } else {
+                listener.onEntryCreated(key, value);
+            }
+        });
+    }
+
+    @Override
+    public boolean putIfAbsent(Object key, Object value) {
+        boolean created = cache.asMap().putIfAbsent(key, value) == null;
+        if (created) {
+            listeners.forEach(listener -> listener.onEntryCreated(key, value));
+        }
+        return created;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T computeIfAbsent(Object key, Supplier<T> valueSupplier) {
+        return (T) cache.get(key, k -> valueSupplier.get());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <V> void computeIfPresent(Object key, UnaryOperator<V> update) {
+        cache.asMap().computeIfPresent(key, (k, value) -> update.apply((V) value));
+    }
+
+    @Override
+    public boolean remove(Object key) {
+        boolean removed = cache.asMap().remove(key) != null;
+        if (removed) {
+            listeners.forEach(listener -> listener.onEntryRemoved(key));
+        }
+        return removed;
+    }
+
+    @Override
+    public void removeAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return cache.asMap().containsKey(key);
+    }
+
+    @Override
+    public Registration registerCacheEntryListener(EntryListener listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    @Override
+    public List<Usage> heapUsage() {
+        long orders = 0;
+        long orderBytes = 0;
+        long items = 0;
+        long itemBytes = 0;
+        for (Object value : cache.asMap().values()) {
+            Order order = aggregateRoot(value);
+            orders++;
+            orderBytes += orderBytes(order);
+            if (order != null && order.getOrderItems() != null) {
+                items += order.getOrderItems().getItems().size();
+                itemBytes += itemBytes(order);
+            }
+        }
+        return List.of(new Usage("order-aggregates", orders, orderBytes),
+                new Usage("order-aggregate-items", items, itemBytes));
+    }
+
+    @Override
+    public void relieve(Pressure pressure) {
+        // Evicted aggregates are simply loaded from the event store again
+        cache.invalidateAll();
+    }
+
+    private static long estimateSize(Object value) {
+        Order order = aggregateRoot(value);
+        return orderBytes(order) + itemBytes(order);
+    }
+
+    private static long orderBytes(Order order) {
+        return order == null ? ORDER_OVERHEAD_BYTES : ORDER_OVERHEAD_BYTES + strings(order.getOrderId(),
+                order.getCustomerId(), order.getCustomerName(), order.getCustomerEmail(), order.getShippingAddress());
+    }
+
+    private static long itemBytes(Order order) {
+        long size = 0;
+        if (order != null && order.getOrderItems() != null) {
+            for (OrderItems.OrderItem item : order.getOrderItems().getItems()) {
+                size += ITEM_OVERHEAD_BYTES + strings(item.getProductId(), item.getProductName());
+            }
+        }
+        return size;
+    }
+
+    private static Order aggregateRoot(Object value) {
+        if (!(value instanceof AggregateCacheEntry<?> entry)) {
+            return null;
+        }
+        return ReflectionUtils.getField(AGGREGATE_ROOT, entry) instanceof Order order ? order : null;
+    }
+
+    private static long strings(String... values) {
+        long size = 0;
+        for (String value : values) {
+            size += value == null ? 0 : 48 + value.length();
+        }
+        return size;
+    }
+}
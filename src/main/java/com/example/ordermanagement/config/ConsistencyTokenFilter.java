@@ -0,0 +1,115 @@
+package com.example.ordermanagement.config;
+
+import com.example.ordermanagement.query.ProjectionPositionTracker;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-your-writes consistency for the order API.
+ *
+ * Command responses carry an {@value #CONSISTENCY_TOKEN_HEADER} header with the head position of the
+ * event store once the command has completed, which covers every event it produced. A query that sends
+ * the token back, as the same header or as a {@value #CONSISTENCY_TOKEN_PARAMETER} parameter, is only
+ * handled once the order projection has committed up to that position. Queries without a token are not
+ * affected. While waiting, the request is parked in an async context rather than holding a thread; if the
+ * projection does not catch up within the configured wait, the query is answered with 503 and
+ * {@code Retry-After}.
+ */
+@Component
+public class ConsistencyTokenFilter extends OncePerRequestFilter {
+
+    public static final String CONSISTENCY_TOKEN_HEADER = "X-Consistency-Token";
+    public static final String CONSISTENCY_TOKEN_PARAMETER = "consistencyToken";
+
+    private static final String API_PREFIX = "/api/orders";
+    private static final String POSITION_REACHED = ConsistencyTokenFilter.class.getName() + ".POSITION_REACHED";
+
+    private final ProjectionPositionTracker positionTracker;
+    private final EventStore eventStore;
+    private final long maxWaitMillis;
+
+    public ConsistencyTokenFilter(ProjectionPositionTracker positionTracker, EventStore eventStore,
+                                  @Value("${order-management.consistency.max-wait:5s}") Duration maxWait) {
+        this.positionTracker = positionTracker;
+        this.eventStore = eventStore;
+        this.maxWaitMillis = maxWait.toMillis();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(API_PREFIX);
+    }
+
+    // Command endpoints return futures, so their outcome is only known on the async dispatch
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            if (isAsyncDispatch(request)) {
+                response.setHeader(CONSISTENCY_TOKEN_HEADER, Long.toString(headPosition()));
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String token = request.getHeader(CONSISTENCY_TOKEN_HEADER);
+        if (token == null) {
+            token = request.getParameter(CONSISTENCY_TOKEN_PARAMETER);
+        }
+        if (token == null || request.getAttribute(POSITION_REACHED) != null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long position;
+        try {
+            position = Long.parseLong(token.trim());
+        } catch (NumberFormatException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid consistency token");
+            return;
+        }
+        if (positionTracker.hasReached(position)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(maxWaitMillis * 2);
+        positionTracker.awaitPosition(position).copy()
+                .orTimeout(maxWaitMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((reached, failure) -> {
+                    if (failure == null) {
+                        request.setAttribute(POSITION_REACHED, Boolean.TRUE);
+                        asyncContext.dispatch();
+                    } else {
+                        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                        response.setHeader("Retry-After", "1");
+                        asyncContext.complete();
+                    }
+                });
+    }
+
+    private long headPosition() {
+        TrackingToken head = eventStore.createHeadToken();
+        return head == null ? -1 : head.position().orElse(-1);
+    }
+}
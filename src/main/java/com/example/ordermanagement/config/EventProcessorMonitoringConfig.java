@@ -0,0 +1,18 @@
+package com.example.ordermanagement.config;
+
+import com.example.ordermanagement.monitoring.EventProcessorMonitor;
+import org.axonframework.config.EventProcessingConfigurer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Puts the {@link EventProcessorMonitor} interceptor in front of the handlers of every event processor.
+ */
+@Configuration
+public class EventProcessorMonitoringConfig {
+
+    @Autowired
+    public void registerMonitor(EventProcessingConfigurer configurer, EventProcessorMonitor monitor) {
+        configurer.registerDefaultHandlerInterceptor((configuration, processorName) -> monitor.interceptor(processorName));
+    }
+}
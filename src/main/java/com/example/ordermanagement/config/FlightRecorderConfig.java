@@ -0,0 +1,45 @@
+package com.example.ordermanagement.config;
+
+import com.example.ordermanagement.monitoring.jfr.FlightRecorderCommandInterceptor;
+import com.example.ordermanagement.monitoring.jfr.FlightRecorderQueryInterceptor;
+import com.example.ordermanagement.monitoring.jfr.FlightRecordingEventStorageEngine;
+import org.axonframework.commandhandling.CommandBus;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Hooks the custom JFR events of {@code monitoring.jfr} into the command bus, the event storage engine and
+ * the order API. Event sourcing and projection handlers are covered by the
+ * {@link com.example.ordermanagement.monitoring.jfr.FlightRecorderHandlerEnhancer} bean. Start a recording
+ * with {@code jfr/order-management.jfc} to enable them.
+ */
+@Configuration
+public class FlightRecorderConfig implements WebMvcConfigurer {
+
+    @Bean
+    public static BeanPostProcessor flightRecordingEventStorageEngine() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof EventStorageEngine engine && !(bean instanceof FlightRecordingEventStorageEngine)
+                        ? new FlightRecordingEventStorageEngine(engine)
+                        : bean;
+            }
+        };
+    }
+
+    @Autowired
+    public void registerCommandInterceptor(CommandBus commandBus) {
+        commandBus.registerHandlerInterceptor(new FlightRecorderCommandInterceptor());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new FlightRecorderQueryInterceptor()).addPathPatterns("/api/orders/**");
+    }
+}
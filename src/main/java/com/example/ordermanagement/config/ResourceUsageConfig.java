@@ -0,0 +1,33 @@
+package com.example.ordermanagement.config;
+
+import com.example.ordermanagement.monitoring.CommandResourceUsageInterceptor;
+import com.example.ordermanagement.monitoring.RequestResourceUsageInterceptor;
+import com.example.ordermanagement.monitoring.ResourceUsageMeter;
+import org.axonframework.commandhandling.CommandBus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Measures allocation and CPU time of sampled API requests and commands with the {@link ResourceUsageMeter}.
+ */
+@Configuration
+public class ResourceUsageConfig implements WebMvcConfigurer {
+
+    private final ResourceUsageMeter meter;
+
+    public ResourceUsageConfig(ResourceUsageMeter meter) {
+        this.meter = meter;
+    }
+
+    @Autowired
+    public void registerCommandInterceptor(CommandBus commandBus) {
+        commandBus.registerHandlerInterceptor(new CommandResourceUsageInterceptor(meter));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestResourceUsageInterceptor(meter)).addPathPatterns("/api/**");
+    }
+}
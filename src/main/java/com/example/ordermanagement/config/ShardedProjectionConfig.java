@@ -0,0 +1,29 @@
+package com.example.ordermanagement.config;
+
+import com.example.ordermanagement.handler.ShardedOrderProjection;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.EventProcessingConfigurer;
+import org.axonframework.eventhandling.TrackingEventProcessorConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+/**
+ * Gives the sharded projection one tracking segment and one thread per shard. Axon routes events to
+ * segments by the same hash of the aggregate identifier that picks the shard, so each thread owns one
+ * shard as long as the segments are not split or merged at runtime. The projection is told how far each
+ * segment has got, so it can tell when a position has been committed by all of them.
+ */
+@org.springframework.context.annotation.Configuration
+@ConditionalOnProperty(name = "order-management.read-model.backend", havingValue = "sharded")
+public class ShardedProjectionConfig {
+
+    @Autowired
+    public void configureProcessor(EventProcessingConfigurer configurer, ShardedOrderProjection projection,
+                                   @Value("${order-management.read-model.sharded.shards:4}") int shards) {
+        configurer.registerTrackingEventProcessor(ShardedOrderProjection.PROCESSING_GROUP, Configuration::eventStore,
+                configuration -> TrackingEventProcessorConfiguration.forParallelProcessing(shards)
+                        .andInitialSegmentsCount(shards)
+                        .andEventTrackerStatusChangeListener(projection.progressListener()));
+    }
+}
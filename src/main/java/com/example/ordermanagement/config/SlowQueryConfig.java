@@ -0,0 +1,37 @@
+package com.example.ordermanagement.config;
+
+import com.example.ordermanagement.monitoring.sql.SlowQueryLog;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts a datasource-proxy in front of the application's data source that reports to the
+ * {@link SlowQueryLog}. Result sets are proxied as well, so queries are timed until their rows are read.
+ */
+@Configuration
+@ConditionalOnProperty(name = "order-management.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryConfig {
+
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourceProxy(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .listener(slowQueryLog.getObject().listener(dataSource))
+                        .proxyResultSet()
+                        .build();
+            }
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.ordermanagement.config;
+
+import com.example.ordermanagement.monitoring.tracing.TraceContext;
+import com.example.ordermanagement.monitoring.tracing.TracingInterceptors;
+import org.axonframework.commandhandling.CommandBus;
+import org.axonframework.config.EventProcessingConfigurer;
+import org.axonframework.messaging.correlation.CorrelationDataProvider;
+import org.axonframework.messaging.correlation.MessageOriginProvider;
+import org.axonframework.messaging.correlation.SimpleCorrelationDataProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Carries trace IDs from commands to the events they produce, and puts the {@link TracingInterceptors} on
+ * the command bus and every event processor.
+ */
+@Configuration
+public class TracingConfig {
+
+    // Declaring any correlation data provider replaces Axon's default one, so it is declared here as well
+    @Bean
+    public static CorrelationDataProvider messageOriginProvider() {
+        return new MessageOriginProvider();
+    }
+
+    @Bean
+    public static CorrelationDataProvider traceSampledProvider() {
+        return new SimpleCorrelationDataProvider(TraceContext.SAMPLED);
+    }
+
+    @Autowired
+    public void registerInterceptors(CommandBus commandBus, EventProcessingConfigurer configurer,
+                                     TracingInterceptors interceptors) {
+        commandBus.registerDispatchInterceptor(interceptors.commandDispatchInterceptor());
+        commandBus.registerHandlerInterceptor(interceptors.commandHandlerInterceptor());
+        configurer.registerDefaultHandlerInterceptor((configuration, processorName) ->
+                interceptors.eventHandlerInterceptor(processorName));
+    }
+}
@@ -1,36 +1,99 @@
 package com.example.ordermanagement.controller;
 
 import com.example.ordermanagement.command.*;
-import com.example.ordermanagement.query.OrderSummary;
-import com.example.ordermanagement.query.OrderSummaryRepository;
+import com.example.ordermanagement.config.ConsistencyTokenFilter;
+import com.example.ordermanagement.query.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.messaging.responsetypes.ResponseType;
+import org.axonframework.messaging.responsetypes.ResponseTypes;
+import org.axonframework.queryhandling.QueryGateway;
+import org.axonframework.queryhandling.SubscriptionQueryResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/orders")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = {OrderController.NEXT_CURSOR_HEADER, ConsistencyTokenFilter.CONSISTENCY_TOKEN_HEADER,
+        HttpHeaders.ETAG})
 @Tag(name = "Order Management", description = "APIs for managing e-commerce orders using CQRS and Event Sourcing")
 public class OrderController {
 
-    private final CommandGateway commandGateway;
-    private final OrderSummaryRepository orderSummaryRepository;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+    private static final int MAX_HISTOGRAM_BANDS = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
 
-    public OrderController(CommandGateway commandGateway, OrderSummaryRepository orderSummaryRepository) {
+    private final CommandGateway commandGateway;
+    private final QueryGateway queryGateway;
+    private final OrderQueryModel queryModel;
+    private final OrderSummaryExporter orderSummaryExporter;
+    private final OrderStatusStatisticsProjection statisticsProjection;
+    private final CustomerNameSearchIndex customerNameSearchIndex;
+    private final OrderChangeStream orderChangeStream;
+    private final OrderDetailCache orderDetailCache;
+    private final OrderRollupProjection rollupProjection;
+    private final OrderArchive orderArchive;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int updateBufferSize;
+
+    public OrderController(CommandGateway commandGateway, QueryGateway queryGateway, OrderQueryModel queryModel,
+                           OrderSummaryExporter orderSummaryExporter,
+                           OrderStatusStatisticsProjection statisticsProjection,
+                           CustomerNameSearchIndex customerNameSearchIndex,
+                           OrderChangeStream orderChangeStream,
+                           OrderDetailCache orderDetailCache,
+                           OrderRollupProjection rollupProjection,
+                           OrderArchive orderArchive,
+                           @Value("${order-management.pagination.default-page-size:50}") int defaultPageSize,
+                           @Value("${order-management.pagination.max-page-size:500}") int maxPageSize,
+                           @Value("${order-management.subscriptions.update-buffer-size:256}") int updateBufferSize) {
         this.commandGateway = commandGateway;
-        this.orderSummaryRepository = orderSummaryRepository;
+        this.queryGateway = queryGateway;
+        this.queryModel = queryModel;
+        this.orderSummaryExporter = orderSummaryExporter;
+        this.statisticsProjection = statisticsProjection;
+        this.customerNameSearchIndex = customerNameSearchIndex;
+        this.orderChangeStream = orderChangeStream;
+        this.orderDetailCache = orderDetailCache;
+        this.rollupProjection = rollupProjection;
+        this.orderArchive = orderArchive;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.updateBufferSize = updateBufferSize;
     }
 
     @PostMapping
@@ -212,101 +275,324 @@ public class OrderController {
     @GetMapping("/{orderId}")
     @Operation(
         summary = "Get order by ID",
-        description = "Retrieves a specific order by its ID"
+        description = "Retrieves a specific order by its ID. The ETag is the order's version; send it back in " +
+                      "If-None-Match to get 304 while the order is unchanged."
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Order found successfully",
-            content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderSummary.class))),
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderSummary.class)),
+            headers = @Header(name = HttpHeaders.ETAG, description = "Strong entity tag derived from the order version")),
+        @ApiResponse(responseCode = "304", description = "Order unchanged since the given ETag"),
         @ApiResponse(responseCode = "404", description = "Order not found")
     })
-    public ResponseEntity<OrderSummary> getOrder(
+    public ResponseEntity<byte[]> getOrder(
             @Parameter(description = "Order ID", required = true, example = "550e8400-e29b-41d4-a716-446655440000")
-            @PathVariable String orderId) {
-        return orderSummaryRepository.findById(orderId)
-                .map(ResponseEntity::ok)
+            @PathVariable String orderId,
+            @Parameter(description = "ETag of the copy the client already has")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            // Only the version is needed to answer a revalidation, so the order's items are never loaded
+            String currentETag = orderDetailCache.getVersion(orderId).map(OrderController::orderETag).orElse(null);
+            if (currentETag != null && matchesAny(ifNoneMatch, currentETag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentETag).build();
+            }
+        }
+        // Served as pre-serialized JSON from the detail cache
+        return orderDetailCache.get(orderId)
+                .map(entry -> ResponseEntity.ok()
+                        .eTag(orderETag(entry.getVersion()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(entry.getJson()))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping
     @Operation(
         summary = "Get all orders",
-        description = "Retrieves all orders in the system"
+        description = "Retrieves a page of orders in the system, ordered by creation time"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Orders retrieved successfully",
-            content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderSummary.class)))
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderSummary.class)),
+            headers = @Header(name = NEXT_CURSOR_HEADER, description = "Cursor for the next page; absent on the last page")),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
     })
-    public List<OrderSummary> getAllOrders() {
-        return orderSummaryRepository.findAll();
+    public ResponseEntity<List<OrderSummary>> getAllOrders(
+            @Parameter(description = "Opaque cursor returned in the " + NEXT_CURSOR_HEADER + " header of the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (defaults to the configured default, capped at the configured maximum)", example = "50")
+            @RequestParam(required = false) Integer size) {
+        return keysetPage(cursor, size, queryModel::findAll);
     }
 
     @GetMapping("/customer/{customerId}")
     @Operation(
         summary = "Get orders by customer",
-        description = "Retrieves all orders for a specific customer"
+        description = "Retrieves a page of orders for a specific customer, ordered by creation time"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Orders retrieved successfully",
-            content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderSummary.class)))
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderSummary.class)),
+            headers = @Header(name = NEXT_CURSOR_HEADER, description = "Cursor for the next page; absent on the last page")),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
     })
-    public List<OrderSummary> getOrdersByCustomer(
+    public ResponseEntity<List<OrderSummary>> getOrdersByCustomer(
             @Parameter(description = "Customer ID", required = true, example = "CUST-001")
-            @PathVariable String customerId) {
-        return orderSummaryRepository.findByCustomerId(customerId);
+            @PathVariable String customerId,
+            @Parameter(description = "Opaque cursor returned in the " + NEXT_CURSOR_HEADER + " header of the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (defaults to the configured default, capped at the configured maximum)", example = "50")
+            @RequestParam(required = false) Integer size) {
+        return keysetPage(cursor, size, (after, limit) -> queryModel.findByCustomerId(customerId, after, limit));
     }
 
     @GetMapping("/status/{status}")
     @Operation(
         summary = "Get orders by status",
-        description = "Retrieves all orders with a specific status"
+        description = "Retrieves a page of orders with a specific status, ordered by creation time"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Orders retrieved successfully",
-            content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderSummary.class))),
-        @ApiResponse(responseCode = "400", description = "Invalid status value")
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderSummary.class)),
+            headers = @Header(name = NEXT_CURSOR_HEADER, description = "Cursor for the next page; absent on the last page")),
+        @ApiResponse(responseCode = "400", description = "Invalid status value, cursor or page size")
     })
-    public List<OrderSummary> getOrdersByStatus(
+    public ResponseEntity<List<OrderSummary>> getOrdersByStatus(
             @Parameter(description = "Order status", required = true, example = "CREATED", 
                       schema = @Schema(allowableValues = {"CREATED", "CONFIRMED", "PROCESSED", "SHIPPED", "DELIVERED", "CANCELLED"}))
-            @PathVariable String status) {
+            @PathVariable String status,
+            @Parameter(description = "Opaque cursor returned in the " + NEXT_CURSOR_HEADER + " header of the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (defaults to the configured default, capped at the configured maximum)", example = "50")
+            @RequestParam(required = false) Integer size) {
         OrderSummary.OrderStatus orderStatus = OrderSummary.OrderStatus.valueOf(status.toUpperCase());
-        return orderSummaryRepository.findByStatus(orderStatus);
+        return keysetPage(cursor, size, (after, limit) -> queryModel.findByStatus(orderStatus, after, limit));
     }
 
     @GetMapping("/search")
     @Operation(
         summary = "Search orders by customer name",
-        description = "Searches for orders by customer name (partial match)"
+        description = "Searches for orders by customer name using the in-memory trigram index, one page at a time. " +
+                      "Matches anywhere in the name (CONTAINS) or at its start (PREFIX), case-insensitively by default."
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Orders retrieved successfully",
-            content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderSummary.class)))
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderSummary.class)),
+            headers = @Header(name = NEXT_CURSOR_HEADER, description = "Cursor for the next page; absent on the last page")),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
     })
-    public List<OrderSummary> searchOrdersByCustomerName(
+    public ResponseEntity<List<OrderSummary>> searchOrdersByCustomerName(
             @Parameter(description = "Customer name to search for", required = true, example = "John")
-            @RequestParam String customerName) {
-        return orderSummaryRepository.findByCustomerNameContaining(customerName);
+            @RequestParam String customerName,
+            @Parameter(description = "Where the search text must match", example = "CONTAINS")
+            @RequestParam(defaultValue = "CONTAINS") CustomerNameSearchIndex.MatchMode match,
+            @Parameter(description = "Whether to ignore case when matching", example = "true")
+            @RequestParam(defaultValue = "true") boolean ignoreCase,
+            @Parameter(description = "Opaque cursor returned in the " + NEXT_CURSOR_HEADER + " header of the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (defaults to the configured default, capped at the configured maximum)", example = "50")
+            @RequestParam(required = false) Integer size) {
+        CustomerNameSearchIndex.Page page;
+        try {
+            page = customerNameSearchIndex.search(customerName, match, ignoreCase, cursor, resolvePageSize(size));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+        }
+
+        List<OrderSummary> orders = queryModel.findAllById(page.getOrderIds());
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(collectionETag(orders, page.getNextCursor()));
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(orders);
     }
 
     @GetMapping("/min-amount/{minAmount}")
     @Operation(
         summary = "Get orders by minimum amount",
-        description = "Retrieves all orders with a total amount greater than or equal to the specified value"
+        description = "Retrieves a page of orders with a total amount greater than or equal to the specified value"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Orders retrieved successfully",
-            content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderSummary.class)))
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderSummary.class)),
+            headers = @Header(name = NEXT_CURSOR_HEADER, description = "Cursor for the next page; absent on the last page")),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
     })
-    public List<OrderSummary> getOrdersByMinAmount(
+    public ResponseEntity<List<OrderSummary>> getOrdersByMinAmount(
+            @Parameter(description = "Minimum order amount", required = true, example = "100.00")
+            @PathVariable BigDecimal minAmount,
+            @Parameter(description = "Opaque cursor returned in the " + NEXT_CURSOR_HEADER + " header of the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (defaults to the configured default, capped at the configured maximum)", example = "50")
+            @RequestParam(required = false) Integer size,
+            @Parameter(description = "Sort order: createdAt, totalAmount or totalAmount,desc", example = "totalAmount,desc")
+            @RequestParam(defaultValue = "createdAt") String sort) {
+        switch (sort) {
+            case "createdAt":
+                return keysetPage(cursor, size, (after, limit) -> queryModel.findByMinAmount(minAmount, after, limit));
+            case "totalAmount":
+            case "totalAmount,asc":
+                return keysetPage(cursor, size, OrderAmountCursor::decode, order -> OrderAmountCursor.after(order).encode(),
+                        (after, limit) -> queryModel.findByMinAmountOrderByAmount(minAmount, false, after, limit));
+            case "totalAmount,desc":
+                return keysetPage(cursor, size, OrderAmountCursor::decode, order -> OrderAmountCursor.after(order).encode(),
+                        (after, limit) -> queryModel.findByMinAmountOrderByAmount(minAmount, true, after, limit));
+            default:
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported sort order: " + sort);
+        }
+    }
+
+    @GetMapping("/min-amount/{minAmount}/count")
+    @Operation(
+        summary = "Count orders by minimum amount",
+        description = "Counts orders with a total amount greater than or equal to the specified value without loading them"
+    )
+    public long countOrdersByMinAmount(
             @Parameter(description = "Minimum order amount", required = true, example = "100.00")
             @PathVariable BigDecimal minAmount) {
-        return orderSummaryRepository.findByTotalAmountGreaterThanEqual(minAmount);
+        return queryModel.countByAmount(minAmount, null);
+    }
+
+    @GetMapping("/statistics/amount-histogram")
+    @Operation(
+        summary = "Get order amount histogram",
+        description = "Counts orders per total amount band without loading them. Each band runs from one bound " +
+                      "(inclusive) to the next (exclusive); the last band is open-ended and orders below the first " +
+                      "bound are not counted"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Histogram computed successfully"),
+        @ApiResponse(responseCode = "400", description = "Bounds missing, not strictly ascending or too many")
+    })
+    public List<OrderAmountBand> getAmountHistogram(
+            @Parameter(description = "Strictly ascending band bounds", required = true, example = "0,50,100,500")
+            @RequestParam List<BigDecimal> bounds) {
+        if (bounds.isEmpty() || bounds.size() > MAX_HISTOGRAM_BANDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Between 1 and " + MAX_HISTOGRAM_BANDS + " bounds are required");
+        }
+        for (int i = 1; i < bounds.size(); i++) {
+            if (bounds.get(i).compareTo(bounds.get(i - 1)) <= 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bounds must be strictly ascending");
+            }
+        }
+        return queryModel.amountHistogram(bounds);
+    }
+
+    @GetMapping(value = "/export", produces = NDJSON_MEDIA_TYPE)
+    @Operation(
+        summary = "Export orders as NDJSON",
+        description = "Streams every matching order as one JSON document per line, ordered by creation time. " +
+                      "Rows are read through a database cursor, so the export size is not limited by server memory."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed successfully",
+            content = @Content(mediaType = NDJSON_MEDIA_TYPE, schema = @Schema(implementation = OrderSummary.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid status value")
+    })
+    public void exportOrders(
+            @Parameter(description = "Only export orders with this status", example = "SHIPPED",
+                      schema = @Schema(allowableValues = {"CREATED", "CONFIRMED", "PROCESSED", "SHIPPED", "DELIVERED", "CANCELLED"}))
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Only export orders for this customer", example = "CUST-001")
+            @RequestParam(required = false) String customerId,
+            @Parameter(description = "Only export orders updated at or after this time (inclusive)", example = "2024-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedFrom,
+            @Parameter(description = "Only export orders updated before this time (exclusive)", example = "2024-01-02T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedTo,
+            HttpServletResponse response) throws IOException {
+        OrderSummary.OrderStatus orderStatus = status == null ? null : OrderSummary.OrderStatus.valueOf(status.toUpperCase());
+
+        response.setContentType(NDJSON_MEDIA_TYPE);
+        response.setCharacterEncoding("UTF-8");
+        orderSummaryExporter.export(orderStatus, customerId, updatedFrom, updatedTo, response.getOutputStream());
+    }
+
+    @GetMapping(value = "/{orderId}/updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Subscribe to an order",
+        description = "Streams the current state of the order as an 'initial' event, followed by an 'update' event " +
+                      "with the full order every time the projection changes it"
+    )
+    @ApiResponse(responseCode = "200", description = "Subscription established")
+    public Flux<ServerSentEvent<Object>> subscribeToOrder(
+            @Parameter(description = "Order ID", required = true, example = "550e8400-e29b-41d4-a716-446655440000")
+            @PathVariable String orderId) {
+        return subscribe(new FindOrderQuery(orderId), ResponseTypes.instanceOf(OrderSummary.class));
+    }
+
+    @GetMapping(value = "/customer/{customerId}/updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Subscribe to a customer's orders",
+        description = "Streams the first page of the customer's orders as an 'initial' event, followed by an 'update' " +
+                      "event for every change to any of the customer's orders"
+    )
+    @ApiResponse(responseCode = "200", description = "Subscription established")
+    public Flux<ServerSentEvent<Object>> subscribeToOrdersByCustomer(
+            @Parameter(description = "Customer ID", required = true, example = "CUST-001")
+            @PathVariable String customerId,
+            @Parameter(description = "Size of the initial page", example = "50")
+            @RequestParam(required = false) Integer size) {
+        return subscribe(new FindOrdersByCustomerQuery(customerId, null, resolvePageSize(size)),
+                ResponseTypes.multipleInstancesOf(OrderSummary.class));
+    }
+
+    @GetMapping(value = "/status/{status}/updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Subscribe to orders by status",
+        description = "Streams the first page of orders with the status as an 'initial' event, followed by an 'update' " +
+                      "event for every order that enters or leaves the status or changes while in it"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Subscription established"),
+        @ApiResponse(responseCode = "400", description = "Invalid status value")
+    })
+    public Flux<ServerSentEvent<Object>> subscribeToOrdersByStatus(
+            @Parameter(description = "Order status", required = true, example = "CREATED",
+                      schema = @Schema(allowableValues = {"CREATED", "CONFIRMED", "PROCESSED", "SHIPPED", "DELIVERED", "CANCELLED"}))
+            @PathVariable String status,
+            @Parameter(description = "Size of the initial page", example = "50")
+            @RequestParam(required = false) Integer size) {
+        OrderSummary.OrderStatus orderStatus = OrderSummary.OrderStatus.valueOf(status.toUpperCase());
+        return subscribe(new FindOrdersByStatusQuery(orderStatus, null, resolvePageSize(size)),
+                ResponseTypes.multipleInstancesOf(OrderSummary.class));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Stream order changes",
+        description = "Streams an 'order' event with the full order for every projection change matching all given " +
+                      "filters. Event ids are event stream positions; reconnect with Last-Event-ID to resume. A 'reset' " +
+                      "event means changes could not be delivered and the client should re-read the current state."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream established"),
+        @ApiResponse(responseCode = "400", description = "Invalid status value or Last-Event-ID"),
+        @ApiResponse(responseCode = "503", description = "Subscriber limit reached")
+    })
+    public SseEmitter streamOrderChanges(
+            @Parameter(description = "Only stream changes to this order")
+            @RequestParam(required = false) String orderId,
+            @Parameter(description = "Only stream changes to this customer's orders", example = "CUST-001")
+            @RequestParam(required = false) String customerId,
+            @Parameter(description = "Only stream orders entering, leaving or changing within this status", example = "CONFIRMED",
+                      schema = @Schema(allowableValues = {"CREATED", "CONFIRMED", "PROCESSED", "SHIPPED", "DELIVERED", "CANCELLED"}))
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Position of the last event received, sent automatically by EventSource on reconnect")
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        OrderSummary.OrderStatus orderStatus = status == null ? null : OrderSummary.OrderStatus.valueOf(status.toUpperCase());
+        try {
+            return orderChangeStream.subscribe(orderId, customerId, orderStatus, lastEventId);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
+        }
     }
 
     @GetMapping("/statistics/status/{status}/count")
     @Operation(
         summary = "Get order count by status",
-        description = "Returns the count of orders with a specific status"
+        description = "Returns the count of orders with a specific status from the incrementally maintained statistics"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Count retrieved successfully",
@@ -317,13 +603,13 @@ public class OrderController {
                       schema = @Schema(allowableValues = {"CREATED", "CONFIRMED", "PROCESSED", "SHIPPED", "DELIVERED", "CANCELLED"}))
             @PathVariable String status) {
         OrderSummary.OrderStatus orderStatus = OrderSummary.OrderStatus.valueOf(status.toUpperCase());
-        return orderSummaryRepository.countByStatus(orderStatus);
+        return statisticsProjection.get(orderStatus).getOrderCount();
     }
 
     @GetMapping("/statistics/status/{status}/average")
     @Operation(
         summary = "Get average order value by status",
-        description = "Returns the average order value for orders with a specific status"
+        description = "Returns the average order value for orders with a specific status from the incrementally maintained statistics"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Average value retrieved successfully",
@@ -335,11 +621,155 @@ public class OrderController {
                       schema = @Schema(allowableValues = {"CREATED", "CONFIRMED", "PROCESSED", "SHIPPED", "DELIVERED", "CANCELLED"}))
             @PathVariable String status) {
         OrderSummary.OrderStatus orderStatus = OrderSummary.OrderStatus.valueOf(status.toUpperCase());
-        return orderSummaryRepository.getAverageOrderValueByStatus(orderStatus)
+        return statisticsProjection.get(orderStatus).getAverageOrderValue()
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @PostMapping("/statistics/status/reconcile")
+    @Operation(
+        summary = "Reconcile status statistics",
+        description = "Recomputes the per-status count and value statistics from a full scan of the order table"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Statistics reconciled successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderStatusStatistics.class)))
+    })
+    public List<OrderStatusStatistics> reconcileStatusStatistics() {
+        return statisticsProjection.reconcile();
+    }
+
+    @PostMapping("/archive")
+    @Operation(
+        summary = "Archive terminal orders",
+        description = "Moves orders that have been shipped or cancelled for longer than the configured period out of " +
+                      "the order tables into compressed archive files. Archived orders are still served by the order " +
+                      "lookup and export endpoints, but no longer appear in lists and searches"
+    )
+    @ApiResponse(responseCode = "200", description = "Number of orders archived",
+        content = @Content(mediaType = "application/json", schema = @Schema(example = "1200")))
+    public long archiveOrders() throws IOException {
+        return orderArchive.archive();
+    }
+
+    @GetMapping("/statistics/rollups")
+    @Operation(
+        summary = "Get order rollups over a time range",
+        description = "Returns, per minute, hour or day, the number and value of orders entering each status, " +
+                      "read from incrementally maintained rollups. Buckets without any transitions are omitted."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Rollups retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderRollupBucket.class))),
+        @ApiResponse(responseCode = "400", description = "Reversed range, or too many buckets for the granularity")
+    })
+    public List<OrderRollupBucket> getOrderRollups(
+            @Parameter(description = "Bucket size", example = "HOUR",
+                      schema = @Schema(allowableValues = {"MINUTE", "HOUR", "DAY"}))
+            @RequestParam(defaultValue = "HOUR") String granularity,
+            @Parameter(description = "Start of the range, inclusive of its bucket", required = true, example = "2024-06-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "End of the range, inclusive of its bucket", required = true, example = "2024-06-30T23:59:59")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        OrderRollup.Granularity bucketSize = OrderRollup.Granularity.valueOf(granularity.toUpperCase());
+        try {
+            return rollupProjection.query(bucketSize, from, to);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    private ResponseEntity<List<OrderSummary>> keysetPage(String cursor, Integer size,
+                                                          BiFunction<OrderCursor, Integer, List<OrderSummary>> query) {
+        return keysetPage(cursor, size, OrderCursor::decode, order -> OrderCursor.after(order).encode(), query);
+    }
+
+    private <C> ResponseEntity<List<OrderSummary>> keysetPage(String cursor, Integer size, Function<String, C> decoder,
+                                                              Function<OrderSummary, String> nextCursorOf,
+                                                              BiFunction<C, Integer, List<OrderSummary>> query) {
+        int pageSize = resolvePageSize(size);
+        C after = cursor == null ? null : decodeCursor(cursor, decoder);
+        // Fetch one extra row so we know whether a next page exists without issuing a COUNT
+        List<OrderSummary> rows = query.apply(after, pageSize + 1);
+
+        // Spring answers If-None-Match with 304 from the ETag alone, so unchanged pages are never serialized
+        if (rows.size() <= pageSize) {
+            return ResponseEntity.ok().eTag(collectionETag(rows, null)).body(rows);
+        }
+        List<OrderSummary> page = rows.subList(0, pageSize);
+        String nextCursor = nextCursorOf.apply(page.get(pageSize - 1));
+        return ResponseEntity.ok()
+                .eTag(collectionETag(page, nextCursor))
+                .header(NEXT_CURSOR_HEADER, nextCursor)
+                .body(page);
+    }
+
+    private static String orderETag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // Changes whenever an order on the page changes version, or the page gains, loses or reorders orders
+    private static String collectionETag(List<OrderSummary> orders, String nextCursor) {
+        StringBuilder fingerprint = new StringBuilder(orders.size() * 48);
+        for (OrderSummary order : orders) {
+            fingerprint.append(order.getOrderId()).append(':').append(order.getVersion()).append(';');
+        }
+        fingerprint.append(nextCursor);
+        return "\"" + DigestUtils.md5DigestAsHex(fingerprint.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    // If-None-Match uses weak comparison and may list several tags or "*"
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Bridges a subscription query to server-sent events. Each subscriber gets its own bounded update
+     * buffer: when a client reads slower than orders change, the oldest pending updates are dropped
+     * rather than queued without limit.
+     */
+    private <I> Flux<ServerSentEvent<Object>> subscribe(Object query, ResponseType<I> initialResponseType) {
+        SubscriptionQueryResult<I, OrderSummary> result = queryGateway.subscriptionQuery(query.getClass().getName(), query,
+                initialResponseType, ResponseTypes.instanceOf(OrderSummary.class), updateBufferSize);
+
+        Flux<ServerSentEvent<Object>> initial = result.initialResult()
+                .map(body -> ServerSentEvent.builder((Object) body).event("initial").build())
+                .flux();
+        Flux<ServerSentEvent<Object>> updates = result.updates()
+                .onBackpressureBuffer(updateBufferSize,
+                        dropped -> logger.debug("Dropped update for order {} on a slow subscription", dropped.getOrderId()),
+                        BufferOverflowStrategy.DROP_OLDEST)
+                .map(order -> ServerSentEvent.builder((Object) order).event("update").build());
+        return Flux.concat(initial, updates).doFinally(signal -> result.close());
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page size must be positive");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private static <C> C decodeCursor(String cursor, Function<String, C> decoder) {
+        try {
+            return decoder.apply(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+        }
+    }
+
     // Request/Response DTOs
     @Schema(description = "Request to create a new order")
     public static class CreateOrderRequest {
@@ -0,0 +1,24 @@
+package com.example.ordermanagement.handler;
+
+import com.example.ordermanagement.event.OrderCreatedEvent;
+import com.example.ordermanagement.query.CustomerNameSearchIndex;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CustomerNameSearchEventHandler {
+
+    private final CustomerNameSearchIndex searchIndex;
+
+    public CustomerNameSearchEventHandler(CustomerNameSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @EventHandler
+    public void on(OrderCreatedEvent event, UnitOfWork<?> unitOfWork) {
+        // The index is not transactional; only add once the batch (and the order row) is committed,
+        // so a rolled back and retried batch cannot index the same order twice
+        unitOfWork.afterCommit(uow -> searchIndex.add(event.getOrderId(), event.getCustomerName()));
+    }
+}
@@ -1,23 +1,60 @@
 package com.example.ordermanagement.handler;
 
 import com.example.ordermanagement.event.*;
-import com.example.ordermanagement.query.OrderItemSummary;
-import com.example.ordermanagement.query.OrderSummary;
-import com.example.ordermanagement.query.OrderSummaryRepository;
+import com.example.ordermanagement.query.*;
 import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.SequenceNumber;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.queryhandling.QueryUpdateEmitter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Projects orders into order_summaries and keeps the statistics, rollups, caches, change stream and
+ * consistency-token position in step with it. Not created with the sharded backend, where
+ * {@link ShardedOrderProjection} does all of this instead.
+ */
 @Component
+@ConditionalOnExpression("'${order-management.read-model.backend:jpa}' != 'sharded'")
 public class OrderEventHandler {
 
     private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderItemSummaryRepository orderItemSummaryRepository;
+    private final OrderStatusStatisticsProjection statisticsProjection;
+    private final ObjectProvider<InMemoryOrderReadModel> inMemoryReadModel;
+    private final QueryUpdateEmitter queryUpdateEmitter;
+    private final OrderChangeStream changeStream;
+    private final ProjectionPositionTracker positionTracker;
+    private final OrderDetailCache orderDetailCache;
+    private final OrderRollupProjection rollupProjection;
 
-    public OrderEventHandler(OrderSummaryRepository orderSummaryRepository) {
+    public OrderEventHandler(OrderSummaryRepository orderSummaryRepository,
+                             OrderItemSummaryRepository orderItemSummaryRepository,
+                             OrderStatusStatisticsProjection statisticsProjection,
+                             ObjectProvider<InMemoryOrderReadModel> inMemoryReadModel,
+                             QueryUpdateEmitter queryUpdateEmitter,
+                             OrderChangeStream changeStream,
+                             ProjectionPositionTracker positionTracker,
+                             OrderDetailCache orderDetailCache,
+                             OrderRollupProjection rollupProjection) {
         this.orderSummaryRepository = orderSummaryRepository;
+        this.orderItemSummaryRepository = orderItemSummaryRepository;
+        this.statisticsProjection = statisticsProjection;
+        this.inMemoryReadModel = inMemoryReadModel;
+        this.queryUpdateEmitter = queryUpdateEmitter;
+        this.changeStream = changeStream;
+        this.positionTracker = positionTracker;
+        this.orderDetailCache = orderDetailCache;
+        this.rollupProjection = rollupProjection;
     }
 
     @EventHandler
-    public void on(OrderCreatedEvent event) {
+    public void on(OrderCreatedEvent event, @SequenceNumber long sequenceNumber) {
         OrderSummary orderSummary = new OrderSummary(
                 event.getOrderId(),
                 event.getCustomerId(),
@@ -28,95 +65,209 @@ public class OrderEventHandler {
         orderSummary.setCreatedAt(event.getCreatedAt());
         orderSummary.setUpdatedAt(event.getCreatedAt());
         
+        orderSummary.setVersion(sequenceNumber);
         orderSummaryRepository.save(orderSummary);
+        
+        publish(orderSummary, orderSummary.getStatus(), sequenceNumber);
+        statisticsProjection.adjust(orderSummary.getStatus(), 1, BigDecimal.ZERO);
+        rollupProjection.record(orderSummary.getStatus(), event.getCreatedAt(), BigDecimal.ZERO);
     }
 
     @EventHandler
-    public void on(ItemAddedToOrderEvent event) {
+    public void on(ItemAddedToOrderEvent event, @SequenceNumber long sequenceNumber) {
         OrderSummary orderSummary = orderSummaryRepository.findById(event.getOrderId())
                 .orElseThrow(() -> new RuntimeException("Order not found: " + event.getOrderId()));
+        BigDecimal previousTotal = orderSummary.getTotalAmount();
+        if (orderSummary.takeRemoval(event.getProductId())) {
+            orderItemSummaryRepository.flush();
+        }
 
-        // Remove existing item if it exists
-        orderSummary.removeItem(event.getProductId());
-        
-        // Add new item
-        OrderItemSummary item = new OrderItemSummary(
+        // Re-adding a product replaces its line in place
+        orderSummary.upsertItem(
                 event.getProductId(),
                 event.getProductName(),
                 event.getQuantity(),
                 event.getPrice()
         );
-        orderSummary.addItem(item);
         orderSummary.setUpdatedAt(event.getAddedAt());
         
+        orderSummary.setVersion(sequenceNumber);
         orderSummaryRepository.save(orderSummary);
+        
+        publish(orderSummary, orderSummary.getStatus(), sequenceNumber);
+        adjustTotal(orderSummary, previousTotal);
     }
 
     @EventHandler
-    public void on(ItemRemovedFromOrderEvent event) {
+    public void on(ItemRemovedFromOrderEvent event, @SequenceNumber long sequenceNumber) {
         OrderSummary orderSummary = orderSummaryRepository.findById(event.getOrderId())
                 .orElseThrow(() -> new RuntimeException("Order not found: " + event.getOrderId()));
+        BigDecimal previousTotal = orderSummary.getTotalAmount();
 
-        orderSummary.removeItem(event.getProductId());
+        // A line added earlier in the same transaction is not yet an orphan Hibernate would detect
+        orderSummary.removeItem(event.getProductId()).ifPresent(orderItemSummaryRepository::delete);
         orderSummary.setUpdatedAt(event.getRemovedAt());
         
+        orderSummary.setVersion(sequenceNumber);
         orderSummaryRepository.save(orderSummary);
+        
+        publish(orderSummary, orderSummary.getStatus(), sequenceNumber);
+        adjustTotal(orderSummary, previousTotal);
     }
 
     @EventHandler
-    public void on(OrderConfirmedEvent event) {
+    public void on(OrderConfirmedEvent event, @SequenceNumber long sequenceNumber) {
         OrderSummary orderSummary = orderSummaryRepository.findById(event.getOrderId())
                 .orElseThrow(() -> new RuntimeException("Order not found: " + event.getOrderId()));
 
-        orderSummary.setStatus(OrderSummary.OrderStatus.CONFIRMED);
+        OrderSummary.OrderStatus previousStatus = changeStatus(orderSummary, OrderSummary.OrderStatus.CONFIRMED, event.getConfirmedAt());
         orderSummary.setUpdatedAt(event.getConfirmedAt());
         
+        orderSummary.setVersion(sequenceNumber);
         orderSummaryRepository.save(orderSummary);
+        
+        publish(orderSummary, previousStatus, sequenceNumber);
     }
 
     @EventHandler
-    public void on(OrderProcessedEvent event) {
+    public void on(OrderProcessedEvent event, @SequenceNumber long sequenceNumber) {
         OrderSummary orderSummary = orderSummaryRepository.findById(event.getOrderId())
                 .orElseThrow(() -> new RuntimeException("Order not found: " + event.getOrderId()));
 
-        orderSummary.setStatus(OrderSummary.OrderStatus.PROCESSED);
+        OrderSummary.OrderStatus previousStatus = changeStatus(orderSummary, OrderSummary.OrderStatus.PROCESSED, event.getProcessedAt());
         orderSummary.setUpdatedAt(event.getProcessedAt());
         
+        orderSummary.setVersion(sequenceNumber);
         orderSummaryRepository.save(orderSummary);
+        
+        publish(orderSummary, previousStatus, sequenceNumber);
     }
 
     @EventHandler
-    public void on(OrderShippedEvent event) {
+    public void on(OrderShippedEvent event, @SequenceNumber long sequenceNumber) {
         OrderSummary orderSummary = orderSummaryRepository.findById(event.getOrderId())
                 .orElseThrow(() -> new RuntimeException("Order not found: " + event.getOrderId()));
 
-        orderSummary.setStatus(OrderSummary.OrderStatus.SHIPPED);
+        OrderSummary.OrderStatus previousStatus = changeStatus(orderSummary, OrderSummary.OrderStatus.SHIPPED, event.getShippedAt());
         orderSummary.setTrackingNumber(event.getTrackingNumber());
         orderSummary.setUpdatedAt(event.getShippedAt());
         
+        orderSummary.setVersion(sequenceNumber);
         orderSummaryRepository.save(orderSummary);
+        
+        publish(orderSummary, previousStatus, sequenceNumber);
     }
 
     @EventHandler
-    public void on(OrderCancelledEvent event) {
+    public void on(OrderCancelledEvent event, @SequenceNumber long sequenceNumber) {
         OrderSummary orderSummary = orderSummaryRepository.findById(event.getOrderId())
                 .orElseThrow(() -> new RuntimeException("Order not found: " + event.getOrderId()));
 
-        orderSummary.setStatus(OrderSummary.OrderStatus.CANCELLED);
+        OrderSummary.OrderStatus previousStatus = changeStatus(orderSummary, OrderSummary.OrderStatus.CANCELLED, event.getCancelledAt());
         orderSummary.setCancellationReason(event.getReason());
         orderSummary.setUpdatedAt(event.getCancelledAt());
         
+        orderSummary.setVersion(sequenceNumber);
         orderSummaryRepository.save(orderSummary);
+        
+        publish(orderSummary, previousStatus, sequenceNumber);
     }
 
     @EventHandler
-    public void on(ShippingAddressUpdatedEvent event) {
+    public void on(ShippingAddressUpdatedEvent event, @SequenceNumber long sequenceNumber) {
         OrderSummary orderSummary = orderSummaryRepository.findById(event.getOrderId())
                 .orElseThrow(() -> new RuntimeException("Order not found: " + event.getOrderId()));
 
         orderSummary.setShippingAddress(event.getShippingAddress());
         orderSummary.setUpdatedAt(event.getTimestamp());
 
+        orderSummary.setVersion(sequenceNumber);
         orderSummaryRepository.save(orderSummary);
+
+        publish(orderSummary, orderSummary.getStatus(), sequenceNumber);
+    }
+
+    /**
+     * Hands a snapshot to the in-memory read model, if enabled, the order detail cache, the SSE change
+     * stream and matching subscription queries once the projection transaction has committed, then records
+     * the position. Status subscribers are told about orders both entering and leaving their status, so
+     * they can drop the latter. The snapshot is only taken when one of them will use it.
+     */
+    private void publish(OrderSummary orderSummary, OrderSummary.OrderStatus previousStatus, long sequenceNumber) {
+        InMemoryOrderReadModel readModel = inMemoryReadModel.getIfAvailable();
+        long position = eventPosition();
+        boolean streamed = position >= 0 && changeStream.isRecording();
+        boolean queried = !queryUpdateEmitter.activeSubscriptions().isEmpty();
+        String orderId = orderSummary.getOrderId();
+        OrderSummary snapshot = readModel != null || streamed || queried || orderDetailCache.contains(orderId)
+                ? orderSummary.detachedCopy()
+                : null;
+        Runnable afterCommit = () -> {
+            if (readModel != null) {
+                readModel.put(snapshot, sequenceNumber);
+            }
+            if (snapshot != null) {
+                orderDetailCache.refresh(snapshot);
+            } else {
+                // A lookup may have cached the state before this change since the check above
+                orderDetailCache.evictOlderThan(orderId, sequenceNumber);
+            }
+            if (position >= 0) {
+                if (streamed) {
+                    changeStream.publish(position, snapshot, previousStatus);
+                } else {
+                    changeStream.skip(position);
+                }
+                // Last, so consistency-token waiters only proceed once every view reflects the change
+                positionTracker.advanceTo(position);
+            }
+        };
+        if (CurrentUnitOfWork.isStarted()) {
+            CurrentUnitOfWork.get().afterCommit(unitOfWork -> afterCommit.run());
+        } else {
+            afterCommit.run();
+        }
+
+        if (!queried) {
+            return;
+        }
+        // The emitter itself defers these until the unit of work commits
+        queryUpdateEmitter.emit(FindOrderQuery.class,
+                query -> query.getOrderId().equals(snapshot.getOrderId()), snapshot);
+        queryUpdateEmitter.emit(FindAllOrdersQuery.class, query -> true, snapshot);
+        queryUpdateEmitter.emit(FindOrdersByCustomerQuery.class,
+                query -> query.getCustomerId().equals(snapshot.getCustomerId()), snapshot);
+        queryUpdateEmitter.emit(FindOrdersByStatusQuery.class,
+                query -> query.getStatus() == snapshot.getStatus() || query.getStatus() == previousStatus, snapshot);
+        queryUpdateEmitter.emit(FindOrdersByMinAmountQuery.class,
+                query -> snapshot.getTotalAmount().compareTo(query.getMinAmount()) >= 0, snapshot);
+    }
+
+    // Global position of the event being handled, or -1 when it was not read from the event stream
+    private static long eventPosition() {
+        if (CurrentUnitOfWork.isStarted()
+                && CurrentUnitOfWork.get().getMessage() instanceof TrackedEventMessage<?> tracked
+                && tracked.trackingToken() != null) {
+            return tracked.trackingToken().position().orElse(-1);
+        }
+        return -1;
+    }
+
+    // Keeps the per-status statistics and rollups in step with the projection, in the same transaction
+    private OrderSummary.OrderStatus changeStatus(OrderSummary orderSummary, OrderSummary.OrderStatus newStatus,
+                                                  LocalDateTime changedAt) {
+        OrderSummary.OrderStatus previousStatus = orderSummary.getStatus();
+        statisticsProjection.adjust(previousStatus, -1, orderSummary.getTotalAmount().negate());
+        statisticsProjection.adjust(newStatus, 1, orderSummary.getTotalAmount());
+        rollupProjection.record(newStatus, changedAt, orderSummary.getTotalAmount());
+        orderSummary.setStatus(newStatus);
+        return previousStatus;
+    }
+
+    private void adjustTotal(OrderSummary orderSummary, BigDecimal previousTotal) {
+        BigDecimal delta = orderSummary.getTotalAmount().subtract(previousTotal);
+        if (delta.signum() != 0) {
+            statisticsProjection.adjust(orderSummary.getStatus(), 0, delta);
+        }
     }
 }
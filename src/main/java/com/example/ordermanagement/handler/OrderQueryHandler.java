@@ -0,0 +1,48 @@
+package com.example.ordermanagement.handler;
+
+import com.example.ordermanagement.query.*;
+import org.axonframework.queryhandling.QueryHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Answers the order queries on the query bus from the configured {@link OrderQueryModel}. Subscription
+ * queries get these results as their initial response; {@link OrderEventHandler} emits the updates.
+ */
+@Component
+public class OrderQueryHandler {
+
+    private final OrderQueryModel queryModel;
+    private final OrderArchive archive;
+
+    public OrderQueryHandler(OrderQueryModel queryModel, OrderArchive archive) {
+        this.queryModel = queryModel;
+        this.archive = archive;
+    }
+
+    @QueryHandler
+    public OrderSummary handle(FindOrderQuery query) {
+        return queryModel.findById(query.getOrderId()).or(() -> archive.find(query.getOrderId())).orElse(null);
+    }
+
+    @QueryHandler
+    public List<OrderSummary> handle(FindAllOrdersQuery query) {
+        return queryModel.findAll(query.getAfter(), query.getLimit());
+    }
+
+    @QueryHandler
+    public List<OrderSummary> handle(FindOrdersByCustomerQuery query) {
+        return queryModel.findByCustomerId(query.getCustomerId(), query.getAfter(), query.getLimit());
+    }
+
+    @QueryHandler
+    public List<OrderSummary> handle(FindOrdersByStatusQuery query) {
+        return queryModel.findByStatus(query.getStatus(), query.getAfter(), query.getLimit());
+    }
+
+    @QueryHandler
+    public List<OrderSummary> handle(FindOrdersByMinAmountQuery query) {
+        return queryModel.findByMinAmount(query.getMinAmount(), query.getAfter(), query.getLimit());
+    }
+}
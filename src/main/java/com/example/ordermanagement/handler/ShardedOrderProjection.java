@@ -0,0 +1,243 @@
+package com.example.ordermanagement.handler;
+
+import com.example.ordermanagement.event.*;
+import com.example.ordermanagement.query.*;
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.EventTrackerStatus;
+import org.axonframework.eventhandling.EventTrackerStatusChangeListener;
+import org.axonframework.eventhandling.SequenceNumber;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.queryhandling.QueryUpdateEmitter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * Projects orders into {@link ShardedOrderStore}. Runs in its own processing group with one segment and
+ * thread per shard (see ShardedProjectionConfig), so each thread writes to a single database and shard
+ * writes proceed in parallel. It also keeps each shard's statistics and rollups, from the state each change
+ * leaves on the shard and in the same shard transaction, and feeds subscription queries.
+ *
+ * The segments commit out of global order, so the consistency-token position and the SSE change stream
+ * only move once every segment has got past a position: the processor reports each segment's progress
+ * after it commits (see ShardedProjectionConfig), and changes wait here until the slowest segment has
+ * caught up with them, then go to the change stream in position order.
+ *
+ */
+@Component
+@ProcessingGroup(ShardedOrderProjection.PROCESSING_GROUP)
+@ConditionalOnProperty(name = "order-management.read-model.backend", havingValue = "sharded")
+public class ShardedOrderProjection {
+
+    public static final String PROCESSING_GROUP = "order-shard-projection";
+
+    private final ShardedOrderStore store;
+    private final OrderDetailCache orderDetailCache;
+    private final QueryUpdateEmitter queryUpdateEmitter;
+    private final OrderChangeStream changeStream;
+    private final ProjectionPositionTracker positionTracker;
+
+    private final ConcurrentMap<Integer, Long> segmentPositions = new ConcurrentHashMap<>();
+    // Committed changes by position, waiting for every segment to get past them; a null order is a skip
+    private final ConcurrentNavigableMap<Long, Change> pending = new ConcurrentSkipListMap<>();
+    private long released = -1;
+
+    public ShardedOrderProjection(ShardedOrderStore store,
+                                  OrderDetailCache orderDetailCache,
+                                  QueryUpdateEmitter queryUpdateEmitter,
+                                  OrderChangeStream changeStream,
+                                  ProjectionPositionTracker positionTracker) {
+        this.store = store;
+        this.orderDetailCache = orderDetailCache;
+        this.queryUpdateEmitter = queryUpdateEmitter;
+        this.changeStream = changeStream;
+        this.positionTracker = positionTracker;
+    }
+
+    /**
+     * Receives the progress of the processor's segments, each reported once its unit of work has
+     * committed, and releases the changes every segment has got past.
+     */
+    public EventTrackerStatusChangeListener progressListener() {
+        return new EventTrackerStatusChangeListener() {
+            @Override
+            public void onEventTrackerStatusChange(Map<Integer, EventTrackerStatus> updatedTrackerStatus) {
+                updatedTrackerStatus.forEach((segment, status) -> status.getCurrentPosition()
+                        .ifPresent(position -> segmentPositions.put(segment, position)));
+                release();
+            }
+
+            @Override
+            public boolean validatePositions() {
+                return true;
+            }
+        };
+    }
+
+    @EventHandler
+    public void on(OrderCreatedEvent event, @SequenceNumber long sequenceNumber) {
+        OrderSummary orderSummary = new OrderSummary(
+                event.getOrderId(),
+                event.getCustomerId(),
+                event.getCustomerName(),
+                event.getCustomerEmail(),
+                event.getShippingAddress()
+        );
+        orderSummary.setCreatedAt(event.getCreatedAt());
+        orderSummary.setUpdatedAt(event.getCreatedAt());
+        orderSummary.setVersion(sequenceNumber);
+        ShardedOrderStore.Shard shard = store.shardFor(event.getOrderId());
+        if (shard.insertOrder(orderSummary, () -> {
+            shard.adjustStatistics(orderSummary.getStatus(), 1, BigDecimal.ZERO);
+            shard.recordRollup(orderSummary.getStatus(), event.getCreatedAt(), BigDecimal.ZERO);
+        })) {
+            publish(orderSummary, orderSummary.getStatus());
+        }
+    }
+
+    @EventHandler
+    public void on(ItemAddedToOrderEvent event, @SequenceNumber long sequenceNumber) {
+        apply(event.getOrderId(), sequenceNumber, event.getAddedAt(), shard -> shard.upsertItem(
+                event.getOrderId(), event.getProductId(), event.getProductName(), event.getQuantity(), event.getPrice()));
+    }
+
+    @EventHandler
+    public void on(ItemRemovedFromOrderEvent event, @SequenceNumber long sequenceNumber) {
+        apply(event.getOrderId(), sequenceNumber, event.getRemovedAt(),
+                shard -> shard.removeItem(event.getOrderId(), event.getProductId()));
+    }
+
+    @EventHandler
+    public void on(OrderConfirmedEvent event, @SequenceNumber long sequenceNumber) {
+        apply(event.getOrderId(), sequenceNumber, event.getConfirmedAt(),
+                shard -> shard.updateStatus(event.getOrderId(), OrderSummary.OrderStatus.CONFIRMED));
+    }
+
+    @EventHandler
+    public void on(OrderProcessedEvent event, @SequenceNumber long sequenceNumber) {
+        apply(event.getOrderId(), sequenceNumber, event.getProcessedAt(),
+                shard -> shard.updateStatus(event.getOrderId(), OrderSummary.OrderStatus.PROCESSED));
+    }
+
+    @EventHandler
+    public void on(OrderShippedEvent event, @SequenceNumber long sequenceNumber) {
+        apply(event.getOrderId(), sequenceNumber, event.getShippedAt(),
+                shard -> shard.ship(event.getOrderId(), event.getTrackingNumber()));
+    }
+
+    @EventHandler
+    public void on(OrderCancelledEvent event, @SequenceNumber long sequenceNumber) {
+        apply(event.getOrderId(), sequenceNumber, event.getCancelledAt(),
+                shard -> shard.cancel(event.getOrderId(), event.getReason()));
+    }
+
+    @EventHandler
+    public void on(ShippingAddressUpdatedEvent event, @SequenceNumber long sequenceNumber) {
+        apply(event.getOrderId(), sequenceNumber, event.getTimestamp(),
+                shard -> shard.updateShippingAddress(event.getOrderId(), event.getShippingAddress()));
+    }
+
+    private void apply(String orderId, long sequenceNumber, LocalDateTime updatedAt,
+                       Consumer<ShardedOrderStore.Shard> change) {
+        ShardedOrderStore.Shard shard = store.shardFor(orderId);
+        OrderSummary[] states = new OrderSummary[2];
+        boolean applied = shard.applyIfNewer(orderId, sequenceNumber, updatedAt, () -> {
+            OrderSummary before = header(shard, orderId);
+            change.accept(shard);
+            OrderSummary after = header(shard, orderId);
+            if (before.getStatus() != after.getStatus()) {
+                shard.adjustStatistics(before.getStatus(), -1, before.getTotalAmount().negate());
+                shard.adjustStatistics(after.getStatus(), 1, after.getTotalAmount());
+                shard.recordRollup(after.getStatus(), updatedAt, after.getTotalAmount());
+            } else if (after.getTotalAmount().compareTo(before.getTotalAmount()) != 0) {
+                shard.adjustStatistics(after.getStatus(), 0, after.getTotalAmount().subtract(before.getTotalAmount()));
+            }
+            states[0] = before;
+            states[1] = after;
+        });
+        if (!applied) {
+            return;
+        }
+        // A detail lookup may have cached this shard's older state
+        orderDetailCache.evictOlderThan(orderId, sequenceNumber);
+        publish(states[1], states[0].getStatus());
+    }
+
+    // The order without its items, as this shard holds it
+    private static OrderSummary header(ShardedOrderStore.Shard shard, String orderId) {
+        return shard.findAllById(List.of(orderId)).stream().findFirst()
+                .orElseThrow(() -> new IllegalStateException("Order not found on shard " + shard.getIndex() + ": " + orderId));
+    }
+
+    // Subscription queries and the change stream get the order with its items; the emitter defers these
+    // until the unit of work commits, the change stream until every segment has got past the change
+    private void publish(OrderSummary order, OrderSummary.OrderStatus previousStatus) {
+        long position = eventPosition();
+        boolean streamed = position >= 0 && changeStream.isRecording();
+        boolean queried = !queryUpdateEmitter.activeSubscriptions().isEmpty();
+        OrderSummary snapshot = streamed || queried
+                ? store.shardFor(order.getOrderId()).attachItems(List.of(order)).get(0)
+                : null;
+        if (position >= 0) {
+            pending.put(position, new Change(streamed ? snapshot : null, previousStatus));
+        }
+        if (!queried) {
+            return;
+        }
+        queryUpdateEmitter.emit(FindOrderQuery.class,
+                query -> query.getOrderId().equals(snapshot.getOrderId()), snapshot);
+        queryUpdateEmitter.emit(FindAllOrdersQuery.class, query -> true, snapshot);
+        queryUpdateEmitter.emit(FindOrdersByCustomerQuery.class,
+                query -> query.getCustomerId().equals(snapshot.getCustomerId()), snapshot);
+        queryUpdateEmitter.emit(FindOrdersByStatusQuery.class,
+                query -> query.getStatus() == snapshot.getStatus() || query.getStatus() == previousStatus, snapshot);
+        queryUpdateEmitter.emit(FindOrdersByMinAmountQuery.class,
+                query -> snapshot.getTotalAmount().compareTo(query.getMinAmount()) >= 0, snapshot);
+    }
+
+    // A change is recorded before its segment commits and reports progress, so by the time every segment
+    // is past a position, everything up to it is pending here
+    private synchronized void release() {
+        if (segmentPositions.size() < store.shardCount()) {
+            return;
+        }
+        long reached = segmentPositions.values().stream().mapToLong(Long::longValue).min().orElse(-1);
+        if (reached <= released) {
+            return;
+        }
+        ConcurrentNavigableMap<Long, Change> ready = pending.headMap(reached, true);
+        ready.forEach((position, change) -> {
+            if (change.order() != null) {
+                changeStream.publish(position, change.order(), change.previousStatus());
+            } else {
+                changeStream.skip(position);
+            }
+        });
+        ready.clear();
+        released = reached;
+        positionTracker.advanceTo(reached);
+    }
+
+    // Global position of the event being handled, or -1 when it was not read from the event stream
+    private static long eventPosition() {
+        if (CurrentUnitOfWork.isStarted()
+                && CurrentUnitOfWork.get().getMessage() instanceof TrackedEventMessage<?> tracked
+                && tracked.trackingToken() != null) {
+            return tracked.trackingToken().position().orElse(-1);
+        }
+        return -1;
+    }
+
+    private record Change(OrderSummary order, OrderSummary.OrderStatus previousStatus) {}
+}
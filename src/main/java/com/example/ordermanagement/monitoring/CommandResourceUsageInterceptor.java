@@ -0,0 +1,34 @@
+package com.example.ordermanagement.monitoring;
+
+import io.micrometer.core.instrument.Tags;
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.messaging.InterceptorChain;
+import org.axonframework.messaging.MessageHandlerInterceptor;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+
+/**
+ * Publishes {@code order.command.allocated} and {@code order.command.cpu} per command type for a sample of
+ * commands, from the start of handling until the unit of work is cleaned up, so appending the events is
+ * included.
+ */
+public class CommandResourceUsageInterceptor implements MessageHandlerInterceptor<CommandMessage<?>> {
+
+    private final ResourceUsageMeter meter;
+
+    public CommandResourceUsageInterceptor(ResourceUsageMeter meter) {
+        this.meter = meter;
+    }
+
+    @Override
+    public Object handle(UnitOfWork<? extends CommandMessage<?>> unitOfWork, InterceptorChain interceptorChain) throws Exception {
+        ResourceUsageMeter.Usage usage = meter.start();
+        if (usage != null) {
+            String commandType = unitOfWork.getMessage().getPayloadType().getSimpleName();
+            unitOfWork.onCleanup(done -> {
+                usage.pause();
+                meter.record("order.command", Tags.of("command", commandType), usage);
+            });
+        }
+        return interceptorChain.proceed();
+    }
+}
@@ -0,0 +1,383 @@
+package com.example.ordermanagement.monitoring;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.axonframework.config.EventProcessingConfiguration;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.EventProcessor;
+import org.axonframework.eventhandling.EventTrackerStatus;
+import org.axonframework.eventhandling.StreamingEventProcessor;
+import org.axonframework.eventhandling.TrackingEventProcessor;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.axonframework.messaging.InterceptorChain;
+import org.axonframework.messaging.MessageHandlerInterceptor;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Lag, throughput and error accounting for every event processor.
+ *
+ * An interceptor on each processor counts handled events, failures and retries, times batches, and notes
+ * the timestamp of the last event handled per segment. A periodic refresh compares each segment's token
+ * with the head of the event store, giving the lag in events, and for segments that are behind, the age
+ * of the last event they handled, giving the lag in time. The refresh also publishes these as gauges
+ * tagged by processor and segment, adding and removing gauges as segments are split or merged.
+ *
+ * Events are attributed to segments by the default sequencing policy, the aggregate identifier.
+ */
+@Component
+public class EventProcessorMonitor implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventProcessorMonitor.class);
+
+    private final ObjectProvider<EventProcessingConfiguration> processingConfiguration;
+    private final EventStore eventStore;
+    private final MeterRegistry meterRegistry;
+    private final long maxLag;
+    private final Duration maxLagTime;
+    private final Duration refreshInterval;
+
+    private final ConcurrentMap<String, ProcessorCounters> counters = new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> failedEvents = Caffeine.newBuilder().maximumSize(10_000).build();
+    private final Map<String, List<Meter>> segmentGauges = new HashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    private volatile Snapshot snapshot = new Snapshot(-1, Instant.EPOCH, List.of());
+
+    public EventProcessorMonitor(ObjectProvider<EventProcessingConfiguration> processingConfiguration,
+                                 EventStore eventStore,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${order-management.processors.max-lag:1000}") long maxLag,
+                                 @Value("${order-management.processors.max-lag-time:30s}") Duration maxLagTime,
+                                 @Value("${order-management.processors.refresh-interval:10s}") Duration refreshInterval) {
+        this.processingConfiguration = processingConfiguration;
+        this.eventStore = eventStore;
+        this.meterRegistry = meterRegistry;
+        this.maxLag = maxLag;
+        this.maxLagTime = maxLagTime;
+        this.refreshInterval = refreshInterval;
+
+        Gauge.builder("order.eventstore.head", this, monitor -> monitor.snapshot.headPosition())
+                .description("Global index of the newest event in the event store")
+                .register(meterRegistry);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-processor-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Processors and the token store are only complete once the context is, so refreshes wait until then
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRefreshing() {
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The interceptor that feeds this monitor, for the processor with the given name.
+     */
+    public MessageHandlerInterceptor<EventMessage<?>> interceptor(String processorName) {
+        return (unitOfWork, chain) -> intercept(processorName, unitOfWork, chain);
+    }
+
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Reads the head of the event store and the state of every processor, and updates the gauges.
+     */
+    public synchronized Snapshot refresh() {
+        long now = System.nanoTime();
+        long head = headPosition();
+        List<ProcessorStatus> processors = new ArrayList<>();
+        processingConfiguration.getObject().eventProcessors().forEach((name, processor) ->
+                processors.add(status(name, processor, head, now)));
+        processors.sort(Comparator.comparing(ProcessorStatus::name));
+        snapshot = new Snapshot(head, Instant.now(), processors);
+        updateGauges(processors);
+        return snapshot;
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private Object intercept(String processorName, UnitOfWork<? extends EventMessage<?>> unitOfWork,
+                             InterceptorChain chain) throws Exception {
+        ProcessorCounters processor = counters.computeIfAbsent(processorName, ProcessorCounters::new);
+        EventMessage<?> event = unitOfWork.getMessage();
+        String eventType = event.getPayloadType().getSimpleName();
+
+        // A batch shares one unit of work; time it from its first event until it is cleaned up
+        UnitOfWork<?> batch = unitOfWork.root();
+        AtomicInteger batchSize = batch.getOrComputeResource(ProcessorCounters.class.getName(), key -> {
+            long started = System.nanoTime();
+            AtomicInteger size = new AtomicInteger();
+            batch.onCleanup(done -> {
+                processor.batchDuration.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                processor.batchSize.record(size.get());
+            });
+            return size;
+        });
+        batchSize.incrementAndGet();
+
+        if (failedEvents.asMap().remove(event.getIdentifier()) != null) {
+            processor.retries.increment();
+        }
+        try {
+            Object result = chain.proceed();
+            processor.handled(eventType, segmentOf(processorName, event), event.getTimestamp());
+            return result;
+        } catch (Exception e) {
+            processor.failed(eventType);
+            failedEvents.put(event.getIdentifier(), Boolean.TRUE);
+            throw e;
+        }
+    }
+
+    private Integer segmentOf(String processorName, EventMessage<?> event) {
+        if (!(processingConfiguration.getObject().eventProcessor(processorName).orElse(null) instanceof StreamingEventProcessor streaming)) {
+            return null;
+        }
+        Object sequenceIdentifier = event instanceof DomainEventMessage<?> domainEvent
+                ? domainEvent.getAggregateIdentifier()
+                : event.getIdentifier();
+        for (EventTrackerStatus status : streaming.processingStatus().values()) {
+            if (status.getSegment().matches(sequenceIdentifier)) {
+                return status.getSegment().getSegmentId();
+            }
+        }
+        return null;
+    }
+
+    private ProcessorStatus status(String name, EventProcessor processor, long head, long now) {
+        ProcessorCounters processorCounters = counters.computeIfAbsent(name, ProcessorCounters::new);
+        double eventsPerSecond = processorCounters.throughput(now);
+        String type = processor instanceof TrackingEventProcessor ? "tracking"
+                : processor instanceof StreamingEventProcessor ? "pooled-streaming"
+                : "subscribing";
+
+        List<SegmentStatus> segments = new ArrayList<>();
+        if (processor instanceof StreamingEventProcessor streaming) {
+            streaming.processingStatus().forEach((segmentId, tracker) -> {
+                Long position = tracker.getCurrentPosition().isPresent() ? tracker.getCurrentPosition().getAsLong() : null;
+                Long lagEvents = position == null || head < 0 ? null : Math.max(0, head - position);
+                Instant lastHandled = processorCounters.lastHandled.get(segmentId);
+                Double lagSeconds = lagEvents == null ? null
+                        : lagEvents == 0 ? 0.0
+                        : lastHandled == null ? null
+                        : Duration.between(lastHandled, Instant.now()).toMillis() / 1000.0;
+                segments.add(new SegmentStatus(segmentId, position, lagEvents, lagSeconds, tracker.isCaughtUp(),
+                        tracker.isReplaying(), tracker.isErrorState(),
+                        tracker.getError() == null ? null : tracker.getError().toString()));
+            });
+            segments.sort(Comparator.comparingInt(SegmentStatus::segment));
+        }
+
+        Long lagEvents = segments.stream().map(SegmentStatus::lagEvents).filter(Objects::nonNull).max(Long::compare).orElse(null);
+        Double lagSeconds = segments.stream().map(SegmentStatus::lagSeconds).filter(Objects::nonNull).max(Double::compare).orElse(null);
+        String state;
+        if (segments.stream().anyMatch(SegmentStatus::errorState) || processor.isError()) {
+            state = ProcessorStatus.ERROR;
+        } else if (!processor.isRunning()) {
+            state = ProcessorStatus.STOPPED;
+        } else if ((lagEvents != null && lagEvents > maxLag)
+                || (lagSeconds != null && lagSeconds * 1000 > maxLagTime.toMillis())) {
+            state = ProcessorStatus.LAGGING;
+        } else {
+            state = ProcessorStatus.UP;
+        }
+        return new ProcessorStatus(name, type, state, processor.isRunning(), lagEvents, lagSeconds, eventsPerSecond,
+                (long) processorCounters.events.count(), (long) processorCounters.errors.count(),
+                (long) processorCounters.retries.count(), segments);
+    }
+
+    private void updateGauges(List<ProcessorStatus> processors) {
+        Set<String> current = new HashSet<>();
+        for (ProcessorStatus processor : processors) {
+            counters.computeIfAbsent(processor.name(), ProcessorCounters::new);
+            for (SegmentStatus segment : processor.segments()) {
+                String key = processor.name() + "#" + segment.segment();
+                current.add(key);
+                segmentGauges.computeIfAbsent(key, ignored -> segmentGauges(processor.name(), segment.segment()));
+            }
+        }
+        segmentGauges.entrySet().removeIf(entry -> {
+            if (current.contains(entry.getKey())) {
+                return false;
+            }
+            entry.getValue().forEach(meterRegistry::remove);
+            return true;
+        });
+    }
+
+    private List<Meter> segmentGauges(String processor, int segment) {
+        Tags tags = Tags.of("processor", processor, "segment", Integer.toString(segment));
+        return List.of(
+                Gauge.builder("order.processor.position", this, monitor -> monitor.segmentValue(processor, segment, SegmentStatus::position))
+                        .description("Global index up to which the segment has handled events")
+                        .tags(tags).register(meterRegistry),
+                Gauge.builder("order.processor.lag.events", this, monitor -> monitor.segmentValue(processor, segment, SegmentStatus::lagEvents))
+                        .description("Events in the store that the segment has not handled yet")
+                        .tags(tags).register(meterRegistry),
+                Gauge.builder("order.processor.lag", this, monitor -> monitor.segmentValue(processor, segment, SegmentStatus::lagSeconds))
+                        .description("Age of the last event a lagging segment handled")
+                        .baseUnit("seconds")
+                        .tags(tags).register(meterRegistry));
+    }
+
+    private double segmentValue(String processor, int segment, Function<SegmentStatus, ? extends Number> value) {
+        return snapshot.processors().stream()
+                .filter(status -> status.name().equals(processor))
+                .flatMap(status -> status.segments().stream())
+                .filter(status -> status.segment() == segment)
+                .map(value)
+                .filter(Objects::nonNull)
+                .mapToDouble(Number::doubleValue)
+                .findFirst()
+                .orElse(Double.NaN);
+    }
+
+    private long headPosition() {
+        TrackingToken head = eventStore.createHeadToken();
+        return head == null ? -1 : head.position().orElse(-1);
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            logger.warn("Could not refresh event processor status", e);
+        }
+    }
+
+    private final class ProcessorCounters {
+
+        private final String processor;
+        private final Counter events;
+        private final Counter errors;
+        private final Counter retries;
+        private final Timer latency;
+        private final Timer batchDuration;
+        private final DistributionSummary batchSize;
+        private final ConcurrentMap<String, Counter> eventsByType = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Counter> errorsByType = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Integer, Instant> lastHandled = new ConcurrentHashMap<>();
+        private final LongAdder sinceLastRefresh = new LongAdder();
+        private long lastRefresh = System.nanoTime();
+        private volatile double lastThroughput;
+
+        private ProcessorCounters(String processor) {
+            this.processor = processor;
+            this.events = Counter.builder("order.processor.events.total")
+                    .description("Events handled, all types")
+                    .tag("processor", processor).register(meterRegistry);
+            this.errors = Counter.builder("order.processor.errors.total")
+                    .description("Events whose handling failed, all types")
+                    .tag("processor", processor).register(meterRegistry);
+            this.retries = Counter.builder("order.processor.retries")
+                    .description("Events handled again after their handling failed")
+                    .tag("processor", processor).register(meterRegistry);
+            this.latency = Timer.builder("order.processor.latency")
+                    .description("Time from an event's creation until the processor handled it")
+                    .tag("processor", processor).register(meterRegistry);
+            this.batchDuration = Timer.builder("order.processor.batch")
+                    .description("Time to handle and commit a batch of events")
+                    .tag("processor", processor).register(meterRegistry);
+            this.batchSize = DistributionSummary.builder("order.processor.batch.size")
+                    .description("Events per batch")
+                    .tag("processor", processor).register(meterRegistry);
+            Gauge.builder("order.processor.throughput", this, counters -> counters.lastThroughput)
+                    .description("Events handled per second since the previous refresh")
+                    .tag("processor", processor).register(meterRegistry);
+        }
+
+        private void handled(String eventType, Integer segment, Instant timestamp) {
+            eventsByType.computeIfAbsent(eventType, type -> Counter.builder("order.processor.events")
+                    .description("Events handled")
+                    .tags("processor", processor, "event", type).register(meterRegistry)).increment();
+            events.increment();
+            sinceLastRefresh.increment();
+            latency.record(Duration.between(timestamp, Instant.now()));
+            if (segment != null) {
+                lastHandled.merge(segment, timestamp, (left, right) -> left.isAfter(right) ? left : right);
+            }
+        }
+
+        private void failed(String eventType) {
+            errorsByType.computeIfAbsent(eventType, type -> Counter.builder("order.processor.errors")
+                    .description("Events whose handling failed")
+                    .tags("processor", processor, "event", type).register(meterRegistry)).increment();
+            errors.increment();
+        }
+
+        private double throughput(long now) {
+            double seconds = (now - lastRefresh) / 1e9;
+            lastRefresh = now;
+            lastThroughput = seconds <= 0 ? 0 : sinceLastRefresh.sumThenReset() / seconds;
+            return lastThroughput;
+        }
+    }
+
+    /**
+     * The state of all processors at one refresh.
+     */
+    public record Snapshot(long headPosition, Instant refreshedAt, List<ProcessorStatus> processors) {
+    }
+
+    /**
+     * The state of one processor. {@code lagEvents} and {@code lagSeconds} are the worst of its segments,
+     * and null when unknown, e.g. for subscribing processors, which handle events as they are published.
+     */
+    public record ProcessorStatus(String name, String type, String status, boolean running, Long lagEvents,
+                                  Double lagSeconds, double eventsPerSecond, long events, long errors, long retries,
+                                  List<SegmentStatus> segments) {
+
+        public static final String UP = "UP";
+        public static final String LAGGING = "LAGGING";
+        public static final String STOPPED = "STOPPED";
+        public static final String ERROR = "ERROR";
+    }
+
+    public record SegmentStatus(int segment, Long position, Long lagEvents, Double lagSeconds, boolean caughtUp,
+                                boolean replaying, boolean errorState, String error) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.ordermanagement.monitoring;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/processors}: position, lag, throughput and errors of every event processor and its
+ * segments, read fresh on every call.
+ */
+@Component
+@Endpoint(id = "processors")
+public class EventProcessorsEndpoint {
+
+    private final EventProcessorMonitor monitor;
+
+    public EventProcessorsEndpoint(EventProcessorMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @ReadOperation
+    public EventProcessorMonitor.Snapshot processors() {
+        return monitor.refresh();
+    }
+
+    @ReadOperation
+    public EventProcessorMonitor.ProcessorStatus processor(@Selector String name) {
+        return monitor.refresh().processors().stream()
+                .filter(processor -> processor.name().equals(name))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.ordermanagement.monitoring;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code eventProcessors} health component: DOWN if a processor is in error, OUT_OF_SERVICE if one
+ * is stopped, and LAGGING if one trails the event store by more than
+ * {@code order-management.processors.max-lag} events or {@code max-lag-time}.
+ */
+@Component
+public class EventProcessorsHealthIndicator extends AbstractHealthIndicator {
+
+    public static final Status LAGGING = new Status("LAGGING", "An event processor trails the event store");
+
+    private final EventProcessorMonitor monitor;
+
+    public EventProcessorsHealthIndicator(EventProcessorMonitor monitor) {
+        super("Event processor health check failed");
+        this.monitor = monitor;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        EventProcessorMonitor.Snapshot snapshot = monitor.refresh();
+        List<String> states = snapshot.processors().stream().map(EventProcessorMonitor.ProcessorStatus::status).toList();
+        if (states.contains(EventProcessorMonitor.ProcessorStatus.ERROR)) {
+            builder.down();
+        } else if (states.contains(EventProcessorMonitor.ProcessorStatus.STOPPED)) {
+            builder.outOfService();
+        } else if (states.contains(EventProcessorMonitor.ProcessorStatus.LAGGING)) {
+            builder.status(LAGGING);
+        } else {
+            builder.up();
+        }
+
+        builder.withDetail("headPosition", snapshot.headPosition());
+        for (EventProcessorMonitor.ProcessorStatus processor : snapshot.processors()) {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("status", processor.status());
+            details.put("lagEvents", processor.lagEvents());
+            details.put("lagSeconds", processor.lagSeconds());
+            details.put("eventsPerSecond", processor.eventsPerSecond());
+            details.put("errors", processor.errors());
+            builder.withDetail(processor.name(), details);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.ordermanagement.monitoring;
+
+import com.example.ordermanagement.monitoring.HeapFootprint.Pressure;
+import com.example.ordermanagement.monitoring.HeapFootprint.Usage;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/heap}: the heap, the pressure thresholds and the estimated size and entry count of every
+ * cache and in-memory model, largest first. DELETE empties the caches as under high pressure.
+ */
+@Component
+@Endpoint(id = "heap")
+public class HeapEndpoint {
+
+    private final HeapPressureMonitor monitor;
+
+    public HeapEndpoint(HeapPressureMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @ReadOperation
+    public HeapReport heap() {
+        List<Usage> structures = monitor.usages();
+        return new HeapReport(monitor.status(), structures,
+                structures.stream().mapToLong(Usage::estimatedBytes).sum());
+    }
+
+    @DeleteOperation
+    public HeapReport relieve() {
+        monitor.relieve(Pressure.HIGH);
+        return heap();
+    }
+
+    public record HeapReport(HeapPressureMonitor.Status heap, List<Usage> structures, long totalEstimatedBytes) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.ordermanagement.monitoring;
+
+import java.util.List;
+
+/**
+ * An in-memory structure that reports its approximate heap use to {@code /actuator/heap} and gives memory
+ * back when the {@link HeapPressureMonitor} finds the heap filling up.
+ *
+ * Estimates are rough: they assume compressed references and Latin-1 strings, and only count objects the
+ * structure holds on its own.
+ */
+public interface HeapFootprint {
+
+    /**
+     * Returns the current entry counts and estimated sizes, one usage per part of the structure.
+     */
+    List<Usage> heapUsage();
+
+    /**
+     * Frees whatever can be reloaded or rebuilt. Caches drop their entries under any pressure; structures
+     * that serve queries only give up their memory when it is critical.
+     */
+    void relieve(Pressure pressure);
+
+    enum Pressure { HIGH, CRITICAL }
+
+    record Usage(String structure, long entries, long estimatedBytes) {
+    }
+}
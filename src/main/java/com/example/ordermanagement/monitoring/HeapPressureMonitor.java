@@ -0,0 +1,236 @@
+package com.example.ordermanagement.monitoring;
+
+import com.example.ordermanagement.monitoring.HeapFootprint.Pressure;
+import com.example.ordermanagement.monitoring.HeapFootprint.Usage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches how full the heap stays after garbage collection and makes the {@link HeapFootprint} structures
+ * give memory back before it runs out.
+ *
+ * The measure is the occupancy of the old generation right after a collection: what survives there is
+ * what the application really holds, unlike the total heap use, which rises and falls with garbage. Above
+ * {@code order-management.memory.high-threshold} the caches are emptied; above
+ * {@code order-management.memory.critical-threshold} the in-memory read model is dropped as well. The JVM
+ * reports crossing the high threshold right after the collection that crossed it, and the occupancy is
+ * also checked every {@code order-management.memory.check-interval}. Memory is only given back once per
+ * collection, since nothing freed shows up in the occupancy before the next one.
+ *
+ * Each structure's estimate is published as {@code order.memory.estimated} and {@code order.memory.entries}
+ * tagged by structure, and every relief as {@code order.memory.relieved} tagged by pressure.
+ */
+@Component
+public class HeapPressureMonitor implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(HeapPressureMonitor.class);
+
+    private final ObjectProvider<HeapFootprint> footprints;
+    private final double highThreshold;
+    private final double criticalThreshold;
+    private final Duration checkInterval;
+    private final List<MemoryPoolMXBean> oldGenerations;
+    private final MultiGauge estimatedBytes;
+    private final MultiGauge entries;
+    private final Map<Pressure, Counter> relieved = new EnumMap<>(Pressure.class);
+    private final NotificationListener thresholdListener = this::thresholdExceeded;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "heap-pressure-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long relievedAtCollection = -1;
+
+    public HeapPressureMonitor(ObjectProvider<HeapFootprint> footprints,
+                               MeterRegistry meterRegistry,
+                               @Value("${order-management.memory.high-threshold:0.8}") double highThreshold,
+                               @Value("${order-management.memory.critical-threshold:0.9}") double criticalThreshold,
+                               @Value("${order-management.memory.check-interval:5s}") Duration checkInterval) {
+        if (highThreshold <= 0 || highThreshold > criticalThreshold || criticalThreshold > 1) {
+            throw new IllegalArgumentException(
+                    "order-management.memory thresholds must satisfy 0 < high-threshold <= critical-threshold <= 1");
+        }
+        this.footprints = footprints;
+        this.highThreshold = highThreshold;
+        this.criticalThreshold = criticalThreshold;
+        this.checkInterval = checkInterval;
+        // Only pools that take usage thresholds are tenured ones; eden and survivor spaces never do
+        this.oldGenerations = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isValid())
+                .filter(pool -> pool.isUsageThresholdSupported() && pool.isCollectionUsageThresholdSupported())
+                .toList();
+
+        this.estimatedBytes = MultiGauge.builder("order.memory.estimated")
+                .description("Estimated heap held by an in-memory structure")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.entries = MultiGauge.builder("order.memory.entries")
+                .description("Entries held by an in-memory structure")
+                .register(meterRegistry);
+        for (Pressure pressure : Pressure.values()) {
+            relieved.put(pressure, Counter.builder("order.memory.relieved")
+                    .description("Times the in-memory structures were made to give memory back")
+                    .tag("pressure", pressure.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Starts watching once the application is ready, so no structure is relieved while it is still being built.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        for (MemoryPoolMXBean pool : oldGenerations) {
+            long max = pool.getUsage().getMax();
+            if (max > 0) {
+                pool.setCollectionUsageThreshold((long) (max * highThreshold));
+            }
+        }
+        if (ManagementFactory.getMemoryMXBean() instanceof NotificationEmitter emitter) {
+            emitter.addNotificationListener(thresholdListener, null, null);
+        }
+        scheduler.scheduleWithFixedDelay(this::checkQuietly, checkInterval.toMillis(), checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Updates the gauges and, if the old generation is fuller than a threshold after the latest collection,
+     * relieves the structures.
+     */
+    public synchronized void check() {
+        List<Usage> usages = usages();
+        estimatedBytes.register(usages.stream()
+                .map(usage -> MultiGauge.Row.of(Tags.of("structure", usage.structure()), usage.estimatedBytes()))
+                .toList(), true);
+        entries.register(usages.stream()
+                .map(usage -> MultiGauge.Row.of(Tags.of("structure", usage.structure()), usage.entries()))
+                .toList(), true);
+
+        double occupancy = occupancyAfterCollection();
+        long collections = collectionCount();
+        if (occupancy < highThreshold || collections == relievedAtCollection) {
+            return;
+        }
+        relievedAtCollection = collections;
+        Pressure pressure = occupancy >= criticalThreshold ? Pressure.CRITICAL : Pressure.HIGH;
+        logger.warn("Old generation is {}% full after garbage collection; relieving in-memory structures under {} pressure",
+                Math.round(occupancy * 100), pressure);
+        relieve(pressure);
+    }
+
+    /**
+     * Makes every structure give back what it can at the given pressure.
+     */
+    public void relieve(Pressure pressure) {
+        footprints.orderedStream().forEach(footprint -> {
+            try {
+                footprint.relieve(pressure);
+            } catch (RuntimeException e) {
+                logger.warn("Could not relieve {}", footprint.getClass().getSimpleName(), e);
+            }
+        });
+        relieved.get(pressure).increment();
+    }
+
+    /**
+     * Returns the current usage of every structure, largest first.
+     */
+    public List<Usage> usages() {
+        List<Usage> usages = new ArrayList<>();
+        footprints.orderedStream().forEach(footprint -> usages.addAll(footprint.heapUsage()));
+        usages.sort(Comparator.comparingLong(Usage::estimatedBytes).reversed());
+        return usages;
+    }
+
+    public Status status() {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        return new Status(heap.getUsed(), heap.getCommitted(), heap.getMax(), occupancyAfterCollection(),
+                highThreshold, criticalThreshold, (long) relieved.get(Pressure.HIGH).count(),
+                (long) relieved.get(Pressure.CRITICAL).count());
+    }
+
+    // Fullest old generation pool as of its latest collection, as a fraction of its maximum
+    private double occupancyAfterCollection() {
+        double occupancy = 0;
+        for (MemoryPoolMXBean pool : oldGenerations) {
+            MemoryUsage afterCollection = pool.getCollectionUsage();
+            long max = pool.getUsage().getMax();
+            if (afterCollection != null && max > 0) {
+                occupancy = Math.max(occupancy, (double) afterCollection.getUsed() / max);
+            }
+        }
+        return occupancy;
+    }
+
+    private static long collectionCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    private void thresholdExceeded(Notification notification, Object handback) {
+        if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+            // Relieve on our own thread rather than the JVM's notification thread
+            scheduler.execute(this::checkQuietly);
+        }
+    }
+
+    private void checkQuietly() {
+        try {
+            check();
+        } catch (RuntimeException e) {
+            logger.warn("Heap pressure check failed", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (ManagementFactory.getMemoryMXBean() instanceof NotificationEmitter emitter) {
+            try {
+                emitter.removeNotificationListener(thresholdListener);
+            } catch (ListenerNotFoundException e) {
+                // Never started
+            }
+        }
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Heap figures in bytes; {@code oldGenerationAfterGc} is the occupancy the thresholds apply to.
+     */
+    public record Status(long used, long committed, long max, double oldGenerationAfterGc,
+                         double highThreshold, double criticalThreshold, long highPressureReliefs,
+                         long criticalPressureReliefs) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.ordermanagement.monitoring;
+
+import com.example.ordermanagement.handler.OrderEventHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.messaging.Message;
+import org.axonframework.messaging.annotation.HandlerEnhancerDefinition;
+import org.axonframework.messaging.annotation.MessageHandlingMember;
+import org.axonframework.messaging.annotation.WrappedMessageHandlingMember;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every {@link OrderEventHandler} handler method, tagged by the event type it handles. Axon picks
+ * up handler enhancer beans and wraps the matching handlers once, when it inspects the handler class.
+ */
+@Component
+public class ProjectionHandlerTimer implements HandlerEnhancerDefinition {
+
+    private final MeterRegistry meterRegistry;
+
+    public ProjectionHandlerTimer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public <T> MessageHandlingMember<T> wrapHandler(MessageHandlingMember<T> original) {
+        if (!OrderEventHandler.class.equals(original.declaringClass()) || !original.canHandleMessageType(EventMessage.class)) {
+            return original;
+        }
+        Timer timer = Timer.builder("order.projection.handler")
+                .description("Time spent in the order projection's handler, per event type")
+                .tag("event", original.payloadType().getSimpleName())
+                .register(meterRegistry);
+        return new WrappedMessageHandlingMember<>(original) {
+            @Override
+            public Object handle(Message<?> message, T target) throws Exception {
+                long started = System.nanoTime();
+                try {
+                    return super.handle(message, target);
+                } finally {
+                    timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.ordermanagement.monitoring;
+
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Publishes {@code order.request.allocated} and {@code order.request.cpu} per controller endpoint for a
+ * sample of requests. Commands sent by a request run on the request thread and are included. For
+ * asynchronous requests, the stretches on the original and the completing dispatch are added up; time
+ * between them, spent on other threads, is not.
+ */
+public class RequestResourceUsageInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String USAGE_ATTRIBUTE = RequestResourceUsageInterceptor.class.getName() + ".usage";
+
+    private final ResourceUsageMeter meter;
+
+    public RequestResourceUsageInterceptor(ResourceUsageMeter meter) {
+        this.meter = meter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        if (request.getAttribute(USAGE_ATTRIBUTE) instanceof ResourceUsageMeter.Usage usage) {
+            usage.resume();
+        } else {
+            ResourceUsageMeter.Usage usage = meter.start();
+            if (usage != null) {
+                request.setAttribute(USAGE_ATTRIBUTE, usage);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(USAGE_ATTRIBUTE) instanceof ResourceUsageMeter.Usage usage) {
+            usage.pause();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(USAGE_ATTRIBUTE) instanceof ResourceUsageMeter.Usage usage)) {
+            return;
+        }
+        request.removeAttribute(USAGE_ATTRIBUTE);
+        usage.pause();
+        meter.record("order.request", Tags.of("endpoint",
+                request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)), usage);
+    }
+}
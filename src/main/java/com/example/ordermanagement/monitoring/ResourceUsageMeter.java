@@ -0,0 +1,112 @@
+package com.example.ordermanagement.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measures the bytes a thread allocates and the CPU time it uses between two points, for a sampled
+ * fraction of the units of work passed to {@link #start()}, and publishes them as distribution summaries.
+ *
+ * Both figures come from the JVM's per-thread counters, so they only cover work done on the calling
+ * thread. Reading them costs a few hundred nanoseconds, which is why only a sample of
+ * {@code order-management.resource-usage.sample-rate} is measured.
+ */
+@Component
+public class ResourceUsageMeter {
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final MeterRegistry meterRegistry;
+    private final double sampleRate;
+    private final boolean allocationSupported;
+    private final boolean cpuTimeSupported;
+
+    public ResourceUsageMeter(MeterRegistry meterRegistry,
+                              @Value("${order-management.resource-usage.sample-rate:0.1}") double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("order-management.resource-usage.sample-rate must be between 0 and 1");
+        }
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = sampleRate;
+        this.threads = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean ? bean : null;
+        this.allocationSupported = threads != null && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled();
+        this.cpuTimeSupported = threads != null && threads.isCurrentThreadCpuTimeSupported() && threads.isThreadCpuTimeEnabled();
+    }
+
+    /**
+     * Starts measuring the current thread, or returns null if this unit of work is not sampled.
+     */
+    public Usage start() {
+        if (sampleRate == 0 || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return null;
+        }
+        return new Usage();
+    }
+
+    /**
+     * Publishes the usage as {@code <prefix>.allocated} in bytes and {@code <prefix>.cpu} in seconds.
+     */
+    public void record(String prefix, Tags tags, Usage usage) {
+        if (allocationSupported) {
+            DistributionSummary.builder(prefix + ".allocated")
+                    .description("Bytes allocated by the handling thread")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry)
+                    .record(usage.allocatedBytes);
+        }
+        if (cpuTimeSupported) {
+            DistributionSummary.builder(prefix + ".cpu")
+                    .description("CPU time used by the handling thread")
+                    .baseUnit("seconds")
+                    .tags(tags)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry)
+                    .record(usage.cpuNanos / 1e9);
+        }
+    }
+
+    /**
+     * Usage accumulated over one or more measured stretches, possibly on different threads, each
+     * between {@link #resume()} and {@link #pause()}. A new usage starts out measuring.
+     */
+    public final class Usage {
+
+        private long allocatedBytes;
+        private long cpuNanos;
+        private long allocatedAtResume;
+        private long cpuAtResume;
+
+        private Usage() {
+            resume();
+        }
+
+        public void resume() {
+            allocatedAtResume = allocationSupported ? threads.getCurrentThreadAllocatedBytes() : 0;
+            cpuAtResume = cpuTimeSupported ? threads.getCurrentThreadCpuTime() : 0;
+        }
+
+        public void pause() {
+            if (allocationSupported) {
+                allocatedBytes += threads.getCurrentThreadAllocatedBytes() - allocatedAtResume;
+            }
+            if (cpuTimeSupported) {
+                cpuNanos += threads.getCurrentThreadCpuTime() - cpuAtResume;
+            }
+        }
+
+        public long allocatedBytes() {
+            return allocatedBytes;
+        }
+
+        public long cpuNanos() {
+            return cpuNanos;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.ordermanagement.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Reading an aggregate's event stream from the storage engine, from the query until the stream is
+ * exhausted. The repository applies each event to the aggregate as it reads it, so this spans loading the
+ * Order, with the {@link EventSourcingHandlerEvent}s of the replay nested inside.
+ */
+@Name("com.example.ordermanagement.AggregateLoad")
+@Label("Aggregate Load")
+@Description("Reading and applying the event stream of an aggregate")
+@Category({"Order Management", "Commands"})
+public class AggregateLoadEvent extends jdk.jfr.Event {
+
+    @Label("Aggregate Type")
+    public String aggregateType;
+
+    @Label("Order ID")
+    public String orderId;
+
+    @Label("First Sequence Number")
+    public long firstSequenceNumber;
+
+    @Label("Event Count")
+    public int eventCount;
+}
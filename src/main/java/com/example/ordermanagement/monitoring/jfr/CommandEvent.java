@@ -0,0 +1,29 @@
+package com.example.ordermanagement.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Handling of one command, from the command bus handing it to its handler until the handler returns,
+ * including loading the aggregate. Appending the resulting events happens when the unit of work commits
+ * and is recorded separately as {@link EventAppendEvent}.
+ */
+@Name("com.example.ordermanagement.Command")
+@Label("Command")
+@Description("Handling of a command, including loading the Order it targets")
+@Category({"Order Management", "Commands"})
+@StackTrace(false)
+public class CommandEvent extends jdk.jfr.Event {
+
+    @Label("Command Type")
+    public String commandType;
+
+    @Label("Order ID")
+    public String orderId;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
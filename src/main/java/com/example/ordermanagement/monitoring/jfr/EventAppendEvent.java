@@ -0,0 +1,33 @@
+package com.example.ordermanagement.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Appending a batch of events to the storage engine, i.e. serializing and inserting the events a unit of
+ * work published.
+ */
+@Name("com.example.ordermanagement.EventAppend")
+@Label("Event Append")
+@Description("Serializing and storing the events of a unit of work")
+@Category({"Order Management", "Event Store"})
+@StackTrace(false)
+public class EventAppendEvent extends jdk.jfr.Event {
+
+    @Label("Event Count")
+    public int eventCount;
+
+    @Label("Event Types")
+    @Description("Payload types of the appended events, in order")
+    public String eventTypes;
+
+    @Label("Order ID")
+    @Description("Aggregate of the first appended event")
+    public String orderId;
+
+    @Label("First Sequence Number")
+    public long firstSequenceNumber;
+}
@@ -0,0 +1,31 @@
+package com.example.ordermanagement.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One {@code @EventSourcingHandler} invocation on the Order aggregate or one of its members, both when an
+ * event is applied by a command and when it is replayed during a load.
+ */
+@Name("com.example.ordermanagement.EventSourcingHandler")
+@Label("Event Sourcing Handler")
+@Description("Applying an event to the state of an aggregate")
+@Category({"Order Management", "Commands"})
+@StackTrace(false)
+public class EventSourcingHandlerEvent extends jdk.jfr.Event {
+
+    @Label("Handler")
+    public String handler;
+
+    @Label("Event Type")
+    public String eventType;
+
+    @Label("Order ID")
+    public String orderId;
+
+    @Label("Sequence Number")
+    public long sequenceNumber;
+}
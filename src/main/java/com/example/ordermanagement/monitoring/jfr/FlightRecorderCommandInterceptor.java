@@ -0,0 +1,46 @@
+package com.example.ordermanagement.monitoring.jfr;
+
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.messaging.InterceptorChain;
+import org.axonframework.messaging.MessageHandlerInterceptor;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.axonframework.modelling.command.AnnotationCommandTargetResolver;
+import org.axonframework.modelling.command.CommandTargetResolver;
+
+/**
+ * Records a {@link CommandEvent} around the handling of every command. The target order is only resolved
+ * for events that JFR is going to keep.
+ */
+public class FlightRecorderCommandInterceptor implements MessageHandlerInterceptor<CommandMessage<?>> {
+
+    private final CommandTargetResolver targetResolver = AnnotationCommandTargetResolver.builder().build();
+
+    @Override
+    public Object handle(UnitOfWork<? extends CommandMessage<?>> unitOfWork, InterceptorChain interceptorChain) throws Exception {
+        CommandEvent event = new CommandEvent();
+        event.begin();
+        boolean succeeded = false;
+        try {
+            Object result = interceptorChain.proceed();
+            succeeded = true;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                CommandMessage<?> command = unitOfWork.getMessage();
+                event.commandType = command.getPayloadType().getSimpleName();
+                event.orderId = orderId(command);
+                event.succeeded = succeeded;
+                event.commit();
+            }
+        }
+    }
+
+    private String orderId(CommandMessage<?> command) {
+        try {
+            return targetResolver.resolveTarget(command).getIdentifier();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.ordermanagement.monitoring.jfr;
+
+import com.example.ordermanagement.handler.OrderEventHandler;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventsourcing.EventSourcingHandler;
+import org.axonframework.messaging.Message;
+import org.axonframework.messaging.annotation.HandlerEnhancerDefinition;
+import org.axonframework.messaging.annotation.MessageHandlingMember;
+import org.axonframework.messaging.annotation.WrappedMessageHandlingMember;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Records an {@link EventSourcingHandlerEvent} for every event sourcing handler, and a
+ * {@link ProjectionUpdateEvent} for every {@link OrderEventHandler} handler. The fields are only filled in
+ * for events that JFR is going to keep, so with the events disabled a handler call costs two no-op calls.
+ */
+@Component
+public class FlightRecorderHandlerEnhancer implements HandlerEnhancerDefinition {
+
+    @Override
+    public <T> MessageHandlingMember<T> wrapHandler(MessageHandlingMember<T> original) {
+        if (!original.canHandleMessageType(EventMessage.class)) {
+            return original;
+        }
+        if (original.unwrap(Method.class).filter(method -> method.isAnnotationPresent(EventSourcingHandler.class)).isPresent()) {
+            return eventSourcingHandler(original);
+        }
+        if (OrderEventHandler.class.equals(original.declaringClass())) {
+            return projectionHandler(original);
+        }
+        return original;
+    }
+
+    private static <T> MessageHandlingMember<T> eventSourcingHandler(MessageHandlingMember<T> original) {
+        String handler = original.declaringClass().getSimpleName();
+        return new WrappedMessageHandlingMember<>(original) {
+            @Override
+            public Object handle(Message<?> message, T target) throws Exception {
+                EventSourcingHandlerEvent event = new EventSourcingHandlerEvent();
+                event.begin();
+                try {
+                    return super.handle(message, target);
+                } finally {
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.handler = handler;
+                        event.eventType = message.getPayloadType().getSimpleName();
+                        if (message instanceof DomainEventMessage<?> domainEvent) {
+                            event.orderId = domainEvent.getAggregateIdentifier();
+                            event.sequenceNumber = domainEvent.getSequenceNumber();
+                        }
+                        event.commit();
+                    }
+                }
+            }
+        };
+    }
+
+    private static <T> MessageHandlingMember<T> projectionHandler(MessageHandlingMember<T> original) {
+        return new WrappedMessageHandlingMember<>(original) {
+            @Override
+            public Object handle(Message<?> message, T target) throws Exception {
+                ProjectionUpdateEvent event = new ProjectionUpdateEvent();
+                event.begin();
+                try {
+                    return super.handle(message, target);
+                } finally {
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.eventType = message.getPayloadType().getSimpleName();
+                        if (message instanceof DomainEventMessage<?> domainEvent) {
+                            event.orderId = domainEvent.getAggregateIdentifier();
+                            event.sequenceNumber = domainEvent.getSequenceNumber();
+                        }
+                        event.commit();
+                    }
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.ordermanagement.monitoring.jfr;
+
+import com.example.ordermanagement.controller.OrderController;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Records an {@link OrderQueryEvent} for every GET request handled by {@link OrderController}. Requests
+ * that go asynchronous, the update streams, never complete on the original dispatch and are left out.
+ */
+public class FlightRecorderQueryInterceptor implements HandlerInterceptor {
+
+    private static final String EVENT_ATTRIBUTE = FlightRecorderQueryInterceptor.class.getName() + ".event";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if ("GET".equals(request.getMethod())
+                && handler instanceof HandlerMethod method && OrderController.class.equals(method.getBeanType())) {
+            OrderQueryEvent event = new OrderQueryEvent();
+            if (event.isEnabled()) {
+                event.begin();
+                request.setAttribute(EVENT_ATTRIBUTE, event);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(EVENT_ATTRIBUTE) instanceof OrderQueryEvent event)) {
+            return;
+        }
+        request.removeAttribute(EVENT_ATTRIBUTE);
+        event.end();
+        if (event.shouldCommit()) {
+            event.endpoint = "GET " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables
+                    && variables.get("orderId") instanceof String orderId) {
+                event.orderId = orderId;
+            }
+            event.status = response.getStatus();
+            String contentLength = response.getHeader(HttpHeaders.CONTENT_LENGTH);
+            event.responseSize = contentLength == null ? -1 : Long.parseLong(contentLength);
+            event.commit();
+        }
+    }
+}
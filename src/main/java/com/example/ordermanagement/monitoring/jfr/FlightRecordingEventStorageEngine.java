@@ -0,0 +1,141 @@
+package com.example.ordermanagement.monitoring.jfr;
+
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventsourcing.eventstore.DomainEventStream;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Wraps the event storage engine to record an {@link EventAppendEvent} per append and an
+ * {@link AggregateLoadEvent} per aggregate event stream read. Everything else is passed through as is.
+ */
+public class FlightRecordingEventStorageEngine implements EventStorageEngine {
+
+    private final EventStorageEngine delegate;
+
+    public FlightRecordingEventStorageEngine(EventStorageEngine delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void appendEvents(List<? extends EventMessage<?>> events) {
+        EventAppendEvent event = new EventAppendEvent();
+        event.begin();
+        delegate.appendEvents(events);
+        event.end();
+        if (event.shouldCommit() && !events.isEmpty()) {
+            event.eventCount = events.size();
+            event.eventTypes = events.stream()
+                    .map(message -> message.getPayloadType().getSimpleName())
+                    .collect(Collectors.joining(","));
+            if (events.get(0) instanceof DomainEventMessage<?> first) {
+                event.orderId = first.getAggregateIdentifier();
+                event.firstSequenceNumber = first.getSequenceNumber();
+            }
+            event.commit();
+        }
+    }
+
+    @Override
+    public DomainEventStream readEvents(String aggregateIdentifier, long firstSequenceNumber) {
+        AggregateLoadEvent event = new AggregateLoadEvent();
+        if (!event.isEnabled()) {
+            return delegate.readEvents(aggregateIdentifier, firstSequenceNumber);
+        }
+        event.begin();
+        event.orderId = aggregateIdentifier;
+        event.firstSequenceNumber = firstSequenceNumber;
+        return new RecordingDomainEventStream(delegate.readEvents(aggregateIdentifier, firstSequenceNumber), event);
+    }
+
+    @Override
+    public void storeSnapshot(DomainEventMessage<?> snapshot) {
+        delegate.storeSnapshot(snapshot);
+    }
+
+    @Override
+    public Stream<? extends TrackedEventMessage<?>> readEvents(TrackingToken trackingToken, boolean mayBlock) {
+        return delegate.readEvents(trackingToken, mayBlock);
+    }
+
+    @Override
+    public Optional<DomainEventMessage<?>> readSnapshot(String aggregateIdentifier) {
+        return delegate.readSnapshot(aggregateIdentifier);
+    }
+
+    @Override
+    public Optional<Long> lastSequenceNumberFor(String aggregateIdentifier) {
+        return delegate.lastSequenceNumberFor(aggregateIdentifier);
+    }
+
+    @Override
+    public TrackingToken createTailToken() {
+        return delegate.createTailToken();
+    }
+
+    @Override
+    public TrackingToken createHeadToken() {
+        return delegate.createHeadToken();
+    }
+
+    @Override
+    public TrackingToken createTokenAt(Instant dateTime) {
+        return delegate.createTokenAt(dateTime);
+    }
+
+    /**
+     * Counts the events read, and ends and commits the load event once the stream is exhausted.
+     */
+    private static final class RecordingDomainEventStream implements DomainEventStream {
+
+        private final DomainEventStream delegate;
+        private final AggregateLoadEvent event;
+        private boolean committed;
+
+        private RecordingDomainEventStream(DomainEventStream delegate, AggregateLoadEvent event) {
+            this.delegate = delegate;
+            this.event = event;
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean hasNext = delegate.hasNext();
+            if (!hasNext && !committed) {
+                committed = true;
+                event.end();
+                if (event.shouldCommit()) {
+                    event.commit();
+                }
+            }
+            return hasNext;
+        }
+
+        @Override
+        public DomainEventMessage<?> next() {
+            DomainEventMessage<?> next = delegate.next();
+            if (event.aggregateType == null) {
+                event.aggregateType = next.getType();
+            }
+            event.eventCount++;
+            return next;
+        }
+
+        @Override
+        public DomainEventMessage<?> peek() {
+            return delegate.peek();
+        }
+
+        @Override
+        public Long getLastSequenceNumber() {
+            return delegate.getLastSequenceNumber();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.ordermanagement.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One query request to {@code OrderController}, from the handler being picked until the response is
+ * complete. Streaming subscriptions are not recorded.
+ */
+@Name("com.example.ordermanagement.OrderQuery")
+@Label("Order Query")
+@Description("A query request to the order API")
+@Category({"Order Management", "Queries"})
+@StackTrace(false)
+public class OrderQueryEvent extends jdk.jfr.Event {
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Order ID")
+    public String orderId;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Response Size")
+    @Description("Content length of the response, or -1 if it was not known up front")
+    @DataAmount
+    public long responseSize;
+}
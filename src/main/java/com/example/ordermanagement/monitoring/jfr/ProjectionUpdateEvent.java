@@ -0,0 +1,27 @@
+package com.example.ordermanagement.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One {@code OrderEventHandler} handler invocation, i.e. applying an event to the order query model.
+ */
+@Name("com.example.ordermanagement.ProjectionUpdate")
+@Label("Projection Update")
+@Description("Applying an event to the order query model")
+@Category({"Order Management", "Projection"})
+@StackTrace(false)
+public class ProjectionUpdateEvent extends jdk.jfr.Event {
+
+    @Label("Event Type")
+    public String eventType;
+
+    @Label("Order ID")
+    public String orderId;
+
+    @Label("Sequence Number")
+    public long sequenceNumber;
+}
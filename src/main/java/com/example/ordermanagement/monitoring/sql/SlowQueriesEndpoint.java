@@ -0,0 +1,37 @@
+package com.example.ordermanagement.monitoring.sql;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/slowqueries}: the statements that were slowest overall ({@code ?sort=total}, the
+ * default), in a single execution ({@code max}) or most often ({@code count}), 20 unless {@code ?limit=}
+ * says otherwise. DELETE clears them.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final SlowQueryLog slowQueryLog;
+
+    public SlowQueriesEndpoint(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @ReadOperation
+    public List<SlowQueryLog.SlowStatement> slowQueries(@Nullable Integer limit, @Nullable String sort) {
+        return slowQueryLog.top(limit != null ? limit : DEFAULT_LIMIT, sort);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        slowQueryLog.reset();
+    }
+}
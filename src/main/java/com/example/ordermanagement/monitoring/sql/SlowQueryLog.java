@@ -0,0 +1,297 @@
+package com.example.ordermanagement.monitoring.sql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.lifecycle.JdbcLifecycleEventListener;
+import net.ttddyy.dsproxy.listener.lifecycle.JdbcLifecycleEventListenerAdapter;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records SQL statements that take longer than {@code order-management.slow-query.threshold}, grouped by
+ * their normalized SQL, with the bind parameters, row count and time of the slowest execution, and the
+ * execution plan of the first one.
+ *
+ * The listener it hands out is attached to a datasource-proxy in front of the application's data source.
+ * A query's time runs from its execution until its result set is closed, so fetching the rows counts too,
+ * and its rows are counted as they are read. Plans are captured with {@code EXPLAIN} on a separate
+ * connection from the unproxied data source, on a background thread so the slow query is not delayed
+ * further.
+ *
+ * Bind parameters can hold customer data, so slow statements are logged at WARN without them, and with them
+ * only at DEBUG; the {@code slowqueries} actuator endpoint shows the slowest execution's parameters.
+ */
+@Component
+public class SlowQueryLog implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private final long thresholdNanos;
+    private final Cache<String, Statistics> statistics;
+    private final ExecutorService explainer;
+
+    public SlowQueryLog(@Value("${order-management.slow-query.threshold:100ms}") Duration threshold,
+                        @Value("${order-management.slow-query.max-statements:500}") long maxStatements) {
+        this.thresholdNanos = threshold.toNanos();
+        this.statistics = Caffeine.newBuilder().maximumSize(maxStatements).build();
+        this.explainer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "slow-query-explain");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * A listener for a proxy in front of the given data source, which is also used to explain statements.
+     * The proxy must proxy result sets for queries to be timed until their rows have been read.
+     */
+    public JdbcLifecycleEventListener listener(DataSource target) {
+        return new Listener(target);
+    }
+
+    /**
+     * The statements recorded so far, sorted by the given order: {@code total} time, {@code max} time or
+     * execution {@code count}.
+     */
+    public List<SlowStatement> top(int limit, String sort) {
+        Comparator<SlowStatement> order = switch (sort == null ? "total" : sort.toLowerCase(Locale.ROOT)) {
+            case "max" -> Comparator.comparingDouble(SlowStatement::maxMillis);
+            case "count" -> Comparator.comparingLong(SlowStatement::count);
+            case "total" -> Comparator.comparingDouble(SlowStatement::totalMillis);
+            default -> throw new IllegalArgumentException("Unknown sort " + sort + ", expected total, max or count");
+        };
+        return statistics.asMap().entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(order.reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        statistics.invalidateAll();
+    }
+
+    @Override
+    public void destroy() {
+        explainer.shutdownNow();
+    }
+
+    private void record(DataSource target, String sql, List<Object> parameters, long elapsedNanos, long rows) {
+        if (elapsedNanos < thresholdNanos) {
+            return;
+        }
+        String normalized = SqlNormalizer.normalize(sql);
+        Statistics entry = statistics.get(normalized, ignored -> new Statistics());
+        entry.add(sql, parameters, elapsedNanos, rows);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Slow statement ({} ms, {} rows): {} {}", elapsedNanos / 1_000_000, rows, sql, parameters);
+        } else {
+            logger.warn("Slow statement ({} ms, {} rows): {}", elapsedNanos / 1_000_000, rows, sql);
+        }
+        if (entry.planRequested.compareAndSet(false, true)) {
+            try {
+                explainer.execute(() -> entry.plan = explain(target, sql, parameters));
+            } catch (RejectedExecutionException e) {
+                entry.planRequested.set(false);
+            }
+        }
+    }
+
+    private static String explain(DataSource target, String sql, List<Object> parameters) {
+        String verb = sql.stripLeading().split("\\s", 2)[0].toLowerCase(Locale.ROOT);
+        if (!List.of("select", "with", "update", "delete").contains(verb)) {
+            return null;
+        }
+        try (Connection connection = target.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                explain.setObject(i + 1, parameters.get(i));
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rows = explain.executeQuery()) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                }
+            }
+            return plan.toString().strip();
+        } catch (SQLException | RuntimeException e) {
+            logger.debug("Could not explain {}", sql, e);
+            return "EXPLAIN failed: " + e.getMessage();
+        }
+    }
+
+    private static List<Object> parameters(QueryInfo query) {
+        if (query.getParametersList().isEmpty()) {
+            return List.of();
+        }
+        // Batches repeat the statement with other values; the first set stands in for all of them
+        List<ParameterSetOperation> operations = new ArrayList<>(query.getParametersList().get(0));
+        operations.sort(Comparator.comparing(operation -> operation.getArgs()[0] instanceof Integer index ? index : 0));
+        List<Object> values = new ArrayList<>(operations.size());
+        for (ParameterSetOperation operation : operations) {
+            Object[] args = operation.getArgs();
+            values.add(args.length > 1 ? args[1] : null);
+        }
+        return values;
+    }
+
+    private final class Listener extends JdbcLifecycleEventListenerAdapter {
+
+        private final DataSource target;
+        private final Map<Statement, PendingQuery> pendingQueries = new ConcurrentHashMap<>();
+        // The query whose rows this thread read last; rows are read in a run, so only the first of a run looks it up
+        private final ThreadLocal<PendingQuery> reading = new ThreadLocal<>();
+
+        private Listener(DataSource target) {
+            this.target = target;
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+            if (!execution.isSuccess() || queries.isEmpty()) {
+                return;
+            }
+            long elapsedNanos = TimeUnit.MILLISECONDS.toNanos(execution.getElapsedTime());
+            QueryInfo query = queries.get(0);
+            if (execution.getResult() instanceof ResultSet) {
+                pendingQueries.put(execution.getStatement(),
+                        new PendingQuery(query.getQuery(), parameters(query), System.nanoTime() - elapsedNanos));
+                return;
+            }
+            Object result = execution.getResult();
+            long rows = result instanceof Integer count ? count
+                    : result instanceof Long count ? count
+                    : result instanceof int[] counts ? Arrays.stream(counts).asLongStream().sum()
+                    : result instanceof long[] counts ? Arrays.stream(counts).sum()
+                    : -1;
+            for (QueryInfo each : queries) {
+                record(target, each.getQuery(), parameters(each), elapsedNanos, rows);
+            }
+        }
+
+        @Override
+        public void afterNext(MethodExecutionContext context) {
+            if (!Boolean.TRUE.equals(context.getResult())) {
+                return;
+            }
+            Object resultSet = context.getTarget();
+            PendingQuery pending = reading.get();
+            if (pending == null || pending.resultSet != resultSet) {
+                pending = pendingQueries.get(statementOf(context));
+                if (pending == null) {
+                    return;
+                }
+                pending.resultSet = resultSet;
+                reading.set(pending);
+            }
+            pending.rows++;
+        }
+
+        @Override
+        public void afterClose(MethodExecutionContext context) {
+            Statement statement = context.getTarget() instanceof ResultSet ? statementOf(context)
+                    : context.getTarget() instanceof Statement closed ? closed
+                    : null;
+            PendingQuery pending = statement == null ? null : pendingQueries.remove(statement);
+            if (pending != null) {
+                if (reading.get() == pending) {
+                    reading.remove();
+                }
+                record(target, pending.sql, pending.parameters, System.nanoTime() - pending.startedNanos, pending.rows);
+            }
+        }
+
+        private Statement statementOf(MethodExecutionContext context) {
+            try {
+                return context.getTarget() instanceof ResultSet resultSet ? resultSet.getStatement() : null;
+            } catch (SQLException e) {
+                return null;
+            }
+        }
+    }
+
+    private static final class PendingQuery {
+
+        private final String sql;
+        private final List<Object> parameters;
+        private final long startedNanos;
+        private Object resultSet;
+        private long rows;
+
+        private PendingQuery(String sql, List<Object> parameters, long startedNanos) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.startedNanos = startedNanos;
+        }
+    }
+
+    private static final class Statistics {
+
+        private final AtomicBoolean planRequested = new AtomicBoolean();
+        private volatile String plan;
+        private long count;
+        private long totalNanos;
+        private long totalRows;
+        private long maxNanos = -1;
+        private Instant lastSeen;
+        private Execution slowest;
+
+        private synchronized void add(String sql, List<Object> parameters, long elapsedNanos, long rows) {
+            count++;
+            totalNanos += elapsedNanos;
+            totalRows += Math.max(0, rows);
+            lastSeen = Instant.now();
+            if (elapsedNanos > maxNanos) {
+                maxNanos = elapsedNanos;
+                slowest = new Execution(sql, parameters.stream().map(String::valueOf).toList(), elapsedNanos / 1e6, rows, lastSeen);
+            }
+        }
+
+        private synchronized SlowStatement snapshot(String normalizedSql) {
+            return new SlowStatement(normalizedSql, count, totalNanos / 1e6, totalNanos / 1e6 / count, maxNanos / 1e6,
+                    (double) totalRows / count, lastSeen, slowest, plan);
+        }
+    }
+
+    /**
+     * One normalized statement: how often it was slow, its times in milliseconds, its mean row count, its
+     * slowest execution and its plan, null until captured.
+     */
+    public record SlowStatement(String sql, long count, double totalMillis, double meanMillis, double maxMillis,
+                                double meanRows, Instant lastSeen, Execution slowest, String plan) {
+    }
+
+    /**
+     * One execution as sent to the database. Rows are those read or updated, or -1 if not known.
+     */
+    public record Execution(String sql, List<String> parameters, double millis, long rows, Instant at) {
+    }
+}
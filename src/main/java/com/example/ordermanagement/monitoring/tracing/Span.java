@@ -0,0 +1,16 @@
+package com.example.ordermanagement.monitoring.tracing;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * One timed step of a trace: an HTTP request, a command, or an event waiting for and passing through an
+ * event processor.
+ */
+public record Span(String traceId, String name, String orderId, Instant start, long durationMicros,
+                   Map<String, String> attributes) {
+
+    public Instant end() {
+        return start.plusNanos(durationMicros * 1000);
+    }
+}
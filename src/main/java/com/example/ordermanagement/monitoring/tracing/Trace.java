@@ -0,0 +1,22 @@
+package com.example.ordermanagement.monitoring.tracing;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The spans of one trace still in the buffer, ordered by start. The duration runs from the first start to
+ * the last end, so for a command it covers the projection catching up as well.
+ */
+public record Trace(String traceId, List<String> orderIds, Instant start, long durationMicros, List<Span> spans) {
+
+    static Trace of(String traceId, List<Span> spans) {
+        List<Span> ordered = spans.stream().sorted(Comparator.comparing(Span::start)).toList();
+        Instant start = ordered.get(0).start();
+        Instant end = ordered.stream().map(Span::end).max(Comparator.naturalOrder()).orElse(start);
+        List<String> orderIds = ordered.stream().map(Span::orderId).filter(Objects::nonNull).distinct().toList();
+        return new Trace(traceId, orderIds, start, Duration.between(start, end).toNanos() / 1000, ordered);
+    }
+}
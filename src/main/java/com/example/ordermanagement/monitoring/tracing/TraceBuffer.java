@@ -0,0 +1,120 @@
+package com.example.ordermanagement.monitoring.tracing;
+
+import com.example.ordermanagement.monitoring.HeapFootprint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The most recent spans of sampled traces, in a fixed-size ring that overwrites the oldest span. Recording
+ * is a single array write, and queries group whatever is in the ring into traces when they are asked for,
+ * so a trace whose early spans were overwritten is returned with the spans that are left.
+ */
+@Component
+public class TraceBuffer implements HeapFootprint {
+
+    // Span record, its instant and attribute map, and the per-entry cost of an attribute, beyond strings
+    private static final long SPAN_OVERHEAD_BYTES = 160;
+    private static final long ATTRIBUTE_OVERHEAD_BYTES = 64;
+
+    private final AtomicReferenceArray<Span> spans;
+    private final AtomicLong recorded = new AtomicLong();
+    private final double sampleRate;
+
+    public TraceBuffer(@Value("${order-management.tracing.sample-rate:0.1}") double sampleRate,
+                       @Value("${order-management.tracing.buffer-size:10000}") int bufferSize) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("order-management.tracing.sample-rate must be between 0 and 1");
+        }
+        this.sampleRate = sampleRate;
+        this.spans = new AtomicReferenceArray<>(bufferSize);
+    }
+
+    /**
+     * Decides whether a new trace is sampled.
+     */
+    public boolean sample() {
+        return sampleRate > 0 && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    public void record(String traceId, String name, String orderId, Instant start, Duration duration,
+                       Map<String, String> attributes) {
+        Span span = new Span(traceId, name, orderId, start, Math.max(0, duration.toNanos() / 1000), attributes);
+        spans.set((int) (recorded.getAndIncrement() % spans.length()), span);
+    }
+
+    public List<Trace> slowest(int limit) {
+        return traces().stream()
+                .sorted(Comparator.comparingLong(Trace::durationMicros).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public List<Trace> forOrder(String orderId) {
+        return traces().stream()
+                .filter(trace -> trace.orderIds().contains(orderId))
+                .sorted(Comparator.comparing(Trace::start))
+                .toList();
+    }
+
+    public Trace trace(String traceId) {
+        List<Span> matching = snapshot().stream().filter(span -> span.traceId().equals(traceId)).toList();
+        return matching.isEmpty() ? null : Trace.of(traceId, matching);
+    }
+
+    @Override
+    public List<Usage> heapUsage() {
+        long count = 0;
+        long bytes = 16L + 4L * spans.length();
+        for (Span span : snapshot()) {
+            count++;
+            bytes += SPAN_OVERHEAD_BYTES + length(span.traceId()) + length(span.name()) + length(span.orderId());
+            for (Map.Entry<String, String> attribute : span.attributes().entrySet()) {
+                bytes += ATTRIBUTE_OVERHEAD_BYTES + length(attribute.getKey()) + length(attribute.getValue());
+            }
+        }
+        return List.of(new Usage("trace-spans", count, bytes));
+    }
+
+    @Override
+    public void relieve(Pressure pressure) {
+        if (pressure != Pressure.CRITICAL) {
+            return;
+        }
+        for (int i = 0; i < spans.length(); i++) {
+            spans.set(i, null);
+        }
+    }
+
+    private static long length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private List<Trace> traces() {
+        Map<String, List<Span>> byTrace = new LinkedHashMap<>();
+        for (Span span : snapshot()) {
+            byTrace.computeIfAbsent(span.traceId(), ignored -> new ArrayList<>()).add(span);
+        }
+        return byTrace.entrySet().stream().map(entry -> Trace.of(entry.getKey(), entry.getValue())).toList();
+    }
+
+    private List<Span> snapshot() {
+        List<Span> copy = new ArrayList<>(spans.length());
+        for (int i = 0; i < spans.length(); i++) {
+            copy.add(spans.get(i));
+        }
+        copy.removeIf(Objects::isNull);
+        return copy;
+    }
+}
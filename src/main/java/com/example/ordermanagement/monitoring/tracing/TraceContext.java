@@ -0,0 +1,32 @@
+package com.example.ordermanagement.monitoring.tracing;
+
+/**
+ * The trace of the HTTP request the current thread is handling, picked up when it dispatches commands.
+ */
+public record TraceContext(String traceId, boolean sampled) {
+
+    /**
+     * Metadata key of the trace ID. It is the key Axon's {@code MessageOriginProvider} copies from a
+     * message to the messages produced while handling it, so events inherit the trace of their command.
+     */
+    public static final String TRACE_ID = "traceId";
+
+    /**
+     * Metadata key marking messages of sampled traces, copied along by its own correlation data provider.
+     */
+    public static final String SAMPLED = "traceSampled";
+
+    private static final ThreadLocal<TraceContext> CURRENT = new ThreadLocal<>();
+
+    public static TraceContext current() {
+        return CURRENT.get();
+    }
+
+    static void set(TraceContext context) {
+        if (context == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(context);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.ordermanagement.monitoring.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/traces}: the slowest traces in the buffer ({@code ?limit=}, 20 by default), the traces
+ * of one order ({@code ?orderId=}), or one trace by ID ({@code /actuator/traces/{traceId}}).
+ */
+@Component
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final TraceBuffer traceBuffer;
+
+    public TracesEndpoint(TraceBuffer traceBuffer) {
+        this.traceBuffer = traceBuffer;
+    }
+
+    @ReadOperation
+    public List<Trace> traces(@Nullable String orderId, @Nullable Integer limit) {
+        return orderId != null
+                ? traceBuffer.forOrder(orderId)
+                : traceBuffer.slowest(limit != null ? limit : DEFAULT_LIMIT);
+    }
+
+    @ReadOperation
+    public Trace trace(@Selector String traceId) {
+        return traceBuffer.trace(traceId);
+    }
+}
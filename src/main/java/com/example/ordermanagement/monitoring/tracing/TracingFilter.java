@@ -0,0 +1,96 @@
+package com.example.ordermanagement.monitoring.tracing;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Starts a trace for every API request, or continues the one named by an incoming {@value #TRACE_ID_HEADER}
+ * header, and returns its ID in the same header. Commands sent while handling the request carry the trace
+ * ID in their metadata. Sampled requests, including all that arrive with a trace ID, are recorded as a span
+ * that lasts until the response is complete, so waiting for a consistency token is included.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+public class TracingFilter extends OncePerRequestFilter {
+
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    private final TraceBuffer traceBuffer;
+
+    public TracingFilter(TraceBuffer traceBuffer) {
+        this.traceBuffer = traceBuffer;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String incoming = request.getHeader(TRACE_ID_HEADER);
+        boolean sampled = incoming != null || traceBuffer.sample();
+        TraceContext context = new TraceContext(incoming != null ? incoming : UUID.randomUUID().toString(), sampled);
+        response.setHeader(TRACE_ID_HEADER, context.traceId());
+
+        Instant start = Instant.now();
+        long started = System.nanoTime();
+        TraceContext.set(context);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TraceContext.set(null);
+        }
+        if (!sampled) {
+            return;
+        }
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    record(context, request, response, start, started);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+        } else {
+            record(context, request, response, start, started);
+        }
+    }
+
+    private void record(TraceContext context, HttpServletRequest request, HttpServletResponse response,
+                        Instant start, long started) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String orderId = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables
+                && variables.get("orderId") instanceof String id ? id : null;
+        traceBuffer.record(context.traceId(), request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI()),
+                orderId, start, Duration.ofNanos(System.nanoTime() - started),
+                Map.of("status", Integer.toString(response.getStatus())));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.ordermanagement.monitoring.tracing;
+
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.messaging.MessageDispatchInterceptor;
+import org.axonframework.messaging.MessageHandlerInterceptor;
+import org.axonframework.messaging.MetaData;
+import org.axonframework.modelling.command.AnnotationCommandTargetResolver;
+import org.axonframework.modelling.command.CommandTargetResolver;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * The Axon side of tracing. Commands pick up the trace of the request that sends them, or start a sampled
+ * trace of their own if there is none, and events inherit it through their correlation data. Sampled
+ * commands are recorded from the start of handling until their unit of work is cleaned up, and sampled
+ * events as the time they waited for a processor and the time until the processor committed them.
+ */
+@Component
+public class TracingInterceptors {
+
+    private final TraceBuffer traceBuffer;
+    private final CommandTargetResolver targetResolver = AnnotationCommandTargetResolver.builder().build();
+
+    public TracingInterceptors(TraceBuffer traceBuffer) {
+        this.traceBuffer = traceBuffer;
+    }
+
+    public MessageDispatchInterceptor<CommandMessage<?>> commandDispatchInterceptor() {
+        return new MessageDispatchInterceptor<>() {
+            @Override
+            public BiFunction<Integer, CommandMessage<?>, CommandMessage<?>> handle(List<? extends CommandMessage<?>> messages) {
+                return (index, command) -> {
+                    if (command.getMetaData().containsKey(TraceContext.SAMPLED)) {
+                        return command;
+                    }
+                    TraceContext context = TraceContext.current();
+                    if (context == null) {
+                        context = new TraceContext(command.getIdentifier(), traceBuffer.sample());
+                    }
+                    return context.sampled()
+                            ? command.andMetaData(Map.of(TraceContext.TRACE_ID, context.traceId(), TraceContext.SAMPLED, Boolean.TRUE))
+                            : command.andMetaData(Map.of(TraceContext.TRACE_ID, context.traceId()));
+                };
+            }
+        };
+    }
+
+    public MessageHandlerInterceptor<CommandMessage<?>> commandHandlerInterceptor() {
+        return (unitOfWork, chain) -> {
+            CommandMessage<?> command = unitOfWork.getMessage();
+            if (!isSampled(command.getMetaData())) {
+                return chain.proceed();
+            }
+            Instant start = Instant.now();
+            long started = System.nanoTime();
+            unitOfWork.onCleanup(done -> traceBuffer.record(traceId(command.getMetaData()),
+                    "command " + command.getPayloadType().getSimpleName(), orderId(command), start,
+                    Duration.ofNanos(System.nanoTime() - started),
+                    Map.of("outcome", done.getExecutionResult() != null && done.getExecutionResult().isExceptionResult()
+                            ? "failed" : "succeeded")));
+            return chain.proceed();
+        };
+    }
+
+    public MessageHandlerInterceptor<EventMessage<?>> eventHandlerInterceptor(String processorName) {
+        return (unitOfWork, chain) -> {
+            EventMessage<?> event = unitOfWork.getMessage();
+            if (!isSampled(event.getMetaData())) {
+                return chain.proceed();
+            }
+            String traceId = traceId(event.getMetaData());
+            String eventType = event.getPayloadType().getSimpleName();
+            String orderId = event instanceof DomainEventMessage<?> domainEvent ? domainEvent.getAggregateIdentifier() : null;
+            Map<String, String> attributes = Map.of("processor", processorName, "event", eventType);
+
+            Instant start = Instant.now();
+            long started = System.nanoTime();
+            traceBuffer.record(traceId, "wait " + processorName, orderId, event.getTimestamp(),
+                    Duration.between(event.getTimestamp(), start), attributes);
+            unitOfWork.afterCommit(committed -> traceBuffer.record(traceId, "project " + eventType, orderId, start,
+                    Duration.ofNanos(System.nanoTime() - started), attributes));
+            return chain.proceed();
+        };
+    }
+
+    private static boolean isSampled(MetaData metaData) {
+        return Boolean.TRUE.equals(metaData.get(TraceContext.SAMPLED)) && metaData.get(TraceContext.TRACE_ID) != null;
+    }
+
+    private static String traceId(MetaData metaData) {
+        return metaData.get(TraceContext.TRACE_ID).toString();
+    }
+
+    private String orderId(CommandMessage<?> command) {
+        try {
+            return targetResolver.resolveTarget(command).getIdentifier();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.ordermanagement.query;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram inverted index over customer names, replacing {@code LIKE %name%} scans.
+ *
+ * Every indexed order gets a dense document number in arrival order. Each trigram of the lower-cased
+ * name, prefixed with two start markers, maps to an ascending posting list of document numbers. A query
+ * intersects the posting lists of its own trigrams, starting from the shortest, and verifies each
+ * candidate against the stored name, so results are exact. Because of the start markers, prefix
+ * queries of any length use the index. Contains queries shorter than three characters have no
+ * trigram and fall back to a scan that stops as soon as the page is full. Removed orders are blanked out
+ * in place and skipped; their document numbers stay in the posting lists until the next restart.
+ */
+@Component
+public class CustomerNameSearchIndex implements SmartInitializingSingleton {
+
+    public enum MatchMode { CONTAINS, PREFIX }
+
+    private static final char START = '\u0002';
+    private static final String START_PADDING = "" + START + START;
+    private static final int GRAM = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private String[] orderIds = new String[1024];
+    private String[] customerNames = new String[1024];
+    private int size;
+    private int removed;
+
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final ObjectProvider<ShardedOrderStore> shardedStore;
+    private final TransactionTemplate transactionTemplate;
+
+    public CustomerNameSearchIndex(OrderSummaryRepository orderSummaryRepository,
+                                   ObjectProvider<ShardedOrderStore> shardedStore,
+                                   PlatformTransactionManager transactionManager) {
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.shardedStore = shardedStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        // Processing tokens survive restarts while this index does not, so seed it from the query model
+        ShardedOrderStore store = shardedStore.getIfAvailable();
+        if (store != null) {
+            // The index holds every name anyway, so the shards' rows are merged in memory
+            List<ShardedOrderStore.CustomerName> rows = new ArrayList<>();
+            store.scatter(ShardedOrderStore.Shard::findCustomerNames).forEach(rows::addAll);
+            rows.sort(Comparator.comparing(ShardedOrderStore.CustomerName::createdAt).thenComparing(ShardedOrderStore.CustomerName::orderId));
+            rows.forEach(row -> add(row.orderId(), row.customerName()));
+            return;
+        }
+        transactionTemplate.executeWithoutResult(tx -> {
+            try (Stream<OrderSummaryRepository.CustomerNameView> rows = orderSummaryRepository.streamCustomerNames()) {
+                rows.forEach(row -> add(row.getOrderId(), row.getCustomerName()));
+            }
+        });
+    }
+
+    public void add(String orderId, String customerName) {
+        if (customerName == null) {
+            return;
+        }
+        Set<Long> grams = grams(START_PADDING + normalize(customerName));
+        lock.writeLock().lock();
+        try {
+            if (size == orderIds.length) {
+                orderIds = Arrays.copyOf(orderIds, size * 2);
+                customerNames = Arrays.copyOf(customerNames, size * 2);
+            }
+            int doc = size++;
+            orderIds[doc] = orderId;
+            customerNames[doc] = customerName;
+            for (Long gram : grams) {
+                postings.computeIfAbsent(gram, key -> new Postings()).add(doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops an order, such as one moved to the archive, from the results. Returns whether it was indexed.
+     */
+    public boolean remove(String orderId, String customerName) {
+        if (customerName == null || customerName.isEmpty()) {
+            return false;
+        }
+        Set<Long> grams = grams(START_PADDING + normalize(customerName));
+        lock.writeLock().lock();
+        try {
+            // Every trigram of the name lists the order, so the shortest list is enough to find it
+            Postings shortest = null;
+            for (Long gram : grams) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    return false;
+                }
+                if (shortest == null || list.size < shortest.size) {
+                    shortest = list;
+                }
+            }
+            for (int i = 0; i < shortest.size; i++) {
+                int doc = shortest.docs[i];
+                if (orderId.equals(orderIds[doc])) {
+                    orderIds[doc] = null;
+                    customerNames[doc] = null;
+                    removed++;
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size - removed;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} matching order IDs in indexing order, starting after the given cursor
+     * (null for the first page).
+     */
+    public Page search(String query, MatchMode mode, boolean ignoreCase, String cursor, int limit) {
+        int after = cursor == null ? -1 : decodeCursor(cursor);
+        String normalized = normalize(query);
+        String gramSource = mode == MatchMode.PREFIX ? START_PADDING + normalized : normalized;
+
+        lock.readLock().lock();
+        try {
+            List<Integer> matches = gramSource.length() < GRAM
+                    ? scan(query, mode, ignoreCase, after, limit + 1)
+                    : intersect(grams(gramSource), query, mode, ignoreCase, after, limit + 1);
+
+            boolean hasMore = matches.size() > limit;
+            List<String> page = new ArrayList<>(Math.min(matches.size(), limit));
+            for (int i = 0; i < matches.size() && i < limit; i++) {
+                page.add(orderIds[matches.get(i)]);
+            }
+            return new Page(page, hasMore ? encodeCursor(matches.get(limit - 1)) : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Integer> intersect(Set<Long> grams, String query, MatchMode mode, boolean ignoreCase, int after, int limit) {
+        List<Postings> lists = new ArrayList<>(grams.size());
+        for (Long gram : grams) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return List.of();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        Postings driver = lists.get(0);
+        int[] cursors = new int[lists.size()];
+        List<Integer> matches = new ArrayList<>();
+        for (int i = driver.firstAfter(after); i < driver.size && matches.size() < limit; i++) {
+            int doc = driver.docs[i];
+            if (containsInAll(lists, cursors, doc) && verify(customerNames[doc], query, mode, ignoreCase)) {
+                matches.add(doc);
+            }
+        }
+        return matches;
+    }
+
+    // Candidates arrive in ascending order, so each list's search can start where the previous one stopped
+    private static boolean containsInAll(List<Postings> lists, int[] cursors, int doc) {
+        for (int l = 1; l < lists.size(); l++) {
+            Postings list = lists.get(l);
+            int position = Arrays.binarySearch(list.docs, cursors[l], list.size, doc);
+            if (position < 0) {
+                cursors[l] = -position - 1;
+                return false;
+            }
+            cursors[l] = position;
+        }
+        return true;
+    }
+
+    private List<Integer> scan(String query, MatchMode mode, boolean ignoreCase, int after, int limit) {
+        List<Integer> matches = new ArrayList<>();
+        for (int doc = after + 1; doc < size && matches.size() < limit; doc++) {
+            if (verify(customerNames[doc], query, mode, ignoreCase)) {
+                matches.add(doc);
+            }
+        }
+        return matches;
+    }
+
+    private static boolean verify(String name, String query, MatchMode mode, boolean ignoreCase) {
+        if (name == null) {
+            return false;
+        }
+        if (mode == MatchMode.PREFIX) {
+            return name.regionMatches(ignoreCase, 0, query, 0, query.length());
+        }
+        for (int offset = 0; offset + query.length() <= name.length(); offset++) {
+            if (name.regionMatches(ignoreCase, offset, query, 0, query.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private static String encodeCursor(int doc) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Integer.toString(doc).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeCursor(String cursor) {
+        try {
+            return Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + cursor, e);
+        }
+    }
+
+    // Append-only ascending list of document numbers
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        int firstAfter(int doc) {
+            int position = Arrays.binarySearch(docs, 0, size, doc);
+            return position >= 0 ? position + 1 : -position - 1;
+        }
+    }
+
+    public static final class Page {
+        private final List<String> orderIds;
+        private final String nextCursor;
+
+        public Page(List<String> orderIds, String nextCursor) {
+            this.orderIds = orderIds;
+            this.nextCursor = nextCursor;
+        }
+
+        // Getters
+        public List<String> getOrderIds() { return orderIds; }
+        public String getNextCursor() { return nextCursor; }
+    }
+}
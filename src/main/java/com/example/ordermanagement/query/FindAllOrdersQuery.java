@@ -0,0 +1,16 @@
+package com.example.ordermanagement.query;
+
+public class FindAllOrdersQuery {
+
+    private final OrderCursor after;
+    private final int limit;
+
+    public FindAllOrdersQuery(OrderCursor after, int limit) {
+        this.after = after;
+        this.limit = limit;
+    }
+
+    // Getters
+    public OrderCursor getAfter() { return after; }
+    public int getLimit() { return limit; }
+}
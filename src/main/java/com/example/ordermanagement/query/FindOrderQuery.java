@@ -0,0 +1,13 @@
+package com.example.ordermanagement.query;
+
+public class FindOrderQuery {
+
+    private final String orderId;
+
+    public FindOrderQuery(String orderId) {
+        this.orderId = orderId;
+    }
+
+    // Getters
+    public String getOrderId() { return orderId; }
+}
@@ -0,0 +1,19 @@
+package com.example.ordermanagement.query;
+
+public class FindOrdersByCustomerQuery {
+
+    private final String customerId;
+    private final OrderCursor after;
+    private final int limit;
+
+    public FindOrdersByCustomerQuery(String customerId, OrderCursor after, int limit) {
+        this.customerId = customerId;
+        this.after = after;
+        this.limit = limit;
+    }
+
+    // Getters
+    public String getCustomerId() { return customerId; }
+    public OrderCursor getAfter() { return after; }
+    public int getLimit() { return limit; }
+}
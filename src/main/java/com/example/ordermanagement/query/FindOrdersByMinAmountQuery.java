@@ -0,0 +1,21 @@
+package com.example.ordermanagement.query;
+
+import java.math.BigDecimal;
+
+public class FindOrdersByMinAmountQuery {
+
+    private final BigDecimal minAmount;
+    private final OrderCursor after;
+    private final int limit;
+
+    public FindOrdersByMinAmountQuery(BigDecimal minAmount, OrderCursor after, int limit) {
+        this.minAmount = minAmount;
+        this.after = after;
+        this.limit = limit;
+    }
+
+    // Getters
+    public BigDecimal getMinAmount() { return minAmount; }
+    public OrderCursor getAfter() { return after; }
+    public int getLimit() { return limit; }
+}
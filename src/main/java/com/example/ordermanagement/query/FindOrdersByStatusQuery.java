@@ -0,0 +1,19 @@
+package com.example.ordermanagement.query;
+
+public class FindOrdersByStatusQuery {
+
+    private final OrderSummary.OrderStatus status;
+    private final OrderCursor after;
+    private final int limit;
+
+    public FindOrdersByStatusQuery(OrderSummary.OrderStatus status, OrderCursor after, int limit) {
+        this.status = status;
+        this.after = after;
+        this.limit = limit;
+    }
+
+    // Getters
+    public OrderSummary.OrderStatus getStatus() { return status; }
+    public OrderCursor getAfter() { return after; }
+    public int getLimit() { return limit; }
+}
@@ -0,0 +1,496 @@
+package com.example.ordermanagement.query;
+
+import com.example.ordermanagement.event.*;
+import com.example.ordermanagement.monitoring.HeapFootprint;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Optional query backend that keeps every order in memory, enabled with
+ * {@code order-management.read-model.backend=in-memory}.
+ *
+ * Orders are stored as immutable snapshots in a concurrent map and indexed by creation order, customer,
+ * status and total amount in concurrent skip lists, so lookups and keyset pages never touch the database.
+ * Minimum-amount pages in creation order come from a further creation-ordered index per power-of-two
+ * amount band: the bands wholly above the minimum are merged from the cursor on, and only the band
+ * holding the minimum is filtered.
+ * Each snapshot remembers the aggregate sequence number it reflects. That makes updates idempotent: the
+ * model can be rebuilt from the event store at startup and still accept redelivered events afterwards.
+ *
+ * Orders moved into the {@link OrderArchive} are evicted, left out of the rebuild and not taken back.
+ *
+ * The JPA projection keeps running. Until the rebuild has finished, and for good once the estimated
+ * footprint exceeds the configured heap budget or the heap as a whole runs critically full, queries are
+ * answered by {@link JpaOrderQueryModel}.
+ */
+@Primary
+@Component
+@ConditionalOnProperty(name = "order-management.read-model.backend", havingValue = "in-memory")
+public class InMemoryOrderReadModel implements OrderQueryModel, SmartInitializingSingleton, HeapFootprint {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryOrderReadModel.class);
+
+    // Rough per-order cost of the snapshot, its index entries and map node, excluding string contents
+    private static final long ORDER_OVERHEAD_BYTES = 660;
+    private static final long ITEM_OVERHEAD_BYTES = 120;
+    // The part of the per-order cost taken by its entries in the five indexes
+    private static final long INDEX_BYTES_PER_ORDER = 300;
+    private static final OrderKey LOWEST_KEY = new OrderKey(LocalDateTime.MIN, "");
+
+    private final ConcurrentMap<String, Versioned> orders = new ConcurrentHashMap<>();
+    private final NavigableSet<OrderKey> byCreatedAt = new ConcurrentSkipListSet<>();
+    private final ConcurrentMap<String, NavigableSet<OrderKey>> byCustomer = new ConcurrentHashMap<>();
+    private final Map<OrderSummary.OrderStatus, NavigableSet<OrderKey>> byStatus = new EnumMap<>(OrderSummary.OrderStatus.class);
+    private final NavigableSet<AmountKey> byTotalAmount = new ConcurrentSkipListSet<>();
+    private final ConcurrentNavigableMap<Integer, NavigableSet<AmountKey>> byAmountBandCreatedAt = new ConcurrentSkipListMap<>();
+    private final AtomicLong estimatedBytes = new AtomicLong();
+
+    private final JpaOrderQueryModel fallback;
+    private final EventStorageEngine eventStorageEngine;
+    private final ObjectProvider<OrderArchive> archive;
+    private final long maxHeapBytes;
+    private volatile boolean serving;
+    private volatile boolean overBudget;
+
+    public InMemoryOrderReadModel(JpaOrderQueryModel fallback, EventStorageEngine eventStorageEngine,
+                                  ObjectProvider<OrderArchive> archive,
+                                  @Value("${order-management.read-model.in-memory.max-heap:1GB}") DataSize maxHeap) {
+        this.fallback = fallback;
+        this.eventStorageEngine = eventStorageEngine;
+        this.archive = archive;
+        this.maxHeapBytes = maxHeap.toBytes();
+        for (OrderSummary.OrderStatus status : OrderSummary.OrderStatus.values()) {
+            byStatus.put(status, new ConcurrentSkipListSet<>());
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Replays the whole event store into the model. Runs once, before event processors start; events they
+     * deliver again afterwards are recognised by their sequence number and ignored.
+     */
+    public void rebuild() {
+        if (!orders.isEmpty()) {
+            throw new IllegalStateException("The in-memory read model has already been built");
+        }
+        long started = System.nanoTime();
+        // Replay straight into the map, which nothing reads until serving, so no second copy is held;
+        // the indexes are built once every order has its final state
+        try (Stream<? extends TrackedEventMessage<?>> events = eventStorageEngine.readEvents(null, false)) {
+            events.forEach(message -> {
+                if (message instanceof DomainEventMessage<?> domainMessage) {
+                    replay(orders, domainMessage.getSequenceNumber(), domainMessage.getPayload());
+                }
+            });
+        }
+        orders.keySet().removeIf(this::archived);
+        for (Versioned versioned : orders.values()) {
+            // Replayed item removals leave a record meant for the JPA projection; nothing flushes these
+            versioned.order.forgetRemovals();
+            index(versioned.order);
+            estimatedBytes.addAndGet(estimateSize(versioned.order));
+        }
+        if (estimatedBytes.get() > maxHeapBytes) {
+            disable("exceeded its heap budget of " + maxHeapBytes + " bytes");
+        }
+        serving = !overBudget;
+        logger.info("In-memory read model rebuilt with {} orders (~{} MB) in {} ms", orders.size(),
+                estimatedBytes.get() / (1024 * 1024), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Publishes the state of an order as of the given aggregate sequence number. The snapshot must not
+     * be modified afterwards; older or repeated sequence numbers are ignored.
+     */
+    public void put(OrderSummary snapshot, long sequence) {
+        if (overBudget || archived(snapshot.getOrderId())) {
+            return;
+        }
+        orders.compute(snapshot.getOrderId(), (orderId, current) -> {
+            if (current != null && current.sequence >= sequence) {
+                return current;
+            }
+            if (current != null) {
+                unindex(current.order);
+                estimatedBytes.addAndGet(-estimateSize(current.order));
+            }
+            index(snapshot);
+            estimatedBytes.addAndGet(estimateSize(snapshot));
+            return new Versioned(snapshot, sequence);
+        });
+        if (estimatedBytes.get() > maxHeapBytes) {
+            disable("exceeded its heap budget of " + maxHeapBytes + " bytes");
+        }
+    }
+
+    /**
+     * Drops an order that has been moved into the archive.
+     */
+    public void evict(String orderId) {
+        orders.computeIfPresent(orderId, (id, current) -> {
+            unindex(current.order);
+            estimatedBytes.addAndGet(-estimateSize(current.order));
+            return null;
+        });
+    }
+
+    public boolean isServing() {
+        return serving;
+    }
+
+    public int size() {
+        return orders.size();
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes.get();
+    }
+
+    @Override
+    public List<Usage> heapUsage() {
+        long count = orders.size();
+        long indexBytes = count * INDEX_BYTES_PER_ORDER;
+        return List.of(new Usage("in-memory-read-model", count, Math.max(0, estimatedBytes.get() - indexBytes)),
+                new Usage("in-memory-read-model-indexes", 5 * count, indexBytes));
+    }
+
+    @Override
+    public void relieve(Pressure pressure) {
+        if (pressure == Pressure.CRITICAL) {
+            disable("gave up its memory as the heap is critically full");
+        }
+    }
+
+    @Override
+    public Optional<OrderSummary> findById(String orderId) {
+        if (!serving) {
+            return fallback.findById(orderId);
+        }
+        return Optional.ofNullable(orders.get(orderId)).map(versioned -> versioned.order);
+    }
+
+    @Override
+    public Optional<Long> findVersionById(String orderId) {
+        if (!serving) {
+            return fallback.findVersionById(orderId);
+        }
+        return Optional.ofNullable(orders.get(orderId)).map(versioned -> versioned.order.getVersion());
+    }
+
+    @Override
+    public List<OrderSummary> findAllById(List<String> orderIds) {
+        if (!serving) {
+            return fallback.findAllById(orderIds);
+        }
+        List<OrderSummary> found = new ArrayList<>(orderIds.size());
+        for (String orderId : orderIds) {
+            Versioned versioned = orders.get(orderId);
+            if (versioned != null) {
+                found.add(versioned.order);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public List<OrderSummary> findAll(OrderCursor after, int limit) {
+        return serving ? page(byCreatedAt, after, limit, order -> true) : fallback.findAll(after, limit);
+    }
+
+    @Override
+    public List<OrderSummary> findByCustomerId(String customerId, OrderCursor after, int limit) {
+        if (!serving) {
+            return fallback.findByCustomerId(customerId, after, limit);
+        }
+        NavigableSet<OrderKey> keys = byCustomer.get(customerId);
+        return keys == null ? List.of() : page(keys, after, limit, order -> customerId.equals(order.getCustomerId()));
+    }
+
+    @Override
+    public List<OrderSummary> findByStatus(OrderSummary.OrderStatus status, OrderCursor after, int limit) {
+        return serving
+                ? page(byStatus.get(status), after, limit, order -> order.getStatus() == status)
+                : fallback.findByStatus(status, after, limit);
+    }
+
+    @Override
+    public List<OrderSummary> findByMinAmount(BigDecimal minAmount, OrderCursor after, int limit) {
+        if (!serving) {
+            return fallback.findByMinAmount(minAmount, after, limit);
+        }
+        // Merge the creation-ordered band indexes from the cursor on; only the lowest band needs filtering
+        AmountKey from = new AmountKey(minAmount, after == null ? LOWEST_KEY : new OrderKey(after.getCreatedAt(), after.getOrderId()));
+        PriorityQueue<BandCursor> heads = new PriorityQueue<>();
+        int lowestBand = band(minAmount);
+        for (Map.Entry<Integer, NavigableSet<AmountKey>> band : byAmountBandCreatedAt.tailMap(lowestBand, true).entrySet()) {
+            BandCursor head = new BandCursor(band.getValue().tailSet(from, after == null).iterator(),
+                    band.getKey() == lowestBand ? minAmount : null);
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        List<OrderSummary> page = new ArrayList<>(Math.min(limit, 64));
+        while (page.size() < limit && !heads.isEmpty()) {
+            BandCursor head = heads.poll();
+            add(page, head.current);
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public List<OrderSummary> findByMinAmountOrderByAmount(BigDecimal minAmount, boolean descending, OrderAmountCursor after, int limit) {
+        if (!serving) {
+            return fallback.findByMinAmountOrderByAmount(minAmount, descending, after, limit);
+        }
+        NavigableSet<AmountKey> matching = byTotalAmount.tailSet(new AmountKey(minAmount, LOWEST_KEY), true);
+        if (descending) {
+            matching = matching.descendingSet();
+        }
+        if (after != null) {
+            matching = matching.tailSet(new AmountKey(after.getTotalAmount(), new OrderKey(after.getCreatedAt(), after.getOrderId())), false);
+        }
+        List<OrderSummary> page = new ArrayList<>(Math.min(limit, 64));
+        for (AmountKey amountKey : matching) {
+            if (page.size() == limit) {
+                break;
+            }
+            add(page, amountKey);
+        }
+        return page;
+    }
+
+    @Override
+    public long countByAmount(BigDecimal from, BigDecimal to) {
+        if (!serving) {
+            return fallback.countByAmount(from, to);
+        }
+        AmountKey lower = new AmountKey(from, LOWEST_KEY);
+        // Skip-list sizes are computed by walking the range, but only index keys are visited
+        return to == null
+                ? byTotalAmount.tailSet(lower, true).size()
+                : byTotalAmount.subSet(lower, true, new AmountKey(to, LOWEST_KEY), false).size();
+    }
+
+    @Override
+    public long forEach(OrderFilter filter, int chunkSize, Consumer<OrderSummary> consumer) {
+        return serving
+                ? OrderQueryModel.super.forEach(filter, chunkSize, consumer)
+                : fallback.forEach(filter, chunkSize, consumer);
+    }
+
+    // The indexes and the map are not updated atomically together, so a reader may find a key for a state the
+    // order has already left; each resolved snapshot is checked against the index it was found through
+    private List<OrderSummary> page(NavigableSet<OrderKey> index, OrderCursor after, int limit, Predicate<OrderSummary> matches) {
+        NavigableSet<OrderKey> keys = after == null
+                ? index
+                : index.tailSet(new OrderKey(after.getCreatedAt(), after.getOrderId()), false);
+        List<OrderSummary> page = new ArrayList<>(Math.min(limit, 64));
+        for (OrderKey key : keys) {
+            if (page.size() == limit) {
+                break;
+            }
+            Versioned versioned = orders.get(key.orderId);
+            if (versioned != null && matches.test(versioned.order)) {
+                page.add(versioned.order);
+            }
+        }
+        return page;
+    }
+
+    // An amount key only stands for the order while it still has that amount
+    private void add(List<OrderSummary> page, AmountKey amountKey) {
+        Versioned versioned = orders.get(amountKey.key.orderId);
+        if (versioned != null && versioned.order.getTotalAmount().compareTo(amountKey.totalAmount) == 0) {
+            page.add(versioned.order);
+        }
+    }
+
+    private void index(OrderSummary order) {
+        OrderKey key = OrderKey.of(order);
+        byCreatedAt.add(key);
+        byCustomer.computeIfAbsent(String.valueOf(order.getCustomerId()), id -> new ConcurrentSkipListSet<>()).add(key);
+        byStatus.get(order.getStatus()).add(key);
+        byTotalAmount.add(new AmountKey(order.getTotalAmount(), key));
+        byAmountBandCreatedAt.computeIfAbsent(band(order.getTotalAmount()), band -> new ConcurrentSkipListSet<>(BY_CREATED_AT))
+                .add(new AmountKey(order.getTotalAmount(), key));
+    }
+
+    private void unindex(OrderSummary order) {
+        OrderKey key = OrderKey.of(order);
+        byCreatedAt.remove(key);
+        NavigableSet<OrderKey> customerKeys = byCustomer.get(String.valueOf(order.getCustomerId()));
+        if (customerKeys != null) {
+            customerKeys.remove(key);
+        }
+        byStatus.get(order.getStatus()).remove(key);
+        byTotalAmount.remove(new AmountKey(order.getTotalAmount(), key));
+        NavigableSet<AmountKey> bandKeys = byAmountBandCreatedAt.get(band(order.getTotalAmount()));
+        if (bandKeys != null) {
+            bandKeys.remove(new AmountKey(order.getTotalAmount(), key));
+        }
+    }
+
+    private boolean archived(String orderId) {
+        OrderArchive orderArchive = archive.getIfAvailable();
+        return orderArchive != null && orderArchive.contains(orderId);
+    }
+
+    // Amounts below 1 share band 0; otherwise band b holds amounts in [2^(b-1), 2^b)
+    private static int band(BigDecimal amount) {
+        return amount.compareTo(BigDecimal.ONE) < 0 ? 0 : amount.toBigInteger().bitLength();
+    }
+
+    private synchronized void disable(String reason) {
+        if (overBudget) {
+            return;
+        }
+        overBudget = true;
+        serving = false;
+        logger.warn("In-memory read model {} with {} orders; falling back to the JPA query model", reason, orders.size());
+        orders.clear();
+        byCreatedAt.clear();
+        byCustomer.clear();
+        byStatus.values().forEach(Set::clear);
+        byTotalAmount.clear();
+        byAmountBandCreatedAt.clear();
+        estimatedBytes.set(0);
+    }
+
+    static long estimateSize(OrderSummary order) {
+        long size = ORDER_OVERHEAD_BYTES
+                + length(order.getOrderId()) + length(order.getCustomerId()) + length(order.getCustomerName())
+                + length(order.getCustomerEmail()) + length(order.getShippingAddress())
+                + length(order.getTrackingNumber()) + length(order.getCancellationReason());
+        for (OrderItemSummary item : order.getItems()) {
+            size += ITEM_OVERHEAD_BYTES + length(item.getProductId()) + length(item.getProductName());
+        }
+        return size;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    // Mirrors OrderEventHandler for the startup replay, which has no persistence context to work against
+    private static void replay(Map<String, Versioned> replayed, long sequence, Object payload) {
+        if (payload instanceof OrderCreatedEvent event) {
+            OrderSummary order = new OrderSummary(event.getOrderId(), event.getCustomerId(), event.getCustomerName(),
+                    event.getCustomerEmail(), event.getShippingAddress());
+            order.setCreatedAt(event.getCreatedAt());
+            order.setUpdatedAt(event.getCreatedAt());
+            order.setVersion(sequence);
+            replayed.put(event.getOrderId(), new Versioned(order, sequence));
+            return;
+        }
+        if (!(payload instanceof DomainEvent event) || !replayed.containsKey(event.getAggregateId())) {
+            return;
+        }
+        Versioned versioned = replayed.get(event.getAggregateId());
+        OrderSummary order = versioned.order;
+        if (payload instanceof ItemAddedToOrderEvent added) {
+            order.upsertItem(added.getProductId(), added.getProductName(), added.getQuantity(), added.getPrice());
+        } else if (payload instanceof ItemRemovedFromOrderEvent removed) {
+            order.removeItem(removed.getProductId());
+        } else if (payload instanceof OrderConfirmedEvent) {
+            order.setStatus(OrderSummary.OrderStatus.CONFIRMED);
+        } else if (payload instanceof OrderProcessedEvent) {
+            order.setStatus(OrderSummary.OrderStatus.PROCESSED);
+        } else if (payload instanceof OrderShippedEvent shipped) {
+            order.setStatus(OrderSummary.OrderStatus.SHIPPED);
+            order.setTrackingNumber(shipped.getTrackingNumber());
+        } else if (payload instanceof OrderCancelledEvent cancelled) {
+            order.setStatus(OrderSummary.OrderStatus.CANCELLED);
+            order.setCancellationReason(cancelled.getReason());
+        } else if (payload instanceof ShippingAddressUpdatedEvent updated) {
+            order.setShippingAddress(updated.getShippingAddress());
+        }
+        order.setUpdatedAt(event.getTimestamp());
+        order.setVersion(sequence);
+        replayed.put(event.getAggregateId(), new Versioned(order, sequence));
+    }
+
+    private record Versioned(OrderSummary order, long sequence) {}
+
+    private record OrderKey(LocalDateTime createdAt, String orderId) implements Comparable<OrderKey> {
+
+        static OrderKey of(OrderSummary order) {
+            return new OrderKey(order.getCreatedAt(), order.getOrderId());
+        }
+
+        @Override
+        public int compareTo(OrderKey other) {
+            int byTime = createdAt.compareTo(other.createdAt);
+            return byTime != 0 ? byTime : orderId.compareTo(other.orderId);
+        }
+    }
+
+    private static final Comparator<AmountKey> BY_CREATED_AT = Comparator.comparing(AmountKey::key);
+
+    private record AmountKey(BigDecimal totalAmount, OrderKey key) implements Comparable<AmountKey> {
+
+        @Override
+        public int compareTo(AmountKey other) {
+            int byAmount = totalAmount.compareTo(other.totalAmount);
+            return byAmount != 0 ? byAmount : key.compareTo(other.key);
+        }
+    }
+
+    // Position in one band index during a merge, ordered by its current key
+    private static final class BandCursor implements Comparable<BandCursor> {
+
+        private final Iterator<AmountKey> keys;
+        private final BigDecimal minAmount;
+        private AmountKey current;
+
+        BandCursor(Iterator<AmountKey> keys, BigDecimal minAmount) {
+            this.keys = keys;
+            this.minAmount = minAmount;
+        }
+
+        boolean advance() {
+            while (keys.hasNext()) {
+                AmountKey next = keys.next();
+                if (minAmount == null || next.totalAmount.compareTo(minAmount) >= 0) {
+                    current = next;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int compareTo(BandCursor other) {
+            return current.key.compareTo(other.current.key);
+        }
+    }
+}
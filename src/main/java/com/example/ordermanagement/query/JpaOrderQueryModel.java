@@ -0,0 +1,166 @@
+package com.example.ordermanagement.query;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Component
+public class JpaOrderQueryModel implements OrderQueryModel {
+
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final EntityManager entityManager;
+
+    public JpaOrderQueryModel(OrderSummaryRepository orderSummaryRepository, EntityManager entityManager) {
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<OrderSummary> findById(String orderId) {
+        return orderSummaryRepository.findById(orderId);
+    }
+
+    @Override
+    public Optional<Long> findVersionById(String orderId) {
+        return orderSummaryRepository.findVersionById(orderId);
+    }
+
+    @Override
+    public List<OrderSummary> findAllById(List<String> orderIds) {
+        Map<String, OrderSummary> found = new HashMap<>();
+        orderSummaryRepository.findAllById(orderIds).forEach(order -> found.put(order.getOrderId(), order));
+        return orderIds.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public List<OrderSummary> findAll(OrderCursor after, int limit) {
+        return after == null
+                ? orderSummaryRepository.findFirstPage(PageRequest.ofSize(limit))
+                : orderSummaryRepository.findPageAfter(after.getCreatedAt(), after.getOrderId(), PageRequest.ofSize(limit));
+    }
+
+    @Override
+    public List<OrderSummary> findByCustomerId(String customerId, OrderCursor after, int limit) {
+        return after == null
+                ? orderSummaryRepository.findFirstPageByCustomerId(customerId, PageRequest.ofSize(limit))
+                : orderSummaryRepository.findPageByCustomerIdAfter(customerId, after.getCreatedAt(), after.getOrderId(), PageRequest.ofSize(limit));
+    }
+
+    @Override
+    public List<OrderSummary> findByStatus(OrderSummary.OrderStatus status, OrderCursor after, int limit) {
+        return after == null
+                ? orderSummaryRepository.findFirstPageByStatus(status, PageRequest.ofSize(limit))
+                : orderSummaryRepository.findPageByStatusAfter(status, after.getCreatedAt(), after.getOrderId(), PageRequest.ofSize(limit));
+    }
+
+    @Override
+    public List<OrderSummary> findByMinAmount(BigDecimal minAmount, OrderCursor after, int limit) {
+        return after == null
+                ? orderSummaryRepository.findFirstPageByTotalAmountGreaterThanEqual(minAmount, PageRequest.ofSize(limit))
+                : orderSummaryRepository.findPageByTotalAmountGreaterThanEqualAfter(minAmount, after.getCreatedAt(), after.getOrderId(), PageRequest.ofSize(limit));
+    }
+
+    @Override
+    public List<OrderSummary> findByMinAmountOrderByAmount(BigDecimal minAmount, boolean descending, OrderAmountCursor after, int limit) {
+        PageRequest page = PageRequest.ofSize(limit);
+        if (after == null) {
+            return descending
+                    ? orderSummaryRepository.findFirstPageByTotalAmountGreaterThanEqualOrderByAmountDesc(minAmount, page)
+                    : orderSummaryRepository.findFirstPageByTotalAmountGreaterThanEqualOrderByAmount(minAmount, page);
+        }
+        return descending
+                ? orderSummaryRepository.findPageByTotalAmountGreaterThanEqualOrderByAmountDescAfter(minAmount,
+                        after.getTotalAmount(), after.getCreatedAt(), after.getOrderId(), page)
+                : orderSummaryRepository.findPageByTotalAmountGreaterThanEqualOrderByAmountAfter(minAmount,
+                        after.getTotalAmount(), after.getCreatedAt(), after.getOrderId(), page);
+    }
+
+    @Override
+    public long countByAmount(BigDecimal from, BigDecimal to) {
+        return to == null
+                ? orderSummaryRepository.countByTotalAmountGreaterThanEqual(from)
+                : orderSummaryRepository.countByTotalAmountRange(from, to);
+    }
+
+    /**
+     * Streams the IDs of matching orders from a forward-only cursor and loads each chunk of them with its
+     * items in one query, instead of one item query per order as the eager mapping would. The persistence
+     * context is cleared after every chunk.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long forEach(OrderFilter filter, int chunkSize, Consumer<OrderSummary> consumer) {
+        StringBuilder jpql = new StringBuilder("SELECT o.orderId FROM OrderSummary o WHERE 1 = 1");
+        Map<String, Object> parameters = new HashMap<>();
+        if (filter.getStatus() != null) {
+            jpql.append(" AND o.status = :status");
+            parameters.put("status", filter.getStatus());
+        }
+        if (filter.getCustomerId() != null) {
+            jpql.append(" AND o.customerId = :customerId");
+            parameters.put("customerId", filter.getCustomerId());
+        }
+        if (filter.getUpdatedFrom() != null) {
+            jpql.append(" AND o.updatedAt >= :updatedFrom");
+            parameters.put("updatedFrom", filter.getUpdatedFrom());
+        }
+        if (filter.getUpdatedTo() != null) {
+            jpql.append(" AND o.updatedAt < :updatedTo");
+            parameters.put("updatedTo", filter.getUpdatedTo());
+        }
+        jpql.append(" ORDER BY o.createdAt, o.orderId");
+
+        TypedQuery<String> query = entityManager.createQuery(jpql.toString(), String.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, chunkSize);
+        parameters.forEach(query::setParameter);
+
+        long matched = 0;
+        List<String> chunk = new ArrayList<>(chunkSize);
+        try (Stream<String> orderIds = query.getResultStream()) {
+            for (String orderId : (Iterable<String>) orderIds::iterator) {
+                chunk.add(orderId);
+                if (chunk.size() == chunkSize) {
+                    matched += load(chunk, consumer);
+                    chunk.clear();
+                }
+            }
+        }
+        return matched + load(chunk, consumer);
+    }
+
+    private int load(List<String> orderIds, Consumer<OrderSummary> consumer) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        Map<String, OrderSummary> found = new HashMap<>();
+        entityManager.createQuery("SELECT o FROM OrderSummary o LEFT JOIN FETCH o.items WHERE o.orderId IN :orderIds", OrderSummary.class)
+                .setParameter("orderIds", orderIds)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList()
+                .forEach(order -> found.put(order.getOrderId(), order));
+        int loaded = 0;
+        for (String orderId : orderIds) {
+            OrderSummary order = found.get(orderId);
+            // Archived between the two queries
+            if (order != null) {
+                consumer.accept(order);
+                loaded++;
+            }
+        }
+        entityManager.clear();
+        return loaded;
+    }
+}
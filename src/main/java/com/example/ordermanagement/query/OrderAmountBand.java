@@ -0,0 +1,29 @@
+package com.example.ordermanagement.query;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Number of orders whose total amount falls in one band of an amount histogram")
+public class OrderAmountBand {
+
+    @Schema(description = "Lower bound of the band, inclusive", example = "50.00")
+    private final BigDecimal from;
+
+    @Schema(description = "Upper bound of the band, exclusive; absent for the open-ended last band", example = "100.00")
+    private final BigDecimal to;
+
+    @Schema(description = "Orders in the band", example = "42")
+    private final long count;
+
+    public OrderAmountBand(BigDecimal from, BigDecimal to, long count) {
+        this.from = from;
+        this.to = to;
+        this.count = count;
+    }
+
+    // Getters
+    public BigDecimal getFrom() { return from; }
+    public BigDecimal getTo() { return to; }
+    public long getCount() { return count; }
+}
@@ -0,0 +1,53 @@
+package com.example.ordermanagement.query;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in the (totalAmount, createdAt, orderId) ordering used by amount-sorted pages.
+ * Clients only ever see the encoded token and hand it back to fetch the next page.
+ */
+public final class OrderAmountCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final BigDecimal totalAmount;
+    private final LocalDateTime createdAt;
+    private final String orderId;
+
+    public OrderAmountCursor(BigDecimal totalAmount, LocalDateTime createdAt, String orderId) {
+        this.totalAmount = totalAmount;
+        this.createdAt = createdAt;
+        this.orderId = orderId;
+    }
+
+    public static OrderAmountCursor after(OrderSummary order) {
+        return new OrderAmountCursor(order.getTotalAmount(), order.getCreatedAt(), order.getOrderId());
+    }
+
+    public static OrderAmountCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3 || parts[0].isEmpty() || parts[1].isEmpty() || parts[2].isEmpty()) {
+                throw new IllegalArgumentException("Malformed cursor: " + token);
+            }
+            return new OrderAmountCursor(new BigDecimal(parts[0]), LocalDateTime.parse(parts[1]), parts[2]);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + token, e);
+        }
+    }
+
+    public String encode() {
+        String raw = totalAmount.toPlainString() + SEPARATOR + createdAt + SEPARATOR + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Getters
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public String getOrderId() { return orderId; }
+}
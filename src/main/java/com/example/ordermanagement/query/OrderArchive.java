@@ -0,0 +1,314 @@
+package com.example.ordermanagement.query;
+
+import com.example.ordermanagement.monitoring.HeapFootprint;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Cold storage for orders that have been shipped or cancelled for longer than
+ * {@code order-management.archive.after}.
+ *
+ * Each archive run moves such orders out of the projection tables in batches: a batch is written to a
+ * new compressed columnar segment file (see {@link OrderArchiveSegment}), flushed to disk, and only then
+ * deleted from {@code order_summaries} and {@code order_item_summaries}, or from the shards of
+ * {@link ShardedOrderStore} when that backend holds the projection. Terminal orders receive no further
+ * events, so the archive never needs updating.
+ *
+ * Only the location of every archived order is kept in memory; lookups decode the segment holding it and
+ * keep a few recently decoded segments around. If a run fails between writing a segment and deleting the
+ * batch, the orders exist in both places until the next run archives them again; lookups prefer the newest
+ * copy and the hot table. Archived orders are dropped from {@link CustomerNameSearchIndex}, which only
+ * serves orders from the query model, and from {@link InMemoryOrderReadModel}, so they are not served twice.
+ */
+@Component
+public class OrderArchive implements DisposableBean, HeapFootprint {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchive.class);
+    private static final String SEGMENT_SUFFIX = ".orders.gz";
+    private static final List<OrderSummary.OrderStatus> TERMINAL_STATUSES =
+            List.of(OrderSummary.OrderStatus.SHIPPED, OrderSummary.OrderStatus.CANCELLED);
+    // Map node and order ID string of a location; the paths are shared by all orders of a segment
+    private static final long LOCATION_BYTES = 120;
+
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderItemSummaryRepository orderItemSummaryRepository;
+    private final CustomerNameSearchIndex searchIndex;
+    private final ObjectProvider<InMemoryOrderReadModel> inMemoryReadModel;
+    private final ObjectProvider<ShardedOrderStore> shardedStore;
+    private final TransactionTemplate transactionTemplate;
+    private final Path directory;
+    private final boolean deleteOnShutdown;
+    private final Duration archiveAfter;
+    private final int batchSize;
+
+    private final ConcurrentMap<String, Path> locations = new ConcurrentHashMap<>();
+    // Segment file names sort in the order they were written
+    private final ConcurrentNavigableMap<Path, Map<OrderSummary.OrderStatus, OrderStatusStatistics>> segments = new ConcurrentSkipListMap<>();
+    private final Cache<Path, Map<String, OrderSummary>> decoded;
+    private final AtomicLong segmentSequence = new AtomicLong();
+    private final ScheduledExecutorService scheduler;
+
+    public OrderArchive(OrderSummaryRepository orderSummaryRepository,
+                        OrderItemSummaryRepository orderItemSummaryRepository,
+                        CustomerNameSearchIndex searchIndex,
+                        ObjectProvider<InMemoryOrderReadModel> inMemoryReadModel,
+                        ObjectProvider<ShardedOrderStore> shardedStore,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry,
+                        @Value("${order-management.archive.directory:${java.io.tmpdir}/order-management-archive}") Path directory,
+                        @Value("${order-management.archive.delete-on-shutdown:false}") boolean deleteOnShutdown,
+                        @Value("${order-management.archive.after:30d}") Duration archiveAfter,
+                        @Value("${order-management.archive.batch-size:10000}") int batchSize,
+                        @Value("${order-management.archive.cached-segments:4}") int cachedSegments,
+                        @Value("${order-management.archive.enabled:false}") boolean scheduled,
+                        @Value("${order-management.archive.interval:1h}") Duration interval) throws IOException {
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.orderItemSummaryRepository = orderItemSummaryRepository;
+        this.searchIndex = searchIndex;
+        this.inMemoryReadModel = inMemoryReadModel;
+        this.shardedStore = shardedStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.directory = directory;
+        this.deleteOnShutdown = deleteOnShutdown;
+        this.archiveAfter = archiveAfter;
+        this.batchSize = batchSize;
+        this.decoded = Caffeine.newBuilder().maximumSize(cachedSegments).build();
+
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path segment : files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList()) {
+                register(segment, readHeader(segment));
+            }
+        }
+        logger.info("Order archive at {} holds {} orders in {} segments", directory, locations.size(), segments.size());
+
+        Gauge.builder("order.archive.orders", locations, Map::size)
+                .description("Orders moved out of the projection tables into the archive")
+                .register(meterRegistry);
+        Gauge.builder("order.archive.segments", segments, Map::size)
+                .description("Archive segment files on disk")
+                .register(meterRegistry);
+
+        if (scheduled) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "order-archiver");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::archiveQuietly, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Moves every order that has been terminal for longer than the configured period into the archive.
+     *
+     * @return the number of archived orders
+     */
+    public synchronized long archive() throws IOException {
+        LocalDateTime cutoff = LocalDateTime.now().minus(archiveAfter);
+        ShardedOrderStore store = shardedStore.getIfAvailable();
+        if (store == null) {
+            return archive(() -> orderSummaryRepository.findArchivableIds(TERMINAL_STATUSES, cutoff, PageRequest.ofSize(batchSize)),
+                    orderSummaryRepository::findAllById,
+                    orderIds -> transactionTemplate.executeWithoutResult(tx -> {
+                        orderItemSummaryRepository.deleteByOrderIds(orderIds);
+                        orderSummaryRepository.deleteAllByIdInBatch(orderIds);
+                    }));
+        }
+        // The sharded projection keeps its orders in the shards only, so each shard is archived on its own
+        long archived = 0;
+        for (int i = 0; i < store.shardCount(); i++) {
+            ShardedOrderStore.Shard shard = store.shard(i);
+            archived += archive(() -> shard.findArchivableIds(TERMINAL_STATUSES, cutoff, batchSize),
+                    orderIds -> shard.attachItems(shard.findAllById(orderIds)), shard::deleteOrders);
+        }
+        return archived;
+    }
+
+    private long archive(Supplier<List<String>> nextBatch, Function<List<String>, List<OrderSummary>> load,
+                         Consumer<List<String>> delete) throws IOException {
+        long archived = 0;
+        while (true) {
+            List<String> orderIds = nextBatch.get();
+            if (orderIds.isEmpty()) {
+                break;
+            }
+            List<OrderSummary> orders = new ArrayList<>(load.apply(orderIds));
+            orders.sort(Comparator.comparing(OrderSummary::getCreatedAt).thenComparing(OrderSummary::getOrderId));
+
+            Path segment = writeSegment(orders);
+            register(segment, readHeader(segment));
+            delete.accept(orderIds);
+            orders.forEach(order -> searchIndex.remove(order.getOrderId(), order.getCustomerName()));
+            inMemoryReadModel.ifAvailable(readModel -> orderIds.forEach(readModel::evict));
+            archived += orders.size();
+            logger.debug("Archived {} orders into {}", orders.size(), segment.getFileName());
+        }
+        return archived;
+    }
+
+    public Optional<OrderSummary> find(String orderId) {
+        Path segment = locations.get(orderId);
+        if (segment == null) {
+            return Optional.empty();
+        }
+        Map<String, OrderSummary> orders = decoded.get(segment, this::decode);
+        OrderSummary order = orders == null ? null : orders.get(orderId);
+        // Copies, so callers can not alter the cached segment
+        return Optional.ofNullable(order).map(OrderSummary::detachedCopy);
+    }
+
+    public boolean contains(String orderId) {
+        return locations.containsKey(orderId);
+    }
+
+    @Override
+    public List<Usage> heapUsage() {
+        long decodedOrders = 0;
+        long decodedBytes = 0;
+        for (Map<String, OrderSummary> orders : decoded.asMap().values()) {
+            decodedOrders += orders.size();
+            for (OrderSummary order : orders.values()) {
+                decodedBytes += InMemoryOrderReadModel.estimateSize(order);
+            }
+        }
+        return List.of(new Usage("archive-locations", locations.size(), locations.size() * LOCATION_BYTES),
+                new Usage("archive-decoded-orders", decodedOrders, decodedBytes));
+    }
+
+    @Override
+    public void relieve(Pressure pressure) {
+        // Segments are decoded from disk again on the next lookup
+        decoded.invalidateAll();
+    }
+
+    /**
+     * Passes every archived order matching the filter to the consumer, segment by segment in the order they
+     * were written, and by (createdAt, orderId) within a segment. Segments are decoded one at a time and not
+     * cached, so a full scan does not evict the segments serving lookups.
+     *
+     * @return the number of matching orders
+     */
+    public long forEach(Predicate<OrderSummary> filter, Consumer<OrderSummary> consumer) throws IOException {
+        long matched = 0;
+        for (Path segment : segments.keySet()) {
+            for (OrderSummary order : readSegment(segment)) {
+                // Skip copies superseded by a later segment
+                if (segment.equals(locations.get(order.getOrderId())) && filter.test(order)) {
+                    consumer.accept(order);
+                    matched++;
+                }
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Per-status order count and total amount of the archive, summed from the segment headers. Copies left
+     * behind by a failed run are counted until the segments are cleaned up.
+     */
+    public Map<OrderSummary.OrderStatus, OrderStatusStatistics> statusTotals() {
+        Map<OrderSummary.OrderStatus, OrderStatusStatistics> totals = new EnumMap<>(OrderSummary.OrderStatus.class);
+        for (Map<OrderSummary.OrderStatus, OrderStatusStatistics> segmentTotals : segments.values()) {
+            segmentTotals.forEach((status, statistics) -> totals.merge(status, statistics, (left, right) ->
+                    new OrderStatusStatistics(status, left.getOrderCount() + right.getOrderCount(),
+                            left.getTotalAmount().add(right.getTotalAmount()))));
+        }
+        return totals;
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (deleteOnShutdown) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            logger.info("Deleted order archive at {}", directory);
+        }
+    }
+
+    private void archiveQuietly() {
+        try {
+            long archived = archive();
+            if (archived > 0) {
+                logger.info("Archived {} terminal orders", archived);
+            }
+        } catch (Exception e) {
+            logger.warn("Order archive run failed; it will be retried", e);
+        }
+    }
+
+    private void register(Path segment, OrderArchiveSegment.Header header) {
+        segments.put(segment, header.statusTotals());
+        header.orderIds().forEach(orderId -> locations.put(orderId, segment));
+    }
+
+    // Written under a temporary name and forced to disk before it becomes visible, so a crash never leaves
+    // a partial segment behind for the next startup to trip over
+    private Path writeSegment(List<OrderSummary> orders) throws IOException {
+        String name = String.format("segment-%013d-%06d", System.currentTimeMillis(), segmentSequence.incrementAndGet() % 1_000_000);
+        Path temporary = directory.resolve(name + ".tmp");
+        Path segment = directory.resolve(name + SEGMENT_SUFFIX);
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile());
+             BufferedOutputStream out = new BufferedOutputStream(file, 1 << 16)) {
+            OrderArchiveSegment.write(orders, out);
+            out.flush();
+            file.getChannel().force(true);
+        }
+        Files.move(temporary, segment, StandardCopyOption.ATOMIC_MOVE);
+        return segment;
+    }
+
+    private static OrderArchiveSegment.Header readHeader(Path segment) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(segment), 1 << 16)) {
+            return OrderArchiveSegment.readHeader(in);
+        }
+    }
+
+    private static List<OrderSummary> readSegment(Path segment) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(segment), 1 << 16)) {
+            return OrderArchiveSegment.read(in);
+        }
+    }
+
+    private Map<String, OrderSummary> decode(Path segment) {
+        try {
+            Map<String, OrderSummary> byId = new HashMap<>();
+            readSegment(segment).forEach(order -> byId.put(order.getOrderId(), order));
+            return byId;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archive segment " + segment, e);
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.example.ordermanagement.query;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * File format of one archive segment: a batch of orders sorted by (createdAt, orderId), stored column by
+ * column and gzip-compressed as a whole.
+ *
+ * After a header with the row count and per-status totals, every column is written as its byte length
+ * followed by one value per row, so a reader can stop after the columns it needs. Low-cardinality string
+ * columns (status, customer and product columns) are dictionary-encoded; timestamps are deltas against the
+ * previous row or against createdAt; integers are variable-length.
+ */
+final class OrderArchiveSegment {
+
+    private static final int MAGIC = 0x4F415243;
+    private static final int FORMAT_VERSION = 1;
+
+    private OrderArchiveSegment() {}
+
+    /**
+     * What a reader learns from the header and the orderId column alone.
+     */
+    record Header(List<String> orderIds, Map<OrderSummary.OrderStatus, OrderStatusStatistics> statusTotals) {}
+
+    static void write(List<OrderSummary> orders, OutputStream target) throws IOException {
+        ColumnWriter orderIds = new ColumnWriter();
+        DictionaryWriter customerIds = new DictionaryWriter();
+        DictionaryWriter customerNames = new DictionaryWriter();
+        DictionaryWriter customerEmails = new DictionaryWriter();
+        ColumnWriter shippingAddresses = new ColumnWriter();
+        ColumnWriter totalAmounts = new ColumnWriter();
+        DictionaryWriter statuses = new DictionaryWriter();
+        ColumnWriter createdAts = new ColumnWriter();
+        ColumnWriter updatedAts = new ColumnWriter();
+        ColumnWriter trackingNumbers = new ColumnWriter();
+        ColumnWriter cancellationReasons = new ColumnWriter();
+        ColumnWriter versions = new ColumnWriter();
+        ColumnWriter itemCounts = new ColumnWriter();
+        ColumnWriter itemIds = new ColumnWriter();
+        DictionaryWriter productIds = new DictionaryWriter();
+        DictionaryWriter productNames = new DictionaryWriter();
+        ColumnWriter quantities = new ColumnWriter();
+        ColumnWriter prices = new ColumnWriter();
+
+        Map<OrderSummary.OrderStatus, long[]> counts = new EnumMap<>(OrderSummary.OrderStatus.class);
+        Map<OrderSummary.OrderStatus, BigDecimal> amounts = new EnumMap<>(OrderSummary.OrderStatus.class);
+        long previousCreated = 0;
+        for (OrderSummary order : orders) {
+            orderIds.writeString(order.getOrderId());
+            customerIds.write(order.getCustomerId());
+            customerNames.write(order.getCustomerName());
+            customerEmails.write(order.getCustomerEmail());
+            shippingAddresses.writeString(order.getShippingAddress());
+            totalAmounts.writeDecimal(order.getTotalAmount());
+            statuses.write(order.getStatus().name());
+            long created = micros(order.getCreatedAt());
+            createdAts.writeSignedVarLong(created - previousCreated);
+            previousCreated = created;
+            updatedAts.writeSignedVarLong(order.getUpdatedAt() == null ? Long.MIN_VALUE : micros(order.getUpdatedAt()) - created);
+            trackingNumbers.writeString(order.getTrackingNumber());
+            cancellationReasons.writeString(order.getCancellationReason());
+            versions.writeVarLong(order.getVersion());
+            itemCounts.writeVarLong(order.getItems().size());
+            for (OrderItemSummary item : order.getItems()) {
+                itemIds.writeVarLong(item.getId() == null ? 0 : item.getId());
+                productIds.write(item.getProductId());
+                productNames.write(item.getProductName());
+                quantities.writeVarLong(item.getQuantity());
+                prices.writeDecimal(item.getPrice());
+            }
+            counts.computeIfAbsent(order.getStatus(), status -> new long[1])[0]++;
+            amounts.merge(order.getStatus(), order.getTotalAmount(), BigDecimal::add);
+        }
+
+        GZIPOutputStream gzip = new GZIPOutputStream(target, 1 << 16);
+        DataOutputStream out = new DataOutputStream(gzip);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        ColumnWriter header = new ColumnWriter();
+        header.writeVarLong(orders.size());
+        header.writeVarLong(counts.size());
+        for (Map.Entry<OrderSummary.OrderStatus, long[]> entry : counts.entrySet()) {
+            header.writeString(entry.getKey().name());
+            header.writeVarLong(entry.getValue()[0]);
+            header.writeDecimal(amounts.get(entry.getKey()));
+        }
+        header.writeTo(out);
+        for (ColumnWriter column : List.of(orderIds, customerIds.finish(), customerNames.finish(), customerEmails.finish(),
+                shippingAddresses, totalAmounts, statuses.finish(), createdAts, updatedAts, trackingNumbers,
+                cancellationReasons, versions, itemCounts, itemIds, productIds.finish(), productNames.finish(),
+                quantities, prices)) {
+            column.writeTo(out);
+        }
+        out.flush();
+        gzip.finish();
+    }
+
+    static Header readHeader(InputStream source) throws IOException {
+        DataInputStream in = open(source);
+        Map<OrderSummary.OrderStatus, OrderStatusStatistics> totals = new EnumMap<>(OrderSummary.OrderStatus.class);
+        int rows = (int) readHeaderBlock(in, totals);
+        ColumnReader orderIds = ColumnReader.next(in);
+        List<String> ids = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            ids.add(orderIds.readString());
+        }
+        return new Header(ids, totals);
+    }
+
+    static List<OrderSummary> read(InputStream source) throws IOException {
+        DataInputStream in = open(source);
+        int rows = (int) readHeaderBlock(in, null);
+        ColumnReader orderIds = ColumnReader.next(in);
+        ColumnReader customerIds = ColumnReader.nextDictionary(in);
+        ColumnReader customerNames = ColumnReader.nextDictionary(in);
+        ColumnReader customerEmails = ColumnReader.nextDictionary(in);
+        ColumnReader shippingAddresses = ColumnReader.next(in);
+        ColumnReader totalAmounts = ColumnReader.next(in);
+        ColumnReader statuses = ColumnReader.nextDictionary(in);
+        ColumnReader createdAts = ColumnReader.next(in);
+        ColumnReader updatedAts = ColumnReader.next(in);
+        ColumnReader trackingNumbers = ColumnReader.next(in);
+        ColumnReader cancellationReasons = ColumnReader.next(in);
+        ColumnReader versions = ColumnReader.next(in);
+        ColumnReader itemCounts = ColumnReader.next(in);
+        ColumnReader itemIds = ColumnReader.next(in);
+        ColumnReader productIds = ColumnReader.nextDictionary(in);
+        ColumnReader productNames = ColumnReader.nextDictionary(in);
+        ColumnReader quantities = ColumnReader.next(in);
+        ColumnReader prices = ColumnReader.next(in);
+
+        List<OrderSummary> orders = new ArrayList<>(rows);
+        long previousCreated = 0;
+        for (int i = 0; i < rows; i++) {
+            OrderSummary order = new OrderSummary(orderIds.readString(), customerIds.readEncoded(), customerNames.readEncoded(),
+                    customerEmails.readEncoded(), shippingAddresses.readString());
+            order.setTotalAmount(totalAmounts.readDecimal());
+            order.setStatus(OrderSummary.OrderStatus.valueOf(statuses.readEncoded()));
+            long created = previousCreated + createdAts.readSignedVarLong();
+            previousCreated = created;
+            order.setCreatedAt(dateTime(created));
+            long updatedDelta = updatedAts.readSignedVarLong();
+            order.setUpdatedAt(updatedDelta == Long.MIN_VALUE ? null : dateTime(created + updatedDelta));
+            order.setTrackingNumber(trackingNumbers.readString());
+            order.setCancellationReason(cancellationReasons.readString());
+            order.setVersion(versions.readVarLong());
+            long items = itemCounts.readVarLong();
+            for (long item = 0; item < items; item++) {
+                long itemId = itemIds.readVarLong();
+                OrderItemSummary line = new OrderItemSummary(productIds.readEncoded(), productNames.readEncoded(),
+                        (int) quantities.readVarLong(), prices.readDecimal());
+                line.setId(itemId == 0 ? null : itemId);
+                line.setOrderSummary(order);
+                order.getItems().add(line);
+            }
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private static DataInputStream open(InputStream source) throws IOException {
+        DataInputStream in = new DataInputStream(new GZIPInputStream(source, 1 << 16));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an order archive segment");
+        }
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported order archive format " + version);
+        }
+        return in;
+    }
+
+    private static long readHeaderBlock(DataInputStream in, Map<OrderSummary.OrderStatus, OrderStatusStatistics> totals) throws IOException {
+        ColumnReader header = ColumnReader.next(in);
+        long rows = header.readVarLong();
+        long statuses = header.readVarLong();
+        for (long i = 0; i < statuses; i++) {
+            OrderSummary.OrderStatus status = OrderSummary.OrderStatus.valueOf(header.readString());
+            long count = header.readVarLong();
+            BigDecimal amount = header.readDecimal();
+            if (totals != null) {
+                totals.put(status, new OrderStatusStatistics(status, count, amount));
+            }
+        }
+        return rows;
+    }
+
+    private static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime dateTime(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static class ColumnWriter {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                bytes.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            bytes.write((int) value);
+        }
+
+        void writeSignedVarLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        // Length + 1, so that 0 can stand for null
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length + 1L);
+            bytes.writeBytes(utf8);
+        }
+
+        // Scale and unscaled value; the low bit of the first varint marks values too wide for a long
+        void writeDecimal(BigDecimal value) {
+            BigInteger unscaled = value.unscaledValue();
+            boolean wide = unscaled.bitLength() > 63;
+            writeSignedVarLong(((long) value.scale() << 1) | (wide ? 1 : 0));
+            if (wide) {
+                byte[] magnitude = unscaled.toByteArray();
+                writeVarLong(magnitude.length);
+                bytes.writeBytes(magnitude);
+            } else {
+                writeSignedVarLong(unscaled.longValue());
+            }
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(bytes.size());
+            bytes.writeTo(out);
+        }
+    }
+
+    private static final class DictionaryWriter {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final ColumnWriter rows = new ColumnWriter();
+
+        // Null is kept out of the map and encoded as code 0
+        void write(String value) {
+            if (value == null) {
+                rows.writeVarLong(0);
+                return;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size() + 1;
+                codes.put(value, code);
+                values.add(value);
+            }
+            rows.writeVarLong(code);
+        }
+
+        ColumnWriter finish() {
+            ColumnWriter column = new ColumnWriter();
+            column.writeVarLong(values.size());
+            values.forEach(column::writeString);
+            column.bytes.writeBytes(rows.bytes.toByteArray());
+            return column;
+        }
+    }
+
+    private static final class ColumnReader {
+        private final byte[] bytes;
+        private int offset;
+        private String[] dictionary;
+
+        private ColumnReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        static ColumnReader next(DataInputStream in) throws IOException {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return new ColumnReader(bytes);
+        }
+
+        static ColumnReader nextDictionary(DataInputStream in) throws IOException {
+            ColumnReader column = next(in);
+            int size = (int) column.readVarLong();
+            column.dictionary = new String[size + 1];
+            for (int i = 1; i <= size; i++) {
+                column.dictionary[i] = column.readString();
+            }
+            return column;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[offset++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        long readSignedVarLong() {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        String readString() {
+            int length = (int) readVarLong() - 1;
+            if (length < 0) {
+                return null;
+            }
+            String value = new String(bytes, offset, length, StandardCharsets.UTF_8);
+            offset += length;
+            return value;
+        }
+
+        String readEncoded() {
+            return dictionary[(int) readVarLong()];
+        }
+
+        BigDecimal readDecimal() {
+            long scaleAndFlag = readSignedVarLong();
+            int scale = (int) (scaleAndFlag >> 1);
+            if ((scaleAndFlag & 1) == 0) {
+                return BigDecimal.valueOf(readSignedVarLong(), scale);
+            }
+            int length = (int) readVarLong();
+            byte[] magnitude = Arrays.copyOfRange(bytes, offset, offset + length);
+            offset += length;
+            return new BigDecimal(new BigInteger(magnitude), scale);
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.example.ordermanagement.query;
+
+import com.example.ordermanagement.monitoring.HeapFootprint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans committed projection changes out to server-sent event connections.
+ *
+ * Every change carries the global position of the event that produced it, which doubles as the SSE
+ * event id. Connections are indexed by their most selective filter (order, customer, status, or none), so
+ * publishing a change only touches the connections that can match it. Each connection buffers undelivered
+ * changes keyed by order ID, so a slow consumer only ever holds the latest state per order. A consumer
+ * that falls more than {@code buffer-size} orders behind gets a {@code reset} event and should re-read
+ * the REST endpoints. Connections hold no request thread; a small pool of sender threads drains the
+ * buffers.
+ *
+ * The most recent changes are kept in a ring so a client reconnecting with {@code Last-Event-ID} gets
+ * everything it missed. If the ring no longer reaches back that far, the client gets {@code reset}. Once
+ * nobody has been connected for {@code resume-window}, the projection skips changes rather than
+ * snapshotting them, and clients resuming from before a skipped change get {@code reset}.
+ * Heartbeats are SSE comments carrying the current position as their id, which keeps idle connections
+ * open and moves the client's resume point forward.
+ */
+@Component
+public class OrderChangeStream implements DisposableBean, HeapFootprint {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderChangeStream.class);
+
+    private final Object lock = new Object();
+    private final ArrayDeque<Change> recentChanges = new ArrayDeque<>();
+    private final Map<String, Set<Subscription>> byOrderId = new HashMap<>();
+    private final Map<String, Set<Subscription>> byCustomerId = new HashMap<>();
+    private final Map<OrderSummary.OrderStatus, Set<Subscription>> byStatus = new EnumMap<>(OrderSummary.OrderStatus.class);
+    private final Set<Subscription> unfiltered = new HashSet<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    // Changes after this position are all still in recentChanges; -1 until the first change is seen
+    private long replayableFrom = -1;
+    private long lastPosition = -1;
+    private volatile long lastDisconnectNanos;
+
+    private final int bufferSize;
+    private final int replayCapacity;
+    private final int maxSubscribers;
+    private final long resumeWindowNanos;
+    private final ExecutorService sender;
+    private final ScheduledExecutorService heartbeat;
+
+    public OrderChangeStream(@Value("${order-management.stream.buffer-size:1000}") int bufferSize,
+                             @Value("${order-management.stream.replay-capacity:10000}") int replayCapacity,
+                             @Value("${order-management.stream.max-subscribers:10000}") int maxSubscribers,
+                             @Value("${order-management.stream.sender-threads:4}") int senderThreads,
+                             @Value("${order-management.stream.heartbeat-interval:15s}") Duration heartbeatInterval,
+                             @Value("${order-management.stream.resume-window:2m}") Duration resumeWindow) {
+        this.bufferSize = bufferSize;
+        this.replayCapacity = replayCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.resumeWindowNanos = resumeWindow.toNanos();
+        this.lastDisconnectNanos = System.nanoTime() - resumeWindowNanos;
+        this.sender = Executors.newFixedThreadPool(senderThreads, daemonThreads("order-stream-sender-"));
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(daemonThreads("order-stream-heartbeat-"));
+        this.heartbeat.scheduleAtFixedRate(this::sendHeartbeats,
+                heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a connection receiving changes that match every given filter; null filters match everything.
+     * With a {@code lastEventId} the connection first replays the changes after that position.
+     *
+     * @throws IllegalStateException when the subscriber limit has been reached
+     */
+    public SseEmitter subscribe(String orderId, String customerId, OrderSummary.OrderStatus status, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscription subscription = new Subscription(orderId, customerId, status, emitter);
+
+        synchronized (lock) {
+            if (subscriberCount.get() >= maxSubscribers) {
+                throw new IllegalStateException("Order change stream is at its limit of " + maxSubscribers + " subscribers");
+            }
+            index(subscription).add(subscription);
+            subscriberCount.incrementAndGet();
+
+            // Registering and replaying under the publish lock means no change is missed or delivered twice
+            if (lastEventId == null) {
+                subscription.requestHeartbeat(lastPosition);
+            } else if (replayableFrom >= 0 && lastEventId >= replayableFrom - 1) {
+                for (Change change : recentChanges) {
+                    if (change.position > lastEventId && subscription.matches(change)) {
+                        subscription.enqueue(change);
+                    }
+                }
+                subscription.requestHeartbeat(lastPosition);
+            } else {
+                subscription.requestReset();
+            }
+        }
+
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(error -> unsubscribe(subscription));
+        return emitter;
+    }
+
+    /**
+     * Publishes the committed state of an order. Positions at or below the last published one are
+     * redeliveries and are ignored.
+     */
+    public void publish(long position, OrderSummary snapshot, OrderSummary.OrderStatus previousStatus) {
+        Change change = new Change(position, snapshot, previousStatus);
+        synchronized (lock) {
+            if (position <= lastPosition) {
+                return;
+            }
+            lastPosition = position;
+            if (replayableFrom < 0) {
+                replayableFrom = position;
+            }
+            recentChanges.addLast(change);
+            if (recentChanges.size() > replayCapacity) {
+                replayableFrom = recentChanges.removeFirst().position + 1;
+            }
+
+            deliver(byOrderId.get(snapshot.getOrderId()), change);
+            deliver(byCustomerId.get(snapshot.getCustomerId()), change);
+            deliver(byStatus.get(snapshot.getStatus()), change);
+            if (previousStatus != snapshot.getStatus()) {
+                deliver(byStatus.get(previousStatus), change);
+            }
+            deliver(unfiltered, change);
+        }
+    }
+
+    /**
+     * Moves past a change that was not captured because the stream was not recording. Clients resuming
+     * from before it get a reset, as do connections opened after the projection decided to skip it.
+     */
+    public void skip(long position) {
+        synchronized (lock) {
+            if (position <= lastPosition) {
+                return;
+            }
+            lastPosition = position;
+            recentChanges.clear();
+            replayableFrom = position + 1;
+            subscriptions().forEach(Subscription::requestReset);
+        }
+    }
+
+    /**
+     * Whether changes should be published rather than skipped: while anyone is connected, and for the
+     * resume window after the last connection closed, so its client can still pick up where it left off.
+     */
+    public boolean isRecording() {
+        return subscriberCount.get() > 0 || System.nanoTime() - lastDisconnectNanos < resumeWindowNanos;
+    }
+
+    public long getLastPosition() {
+        synchronized (lock) {
+            return lastPosition;
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @Override
+    public List<Usage> heapUsage() {
+        synchronized (lock) {
+            long bytes = 0;
+            for (Change change : recentChanges) {
+                bytes += InMemoryOrderReadModel.estimateSize(change.order);
+            }
+            return List.of(new Usage("order-change-replay", recentChanges.size(), bytes));
+        }
+    }
+
+    /**
+     * Forgets the changes kept for resuming subscribers; those reconnecting from before now are told to reset.
+     */
+    @Override
+    public void relieve(Pressure pressure) {
+        if (pressure != Pressure.CRITICAL) {
+            return;
+        }
+        // Subscribers resuming from before this point get a reset instead of a replay
+        synchronized (lock) {
+            recentChanges.clear();
+            if (lastPosition >= 0) {
+                replayableFrom = lastPosition + 1;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        heartbeat.shutdownNow();
+        sender.shutdownNow();
+        List<Subscription> open;
+        synchronized (lock) {
+            open = subscriptions();
+        }
+        open.forEach(subscription -> subscription.emitter.complete());
+    }
+
+    private static void deliver(Set<Subscription> subscriptions, Change change) {
+        if (subscriptions == null) {
+            return;
+        }
+        for (Subscription subscription : subscriptions) {
+            if (subscription.matches(change)) {
+                subscription.enqueue(change);
+            }
+        }
+    }
+
+    private void sendHeartbeats() {
+        synchronized (lock) {
+            subscriptions().forEach(subscription -> subscription.requestHeartbeat(lastPosition));
+        }
+    }
+
+    // Caller holds the lock
+    private List<Subscription> subscriptions() {
+        List<Subscription> all = new ArrayList<>(subscriberCount.get());
+        byOrderId.values().forEach(all::addAll);
+        byCustomerId.values().forEach(all::addAll);
+        byStatus.values().forEach(all::addAll);
+        all.addAll(unfiltered);
+        return all;
+    }
+
+    private Set<Subscription> index(Subscription subscription) {
+        if (subscription.orderId != null) {
+            return byOrderId.computeIfAbsent(subscription.orderId, key -> new HashSet<>());
+        }
+        if (subscription.customerId != null) {
+            return byCustomerId.computeIfAbsent(subscription.customerId, key -> new HashSet<>());
+        }
+        if (subscription.status != null) {
+            return byStatus.computeIfAbsent(subscription.status, key -> new HashSet<>());
+        }
+        return unfiltered;
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        synchronized (lock) {
+            Set<Subscription> indexed = index(subscription);
+            if (indexed.remove(subscription) && subscriberCount.decrementAndGet() == 0) {
+                lastDisconnectNanos = System.nanoTime();
+            }
+            if (!indexed.isEmpty()) {
+                return;
+            }
+            if (subscription.orderId != null) {
+                byOrderId.remove(subscription.orderId);
+            } else if (subscription.customerId != null) {
+                byCustomerId.remove(subscription.customerId);
+            } else if (subscription.status != null) {
+                byStatus.remove(subscription.status);
+            }
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Change(long position, OrderSummary order, OrderSummary.OrderStatus previousStatus) {}
+
+    private final class Subscription {
+        private final String orderId;
+        private final String customerId;
+        private final OrderSummary.OrderStatus status;
+        private final SseEmitter emitter;
+
+        // Guarded by this
+        private final LinkedHashMap<String, Change> pending = new LinkedHashMap<>();
+        private boolean resetDue;
+        private long heartbeatPosition = -1;
+        private boolean heartbeatDue;
+        private boolean draining;
+        private long lastSentPosition = -1;
+
+        Subscription(String orderId, String customerId, OrderSummary.OrderStatus status, SseEmitter emitter) {
+            this.orderId = orderId;
+            this.customerId = customerId;
+            this.status = status;
+            this.emitter = emitter;
+        }
+
+        boolean matches(Change change) {
+            OrderSummary order = change.order;
+            return (orderId == null || orderId.equals(order.getOrderId()))
+                    && (customerId == null || customerId.equals(order.getCustomerId()))
+                    && (status == null || status == order.getStatus() || status == change.previousStatus);
+        }
+
+        synchronized void enqueue(Change change) {
+            // Re-inserting moves the order to the back, so changes still go out in position order
+            pending.remove(change.order.getOrderId());
+            pending.put(change.order.getOrderId(), change);
+            if (pending.size() > bufferSize) {
+                pending.clear();
+                resetDue = true;
+            }
+            scheduleDrain();
+        }
+
+        synchronized void requestReset() {
+            pending.clear();
+            resetDue = true;
+            scheduleDrain();
+        }
+
+        synchronized void requestHeartbeat(long position) {
+            heartbeatPosition = Math.max(heartbeatPosition, position);
+            heartbeatDue = true;
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!draining) {
+                draining = true;
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                List<Change> changes;
+                boolean reset;
+                boolean sendHeartbeat;
+                long position;
+                synchronized (this) {
+                    if (pending.isEmpty() && !resetDue && !heartbeatDue) {
+                        draining = false;
+                        return;
+                    }
+                    changes = new ArrayList<>(pending.values());
+                    pending.clear();
+                    reset = resetDue;
+                    sendHeartbeat = heartbeatDue;
+                    position = heartbeatPosition;
+                    resetDue = false;
+                    heartbeatDue = false;
+                }
+                try {
+                    if (reset) {
+                        emitter.send(SseEmitter.event().name("reset").data("Re-read the current state", MediaType.TEXT_PLAIN));
+                    }
+                    for (Change change : changes) {
+                        emitter.send(SseEmitter.event().id(Long.toString(change.position)).name("order")
+                                .data(change.order, MediaType.APPLICATION_JSON));
+                        lastSentPosition = Math.max(lastSentPosition, change.position);
+                    }
+                    if (sendHeartbeat) {
+                        long id = Math.max(lastSentPosition, position);
+                        SseEmitter.SseEventBuilder event = SseEmitter.event().comment("heartbeat");
+                        emitter.send(id >= 0 ? event.id(Long.toString(id)) : event);
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    logger.debug("Closing order change stream subscription: {}", e.getMessage());
+                    synchronized (this) {
+                        pending.clear();
+                        draining = false;
+                    }
+                    unsubscribe(this);
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.ordermanagement.query;
+
+import com.example.ordermanagement.monitoring.HeapFootprint;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read-through cache of serialized order detail responses, bounded by their size in bytes.
+ *
+ * Hits skip both the query model and Jackson. Entries are never stale: the projection replaces the bytes
+ * of a cached order after every committed change to it, and leaves uncached orders alone. Loads and
+ * refreshes of the same order are atomic with respect to each other, so a load that raced a change can
+ * not overwrite the newer state. Missing orders are not cached, so a lookup right after creation is not
+ * stuck on a negative entry. Orders moved to the {@link OrderArchive} are loaded from there.
+ *
+ * Metrics are published as the {@code cache.*} meters tagged {@code cache=orderDetails}, plus
+ * {@code order.detail.cache.bytes} and {@code order.detail.cache.hit.ratio}.
+ */
+@Component
+public class OrderDetailCache implements HeapFootprint {
+
+    private static final String CACHE_NAME = "orderDetails";
+    // Approximate cost of the entry, its key and the byte array header beyond the payload itself
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final Cache<String, Entry> cache;
+    private final OrderQueryModel queryModel;
+    private final OrderArchive archive;
+    private final ObjectWriter writer;
+
+    public OrderDetailCache(OrderQueryModel queryModel, OrderArchive archive, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                            @Value("${order-management.cache.order-details.max-size:64MB}") DataSize maxSize) {
+        this.queryModel = queryModel;
+        this.archive = archive;
+        this.writer = objectMapper.writerFor(OrderSummary.class);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String orderId, Entry entry) -> ENTRY_OVERHEAD_BYTES + 2 * orderId.length() + entry.getJson().length)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("order.detail.cache.bytes", cache,
+                        c -> c.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+                .description("Approximate heap used by cached order detail responses")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("order.detail.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of order detail lookups answered from the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the order as serialized JSON with its version, loading and caching it on a miss.
+     */
+    public Optional<Entry> get(String orderId) {
+        return Optional.ofNullable(cache.get(orderId, id -> queryModel.findById(id).or(() -> archive.find(id)).map(this::serialize).orElse(null)));
+    }
+
+    /**
+     * Returns the current version of the order, from the cache if present and otherwise without loading
+     * the order's items. A miss here does not populate the cache.
+     */
+    public Optional<Long> getVersion(String orderId) {
+        Entry entry = cache.getIfPresent(orderId);
+        if (entry != null) {
+            return Optional.of(entry.getVersion());
+        }
+        return queryModel.findVersionById(orderId).or(() -> archive.find(orderId).map(OrderSummary::getVersion));
+    }
+
+    /**
+     * Replaces the cached bytes of the order with its committed state, if the order is cached.
+     */
+    public void refresh(OrderSummary snapshot) {
+        try {
+            cache.asMap().computeIfPresent(snapshot.getOrderId(), (orderId, stale) -> serialize(snapshot));
+        } catch (IllegalStateException e) {
+            cache.invalidate(snapshot.getOrderId());
+            throw e;
+        }
+    }
+
+    public boolean contains(String orderId) {
+        return cache.asMap().containsKey(orderId);
+    }
+
+    /**
+     * Drops the cached entry of the order if it is older than the given version, so the next lookup loads
+     * it again. Used by query backends that are fed separately from the projection calling refresh.
+     */
+    public void evictOlderThan(String orderId, long version) {
+        cache.asMap().computeIfPresent(orderId, (id, entry) -> entry.getVersion() < version ? null : entry);
+    }
+
+    @Override
+    public List<Usage> heapUsage() {
+        long bytes = cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+        return List.of(new Usage("order-details", cache.estimatedSize(), bytes));
+    }
+
+    @Override
+    public void relieve(Pressure pressure) {
+        cache.invalidateAll();
+    }
+
+    private Entry serialize(OrderSummary order) {
+        try {
+            return new Entry(order.getVersion(), writer.writeValueAsBytes(order));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order " + order.getOrderId(), e);
+        }
+    }
+
+    public static final class Entry {
+        private final long version;
+        private final byte[] json;
+
+        public Entry(long version, byte[] json) {
+            this.version = version;
+            this.json = json;
+        }
+
+        // Getters
+        public long getVersion() { return version; }
+        public byte[] getJson() { return json; }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.ordermanagement.query;
+
+import java.time.LocalDateTime;
+import java.util.function.Predicate;
+
+/**
+ * Selects orders for a full scan of the query model. Null values match every order; the updated range
+ * is half-open, {@code [updatedFrom, updatedTo)}.
+ */
+public final class OrderFilter implements Predicate<OrderSummary> {
+
+    private final OrderSummary.OrderStatus status;
+    private final String customerId;
+    private final LocalDateTime updatedFrom;
+    private final LocalDateTime updatedTo;
+
+    public OrderFilter(OrderSummary.OrderStatus status, String customerId, LocalDateTime updatedFrom, LocalDateTime updatedTo) {
+        this.status = status;
+        this.customerId = customerId;
+        this.updatedFrom = updatedFrom;
+        this.updatedTo = updatedTo;
+    }
+
+    @Override
+    public boolean test(OrderSummary order) {
+        return (status == null || order.getStatus() == status)
+                && (customerId == null || customerId.equals(order.getCustomerId()))
+                && (updatedFrom == null || (order.getUpdatedAt() != null && !order.getUpdatedAt().isBefore(updatedFrom)))
+                && (updatedTo == null || (order.getUpdatedAt() != null && order.getUpdatedAt().isBefore(updatedTo)));
+    }
+
+    public OrderSummary.OrderStatus getStatus() { return status; }
+    public String getCustomerId() { return customerId; }
+    public LocalDateTime getUpdatedFrom() { return updatedFrom; }
+    public LocalDateTime getUpdatedTo() { return updatedTo; }
+}
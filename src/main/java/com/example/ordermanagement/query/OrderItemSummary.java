@@ -1,14 +1,22 @@
 package com.example.ordermanagement.query;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "order_item_summaries")
+@Table(name = "order_item_summaries", indexes = {
+        @Index(name = "idx_order_item_summaries_order_id", columnList = "order_id")
+}, uniqueConstraints = {
+        // An order has at most one line per product; the projection updates that line in place
+        @UniqueConstraint(name = "uk_order_item_summaries_order_product", columnNames = {"order_id", "product_id"})
+})
 public class OrderItemSummary {
     
+    // Pooled sequence ids are assigned without a round trip per row, so item inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_summaries_seq")
+    @SequenceGenerator(name = "order_item_summaries_seq", sequenceName = "order_item_summaries_seq", allocationSize = 50)
     private Long id;
     
     private String productId;
@@ -16,6 +24,7 @@ public class OrderItemSummary {
     private int quantity;
     private BigDecimal price;
     
+    @JsonIgnore
     @ManyToOne
     @JoinColumn(name = "order_id")
     private OrderSummary orderSummary;
@@ -0,0 +1,17 @@
+package com.example.ordermanagement.query;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface OrderItemSummaryRepository extends JpaRepository<OrderItemSummary, Long> {
+
+    @Modifying
+    @Query("DELETE FROM OrderItemSummary i WHERE i.orderSummary.orderId IN :orderIds")
+    int deleteByOrderIds(@Param("orderIds") Collection<String> orderIds);
+}
@@ -0,0 +1,81 @@
+package com.example.ordermanagement.query;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Read access used by the order query endpoints. Every list method returns up to {@code limit} orders
+ * ordered by (createdAt, orderId), strictly after {@code after} when a cursor is given, unless it says
+ * otherwise.
+ */
+public interface OrderQueryModel {
+
+    Optional<OrderSummary> findById(String orderId);
+
+    /**
+     * Returns the version of the order without loading its items.
+     */
+    Optional<Long> findVersionById(String orderId);
+
+    /**
+     * Returns the orders that exist, in the order of the given IDs.
+     */
+    List<OrderSummary> findAllById(List<String> orderIds);
+
+    List<OrderSummary> findAll(OrderCursor after, int limit);
+
+    List<OrderSummary> findByCustomerId(String customerId, OrderCursor after, int limit);
+
+    List<OrderSummary> findByStatus(OrderSummary.OrderStatus status, OrderCursor after, int limit);
+
+    List<OrderSummary> findByMinAmount(BigDecimal minAmount, OrderCursor after, int limit);
+
+    /**
+     * Returns orders with a total amount of at least {@code minAmount}, ordered by (totalAmount, createdAt,
+     * orderId) ascending or descending.
+     */
+    List<OrderSummary> findByMinAmountOrderByAmount(BigDecimal minAmount, boolean descending, OrderAmountCursor after, int limit);
+
+    /**
+     * Counts orders with a total amount in {@code [from, to)}, or of at least {@code from} when {@code to}
+     * is null, without loading them.
+     */
+    long countByAmount(BigDecimal from, BigDecimal to);
+
+    /**
+     * Passes every order matching the filter to the consumer in (createdAt, orderId) order, reading at most
+     * {@code chunkSize} orders at a time, so a full scan holds no more than one chunk in memory.
+     *
+     * @return the number of matching orders
+     */
+    default long forEach(OrderFilter filter, int chunkSize, Consumer<OrderSummary> consumer) {
+        long matched = 0;
+        List<OrderSummary> chunk = findAll(null, chunkSize);
+        while (!chunk.isEmpty()) {
+            for (OrderSummary order : chunk) {
+                if (filter.test(order)) {
+                    consumer.accept(order);
+                    matched++;
+                }
+            }
+            chunk = chunk.size() < chunkSize ? List.of() : findAll(OrderCursor.after(chunk.get(chunk.size() - 1)), chunkSize);
+        }
+        return matched;
+    }
+
+    /**
+     * Counts orders in each band between consecutive ascending bounds; the last band is open-ended.
+     */
+    default List<OrderAmountBand> amountHistogram(List<BigDecimal> bounds) {
+        List<OrderAmountBand> bands = new ArrayList<>(bounds.size());
+        for (int i = 0; i < bounds.size(); i++) {
+            BigDecimal from = bounds.get(i);
+            BigDecimal to = i + 1 < bounds.size() ? bounds.get(i + 1) : null;
+            bands.add(new OrderAmountBand(from, to, countByAmount(from, to)));
+        }
+        return bands;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.ordermanagement.query;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+@Entity
+@Table(name = "order_rollups", indexes = {
+        // Range queries fix the granularity, so a year of days never reads past the minute rows
+        @Index(name = "idx_order_rollups_granularity_bucket", columnList = "granularity, bucket_start")
+})
+@IdClass(OrderRollup.Key.class)
+@Schema(description = "Orders that entered one status within one time bucket, and their value at that moment")
+public class OrderRollup {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private Granularity granularity;
+
+    @Id
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private OrderSummary.OrderStatus status;
+
+    private long orderCount;
+
+    private BigDecimal totalAmount;
+
+    // Required by JPA
+    protected OrderRollup() {}
+
+    public OrderRollup(Granularity granularity, LocalDateTime bucketStart, OrderSummary.OrderStatus status,
+                       long orderCount, BigDecimal totalAmount) {
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+        this.status = status;
+        this.orderCount = orderCount;
+        this.totalAmount = totalAmount;
+    }
+
+    // Getters
+    public Granularity getGranularity() { return granularity; }
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public OrderSummary.OrderStatus getStatus() { return status; }
+    public long getOrderCount() { return orderCount; }
+    public BigDecimal getTotalAmount() { return totalAmount; }
+
+    public enum Granularity {
+        MINUTE(ChronoUnit.MINUTES), HOUR(ChronoUnit.HOURS), DAY(ChronoUnit.DAYS);
+
+        private final ChronoUnit unit;
+
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        public LocalDateTime bucketOf(LocalDateTime time) {
+            return time.truncatedTo(unit);
+        }
+
+        public long bucketsBetween(LocalDateTime from, LocalDateTime to) {
+            return unit.between(bucketOf(from), bucketOf(to)) + 1;
+        }
+    }
+
+    public static class Key implements Serializable {
+        private Granularity granularity;
+        private LocalDateTime bucketStart;
+        private OrderSummary.OrderStatus status;
+
+        // Required by JPA
+        protected Key() {}
+
+        public Key(Granularity granularity, LocalDateTime bucketStart, OrderSummary.OrderStatus status) {
+            this.granularity = granularity;
+            this.bucketStart = bucketStart;
+            this.status = status;
+        }
+
+        // Getters
+        public Granularity getGranularity() { return granularity; }
+        public LocalDateTime getBucketStart() { return bucketStart; }
+        public OrderSummary.OrderStatus getStatus() { return status; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return granularity == key.granularity && bucketStart.equals(key.bucketStart) && status == key.status;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(granularity, bucketStart, status);
+        }
+    }
+}
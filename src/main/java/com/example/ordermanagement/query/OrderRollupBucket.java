@@ -0,0 +1,67 @@
+package com.example.ordermanagement.query;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Schema(description = "Order volume and value for one time bucket, by the status orders entered in it")
+public class OrderRollupBucket {
+
+    @Schema(description = "Start of the bucket", example = "2024-06-01T14:00:00")
+    private final LocalDateTime start;
+
+    @Schema(description = "Orders that entered each status in this bucket; statuses without any are omitted")
+    private final Map<OrderSummary.OrderStatus, StatusTotals> statuses = new EnumMap<>(OrderSummary.OrderStatus.class);
+
+    public OrderRollupBucket(LocalDateTime start) {
+        this.start = start;
+    }
+
+    // Sums, as the sharded backend returns one row per shard for a bucket and status
+    void add(OrderRollup rollup) {
+        statuses.merge(rollup.getStatus(), new StatusTotals(rollup.getOrderCount(), rollup.getTotalAmount()),
+                (left, right) -> new StatusTotals(left.getOrderCount() + right.getOrderCount(),
+                        left.getTotalAmount().add(right.getTotalAmount())));
+    }
+
+    // Getters
+    public LocalDateTime getStart() { return start; }
+    public Map<OrderSummary.OrderStatus, StatusTotals> getStatuses() { return statuses; }
+
+    @Schema(description = "Orders created in this bucket", example = "12")
+    public long getCreated() { return count(OrderSummary.OrderStatus.CREATED); }
+
+    @Schema(description = "Orders confirmed in this bucket", example = "9")
+    public long getConfirmed() { return count(OrderSummary.OrderStatus.CONFIRMED); }
+
+    @Schema(description = "Orders shipped in this bucket", example = "7")
+    public long getShipped() { return count(OrderSummary.OrderStatus.SHIPPED); }
+
+    @Schema(description = "Orders cancelled in this bucket", example = "1")
+    public long getCancelled() { return count(OrderSummary.OrderStatus.CANCELLED); }
+
+    private long count(OrderSummary.OrderStatus status) {
+        StatusTotals totals = statuses.get(status);
+        return totals == null ? 0 : totals.getOrderCount();
+    }
+
+    public static class StatusTotals {
+        @Schema(description = "Number of orders that entered the status", example = "9")
+        private final long orderCount;
+
+        @Schema(description = "Sum of their total amount when they entered it", example = "1357.50")
+        private final BigDecimal totalAmount;
+
+        public StatusTotals(long orderCount, BigDecimal totalAmount) {
+            this.orderCount = orderCount;
+            this.totalAmount = totalAmount;
+        }
+
+        // Getters
+        public long getOrderCount() { return orderCount; }
+        public BigDecimal getTotalAmount() { return totalAmount; }
+    }
+}
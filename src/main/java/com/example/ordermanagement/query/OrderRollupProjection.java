@@ -0,0 +1,125 @@
+package com.example.ordermanagement.query;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-minute, per-hour and per-day rollups of the orders entering each status, and of their value at
+ * that moment, so reports over long ranges read a few rows per bucket instead of scanning orders.
+ *
+ * {@code OrderEventHandler} records every status transition here, timed by its event. Within a
+ * transaction the increments are summed per bucket and written once before commit, in key order so that
+ * concurrent transactions never lock the same rows in opposite orders. Rollups are not derived from
+ * order_summaries and so can only be rebuilt by replaying the events.
+ *
+ * With the sharded backend every shard keeps the rollups of its own orders (see {@link ShardedOrderStore}),
+ * and queries add up the shards' rows for each bucket.
+ */
+@Component
+public class OrderRollupProjection {
+
+    private static final Comparator<OrderRollup.Key> KEY_ORDER = Comparator
+            .comparing(OrderRollup.Key::getGranularity)
+            .thenComparing(OrderRollup.Key::getBucketStart)
+            .thenComparing(OrderRollup.Key::getStatus);
+
+    private final OrderRollupRepository rollupRepository;
+    private final ObjectProvider<ShardedOrderStore> shardedStore;
+    private final long maxBuckets;
+
+    public OrderRollupProjection(OrderRollupRepository rollupRepository,
+                                 ObjectProvider<ShardedOrderStore> shardedStore,
+                                 @Value("${order-management.rollups.max-buckets:10000}") long maxBuckets) {
+        this.rollupRepository = rollupRepository;
+        this.shardedStore = shardedStore;
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * Counts an order entering the given status at the given time, with its total amount at that time.
+     */
+    public void record(OrderSummary.OrderStatus status, LocalDateTime at, BigDecimal amount) {
+        for (OrderRollup.Granularity granularity : OrderRollup.Granularity.values()) {
+            OrderRollup.Key key = new OrderRollup.Key(granularity, granularity.bucketOf(at), status);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                pendingIncrements().add(key, amount);
+            } else {
+                increment(key, 1, amount);
+            }
+        }
+    }
+
+    /**
+     * Returns the non-empty buckets from the one containing {@code from} up to and including the one
+     * containing {@code to}, oldest first.
+     *
+     * @throws IllegalArgumentException if the range is reversed or spans more buckets than allowed
+     */
+    public List<OrderRollupBucket> query(OrderRollup.Granularity granularity, LocalDateTime from, LocalDateTime to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Range start must not be after its end");
+        }
+        if (granularity.bucketsBetween(from, to) > maxBuckets) {
+            throw new IllegalArgumentException("Range spans more than " + maxBuckets + " " +
+                    granularity.name().toLowerCase() + " buckets; use a coarser granularity");
+        }
+        LocalDateTime first = granularity.bucketOf(from);
+        LocalDateTime last = granularity.bucketOf(to);
+        ShardedOrderStore shards = shardedStore.getIfAvailable();
+        List<OrderRollup> rollups = shards == null
+                ? rollupRepository.findRange(granularity, first, last)
+                : shards.scatter(shard -> shard.findRollups(granularity, first, last)).stream().flatMap(List::stream).toList();
+        Map<LocalDateTime, OrderRollupBucket> buckets = new TreeMap<>();
+        for (OrderRollup rollup : rollups) {
+            buckets.computeIfAbsent(rollup.getBucketStart(), OrderRollupBucket::new).add(rollup);
+        }
+        return new ArrayList<>(buckets.values());
+    }
+
+    private void increment(OrderRollup.Key key, long countDelta, BigDecimal amountDelta) {
+        if (rollupRepository.increment(key.getGranularity(), key.getBucketStart(), key.getStatus(), countDelta, amountDelta) == 0) {
+            rollupRepository.save(new OrderRollup(key.getGranularity(), key.getBucketStart(), key.getStatus(), countDelta, amountDelta));
+        }
+    }
+
+    private PendingIncrements pendingIncrements() {
+        PendingIncrements pending = (PendingIncrements) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingIncrements();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private final class PendingIncrements implements TransactionSynchronization {
+        private final Map<OrderRollup.Key, long[]> counts = new TreeMap<>(KEY_ORDER);
+        private final Map<OrderRollup.Key, BigDecimal> amounts = new TreeMap<>(KEY_ORDER);
+
+        void add(OrderRollup.Key key, BigDecimal amount) {
+            counts.computeIfAbsent(key, k -> new long[1])[0]++;
+            amounts.merge(key, amount, BigDecimal::add);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            counts.forEach((key, count) -> increment(key, count[0], amounts.get(key)));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(OrderRollupProjection.this);
+        }
+    }
+}
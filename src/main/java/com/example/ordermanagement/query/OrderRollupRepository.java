@@ -0,0 +1,39 @@
+package com.example.ordermanagement.query;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderRollupRepository extends JpaRepository<OrderRollup, OrderRollup.Key> {
+
+    // Like the status statistics, applied as a single UPDATE without flushing the projection's orders
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("UPDATE OrderRollup r SET r.orderCount = r.orderCount + :countDelta, " +
+           "r.totalAmount = r.totalAmount + :amountDelta " +
+           "WHERE r.granularity = :granularity AND r.bucketStart = :bucketStart AND r.status = :status")
+    int increment(@Param("granularity") OrderRollup.Granularity granularity,
+                  @Param("bucketStart") LocalDateTime bucketStart,
+                  @Param("status") OrderSummary.OrderStatus status,
+                  @Param("countDelta") long countDelta,
+                  @Param("amountDelta") BigDecimal amountDelta);
+
+    // A range seek on (granularity, bucket_start). Rows are read into unmanaged instances: a year of hours
+    // is thousands of rows, and registering each with the persistence context would dominate the query.
+    @Query("SELECT new com.example.ordermanagement.query.OrderRollup(r.granularity, r.bucketStart, r.status, " +
+           "r.orderCount, r.totalAmount) FROM OrderRollup r WHERE r.granularity = :granularity " +
+           "AND r.bucketStart >= :from AND r.bucketStart <= :to ORDER BY r.bucketStart, r.status")
+    List<OrderRollup> findRange(@Param("granularity") OrderRollup.Granularity granularity,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,45 @@
+package com.example.ordermanagement.query;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Optional;
+
+@Entity
+@Table(name = "order_status_statistics")
+@Schema(description = "Incrementally maintained order count and value for one status")
+public class OrderStatusStatistics {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Schema(description = "Order status", example = "CONFIRMED")
+    private OrderSummary.OrderStatus status;
+
+    @Schema(description = "Number of orders currently in this status", example = "5")
+    private long orderCount;
+
+    @Schema(description = "Sum of the total amount of orders currently in this status", example = "753.75")
+    private BigDecimal totalAmount;
+
+    // Required by JPA
+    protected OrderStatusStatistics() {}
+
+    public OrderStatusStatistics(OrderSummary.OrderStatus status, long orderCount, BigDecimal totalAmount) {
+        this.status = status;
+        this.orderCount = orderCount;
+        this.totalAmount = totalAmount == null ? BigDecimal.ZERO : totalAmount;
+    }
+
+    // Getters
+    public OrderSummary.OrderStatus getStatus() { return status; }
+    public long getOrderCount() { return orderCount; }
+    public BigDecimal getTotalAmount() { return totalAmount; }
+
+    public Optional<BigDecimal> getAverageOrderValue() {
+        if (orderCount == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(totalAmount.divide(BigDecimal.valueOf(orderCount), 2, RoundingMode.HALF_UP));
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.ordermanagement.query;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The per-status statistics. {@code OrderEventHandler} keeps the rows current through {@link #adjust};
+ * this component serves them and can rebuild them from a full scan of the summaries if they ever drift.
+ *
+ * With the sharded backend every shard keeps the statistics of its own orders (see
+ * {@link ShardedOrderStore}), and reads add them up. The rows here then only hold what no shard counts:
+ * the archive totals as of the last {@link #reconcile}.
+ */
+@Component
+public class OrderStatusStatisticsProjection implements SmartInitializingSingleton {
+
+    private final OrderStatusStatisticsRepository statisticsRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final ObjectProvider<ShardedOrderStore> shardedStore;
+    private final OrderArchive archive;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderStatusStatisticsProjection(OrderStatusStatisticsRepository statisticsRepository,
+                                           OrderSummaryRepository orderSummaryRepository,
+                                           ObjectProvider<ShardedOrderStore> shardedStore,
+                                           OrderArchive archive,
+                                           PlatformTransactionManager transactionManager) {
+        this.statisticsRepository = statisticsRepository;
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.shardedStore = shardedStore;
+        this.archive = archive;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        // Seed one row per status before event processors start, so increments always find their row
+        reconcile();
+    }
+
+    public OrderStatusStatistics get(OrderSummary.OrderStatus status) {
+        OrderStatusStatistics statistics = statisticsRepository.findById(status)
+                .orElseGet(() -> new OrderStatusStatistics(status, 0, BigDecimal.ZERO));
+        ShardedOrderStore shards = shardedStore.getIfAvailable();
+        if (shards == null) {
+            return statistics;
+        }
+        return shards.scatter(ShardedOrderStore.Shard::findStatistics).stream().flatMap(List::stream)
+                .filter(shard -> shard.getStatus() == status)
+                .reduce(statistics, OrderStatusStatisticsProjection::sum);
+    }
+
+    /**
+     * Adds the deltas to a status's statistics. Within a transaction the deltas are summed per status and
+     * applied once before commit: one UPDATE per status per batch instead of one per event, always in the
+     * same order across transactions.
+     */
+    public void adjust(OrderSummary.OrderStatus status, long countDelta, BigDecimal amountDelta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            statisticsRepository.adjust(status, countDelta, amountDelta);
+            return;
+        }
+        StatisticsDeltas deltas = (StatisticsDeltas) TransactionSynchronizationManager.getResource(this);
+        if (deltas == null) {
+            deltas = new StatisticsDeltas();
+            TransactionSynchronizationManager.bindResource(this, deltas);
+            TransactionSynchronizationManager.registerSynchronization(deltas);
+        }
+        deltas.add(status, countDelta, amountDelta);
+    }
+
+    /**
+     * Replaces the statistics with a GROUP BY scan over order_summaries plus the archive totals. With the
+     * sharded backend each shard recounts its own rows and only the archive totals are stored here. Events
+     * projected while the scan runs may be counted twice or not at all, so run this while the system is quiet.
+     */
+    public List<OrderStatusStatistics> reconcile() {
+        ShardedOrderStore shards = shardedStore.getIfAvailable();
+        List<OrderStatusStatistics> recounted = shards == null ? List.of()
+                : shards.scatter(ShardedOrderStore.Shard::recountStatistics).stream().flatMap(List::stream).toList();
+        return transactionTemplate.execute(tx -> {
+            Map<OrderSummary.OrderStatus, OrderStatusStatistics> stored = new EnumMap<>(OrderSummary.OrderStatus.class);
+            if (shards == null) {
+                orderSummaryRepository.summarizeByStatus().forEach(statistics ->
+                        stored.merge(statistics.getStatus(), statistics, OrderStatusStatisticsProjection::sum));
+            }
+            archive.statusTotals().forEach((status, archived) -> stored.merge(status, archived, OrderStatusStatisticsProjection::sum));
+
+            List<OrderStatusStatistics> reconciled = Arrays.stream(OrderSummary.OrderStatus.values())
+                    .map(status -> stored.getOrDefault(status, new OrderStatusStatistics(status, 0, BigDecimal.ZERO)))
+                    .toList();
+            statisticsRepository.deleteAllInBatch();
+            statisticsRepository.saveAll(reconciled);
+            Map<OrderSummary.OrderStatus, OrderStatusStatistics> totals = new EnumMap<>(OrderSummary.OrderStatus.class);
+            reconciled.forEach(statistics -> totals.put(statistics.getStatus(), statistics));
+            recounted.forEach(statistics -> totals.merge(statistics.getStatus(), statistics, OrderStatusStatisticsProjection::sum));
+            return List.copyOf(totals.values());
+        });
+    }
+
+    private static OrderStatusStatistics sum(OrderStatusStatistics left, OrderStatusStatistics right) {
+        return new OrderStatusStatistics(left.getStatus(), left.getOrderCount() + right.getOrderCount(),
+                left.getTotalAmount().add(right.getTotalAmount()));
+    }
+
+    private final class StatisticsDeltas implements TransactionSynchronization {
+        private final Map<OrderSummary.OrderStatus, Long> counts = new EnumMap<>(OrderSummary.OrderStatus.class);
+        private final Map<OrderSummary.OrderStatus, BigDecimal> amounts = new EnumMap<>(OrderSummary.OrderStatus.class);
+
+        void add(OrderSummary.OrderStatus status, long countDelta, BigDecimal amountDelta) {
+            counts.merge(status, countDelta, Long::sum);
+            amounts.merge(status, amountDelta, BigDecimal::add);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            for (OrderSummary.OrderStatus status : counts.keySet()) {
+                long count = counts.get(status);
+                BigDecimal amount = amounts.get(status);
+                if (count != 0 || amount.signum() != 0) {
+                    statisticsRepository.adjust(status, count, amount);
+                }
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(OrderStatusStatisticsProjection.this);
+        }
+    }
+}
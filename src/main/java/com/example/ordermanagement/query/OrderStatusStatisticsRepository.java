@@ -0,0 +1,27 @@
+package com.example.ordermanagement.query;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface OrderStatusStatisticsRepository extends JpaRepository<OrderStatusStatistics, OrderSummary.OrderStatus> {
+
+    // Applied as a single UPDATE so concurrent projections of different orders never lose an increment.
+    // The projection never writes statistics through entities, so the UPDATE does not need to flush the
+    // persistence context first; that flush would dirty-check every order of the batch on every event.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("UPDATE OrderStatusStatistics s SET s.orderCount = s.orderCount + :countDelta, " +
+           "s.totalAmount = s.totalAmount + :amountDelta WHERE s.status = :status")
+    int adjust(@Param("status") OrderSummary.OrderStatus status,
+               @Param("countDelta") long countDelta,
+               @Param("amountDelta") BigDecimal amountDelta);
+}
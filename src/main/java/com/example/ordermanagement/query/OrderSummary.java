@@ -1,16 +1,29 @@
 package com.example.ordermanagement.query;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.springframework.data.domain.Persistable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Entity
-@Table(name = "order_summaries")
+@Table(name = "order_summaries", indexes = {
+        @Index(name = "idx_order_summaries_created_order", columnList = "created_at, order_id"),
+        // Trailing (created_at, order_id) lets keyset pages within a customer or status seek instead of sort
+        @Index(name = "idx_order_summaries_customer", columnList = "customer_id, created_at, order_id"),
+        @Index(name = "idx_order_summaries_status_created", columnList = "status, created_at, order_id"),
+        @Index(name = "idx_order_summaries_total_amount", columnList = "total_amount, created_at, order_id")
+})
 @Schema(description = "Order summary information for query model")
-public class OrderSummary {
+public class OrderSummary implements Persistable<String> {
     
     @Id
     @Schema(description = "Unique order identifier", example = "550e8400-e29b-41d4-a716-446655440000")
@@ -46,10 +59,25 @@ public class OrderSummary {
     
     @Schema(description = "Cancellation reason", example = "Customer requested cancellation")
     private String cancellationReason;
+
+    // Not a JPA @Version: the projection sets it from the event stream rather than incrementing it
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    @Schema(description = "Aggregate sequence number of the last event applied to this summary", example = "3")
+    private long version;
     
-    @OneToMany(mappedBy = "orderSummary", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "orderSummary", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
     private List<OrderItemSummary> items = new ArrayList<>();
 
+    // Lets save() persist new summaries directly: merging one would issue a select first and leave the
+    // caller holding an unmanaged instance while a copy of it is the one in the persistence context
+    @Transient
+    private boolean isNew = true;
+
+    // Products whose lines were removed from this instance, so their DELETEs may not have been flushed yet
+    @Transient
+    private Set<String> removedProductIds;
+
     // Required by JPA
     protected OrderSummary() {}
 
@@ -99,6 +127,21 @@ public class OrderSummary {
     
     public String getCancellationReason() { return cancellationReason; }
     public void setCancellationReason(String cancellationReason) { this.cancellationReason = cancellationReason; }
+
+    @Override
+    @JsonIgnore
+    public String getId() { return orderId; }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() { return isNew; }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() { this.isNew = false; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
     
     public List<OrderItemSummary> getItems() { return items; }
     public void setItems(List<OrderItemSummary> items) { this.items = items; }
@@ -109,9 +152,79 @@ public class OrderSummary {
         recalculateTotal();
     }
 
-    public void removeItem(String productId) {
-        items.removeIf(item -> item.getProductId().equals(productId));
-        recalculateTotal();
+    /**
+     * Adds the product to the order, or replaces the existing line for it in place so that its row is
+     * updated rather than deleted and inserted again.
+     */
+    public void upsertItem(String productId, String productName, int quantity, BigDecimal price) {
+        for (OrderItemSummary item : items) {
+            if (item.getProductId().equals(productId)) {
+                item.setProductName(productName);
+                item.setQuantity(quantity);
+                item.setPrice(price);
+                recalculateTotal();
+                return;
+            }
+        }
+        addItem(new OrderItemSummary(productId, productName, quantity, price));
+    }
+
+    /**
+     * Removes the product's line from the order and returns it, so a caller holding a persistence context
+     * can delete it explicitly: orphan removal misses lines added since the last flush.
+     */
+    public Optional<OrderItemSummary> removeItem(String productId) {
+        for (Iterator<OrderItemSummary> iterator = items.iterator(); iterator.hasNext(); ) {
+            OrderItemSummary item = iterator.next();
+            if (item.getProductId().equals(productId)) {
+                iterator.remove();
+                recalculateTotal();
+                if (removedProductIds == null) {
+                    removedProductIds = new HashSet<>();
+                }
+                removedProductIds.add(productId);
+                return Optional.of(item);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns whether the product's line was removed from this instance since the last call for it. Adding
+     * the product back then needs the removal flushed first, or the new row would meet the old one in the
+     * unique (order_id, product_id) index: Hibernate flushes inserts before deletes.
+     */
+    public boolean takeRemoval(String productId) {
+        return removedProductIds != null && removedProductIds.remove(productId);
+    }
+
+    /**
+     * Drops the record of removed lines, for instances no persistence context will flush.
+     */
+    public void forgetRemovals() {
+        removedProductIds = null;
+    }
+
+    /**
+     * Creates an unmanaged deep copy, used to publish this state to in-memory readers without sharing
+     * an instance the persistence context may still change.
+     */
+    public OrderSummary detachedCopy() {
+        OrderSummary copy = new OrderSummary(orderId, customerId, customerName, customerEmail, shippingAddress);
+        copy.totalAmount = totalAmount;
+        copy.status = status;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        copy.trackingNumber = trackingNumber;
+        copy.cancellationReason = cancellationReason;
+        copy.version = version;
+        for (OrderItemSummary item : items) {
+            OrderItemSummary itemCopy = new OrderItemSummary(item.getProductId(), item.getProductName(), item.getQuantity(), item.getPrice());
+            itemCopy.setId(item.getId());
+            itemCopy.setOrderSummary(copy);
+            copy.items.add(itemCopy);
+        }
+        return copy;
     }
 
     private void recalculateTotal() {
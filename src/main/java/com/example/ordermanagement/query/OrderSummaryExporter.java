@@ -0,0 +1,72 @@
+package com.example.ordermanagement.query;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Streams the query model as newline-delimited JSON through {@link OrderQueryModel#forEach}, which reads
+ * a chunk of orders at a time. Orders are written as they arrive, so memory use does not grow with the
+ * number of exported orders. Archived orders are included.
+ */
+@Component
+public class OrderSummaryExporter {
+
+    private final OrderQueryModel queryModel;
+    private final OrderArchive archive;
+    private final ObjectWriter writer;
+    private final int fetchSize;
+
+    public OrderSummaryExporter(OrderQueryModel queryModel, OrderArchive archive, ObjectMapper objectMapper,
+                                @Value("${order-management.export.fetch-size:500}") int fetchSize) {
+        this.queryModel = queryModel;
+        this.archive = archive;
+        this.writer = objectMapper.writerFor(OrderSummary.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Writes every order matching the filter to {@code out}, one JSON document per line. Archived orders
+     * come first, segment by segment, followed by the query model; each segment and the query model are
+     * ordered by (createdAt, orderId). Null filter values are ignored.
+     *
+     * @return the number of exported orders
+     */
+    public long export(OrderSummary.OrderStatus status, String customerId,
+                       LocalDateTime updatedFrom, LocalDateTime updatedTo, OutputStream out) throws IOException {
+        OrderFilter filter = new OrderFilter(status, customerId, updatedFrom, updatedTo);
+        try (JsonGenerator generator = writer.createGenerator(out)) {
+            // The servlet owns the response stream; only the generator is ours to close
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Consumer<OrderSummary> write = line(generator);
+            long exported = archive.forEach(filter, write);
+            generator.flush();
+            exported += queryModel.forEach(filter, fetchSize, write);
+            generator.flush();
+            return exported;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Consumer<OrderSummary> line(JsonGenerator generator) {
+        return order -> {
+            try {
+                writer.writeValue(generator, order);
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
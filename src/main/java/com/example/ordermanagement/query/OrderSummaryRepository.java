@@ -1,29 +1,111 @@
 package com.example.ordermanagement.query;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderSummaryRepository extends JpaRepository<OrderSummary, String> {
-    
-    List<OrderSummary> findByCustomerId(String customerId);
-    
-    List<OrderSummary> findByStatus(OrderSummary.OrderStatus status);
-    
-    @Query("SELECT o FROM OrderSummary o WHERE o.customerName LIKE %:customerName%")
-    List<OrderSummary> findByCustomerNameContaining(@Param("customerName") String customerName);
-    
-    @Query("SELECT o FROM OrderSummary o WHERE o.totalAmount >= :minAmount")
-    List<OrderSummary> findByTotalAmountGreaterThanEqual(@Param("minAmount") java.math.BigDecimal minAmount);
-    
-    @Query("SELECT COUNT(o) FROM OrderSummary o WHERE o.status = :status")
-    long countByStatus(@Param("status") OrderSummary.OrderStatus status);
-    
-    @Query("SELECT AVG(o.totalAmount) FROM OrderSummary o WHERE o.status = :status")
-    Optional<java.math.BigDecimal> getAverageOrderValueByStatus(@Param("status") OrderSummary.OrderStatus status);
-} 
\ No newline at end of file
+
+    // Full scan used to reconcile the incrementally maintained OrderStatusStatistics
+    @Query("SELECT new com.example.ordermanagement.query.OrderStatusStatistics(o.status, COUNT(o), SUM(o.totalAmount)) " +
+           "FROM OrderSummary o GROUP BY o.status")
+    List<OrderStatusStatistics> summarizeByStatus();
+
+    // Scalar projection, so conditional GETs can be answered without loading the eagerly fetched items
+    @Query("SELECT o.version FROM OrderSummary o WHERE o.orderId = :orderId")
+    Optional<Long> findVersionById(@Param("orderId") String orderId);
+
+    // Keyset (seek) pagination over (createdAt, orderId). The Pageable only carries the page size;
+    // the position comes from the cursor so page N costs the same as page 1.
+
+    @Query("SELECT o FROM OrderSummary o ORDER BY o.createdAt, o.orderId")
+    List<OrderSummary> findFirstPage(Pageable page);
+
+    @Query("SELECT o FROM OrderSummary o WHERE o.createdAt > :createdAt OR (o.createdAt = :createdAt AND o.orderId > :orderId) " +
+           "ORDER BY o.createdAt, o.orderId")
+    List<OrderSummary> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("orderId") String orderId, Pageable page);
+
+    @Query("SELECT o FROM OrderSummary o WHERE o.customerId = :customerId ORDER BY o.createdAt, o.orderId")
+    List<OrderSummary> findFirstPageByCustomerId(@Param("customerId") String customerId, Pageable page);
+
+    @Query("SELECT o FROM OrderSummary o WHERE o.customerId = :customerId " +
+           "AND (o.createdAt > :createdAt OR (o.createdAt = :createdAt AND o.orderId > :orderId)) " +
+           "ORDER BY o.createdAt, o.orderId")
+    List<OrderSummary> findPageByCustomerIdAfter(@Param("customerId") String customerId, @Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("orderId") String orderId, Pageable page);
+
+    @Query("SELECT o FROM OrderSummary o WHERE o.status = :status ORDER BY o.createdAt, o.orderId")
+    List<OrderSummary> findFirstPageByStatus(@Param("status") OrderSummary.OrderStatus status, Pageable page);
+
+    @Query("SELECT o FROM OrderSummary o WHERE o.status = :status " +
+           "AND (o.createdAt > :createdAt OR (o.createdAt = :createdAt AND o.orderId > :orderId)) " +
+           "ORDER BY o.createdAt, o.orderId")
+    List<OrderSummary> findPageByStatusAfter(@Param("status") OrderSummary.OrderStatus status, @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("orderId") String orderId, Pageable page);
+
+    @Query("SELECT o FROM OrderSummary o WHERE o.totalAmount >= :minAmount ORDER BY o.createdAt, o.orderId")
+    List<OrderSummary> findFirstPageByTotalAmountGreaterThanEqual(@Param("minAmount") java.math.BigDecimal minAmount, Pageable page);
+
+    @Query("SELECT o FROM OrderSummary o WHERE o.totalAmount >= :minAmount " +
+           "AND (o.createdAt > :createdAt OR (o.createdAt = :createdAt AND o.orderId > :orderId)) " +
+           "ORDER BY o.createdAt, o.orderId")
+    List<OrderSummary> findPageByTotalAmountGreaterThanEqualAfter(@Param("minAmount") java.math.BigDecimal minAmount, @Param("createdAt") LocalDateTime createdAt,
+                                                                  @Param("orderId") String orderId, Pageable page);
+
+    @Query("SELECT o FROM OrderSummary o WHERE o.totalAmount >= :minAmount ORDER BY o.totalAmount, o.createdAt, o.orderId")
+    List<OrderSummary> findFirstPageByTotalAmountGreaterThanEqualOrderByAmount(@Param("minAmount") java.math.BigDecimal minAmount, Pageable page);
+
+    @Query("SELECT o FROM OrderSummary o WHERE o.totalAmount >= :minAmount " +
+           "AND (o.totalAmount > :totalAmount OR (o.totalAmount = :totalAmount " +
+           "AND (o.createdAt > :createdAt OR (o.createdAt = :createdAt AND o.orderId > :orderId)))) " +
+           "ORDER BY o.totalAmount, o.createdAt, o.orderId")
+    List<OrderSummary> findPageByTotalAmountGreaterThanEqualOrderByAmountAfter(@Param("minAmount") java.math.BigDecimal minAmount,
+                                                                               @Param("totalAmount") java.math.BigDecimal totalAmount,
+                                                                               @Param("createdAt") LocalDateTime createdAt,
+                                                                               @Param("orderId") String orderId, Pageable page);
+
+    @Query("SELECT o FROM OrderSummary o WHERE o.totalAmount >= :minAmount ORDER BY o.totalAmount DESC, o.createdAt DESC, o.orderId DESC")
+    List<OrderSummary> findFirstPageByTotalAmountGreaterThanEqualOrderByAmountDesc(@Param("minAmount") java.math.BigDecimal minAmount, Pageable page);
+
+    @Query("SELECT o FROM OrderSummary o WHERE o.totalAmount >= :minAmount " +
+           "AND (o.totalAmount < :totalAmount OR (o.totalAmount = :totalAmount " +
+           "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.orderId < :orderId)))) " +
+           "ORDER BY o.totalAmount DESC, o.createdAt DESC, o.orderId DESC")
+    List<OrderSummary> findPageByTotalAmountGreaterThanEqualOrderByAmountDescAfter(@Param("minAmount") java.math.BigDecimal minAmount,
+                                                                                   @Param("totalAmount") java.math.BigDecimal totalAmount,
+                                                                                   @Param("createdAt") LocalDateTime createdAt,
+                                                                                   @Param("orderId") String orderId, Pageable page);
+
+    // Counts are answered from idx_order_summaries_total_amount alone, without reading or materializing rows
+    @Query("SELECT COUNT(o) FROM OrderSummary o WHERE o.totalAmount >= :minAmount")
+    long countByTotalAmountGreaterThanEqual(@Param("minAmount") java.math.BigDecimal minAmount);
+
+    @Query("SELECT COUNT(o) FROM OrderSummary o WHERE o.totalAmount >= :from AND o.totalAmount < :to")
+    long countByTotalAmountRange(@Param("from") java.math.BigDecimal from, @Param("to") java.math.BigDecimal to);
+
+    @Query("SELECT o.orderId FROM OrderSummary o WHERE o.status IN :statuses AND o.updatedAt < :cutoff ORDER BY o.createdAt, o.orderId")
+    List<String> findArchivableIds(@Param("statuses") Collection<OrderSummary.OrderStatus> statuses,
+                                   @Param("cutoff") LocalDateTime cutoff, Pageable page);
+
+    // Feeds CustomerNameSearchIndex at startup without loading whole entities; must run inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT o.orderId AS orderId, o.customerName AS customerName FROM OrderSummary o ORDER BY o.createdAt, o.orderId")
+    Stream<CustomerNameView> streamCustomerNames();
+
+    interface CustomerNameView {
+        String getOrderId();
+        String getCustomerName();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.ordermanagement.query;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Tracks the global event position up to which the order projection has committed, and lets callers
+ * wait for a position without holding a thread. Waiters for the same position share one future.
+ */
+@Component
+public class ProjectionPositionTracker {
+
+    private final ConcurrentSkipListMap<Long, CompletableFuture<Void>> waiters = new ConcurrentSkipListMap<>();
+    private volatile long position = -1;
+
+    public long getPosition() {
+        return position;
+    }
+
+    public boolean hasReached(long target) {
+        return position >= target;
+    }
+
+    /**
+     * Called once the projection has committed everything up to and including the given position.
+     */
+    public void advanceTo(long committed) {
+        synchronized (this) {
+            if (committed <= position) {
+                return;
+            }
+            position = committed;
+        }
+        ConcurrentNavigableMap<Long, CompletableFuture<Void>> reached = waiters.headMap(committed, true);
+        reached.values().forEach(future -> future.complete(null));
+        reached.clear();
+    }
+
+    /**
+     * Returns a future that completes once the projection has reached the given position. Callers that
+     * apply a timeout should do so on a {@link CompletableFuture#copy() copy}, since the future is shared.
+     */
+    public CompletableFuture<Void> awaitPosition(long target) {
+        if (hasReached(target)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> future = waiters.computeIfAbsent(target, key -> new CompletableFuture<>());
+        // The projection may have moved past the target while we registered
+        if (hasReached(target)) {
+            future.complete(null);
+            waiters.remove(target, future);
+        }
+        return future;
+    }
+}
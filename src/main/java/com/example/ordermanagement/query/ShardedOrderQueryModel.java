@@ -0,0 +1,147 @@
+package com.example.ordermanagement.query;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Query backend over {@link ShardedOrderStore}, enabled with {@code order-management.read-model.backend=sharded}.
+ *
+ * Lookups by ID go to the owning shard. Pages are scatter-gathered: every shard returns its first
+ * {@code limit} rows past the cursor, which together contain the first {@code limit} rows overall, and
+ * those are merge-sorted and cut. Items are only loaded for the rows that make the page. Counts are
+ * summed across shards.
+ *
+ * The shards are fed by their own processor, which replaces the JPA projection in this mode; consistency
+ * tokens and the change stream follow that processor, see {@code ShardedOrderProjection}.
+ */
+@Primary
+@Component
+@ConditionalOnProperty(name = "order-management.read-model.backend", havingValue = "sharded")
+public class ShardedOrderQueryModel implements OrderQueryModel {
+
+    private static final Comparator<OrderSummary> CREATION_ORDER =
+            Comparator.comparing(OrderSummary::getCreatedAt).thenComparing(OrderSummary::getOrderId);
+    private static final Comparator<OrderSummary> AMOUNT_ORDER =
+            Comparator.comparing(OrderSummary::getTotalAmount).thenComparing(CREATION_ORDER);
+
+    private final ShardedOrderStore store;
+
+    public ShardedOrderQueryModel(ShardedOrderStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Optional<OrderSummary> findById(String orderId) {
+        return store.shardFor(orderId).findById(orderId);
+    }
+
+    @Override
+    public Optional<Long> findVersionById(String orderId) {
+        return store.shardFor(orderId).findVersionById(orderId);
+    }
+
+    @Override
+    public List<OrderSummary> findAllById(List<String> orderIds) {
+        Map<Integer, List<String>> idsByShard = new HashMap<>();
+        orderIds.forEach(orderId -> idsByShard.computeIfAbsent(store.shardOf(orderId), shard -> new ArrayList<>()).add(orderId));
+        Map<String, OrderSummary> found = new HashMap<>();
+        idsByShard.forEach((index, ids) -> {
+            ShardedOrderStore.Shard shard = store.shard(index);
+            shard.attachItems(shard.findAllById(ids)).forEach(order -> found.put(order.getOrderId(), order));
+        });
+        return orderIds.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public List<OrderSummary> findAll(OrderCursor after, int limit) {
+        return gather(shard -> shard.findPage(null, Map.of(), after, limit), CREATION_ORDER, limit);
+    }
+
+    @Override
+    public List<OrderSummary> findByCustomerId(String customerId, OrderCursor after, int limit) {
+        return gather(shard -> shard.findPage("customer_id = :customerId", Map.of("customerId", customerId), after, limit),
+                CREATION_ORDER, limit);
+    }
+
+    @Override
+    public List<OrderSummary> findByStatus(OrderSummary.OrderStatus status, OrderCursor after, int limit) {
+        return gather(shard -> shard.findPage("status = :status", Map.of("status", status.name()), after, limit),
+                CREATION_ORDER, limit);
+    }
+
+    @Override
+    public List<OrderSummary> findByMinAmount(BigDecimal minAmount, OrderCursor after, int limit) {
+        return gather(shard -> shard.findPage("total_amount >= :minAmount", Map.of("minAmount", minAmount), after, limit),
+                CREATION_ORDER, limit);
+    }
+
+    @Override
+    public List<OrderSummary> findByMinAmountOrderByAmount(BigDecimal minAmount, boolean descending, OrderAmountCursor after, int limit) {
+        return gather(shard -> shard.findByMinAmountOrderByAmount(minAmount, descending, after, limit),
+                descending ? AMOUNT_ORDER.reversed() : AMOUNT_ORDER, limit);
+    }
+
+    @Override
+    public long countByAmount(BigDecimal from, BigDecimal to) {
+        return store.scatter(shard -> shard.countByAmount(from, to)).stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Pushes the filter into every shard's query, so non-matching orders are not read at all.
+     */
+    @Override
+    public long forEach(OrderFilter filter, int chunkSize, Consumer<OrderSummary> consumer) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        if (filter.getStatus() != null) {
+            conditions.add("status = :status");
+            parameters.put("status", filter.getStatus().name());
+        }
+        if (filter.getCustomerId() != null) {
+            conditions.add("customer_id = :customerId");
+            parameters.put("customerId", filter.getCustomerId());
+        }
+        if (filter.getUpdatedFrom() != null) {
+            conditions.add("updated_at >= :updatedFrom");
+            parameters.put("updatedFrom", Timestamp.valueOf(filter.getUpdatedFrom()));
+        }
+        if (filter.getUpdatedTo() != null) {
+            conditions.add("updated_at < :updatedTo");
+            parameters.put("updatedTo", Timestamp.valueOf(filter.getUpdatedTo()));
+        }
+        String where = conditions.isEmpty() ? null : String.join(" AND ", conditions);
+
+        long matched = 0;
+        OrderCursor after = null;
+        while (true) {
+            OrderCursor cursor = after;
+            List<OrderSummary> chunk = gather(shard -> shard.findPage(where, parameters, cursor, chunkSize), CREATION_ORDER, chunkSize);
+            chunk.forEach(consumer);
+            matched += chunk.size();
+            if (chunk.size() < chunkSize) {
+                return matched;
+            }
+            after = OrderCursor.after(chunk.get(chunk.size() - 1));
+        }
+    }
+
+    private List<OrderSummary> gather(Function<ShardedOrderStore.Shard, List<OrderSummary>> query,
+                                      Comparator<OrderSummary> order, int limit) {
+        List<OrderSummary> merged = new ArrayList<>();
+        store.scatter(query).forEach(merged::addAll);
+        merged.sort(order);
+        List<OrderSummary> page = merged.size() > limit ? merged.subList(0, limit) : merged;
+
+        Map<Integer, List<OrderSummary>> pageByShard = new HashMap<>();
+        page.forEach(summary -> pageByShard.computeIfAbsent(store.shardOf(summary.getOrderId()), shard -> new ArrayList<>()).add(summary));
+        pageByShard.forEach((index, orders) -> store.shard(index).attachItems(orders));
+        return new ArrayList<>(page);
+    }
+}
@@ -0,0 +1,446 @@
+package com.example.ordermanagement.query;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Projection storage hash-partitioned by orderId across independent embedded H2 databases, enabled with
+ * {@code order-management.read-model.backend=sharded}.
+ *
+ * An order and its items live on shard {@code orderId.hashCode() & (shards - 1)}. That is the same bit
+ * mask Axon applies to the aggregate identifier when it assigns events to the segments of a tracking
+ * processor, so with as many segments as shards every segment writes to exactly one database and no two
+ * segments contend for the same one. The shard count must therefore be a power of two. Writes are guarded
+ * by the aggregate sequence number, so redelivered events are ignored.
+ *
+ * Reads run per shard with the same keyset predicates as the JPA model and are merged by the caller; see
+ * {@link ShardedOrderQueryModel}.
+ *
+ * Each shard also keeps the status statistics and rollups of its own orders, written in the same
+ * transaction as the order, so they never disagree with it and no two segments update the same row.
+ * {@link OrderStatusStatisticsProjection} and {@link OrderRollupProjection} sum them across shards.
+ */
+@Component
+@ConditionalOnProperty(name = "order-management.read-model.backend", havingValue = "sharded")
+public class ShardedOrderStore implements DisposableBean {
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE order_summaries (order_id VARCHAR(255) PRIMARY KEY, customer_id VARCHAR(255), " +
+            "customer_name VARCHAR(255), customer_email VARCHAR(255), shipping_address VARCHAR(255), " +
+            "total_amount NUMERIC(38, 2) NOT NULL, status VARCHAR(32) NOT NULL, created_at TIMESTAMP(6) NOT NULL, " +
+            "updated_at TIMESTAMP(6), tracking_number VARCHAR(255), cancellation_reason VARCHAR(255), " +
+            "version BIGINT DEFAULT 0 NOT NULL)",
+            "CREATE INDEX idx_order_summaries_created_order ON order_summaries (created_at, order_id)",
+            "CREATE INDEX idx_order_summaries_customer ON order_summaries (customer_id, created_at, order_id)",
+            "CREATE INDEX idx_order_summaries_status_created ON order_summaries (status, created_at, order_id)",
+            "CREATE INDEX idx_order_summaries_total_amount ON order_summaries (total_amount, created_at, order_id)",
+            "CREATE TABLE order_item_summaries (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+            "order_id VARCHAR(255) NOT NULL, product_id VARCHAR(255) NOT NULL, product_name VARCHAR(255), " +
+            "quantity INT NOT NULL, price NUMERIC(38, 2) NOT NULL, " +
+            "CONSTRAINT uk_order_item_summaries_order_product UNIQUE (order_id, product_id))",
+            "CREATE TABLE order_status_statistics (status VARCHAR(32) PRIMARY KEY, order_count BIGINT NOT NULL, " +
+            "total_amount NUMERIC(38, 2) NOT NULL)",
+            "CREATE TABLE order_rollups (granularity VARCHAR(16) NOT NULL, bucket_start TIMESTAMP(6) NOT NULL, " +
+            "status VARCHAR(32) NOT NULL, order_count BIGINT NOT NULL, total_amount NUMERIC(38, 2) NOT NULL, " +
+            "PRIMARY KEY (granularity, bucket_start, status))"
+    };
+
+    private static final String ORDER_COLUMNS = "order_id, customer_id, customer_name, customer_email, shipping_address, " +
+            "total_amount, status, created_at, updated_at, tracking_number, cancellation_reason, version";
+
+    private final Shard[] shards;
+    private final int mask;
+    private final ExecutorService scatter;
+
+    public ShardedOrderStore(@Value("${order-management.read-model.sharded.shards:4}") int shardCount) {
+        if (shardCount < 1 || Integer.bitCount(shardCount) != 1) {
+            throw new IllegalArgumentException("Shard count must be a power of two, was " + shardCount);
+        }
+        this.mask = shardCount - 1;
+        this.shards = new Shard[shardCount];
+        // Unique names, so every application context in a JVM gets its own databases
+        String prefix = "order-shard-" + UUID.randomUUID() + "-";
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, prefix + i);
+        }
+        this.scatter = Executors.newFixedThreadPool(shardCount, daemonThreads("order-shard-query-"));
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    public int shardOf(String orderId) {
+        return orderId.hashCode() & mask;
+    }
+
+    /**
+     * Runs the query against every shard in parallel and returns the results in shard order.
+     */
+    public <T> List<T> scatter(Function<Shard, T> query) {
+        if (shards.length == 1) {
+            return List.of(query.apply(shards[0]));
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(shard), scatter));
+        }
+        List<T> results = new ArrayList<>(shards.length);
+        for (CompletableFuture<T> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    public Shard shardFor(String orderId) {
+        return shards[shardOf(orderId)];
+    }
+
+    public Shard shard(int index) {
+        return shards[index];
+    }
+
+    @Override
+    public void destroy() {
+        scatter.shutdownNow();
+        for (Shard shard : shards) {
+            shard.dataSource.close();
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public record CustomerName(String orderId, String customerName, LocalDateTime createdAt) {
+    }
+
+    /**
+     * One embedded database holding the orders that hash to it.
+     */
+    public static final class Shard {
+
+        private static final RowMapper<OrderSummary> ORDER_MAPPER = Shard::mapOrder;
+
+        private final int index;
+        private final HikariDataSource dataSource;
+        private final NamedParameterJdbcTemplate jdbc;
+        private final TransactionTemplate transactions;
+
+        private Shard(int index, String databaseName) {
+            this.index = index;
+            this.dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl("jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1");
+            dataSource.setUsername("sa");
+            dataSource.setPoolName(databaseName);
+            dataSource.setMaximumPoolSize(4);
+            this.jdbc = new NamedParameterJdbcTemplate(dataSource);
+            this.transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            for (String statement : SCHEMA) {
+                jdbc.getJdbcTemplate().execute(statement);
+            }
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        // Writes
+
+        /**
+         * Inserts the order and runs {@code change} in one transaction, unless the order already exists.
+         * Returns whether it was inserted.
+         */
+        public boolean insertOrder(OrderSummary order, Runnable change) {
+            try {
+                transactions.executeWithoutResult(status -> {
+                    jdbc.getJdbcTemplate().update("INSERT INTO order_summaries (" + ORDER_COLUMNS + ") " +
+                                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                            order.getOrderId(), order.getCustomerId(), order.getCustomerName(), order.getCustomerEmail(),
+                            order.getShippingAddress(), order.getTotalAmount(), order.getStatus().name(),
+                            Timestamp.valueOf(order.getCreatedAt()), Timestamp.valueOf(order.getUpdatedAt()),
+                            order.getTrackingNumber(), order.getCancellationReason(), order.getVersion());
+                    change.run();
+                });
+                return true;
+            } catch (DuplicateKeyException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Applies {@code change} in one transaction if the order is behind {@code version}, after recording
+         * the new version and update time. Returns whether the change was applied.
+         */
+        public boolean applyIfNewer(String orderId, long version, LocalDateTime updatedAt, Runnable change) {
+            return Boolean.TRUE.equals(transactions.execute(status -> {
+                int advanced = jdbc.getJdbcTemplate().update(
+                        "UPDATE order_summaries SET version = ?, updated_at = ? WHERE order_id = ? AND version < ?",
+                        version, Timestamp.valueOf(updatedAt), orderId, version);
+                if (advanced == 0) {
+                    return false;
+                }
+                change.run();
+                return true;
+            }));
+        }
+
+        public void upsertItem(String orderId, String productId, String productName, int quantity, BigDecimal price) {
+            jdbc.getJdbcTemplate().update("MERGE INTO order_item_summaries (order_id, product_id, product_name, quantity, price) " +
+                    "KEY (order_id, product_id) VALUES (?, ?, ?, ?, ?)", orderId, productId, productName, quantity, price);
+            recalculateTotal(orderId);
+        }
+
+        public void removeItem(String orderId, String productId) {
+            jdbc.getJdbcTemplate().update("DELETE FROM order_item_summaries WHERE order_id = ? AND product_id = ?", orderId, productId);
+            recalculateTotal(orderId);
+        }
+
+        public void updateStatus(String orderId, OrderSummary.OrderStatus status) {
+            jdbc.getJdbcTemplate().update("UPDATE order_summaries SET status = ? WHERE order_id = ?", status.name(), orderId);
+        }
+
+        public void ship(String orderId, String trackingNumber) {
+            jdbc.getJdbcTemplate().update("UPDATE order_summaries SET status = ?, tracking_number = ? WHERE order_id = ?",
+                    OrderSummary.OrderStatus.SHIPPED.name(), trackingNumber, orderId);
+        }
+
+        public void cancel(String orderId, String reason) {
+            jdbc.getJdbcTemplate().update("UPDATE order_summaries SET status = ?, cancellation_reason = ? WHERE order_id = ?",
+                    OrderSummary.OrderStatus.CANCELLED.name(), reason, orderId);
+        }
+
+        public void updateShippingAddress(String orderId, String shippingAddress) {
+            jdbc.getJdbcTemplate().update("UPDATE order_summaries SET shipping_address = ? WHERE order_id = ?", shippingAddress, orderId);
+        }
+
+        /**
+         * Deletes the given orders, all of which must live on this shard, with their items in one transaction.
+         */
+        public void deleteOrders(Collection<String> orderIds) {
+            transactions.executeWithoutResult(status -> {
+                jdbc.update("DELETE FROM order_item_summaries WHERE order_id IN (:orderIds)", Map.of("orderIds", orderIds));
+                jdbc.update("DELETE FROM order_summaries WHERE order_id IN (:orderIds)", Map.of("orderIds", orderIds));
+            });
+        }
+
+        /**
+         * Adds the deltas to this shard's statistics row for the status. Only the segment owning the shard
+         * writes it, so the read-then-insert can not race.
+         */
+        public void adjustStatistics(OrderSummary.OrderStatus status, long countDelta, BigDecimal amountDelta) {
+            if (jdbc.getJdbcTemplate().update("UPDATE order_status_statistics SET order_count = order_count + ?, " +
+                    "total_amount = total_amount + ? WHERE status = ?", countDelta, amountDelta, status.name()) == 0) {
+                jdbc.getJdbcTemplate().update("INSERT INTO order_status_statistics (status, order_count, total_amount) " +
+                        "VALUES (?, ?, ?)", status.name(), countDelta, amountDelta);
+            }
+        }
+
+        /**
+         * Counts an order entering the status at the given time in every rollup granularity.
+         */
+        public void recordRollup(OrderSummary.OrderStatus status, LocalDateTime at, BigDecimal amount) {
+            for (OrderRollup.Granularity granularity : OrderRollup.Granularity.values()) {
+                Timestamp bucketStart = Timestamp.valueOf(granularity.bucketOf(at));
+                if (jdbc.getJdbcTemplate().update("UPDATE order_rollups SET order_count = order_count + 1, " +
+                        "total_amount = total_amount + ? WHERE granularity = ? AND bucket_start = ? AND status = ?",
+                        amount, granularity.name(), bucketStart, status.name()) == 0) {
+                    jdbc.getJdbcTemplate().update("INSERT INTO order_rollups (granularity, bucket_start, status, " +
+                            "order_count, total_amount) VALUES (?, ?, ?, 1, ?)", granularity.name(), bucketStart, status.name(), amount);
+                }
+            }
+        }
+
+        private void recalculateTotal(String orderId) {
+            jdbc.getJdbcTemplate().update("UPDATE order_summaries SET total_amount = " +
+                    "(SELECT COALESCE(SUM(i.quantity * i.price), 0) FROM order_item_summaries i WHERE i.order_id = ?) " +
+                    "WHERE order_id = ?", orderId, orderId);
+        }
+
+        // Reads; orders are returned without their items, see attachItems
+
+        public Optional<OrderSummary> findById(String orderId) {
+            return attachItems(query("WHERE order_id = :orderId", Map.of("orderId", orderId))).stream().findFirst();
+        }
+
+        public Optional<Long> findVersionById(String orderId) {
+            return jdbc.queryForList("SELECT version FROM order_summaries WHERE order_id = :orderId",
+                    Map.of("orderId", orderId), Long.class).stream().findFirst();
+        }
+
+        public List<OrderSummary> findAllById(Collection<String> orderIds) {
+            return query("WHERE order_id IN (:orderIds)", Map.of("orderIds", orderIds));
+        }
+
+        /**
+         * Returns up to {@code limit} orders matching {@code filter} in (createdAt, orderId) order, strictly
+         * after the cursor when one is given.
+         */
+        public List<OrderSummary> findPage(String filter, Map<String, Object> parameters, OrderCursor after, int limit) {
+            Map<String, Object> bound = new HashMap<>(parameters);
+            StringBuilder where = new StringBuilder("WHERE ").append(filter == null ? "TRUE" : filter);
+            if (after != null) {
+                where.append(" AND (created_at > :createdAt OR (created_at = :createdAt AND order_id > :orderId))");
+                bound.put("createdAt", Timestamp.valueOf(after.getCreatedAt()));
+                bound.put("orderId", after.getOrderId());
+            }
+            where.append(" ORDER BY created_at, order_id LIMIT :limit");
+            bound.put("limit", limit);
+            return query(where.toString(), bound);
+        }
+
+        public List<OrderSummary> findByMinAmountOrderByAmount(BigDecimal minAmount, boolean descending, OrderAmountCursor after, int limit) {
+            Map<String, Object> bound = new HashMap<>();
+            bound.put("minAmount", minAmount);
+            bound.put("limit", limit);
+            String direction = descending ? " DESC" : "";
+            StringBuilder where = new StringBuilder("WHERE total_amount >= :minAmount");
+            if (after != null) {
+                String beyond = descending ? "<" : ">";
+                where.append(" AND (total_amount ").append(beyond).append(" :totalAmount OR (total_amount = :totalAmount")
+                        .append(" AND (created_at ").append(beyond).append(" :createdAt OR (created_at = :createdAt")
+                        .append(" AND order_id ").append(beyond).append(" :orderId))))");
+                bound.put("totalAmount", after.getTotalAmount());
+                bound.put("createdAt", Timestamp.valueOf(after.getCreatedAt()));
+                bound.put("orderId", after.getOrderId());
+            }
+            where.append(" ORDER BY total_amount").append(direction).append(", created_at").append(direction)
+                    .append(", order_id").append(direction).append(" LIMIT :limit");
+            return query(where.toString(), bound);
+        }
+
+        public long countByAmount(BigDecimal from, BigDecimal to) {
+            Map<String, Object> bound = new HashMap<>();
+            bound.put("from", from);
+            String sql = "SELECT COUNT(*) FROM order_summaries WHERE total_amount >= :from";
+            if (to != null) {
+                sql += " AND total_amount < :to";
+                bound.put("to", to);
+            }
+            Long count = jdbc.queryForObject(sql, bound, Long.class);
+            return count == null ? 0 : count;
+        }
+
+        /**
+         * Returns up to {@code limit} IDs of orders in one of {@code statuses} last updated before
+         * {@code cutoff}, in (createdAt, orderId) order.
+         */
+        public List<String> findArchivableIds(Collection<OrderSummary.OrderStatus> statuses, LocalDateTime cutoff, int limit) {
+            Map<String, Object> bound = new HashMap<>();
+            bound.put("statuses", statuses.stream().map(Enum::name).toList());
+            bound.put("cutoff", Timestamp.valueOf(cutoff));
+            bound.put("limit", limit);
+            return jdbc.queryForList("SELECT order_id FROM order_summaries WHERE status IN (:statuses) AND updated_at < :cutoff " +
+                    "ORDER BY created_at, order_id LIMIT :limit", bound, String.class);
+        }
+
+        /**
+         * Returns the ID and customer name of every order on this shard in (createdAt, orderId) order, for
+         * seeding {@link CustomerNameSearchIndex}.
+         */
+        public List<CustomerName> findCustomerNames() {
+            return jdbc.getJdbcTemplate().query("SELECT order_id, customer_name, created_at FROM order_summaries " +
+                    "ORDER BY created_at, order_id", (row, rowNumber) -> new CustomerName(row.getString(1), row.getString(2),
+                    row.getTimestamp(3).toLocalDateTime()));
+        }
+
+        public List<OrderStatusStatistics> findStatistics() {
+            return jdbc.getJdbcTemplate().query("SELECT status, order_count, total_amount FROM order_status_statistics",
+                    Shard::mapStatistics);
+        }
+
+        /**
+         * Replaces this shard's statistics with a count and sum of its orders per status, and returns them.
+         */
+        public List<OrderStatusStatistics> recountStatistics() {
+            return transactions.execute(status -> {
+                jdbc.getJdbcTemplate().update("DELETE FROM order_status_statistics");
+                jdbc.getJdbcTemplate().update("INSERT INTO order_status_statistics (status, order_count, total_amount) " +
+                        "SELECT status, COUNT(*), SUM(total_amount) FROM order_summaries GROUP BY status");
+                return findStatistics();
+            });
+        }
+
+        public List<OrderRollup> findRollups(OrderRollup.Granularity granularity, LocalDateTime from, LocalDateTime to) {
+            return jdbc.getJdbcTemplate().query("SELECT bucket_start, status, order_count, total_amount FROM order_rollups " +
+                    "WHERE granularity = ? AND bucket_start >= ? AND bucket_start <= ?",
+                    (row, rowNumber) -> new OrderRollup(granularity, row.getTimestamp(1).toLocalDateTime(),
+                            OrderSummary.OrderStatus.valueOf(row.getString(2)), row.getLong(3), row.getBigDecimal(4)),
+                    granularity.name(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+        }
+
+        public long countOrders() {
+            Long count = jdbc.getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM order_summaries", Long.class);
+            return count == null ? 0 : count;
+        }
+
+        /**
+         * Loads the items of the given orders, all of which must live on this shard, in one query.
+         */
+        public List<OrderSummary> attachItems(List<OrderSummary> orders) {
+            if (orders.isEmpty()) {
+                return orders;
+            }
+            Map<String, OrderSummary> byId = new HashMap<>();
+            orders.forEach(order -> byId.put(order.getOrderId(), order));
+            jdbc.query("SELECT id, order_id, product_id, product_name, quantity, price FROM order_item_summaries " +
+                    "WHERE order_id IN (:orderIds) ORDER BY id", Map.of("orderIds", byId.keySet()), row -> {
+                OrderSummary order = byId.get(row.getString("order_id"));
+                OrderItemSummary item = new OrderItemSummary(row.getString("product_id"), row.getString("product_name"),
+                        row.getInt("quantity"), row.getBigDecimal("price"));
+                item.setId(row.getLong("id"));
+                item.setOrderSummary(order);
+                order.getItems().add(item);
+            });
+            return orders;
+        }
+
+        private List<OrderSummary> query(String clause, Map<String, ?> parameters) {
+            return jdbc.query("SELECT " + ORDER_COLUMNS + " FROM order_summaries " + clause, parameters, ORDER_MAPPER);
+        }
+
+        private static OrderStatusStatistics mapStatistics(ResultSet row, int rowNumber) throws SQLException {
+            return new OrderStatusStatistics(OrderSummary.OrderStatus.valueOf(row.getString(1)), row.getLong(2), row.getBigDecimal(3));
+        }
+
+        private static OrderSummary mapOrder(ResultSet row, int rowNumber) throws SQLException {
+            OrderSummary order = new OrderSummary(row.getString("order_id"), row.getString("customer_id"),
+                    row.getString("customer_name"), row.getString("customer_email"), row.getString("shipping_address"));
+            order.setTotalAmount(row.getBigDecimal("total_amount"));
+            order.setStatus(OrderSummary.OrderStatus.valueOf(row.getString("status")));
+            order.setCreatedAt(row.getTimestamp("created_at").toLocalDateTime());
+            Timestamp updatedAt = row.getTimestamp("updated_at");
+            order.setUpdatedAt(updatedAt == null ? null : updatedAt.toLocalDateTime());
+            order.setTrackingNumber(row.getString("tracking_number"));
+            order.setCancellationReason(row.getString("cancellation_reason"));
+            order.setVersion(row.getLong("version"));
+            return order;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.ordermanagement.seed;
+
+import com.example.ordermanagement.handler.OrderEventHandler;
+import com.example.ordermanagement.query.ProjectionPositionTracker;
+import org.axonframework.common.Registration;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.config.EventProcessingConfiguration;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventHandlerInvoker;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.ReplayToken;
+import org.axonframework.eventhandling.Segment;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventhandling.TrackingEventProcessor;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.axonframework.messaging.InterceptorChain;
+import org.axonframework.messaging.MessageHandlerInterceptor;
+import org.axonframework.messaging.ResultMessage;
+import org.axonframework.messaging.unitofwork.BatchingUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes synthetic order streams from a {@link SyntheticOrderGenerator} straight into the event store,
+ * for testing replays, snapshots and queries at volume.
+ *
+ * No commands are sent and no aggregates loaded: several threads generate batches of orders, and each batch
+ * is appended to the storage engine in one transaction. Without the projection, the projection's tracking
+ * processor catches up from the store afterwards, as in a replay. With it, that processor is stopped and its
+ * handlers handle every batch in the transaction that appends it. The seeded events are tagged with the
+ * run, and the processor, started again from where it stopped, passes over that run's events while it
+ * projects everything else: events it had not reached yet and events appended by commands meanwhile. Those
+ * handlers expect one transaction at a time, as the processor gives them, since every batch updates the
+ * same status statistics rows; so with the projection batches are still generated in parallel but stored
+ * one after the other. With the sharded backend, that processor only keeps the customer name index; the
+ * sharded projection catches up from the store and owns the consistency-token position.
+ */
+@Component
+public class EventStoreSeeder {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventStoreSeeder.class);
+    private static final Duration PROGRESS_INTERVAL = Duration.ofSeconds(10);
+    private static final String SEED_RUN = "seedRun";
+
+    private final EventStorageEngine storageEngine;
+    private final TransactionManager transactionManager;
+    private final ObjectProvider<EventProcessingConfiguration> processingConfiguration;
+    private final ProjectionPositionTracker positionTracker;
+    private final ObjectProvider<OrderEventHandler> orderEventHandler;
+    private final ReentrantLock projectionLock = new ReentrantLock();
+
+    public EventStoreSeeder(EventStorageEngine storageEngine,
+                            TransactionManager transactionManager,
+                            ObjectProvider<EventProcessingConfiguration> processingConfiguration,
+                            ProjectionPositionTracker positionTracker,
+                            ObjectProvider<OrderEventHandler> orderEventHandler) {
+        this.storageEngine = storageEngine;
+        this.transactionManager = transactionManager;
+        this.processingConfiguration = processingConfiguration;
+        this.positionTracker = positionTracker;
+        this.orderEventHandler = orderEventHandler;
+    }
+
+    /**
+     * Seeds the orders of the plan and returns once all of them are stored.
+     */
+    public Result seed(Plan plan) throws InterruptedException {
+        SyntheticOrderGenerator generator = new SyntheticOrderGenerator(plan.seed(), plan.days(), plan.until(),
+                (int) Math.max(1, Math.min(Integer.MAX_VALUE, plan.orders() / 3)), ZoneId.systemDefault());
+        long startNanos = System.nanoTime();
+        AtomicLong nextOrder = new AtomicLong();
+        AtomicLong seededOrders = new AtomicLong();
+        AtomicLong seededEvents = new AtomicLong();
+        AtomicLong lastReport = new AtomicLong(startNanos);
+        logger.info("Seeding {} orders over {} days until {} with seed {} on {} threads{}", plan.orders(), plan.days(),
+                plan.until(), plan.seed(), plan.threads(), plan.projection() ? ", building the projection" : "");
+
+        TrackingEventProcessor projection = plan.projection() ? stopProjection() : null;
+        Map<String, String> run = Map.of(SEED_RUN, UUID.randomUUID().toString());
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(plan.threads(),
+                runnable -> new Thread(runnable, "event-store-seeder-" + threadNumber.incrementAndGet()));
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < plan.threads(); i++) {
+                running.add(workers.submit(() -> {
+                    long from;
+                    while ((from = nextOrder.getAndAdd(plan.batchSize())) < plan.orders()) {
+                        long to = Math.min(from + plan.batchSize(), plan.orders());
+                        List<DomainEventMessage<?>> events = new ArrayList<>();
+                        for (long order = from; order < to; order++) {
+                            for (DomainEventMessage<?> event : generator.order(order)) {
+                                events.add(projection == null ? event : event.andMetaData(run));
+                            }
+                        }
+                        store(events, projection == null ? null : projection.eventHandlerInvoker());
+                        long orders = seededOrders.addAndGet(to - from);
+                        seededEvents.addAndGet(events.size());
+                        reportProgress(orders, plan.orders(), startNanos, lastReport);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : running) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Seeding the event store failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+            if (projection != null) {
+                // Every committed batch is already projected, and a failed one neither stored nor projected
+                TrackingToken head = storageEngine.createHeadToken();
+                SeededEventFilter filter = new SeededEventFilter(run.get(SEED_RUN), head == null ? -1 : head.position().orElse(-1),
+                        orderEventHandler.getIfAvailable() != null);
+                filter.registration = projection.registerHandlerInterceptor(filter);
+                projection.start();
+            }
+        }
+
+        Result result = new Result(seededOrders.get(), seededEvents.get(), Duration.ofNanos(System.nanoTime() - startNanos));
+        logger.info("Seeded {} orders with {} events in {} ({} events/s)", result.orders(), result.events(),
+                result.elapsed(), result.eventsPerSecond());
+        return result;
+    }
+
+    private TrackingEventProcessor stopProjection() {
+        String processingGroup = OrderEventHandler.class.getPackageName();
+        TrackingEventProcessor processor = processingConfiguration.getObject()
+                .eventProcessorByProcessingGroup(processingGroup, TrackingEventProcessor.class)
+                .orElseThrow(() -> new IllegalStateException("No tracking processor for " + processingGroup));
+        processor.shutDown();
+        return processor;
+    }
+
+    private void store(List<DomainEventMessage<?>> events, EventHandlerInvoker projection) throws Exception {
+        if (projection == null) {
+            append(events, null);
+            return;
+        }
+        projectionLock.lockInterruptibly();
+        try {
+            append(events, projection);
+        } finally {
+            projectionLock.unlock();
+        }
+    }
+
+    private void append(List<DomainEventMessage<?>> events, EventHandlerInvoker projection) throws Exception {
+        BatchingUnitOfWork<DomainEventMessage<?>> unitOfWork = new BatchingUnitOfWork<>(events);
+        unitOfWork.attachTransaction(transactionManager);
+        unitOfWork.onPrepareCommit(uow -> storageEngine.appendEvents(events));
+        ResultMessage<?> result = unitOfWork.executeWithResult(() -> {
+            if (projection != null) {
+                projection.handle(unitOfWork.getMessage(), Segment.ROOT_SEGMENT);
+            }
+            return null;
+        });
+        if (result.isExceptional()) {
+            Throwable failure = result.exceptionResult();
+            throw failure instanceof Exception exception ? exception : new IllegalStateException(failure);
+        }
+    }
+
+    /**
+     * Passes over the events of a seeding run that were projected as they were stored, moving the
+     * projection position past them, until the processor has got beyond the run. A replay projects them.
+     */
+    private final class SeededEventFilter implements MessageHandlerInterceptor<EventMessage<?>> {
+
+        private final String run;
+        private final long lastSeededPosition;
+        private final boolean ownsPosition;
+        private volatile Registration registration;
+
+        private SeededEventFilter(String run, long lastSeededPosition, boolean ownsPosition) {
+            this.run = run;
+            this.lastSeededPosition = lastSeededPosition;
+            this.ownsPosition = ownsPosition;
+        }
+
+        @Override
+        public Object handle(UnitOfWork<? extends EventMessage<?>> unitOfWork, InterceptorChain interceptorChain) throws Exception {
+            if (!(unitOfWork.getMessage() instanceof TrackedEventMessage<?> event) || event.trackingToken() == null) {
+                return interceptorChain.proceed();
+            }
+            long position = event.trackingToken().position().orElse(-1);
+            if (position >= lastSeededPosition && registration != null) {
+                registration.cancel();
+            }
+            if (ReplayToken.isReplay(event) || !run.equals(event.getMetaData().get(SEED_RUN))) {
+                return interceptorChain.proceed();
+            }
+            if (ownsPosition) {
+                unitOfWork.afterCommit(committed -> positionTracker.advanceTo(position));
+            }
+            return null;
+        }
+    }
+
+    private static void reportProgress(long orders, long total, long startNanos, AtomicLong lastReport) {
+        long now = System.nanoTime();
+        long last = lastReport.get();
+        if (now - last >= PROGRESS_INTERVAL.toNanos() && lastReport.compareAndSet(last, now)) {
+            logger.info("Seeded {} of {} orders ({}%) in {}s", orders, total, orders * 100 / total,
+                    Duration.ofNanos(now - startNanos).toSeconds());
+        }
+    }
+
+    /**
+     * What to seed: {@code orders} orders created over the {@code days} days before {@code until}, drawn
+     * from {@code seed}, appended {@code batchSize} orders per transaction by {@code threads} threads.
+     */
+    public record Plan(long orders, int days, LocalDate until, long seed, int threads, int batchSize,
+                       boolean projection) {
+
+        public Plan {
+            if (orders < 1 || days < 1 || threads < 1 || batchSize < 1) {
+                throw new IllegalArgumentException("orders, days, threads and batch size must be positive");
+            }
+        }
+    }
+
+    public record Result(long orders, long events, Duration elapsed) {
+
+        public long eventsPerSecond() {
+            return elapsed.isZero() ? events : events * 1000 / Math.max(1, elapsed.toMillis());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.ordermanagement.seed;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Seeds the event store once the application has started, when {@code order-management.seed.orders} is
+ * set. The application keeps running afterwards, so the seeded orders can be queried, replayed or loaded.
+ * Spring Boot only reports the application ready to accept traffic once its runners are done, so the
+ * readiness probe stays down until seeding has finished.
+ */
+@Component
+@ConditionalOnProperty(name = "order-management.seed.orders")
+public class SeedOnStartup implements ApplicationRunner {
+
+    private final EventStoreSeeder seeder;
+    private final EventStoreSeeder.Plan plan;
+
+    public SeedOnStartup(EventStoreSeeder seeder,
+                         @Value("${order-management.seed.orders}") long orders,
+                         @Value("${order-management.seed.days:90}") int days,
+                         @Value("${order-management.seed.until:}") String until,
+                         @Value("${order-management.seed.seed:42}") long seed,
+                         @Value("${order-management.seed.threads:4}") int threads,
+                         @Value("${order-management.seed.batch-size:200}") int batchSize,
+                         @Value("${order-management.seed.projection:true}") boolean projection) {
+        this.seeder = seeder;
+        this.plan = new EventStoreSeeder.Plan(orders, days, until.isBlank() ? LocalDate.now() : LocalDate.parse(until),
+                seed, threads, batchSize, projection);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        seeder.seed(plan);
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.ordermanagement.seed;
+
+import com.example.ordermanagement.event.*;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.messaging.MetaData;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Builds synthetic but well-formed Order event streams: every stream is one the {@code Order} aggregate
+ * could have produced, so it loads and accepts further commands like any other.
+ *
+ * The stream of order {@code n} depends only on the seed and {@code n}, never on which thread builds it
+ * or in which order, so a seeded store can be rebuilt exactly. Orders are created over the {@code days}
+ * days before {@code until}, mostly during the day, with a few items each from a catalog where some
+ * products sell far more than others, and a returning customer base. Most orders run through to shipping;
+ * some are cancelled or left unconfirmed, and those created shortly before {@code until} are still in
+ * progress, since no event is dated after it.
+ */
+public final class SyntheticOrderGenerator {
+
+    static final String AGGREGATE_TYPE = "Order";
+
+    private static final int CATALOG_SIZE = 1000;
+    private static final int MAX_ITEMS = 20;
+    // Relative order volume per hour of the day
+    private static final int[] HOURLY_WEIGHTS = {1, 1, 1, 1, 1, 2, 3, 5, 7, 8, 9, 9, 10, 9, 9, 8, 8, 9, 10, 10, 9, 6, 4, 2};
+    private static final String[] FIRST_NAMES = {"Emma", "Liam", "Olivia", "Noah", "Ava", "Lucas", "Mia", "Ethan",
+            "Sofia", "Mateo", "Amelia", "Leo", "Isla", "Hugo", "Zoe", "Arjun", "Yuki", "Chen", "Fatima", "Omar",
+            "Ingrid", "Lars", "Priya", "Diego", "Chloe", "Jonas", "Aisha", "Marco", "Elena", "Kwame"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Garcia", "Müller", "Rossi", "Tanaka", "Kim",
+            "Nguyen", "Silva", "Kowalski", "Jansen", "Dubois", "Andersson", "Okafor", "Patel", "Cohen", "Novak",
+            "Hernandez", "O'Brien", "Schmidt", "Lopez", "Wang", "Ivanova", "Costa", "Murphy"};
+    private static final String[] STREETS = {"Main Street", "Oak Avenue", "Station Road", "Church Lane", "Park Road",
+            "High Street", "Mill Lane", "Elm Street", "Harbour Way", "Kingsway"};
+    private static final String[] CITIES = {"Springfield", "Rivertown", "Lakeside", "Fairview", "Greenville",
+            "Brookfield", "Maplewood", "Westport"};
+    private static final String[] PRODUCT_KINDS = {"Notebook", "Headphones", "Coffee Mug", "Desk Lamp", "Backpack",
+            "Water Bottle", "Keyboard", "Phone Case", "Sneakers", "T-Shirt", "Cookbook", "Plant Pot"};
+    private static final String[] CANCEL_REASONS = {"Customer changed their mind", "Found a better price",
+            "Delivery too slow", "Ordered by mistake", "Payment failed", "Item out of stock"};
+
+    private final long seed;
+    private final int days;
+    private final int customers;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final ZoneId zone;
+    private final Product[] catalog;
+    private final int hourlyTotal;
+
+    public SyntheticOrderGenerator(long seed, int days, LocalDate until, int customers, ZoneId zone) {
+        if (days < 1 || customers < 1) {
+            throw new IllegalArgumentException("days and customers must be positive");
+        }
+        this.seed = seed;
+        this.days = days;
+        this.customers = customers;
+        this.end = until.atStartOfDay();
+        this.start = end.minusDays(days);
+        this.zone = zone;
+        this.catalog = new Product[CATALOG_SIZE];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            // Log-normal prices: mostly tens of euros, a long tail up to a couple of thousand
+            double price = Math.min(2000, Math.max(0.99, Math.exp(3 + random.nextGaussian())));
+            catalog[i] = new Product(String.format("PROD-%04d", i),
+                    PRODUCT_KINDS[i % PRODUCT_KINDS.length] + " " + (i / PRODUCT_KINDS.length + 1),
+                    BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP));
+        }
+        int total = 0;
+        for (int weight : HOURLY_WEIGHTS) {
+            total += weight;
+        }
+        this.hourlyTotal = total;
+    }
+
+    /**
+     * Returns the events of order {@code index}, in stream order.
+     */
+    public List<DomainEventMessage<?>> order(long index) {
+        SplittableRandom random = new SplittableRandom(mix(seed, index));
+        OrderStream stream = new OrderStream(uuid(random), random);
+
+        int customer = (int) (customers * Math.pow(random.nextDouble(), 2));
+        LocalDateTime createdAt = start.plusDays(random.nextInt(days)).plusHours(hour(random))
+                .plusSeconds(random.nextInt(3600)).plusNanos(random.nextInt(1000) * 1_000_000L);
+        if (!stream.at(createdAt)) {
+            return stream.events;
+        }
+        String address = address(random);
+        stream.append(new OrderCreatedEvent(stream.orderId, String.format("CUST-%06d", customer),
+                customerName(customer), customerEmail(customer), address, createdAt));
+
+        // One item, plus a geometric number more: about 2.5 on average
+        int items = 1;
+        while (items < MAX_ITEMS && random.nextDouble() < 0.6) {
+            items++;
+        }
+        Map<String, Product> basket = new LinkedHashMap<>();
+        while (basket.size() < items) {
+            Product product = popularProduct(random);
+            if (basket.putIfAbsent(product.id(), product) == null && stream.after(random, 5, 180)) {
+                stream.append(new ItemAddedToOrderEvent(stream.orderId, product.id(), product.name(),
+                        quantity(random), product.price(), stream.time));
+            }
+        }
+        if (random.nextDouble() < 0.1 && stream.after(random, 10, 600)) {
+            // Changing the quantity adds the product again
+            Product product = basket.values().iterator().next();
+            stream.append(new ItemAddedToOrderEvent(stream.orderId, product.id(), product.name(),
+                    quantity(random) + 1, product.price(), stream.time));
+        }
+        if (random.nextDouble() < 0.1) {
+            Product product = popularProduct(random);
+            if (!basket.containsKey(product.id()) && stream.after(random, 5, 180)) {
+                stream.append(new ItemAddedToOrderEvent(stream.orderId, product.id(), product.name(),
+                        quantity(random), product.price(), stream.time));
+                if (stream.after(random, 10, 900)) {
+                    stream.append(new ItemRemovedFromOrderEvent(stream.orderId, product.id(), stream.time));
+                }
+            }
+        }
+        if (random.nextDouble() < 0.05 && stream.after(random, 60, 3600)) {
+            stream.append(new ShippingAddressUpdatedEvent(stream.orderId, address(random), stream.time));
+        }
+
+        // 8% never confirmed, 10% cancelled along the way, 7% stuck before shipping, 75% shipped
+        double outcome = random.nextDouble();
+        if (outcome < 0.08) {
+            return stream.events;
+        }
+        boolean cancelled = outcome < 0.18;
+        int cancelAfter = cancelled ? (int) (random.nextDouble() * 3) : -1;
+        int lastStep = outcome < 0.22 ? 1 : outcome < 0.25 ? 2 : 3;
+        if (cancelAfter == 0) {
+            return cancel(stream, random);
+        }
+        if (!stream.after(random, 300, 7200)) {
+            return stream.events;
+        }
+        stream.append(new OrderConfirmedEvent(stream.orderId, stream.time));
+        if (cancelAfter == 1) {
+            return cancel(stream, random);
+        }
+        if ((!cancelled && lastStep < 2) || !stream.after(random, 3600, 86400)) {
+            return stream.events;
+        }
+        stream.append(new OrderProcessedEvent(stream.orderId, stream.time));
+        if (cancelAfter == 2) {
+            return cancel(stream, random);
+        }
+        if (lastStep < 3 || !stream.after(random, 4 * 3600, 72 * 3600)) {
+            return stream.events;
+        }
+        stream.append(new OrderShippedEvent(stream.orderId, String.format("TRK%010d", random.nextLong(10_000_000_000L)),
+                stream.time));
+        return stream.events;
+    }
+
+    private List<DomainEventMessage<?>> cancel(OrderStream stream, SplittableRandom random) {
+        if (stream.after(random, 3600, 48 * 3600)) {
+            stream.append(new OrderCancelledEvent(stream.orderId,
+                    CANCEL_REASONS[random.nextInt(CANCEL_REASONS.length)], stream.time));
+        }
+        return stream.events;
+    }
+
+    private int hour(SplittableRandom random) {
+        int pick = random.nextInt(hourlyTotal);
+        for (int hour = 0; hour < HOURLY_WEIGHTS.length; hour++) {
+            pick -= HOURLY_WEIGHTS[hour];
+            if (pick < 0) {
+                return hour;
+            }
+        }
+        return HOURLY_WEIGHTS.length - 1;
+    }
+
+    // Skewed towards the front of the catalog: the top 10% of products take about half the sales
+    private Product popularProduct(SplittableRandom random) {
+        return catalog[(int) (CATALOG_SIZE * Math.pow(random.nextDouble(), 3.3))];
+    }
+
+    private static int quantity(SplittableRandom random) {
+        double pick = random.nextDouble();
+        return pick < 0.7 ? 1 : pick < 0.9 ? 2 : 3 + random.nextInt(3);
+    }
+
+    private static String address(SplittableRandom random) {
+        return (1 + random.nextInt(250)) + " " + STREETS[random.nextInt(STREETS.length)] + ", "
+                + CITIES[random.nextInt(CITIES.length)];
+    }
+
+    private String customerName(int customer) {
+        SplittableRandom random = new SplittableRandom(mix(~seed, customer));
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    private String customerEmail(int customer) {
+        String name = customerName(customer).toLowerCase().replace("'", "").replace("ü", "ue");
+        return name.replace(' ', '.') + customer + "@example.com";
+    }
+
+    private static String uuid(SplittableRandom random) {
+        // Random bits with the version 4 and IETF variant markers, like UUID.randomUUID()
+        long most = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long least = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+        return new UUID(most, least).toString();
+    }
+
+    private static long mix(long seed, long index) {
+        // SplitMix64 finalizer, so neighbouring indexes get unrelated streams
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private record Product(String id, String name, BigDecimal price) {
+    }
+
+    /**
+     * The events of one order under construction, and the time of the latest.
+     */
+    private final class OrderStream {
+
+        private final String orderId;
+        private final SplittableRandom random;
+        private final List<DomainEventMessage<?>> events = new ArrayList<>();
+        private LocalDateTime time;
+        private boolean ended;
+
+        OrderStream(String orderId, SplittableRandom random) {
+            this.orderId = orderId;
+            this.random = random;
+        }
+
+        boolean at(LocalDateTime next) {
+            // Once one event would fall after the end, so would every later one
+            if (ended || !next.isBefore(end)) {
+                ended = true;
+                return false;
+            }
+            time = next;
+            return true;
+        }
+
+        /**
+         * Moves the clock on by between {@code min} and {@code max} seconds, unless that passes the end.
+         */
+        boolean after(SplittableRandom delay, int minSeconds, int maxSeconds) {
+            return at(time.plusSeconds(minSeconds + delay.nextInt(maxSeconds - minSeconds + 1))
+                    .plusNanos(delay.nextInt(1000) * 1_000_000L));
+        }
+
+        void append(DomainEvent payload) {
+            events.add(new GenericDomainEventMessage<>(AGGREGATE_TYPE, orderId, events.size(), payload,
+                    MetaData.emptyInstance(), uuid(random), time.atZone(zone).toInstant()));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.config.ConsistencyTokenFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies read-your-writes: a query carrying the token from a command response sees that command's
+ * effects, even though the projection runs asynchronously.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "order-management.consistency.max-wait=500ms")
+class ConsistencyTokenTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void testQueryWithToken_ShouldSeePrecedingCommands() {
+        ResponseEntity<String> created = restTemplate.postForEntity("/api/orders", Map.of(
+                "customerId", "CUST-RYW", "customerName", "Reader Writer",
+                "customerEmail", "ryw@test.com", "shippingAddress", "1 Consistent St"), String.class);
+        String orderId = created.getBody().replace("\"", "");
+        String token = created.getHeaders().getFirst(ConsistencyTokenFilter.CONSISTENCY_TOKEN_HEADER);
+        assertNotNull(token);
+
+        ResponseEntity<JsonNode> afterCreate = get("/api/orders/" + orderId, token);
+        assertEquals(HttpStatus.OK, afterCreate.getStatusCode());
+        assertEquals("CREATED", afterCreate.getBody().get("status").asText());
+
+        restTemplate.postForEntity("/api/orders/" + orderId + "/items", Map.of(
+                "productId", "PROD-1", "productName", "Widget", "quantity", 1, "price", 12.5), Void.class);
+        ResponseEntity<Void> confirmed = restTemplate.postForEntity("/api/orders/" + orderId + "/confirm", null, Void.class);
+        String confirmToken = confirmed.getHeaders().getFirst(ConsistencyTokenFilter.CONSISTENCY_TOKEN_HEADER);
+        assertTrue(Long.parseLong(confirmToken) > Long.parseLong(token));
+
+        ResponseEntity<JsonNode> afterConfirm = get("/api/orders/" + orderId, confirmToken);
+        assertEquals("CONFIRMED", afterConfirm.getBody().get("status").asText());
+    }
+
+    @Test
+    void testQueryWithUnreachedToken_ShouldTimeOutWithServiceUnavailable() {
+        ResponseEntity<JsonNode> response = get("/api/orders", Long.toString(Long.MAX_VALUE));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void testQueryWithMalformedToken_ShouldBeRejected() {
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "/api/orders?" + ConsistencyTokenFilter.CONSISTENCY_TOKEN_PARAMETER + "=latest", String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    private ResponseEntity<JsonNode> get(String path, String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(ConsistencyTokenFilter.CONSISTENCY_TOKEN_HEADER, token);
+        return restTemplate.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), JsonNode.class);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.query.CustomerNameSearchIndex;
+import com.example.ordermanagement.query.CustomerNameSearchIndex.MatchMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerNameSearchIndexTest {
+
+    private CustomerNameSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CustomerNameSearchIndex(null, null, null);
+        index.add("ORD-1", "John Smith");
+        index.add("ORD-2", "Jane Johnson");
+        index.add("ORD-3", "Bob Smithers");
+        index.add("ORD-4", "johnny appleseed");
+        index.add("ORD-5", "Alice Jo");
+    }
+
+    @Test
+    void testContains_IgnoringCase_ShouldMatchAnywhereInName() {
+        assertEquals(List.of("ORD-1", "ORD-2", "ORD-4"), search("JOHN", MatchMode.CONTAINS, true));
+        assertEquals(List.of("ORD-1", "ORD-3"), search("smith", MatchMode.CONTAINS, true));
+    }
+
+    @Test
+    void testContains_CaseSensitive_ShouldVerifyOriginalCase() {
+        assertEquals(List.of("ORD-1", "ORD-2"), search("John", MatchMode.CONTAINS, false));
+    }
+
+    @Test
+    void testPrefix_ShouldOnlyMatchStartOfName() {
+        assertEquals(List.of("ORD-1", "ORD-4"), search("john", MatchMode.PREFIX, true));
+        assertEquals(List.of("ORD-1", "ORD-2", "ORD-4"), search("j", MatchMode.PREFIX, true));
+    }
+
+    @Test
+    void testContains_ShortQuery_ShouldFallBackToScan() {
+        assertEquals(List.of("ORD-1", "ORD-2", "ORD-4", "ORD-5"), search("jo", MatchMode.CONTAINS, true));
+    }
+
+    @Test
+    void testSearch_NoMatchingTrigram_ShouldReturnNothing() {
+        assertTrue(search("xyz", MatchMode.CONTAINS, true).isEmpty());
+        // Every trigram is indexed, but no single name contains all of them
+        assertTrue(search("john smithers", MatchMode.CONTAINS, true).isEmpty());
+    }
+
+    @Test
+    void testSearch_Paging_ShouldHandOffWithCursor() {
+        CustomerNameSearchIndex.Page first = index.search("o", MatchMode.CONTAINS, true, null, 2);
+        assertEquals(List.of("ORD-1", "ORD-2"), first.getOrderIds());
+        assertNotNull(first.getNextCursor());
+
+        CustomerNameSearchIndex.Page second = index.search("o", MatchMode.CONTAINS, true, first.getNextCursor(), 2);
+        assertEquals(List.of("ORD-3", "ORD-4"), second.getOrderIds());
+
+        CustomerNameSearchIndex.Page third = index.search("o", MatchMode.CONTAINS, true, second.getNextCursor(), 2);
+        assertEquals(List.of("ORD-5"), third.getOrderIds());
+        assertNull(third.getNextCursor());
+    }
+
+    @Test
+    void testSearch_LargeIndex_ShouldIntersectPostingLists() {
+        CustomerNameSearchIndex large = new CustomerNameSearchIndex(null, null, null);
+        for (int i = 0; i < 50_000; i++) {
+            large.add("ORD-" + i, "Customer " + i + (i % 1000 == 0 ? " Zebrafish" : ""));
+        }
+
+        List<String> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            CustomerNameSearchIndex.Page page = large.search("zebra", MatchMode.CONTAINS, true, cursor, 20);
+            all.addAll(page.getOrderIds());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(50, all.size());
+        assertEquals("ORD-49000", all.get(49));
+    }
+
+    @Test
+    void testRemove_ShouldDropOrderFromIndexedAndScannedResults() {
+        assertTrue(index.remove("ORD-2", "Jane Johnson"));
+        assertFalse(index.remove("ORD-2", "Jane Johnson"));
+        assertFalse(index.remove("ORD-1", "Bob Smithers"));
+
+        assertEquals(List.of("ORD-1", "ORD-4"), search("john", MatchMode.CONTAINS, true));
+        assertEquals(List.of("ORD-1", "ORD-3", "ORD-4", "ORD-5"), search("o", MatchMode.CONTAINS, true));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void testSearch_MalformedCursor_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> index.search("john", MatchMode.CONTAINS, true, "not-a-cursor", 10));
+    }
+
+    private List<String> search(String query, MatchMode mode, boolean ignoreCase) {
+        return index.search(query, mode, ignoreCase, null, 10).getOrderIds();
+    }
+}
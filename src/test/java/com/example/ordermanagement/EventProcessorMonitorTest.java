@@ -0,0 +1,95 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.command.AddItemToOrderCommand;
+import com.example.ordermanagement.command.CreateOrderCommand;
+import com.example.ordermanagement.monitoring.EventProcessorMonitor;
+import com.example.ordermanagement.monitoring.EventProcessorsEndpoint;
+import com.example.ordermanagement.monitoring.EventProcessorsHealthIndicator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that the projection's processor reports its position, lag and throughput once it has caught
+ * up with new events, and that handler and processor meters are recorded.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EventProcessorMonitorTest {
+
+    private static final String PROJECTION = "com.example.ordermanagement.handler";
+
+    @Autowired
+    private CommandGateway commandGateway;
+
+    @Autowired
+    private EventProcessorsEndpoint endpoint;
+
+    @Autowired
+    private EventProcessorsHealthIndicator healthIndicator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testProcessors_AfterNewEvents_ShouldReportCaughtUpProjection() throws Exception {
+        String orderId = UUID.randomUUID().toString();
+        commandGateway.sendAndWait(new CreateOrderCommand(orderId, "CUST-LAG", "Lag Customer", "lag@test.com", "1 Lag St"));
+        commandGateway.sendAndWait(new AddItemToOrderCommand(orderId, "PROD-1", "Widget", 1, new BigDecimal("5.00")));
+
+        EventProcessorMonitor.ProcessorStatus projection = awaitCaughtUp();
+
+        assertEquals(EventProcessorMonitor.ProcessorStatus.UP, projection.status());
+        assertEquals("tracking", projection.type());
+        assertFalse(projection.segments().isEmpty());
+        assertTrue(projection.events() >= 2);
+        assertEquals(0.0, projection.lagSeconds());
+        long head = endpoint.processors().headPosition();
+        assertTrue(projection.segments().stream().allMatch(segment -> segment.position() != null && segment.position() <= head));
+
+        assertTrue(meterRegistry.get("order.processor.events").tag("processor", PROJECTION)
+                .tag("event", "OrderCreatedEvent").counter().count() >= 1);
+        assertTrue(meterRegistry.get("order.projection.handler").tag("event", "ItemAddedToOrderEvent").timer().count() >= 1);
+        assertTrue(meterRegistry.get("order.processor.batch").tag("processor", PROJECTION).timer().count() >= 1);
+        assertEquals(0.0, meterRegistry.get("order.processor.lag.events").tag("processor", PROJECTION).gauge().value());
+    }
+
+    @Test
+    void testHealth_CaughtUp_ShouldBeUpWithProcessorDetails() throws Exception {
+        commandGateway.sendAndWait(new CreateOrderCommand(UUID.randomUUID().toString(), "CUST-LAG", "Lag Customer", "lag@test.com", "1 Lag St"));
+        awaitCaughtUp();
+
+        Health health = healthIndicator.health();
+
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(0L, ((Map<?, ?>) health.getDetails().get(PROJECTION)).get("lagEvents"));
+    }
+
+    @Test
+    void testProcessor_Unknown_ShouldBeNull() {
+        assertNull(endpoint.processor("no-such-processor"));
+    }
+
+    // The projection runs on a tracking processor, so poll until it has handled everything in the store
+    private EventProcessorMonitor.ProcessorStatus awaitCaughtUp() throws Exception {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            EventProcessorMonitor.ProcessorStatus projection = endpoint.processor(PROJECTION);
+            if (projection != null && Long.valueOf(0).equals(projection.lagEvents())) {
+                return projection;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Processor " + PROJECTION + " did not catch up");
+    }
+}
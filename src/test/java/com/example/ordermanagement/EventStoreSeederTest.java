@@ -0,0 +1,174 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.command.CancelOrderCommand;
+import com.example.ordermanagement.command.ConfirmOrderCommand;
+import com.example.ordermanagement.command.CreateOrderCommand;
+import com.example.ordermanagement.event.*;
+import com.example.ordermanagement.handler.OrderEventHandler;
+import com.example.ordermanagement.query.OrderStatusStatisticsProjection;
+import com.example.ordermanagement.query.OrderSummary;
+import com.example.ordermanagement.query.OrderSummaryRepository;
+import com.example.ordermanagement.seed.EventStoreSeeder;
+import com.example.ordermanagement.seed.SyntheticOrderGenerator;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.config.EventProcessingConfiguration;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.TrackingEventProcessor;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that seeded order streams are reproducible from the seed, load into the aggregate, and are
+ * projected either in the same pass, exactly once and without skipping the projection's backlog, or by
+ * the tracking processor catching up.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EventStoreSeederTest {
+
+    private static final LocalDate UNTIL = LocalDate.of(2026, 1, 1);
+    private static final int ORDERS = 300;
+
+    @Autowired
+    private EventStoreSeeder seeder;
+
+    @Autowired
+    private EventStore eventStore;
+
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Autowired
+    private CommandGateway commandGateway;
+
+    @Autowired
+    private EventProcessingConfiguration processingConfiguration;
+
+    @Autowired
+    private OrderStatusStatisticsProjection statisticsProjection;
+
+    @Test
+    void testGenerator_SameSeed_ShouldProduceSameStreams() {
+        SyntheticOrderGenerator first = new SyntheticOrderGenerator(7, 30, UNTIL, 100, ZoneId.of("UTC"));
+        SyntheticOrderGenerator second = new SyntheticOrderGenerator(7, 30, UNTIL, 100, ZoneId.of("UTC"));
+
+        for (long order = ORDERS - 1; order >= 0; order--) {
+            List<DomainEventMessage<?>> expected = first.order(order);
+            List<DomainEventMessage<?>> actual = second.order(order);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getIdentifier(), actual.get(i).getIdentifier());
+                assertEquals(expected.get(i).getTimestamp(), actual.get(i).getTimestamp());
+                assertEquals(i, actual.get(i).getSequenceNumber());
+            }
+            assertInstanceOf(OrderCreatedEvent.class, actual.get(0).getPayload());
+            assertTrue(actual.get(actual.size() - 1).getTimestamp().isBefore(UNTIL.atStartOfDay(ZoneId.of("UTC")).toInstant()));
+        }
+        assertNotEquals(first.order(0).get(0).getAggregateIdentifier(),
+                new SyntheticOrderGenerator(8, 30, UNTIL, 100, ZoneId.of("UTC")).order(0).get(0).getAggregateIdentifier());
+    }
+
+    @Test
+    void testSeed_WithProjection_ShouldProjectEveryOrderAndLoadAggregates() throws Exception {
+        long ordersBefore = projectedOrderCount();
+        // An order the projection has not reached when seeding starts, as if created while it was lagging
+        projectionProcessor().shutDown();
+        String backlog = UUID.randomUUID().toString();
+        commandGateway.sendAndWait(new CreateOrderCommand(backlog, "CUST-SEED", "Seed Customer", "seed@test.com", "1 Seed St"));
+        EventStoreSeeder.Result result = seeder.seed(new EventStoreSeeder.Plan(ORDERS, 30, UNTIL, 11, 3, 40, true));
+        assertEquals(ORDERS, result.orders());
+        awaitProjectionAtHead();
+        assertTrue(orderSummaryRepository.findById(backlog).isPresent());
+        // Seeded orders were not projected a second time by the restarted processor
+        assertEquals(ordersBefore + ORDERS + 1, projectedOrderCount());
+
+        SyntheticOrderGenerator generator = new SyntheticOrderGenerator(11, 30, UNTIL, ORDERS / 3, ZoneId.systemDefault());
+        String created = null;
+        String shipped = null;
+        for (int order = 0; order < ORDERS; order++) {
+            List<DomainEventMessage<?>> events = generator.order(order);
+            String orderId = events.get(0).getAggregateIdentifier();
+            assertEquals(events.size(), eventStore.readEvents(orderId).asStream().count());
+
+            OrderSummary.OrderStatus expected = statusAfter(events.get(events.size() - 1).getPayload());
+            assertEquals(expected, orderSummaryRepository.findById(orderId).orElseThrow().getStatus());
+            if (expected == OrderSummary.OrderStatus.CREATED && events.size() > 1) {
+                created = orderId;
+            } else if (expected == OrderSummary.OrderStatus.SHIPPED) {
+                shipped = orderId;
+            }
+        }
+
+        // The aggregates rebuild their state from the seeded streams
+        assertNotNull(created);
+        commandGateway.sendAndWait(new ConfirmOrderCommand(created));
+        // The restarted processor projects new events from the head of the store on
+        for (int attempt = 0; attempt < 100 && orderSummaryRepository.findById(created).orElseThrow().getStatus() != OrderSummary.OrderStatus.CONFIRMED; attempt++) {
+            Thread.sleep(100);
+        }
+        assertEquals(OrderSummary.OrderStatus.CONFIRMED, orderSummaryRepository.findById(created).orElseThrow().getStatus());
+        String shippedOrder = shipped;
+        assertThrows(Exception.class, () -> commandGateway.sendAndWait(new CancelOrderCommand(shippedOrder, "Too late")));
+    }
+
+    @Test
+    void testSeed_WithoutProjection_ShouldLeaveTheProjectionToCatchUp() throws Exception {
+        EventStoreSeeder.Result result = seeder.seed(new EventStoreSeeder.Plan(50, 10, UNTIL, 12, 2, 10, false));
+
+        String orderId = new SyntheticOrderGenerator(12, 10, UNTIL, 16, ZoneId.systemDefault())
+                .order(49).get(0).getAggregateIdentifier();
+        assertTrue(result.events() >= 50);
+        assertTrue(eventStore.readEvents(orderId).hasNext());
+        // Wait for the whole backlog, so it is not still being projected during the tests that follow
+        awaitProjectionAtHead();
+        assertTrue(orderSummaryRepository.findById(orderId).isPresent());
+    }
+
+    private void awaitProjectionAtHead() throws InterruptedException {
+        long head = eventStore.createHeadToken().position().orElseThrow();
+        for (int attempt = 0; attempt < 300 && projectionPosition() < head; attempt++) {
+            Thread.sleep(100);
+        }
+        assertTrue(projectionPosition() >= head);
+    }
+
+    private long projectedOrderCount() {
+        return Arrays.stream(OrderSummary.OrderStatus.values())
+                .mapToLong(status -> statisticsProjection.get(status).getOrderCount())
+                .sum();
+    }
+
+    private TrackingEventProcessor projectionProcessor() {
+        return processingConfiguration.eventProcessorByProcessingGroup(OrderEventHandler.class.getPackageName(), TrackingEventProcessor.class)
+                .orElseThrow();
+    }
+
+    private long projectionPosition() {
+        return projectionProcessor()
+                .processingStatus().values().stream()
+                .mapToLong(status -> status.getCurrentPosition().orElse(-1))
+                .min()
+                .orElse(-1);
+    }
+
+    private static OrderSummary.OrderStatus statusAfter(Object lastEvent) {
+        Map<Class<?>, OrderSummary.OrderStatus> statuses = Map.of(
+                OrderConfirmedEvent.class, OrderSummary.OrderStatus.CONFIRMED,
+                OrderProcessedEvent.class, OrderSummary.OrderStatus.PROCESSED,
+                OrderShippedEvent.class, OrderSummary.OrderStatus.SHIPPED,
+                OrderCancelledEvent.class, OrderSummary.OrderStatus.CANCELLED);
+        return statuses.getOrDefault(lastEvent.getClass(), OrderSummary.OrderStatus.CREATED);
+    }
+}
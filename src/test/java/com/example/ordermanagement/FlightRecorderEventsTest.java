@@ -0,0 +1,113 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.aggregate.OrderAggregateCache;
+import com.example.ordermanagement.config.ConsistencyTokenFilter;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that a recording with the shipped JFR configuration captures the custom events of the command,
+ * event store, projection and query paths, with their fields filled in.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class FlightRecorderEventsTest {
+
+    private static final String PREFIX = "com.example.ordermanagement.";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private OrderAggregateCache aggregateCache;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void testRecording_OrderLifecycle_ShouldCaptureCustomEvents() throws Exception {
+        List<RecordedEvent> events;
+        String orderId;
+        try (Recording recording = new Recording(Configuration.create(Path.of("jfr/order-management.jfc")))) {
+            // Keep the fast ones too, so the test does not depend on timing
+            for (String name : List.of("Command", "AggregateLoad", "EventSourcingHandler", "EventAppend", "ProjectionUpdate", "OrderQuery")) {
+                recording.enable(PREFIX + name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+
+            orderId = restTemplate.postForEntity("/api/orders", Map.of(
+                    "customerId", "CUST-JFR", "customerName", "Flight Customer",
+                    "customerEmail", "jfr@test.com", "shippingAddress", "1 Flight St"), String.class).getBody().replace("\"", "");
+            // Evict the order cached after its creation, so adding the item loads it from its events
+            aggregateCache.remove(orderId);
+            ResponseEntity<Void> added = restTemplate.postForEntity("/api/orders/" + orderId + "/items", Map.of(
+                    "productId", "PROD-1", "productName", "Widget", "quantity", 2, "price", 3.5), Void.class);
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(ConsistencyTokenFilter.CONSISTENCY_TOKEN_HEADER, added.getHeaders().getFirst(ConsistencyTokenFilter.CONSISTENCY_TOKEN_HEADER));
+            ResponseEntity<String> order = restTemplate.exchange("/api/orders/" + orderId, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+            assertEquals(HttpStatus.OK, order.getStatusCode());
+            // The query event is committed once the request completes on the server, just after the response is sent
+            Thread.sleep(500);
+
+            recording.stop();
+            Path file = directory.resolve("orders.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        RecordedEvent addItem = single(events, "Command", event -> "AddItemToOrderCommand".equals(event.getString("commandType")));
+        assertEquals(orderId, addItem.getString("orderId"));
+        assertTrue(addItem.getBoolean("succeeded"));
+
+        RecordedEvent load = single(events, "AggregateLoad", event -> orderId.equals(event.getString("orderId")));
+        assertEquals("Order", load.getString("aggregateType"));
+        assertEquals(1, load.getInt("eventCount"));
+
+        RecordedEvent append = single(events, "EventAppend", event -> "ItemAddedToOrderEvent".equals(event.getString("eventTypes")));
+        assertEquals(orderId, append.getString("orderId"));
+        assertEquals(1, append.getLong("firstSequenceNumber"));
+
+        assertFalse(matching(events, "EventSourcingHandler", event -> orderId.equals(event.getString("orderId"))).isEmpty());
+        single(events, "ProjectionUpdate", event -> orderId.equals(event.getString("orderId"))
+                && "ItemAddedToOrderEvent".equals(event.getString("eventType")));
+
+        RecordedEvent query = single(events, "OrderQuery", event -> orderId.equals(event.getString("orderId")));
+        assertEquals("GET /api/orders/{orderId}", query.getString("endpoint"));
+        assertEquals(200, query.getInt("status"));
+        assertTrue(query.getLong("responseSize") > 0);
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name, Predicate<RecordedEvent> condition) {
+        List<RecordedEvent> matching = matching(events, name, condition);
+        assertEquals(1, matching.size(), name + " events: " + matching);
+        return matching.get(0);
+    }
+
+    private static List<RecordedEvent> matching(List<RecordedEvent> events, String name, Predicate<RecordedEvent> condition) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(PREFIX + name))
+                .filter(condition)
+                .toList();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.command.AddItemToOrderCommand;
+import com.example.ordermanagement.command.CreateOrderCommand;
+import com.example.ordermanagement.command.UpdateShippingAddressCommand;
+import com.example.ordermanagement.monitoring.HeapEndpoint;
+import com.example.ordermanagement.monitoring.HeapFootprint;
+import com.example.ordermanagement.monitoring.HeapFootprint.Pressure;
+import com.example.ordermanagement.monitoring.HeapFootprint.Usage;
+import com.example.ordermanagement.monitoring.HeapPressureMonitor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that the heap endpoint reports the cached aggregates and their items, that relieving empties the
+ * caches without losing state, and that the pressure monitor relieves at its thresholds.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class HeapFootprintTest {
+
+    @Autowired
+    private CommandGateway commandGateway;
+
+    @Autowired
+    private HeapEndpoint heapEndpoint;
+
+    @Test
+    void testHeap_AfterCommands_ShouldReportCachedAggregatesAndItems() {
+        createOrderWithItems(3);
+
+        HeapEndpoint.HeapReport report = heapEndpoint.heap();
+
+        assertTrue(usage(report, "order-aggregates").entries() > 0);
+        assertTrue(usage(report, "order-aggregates").estimatedBytes() > 0);
+        assertTrue(usage(report, "order-aggregate-items").entries() >= 3);
+        assertNotNull(usage(report, "trace-spans"));
+        assertEquals(report.structures().stream().mapToLong(Usage::estimatedBytes).sum(), report.totalEstimatedBytes());
+        assertTrue(report.heap().max() > 0 || report.heap().committed() > 0);
+    }
+
+    @Test
+    void testRelieve_ShouldEmptyCachesAndKeepOrdersUsable() {
+        String orderId = createOrderWithItems(2);
+
+        HeapEndpoint.HeapReport report = heapEndpoint.relieve();
+
+        assertEquals(0, usage(report, "order-aggregates").entries());
+        assertEquals(0, usage(report, "order-details").entries());
+        // The aggregate is loaded from its events again
+        assertDoesNotThrow(() -> commandGateway.sendAndWait(new UpdateShippingAddressCommand(orderId, "2 Heap Rd")));
+        assertTrue(heapEndpoint.heap().heap().highPressureReliefs() > 0);
+    }
+
+    @Test
+    void testCheck_AboveThresholds_ShouldRelieveWithMatchingPressure() {
+        RecordingFootprint footprint = new RecordingFootprint();
+        StaticApplicationContext context = new StaticApplicationContext();
+        context.getBeanFactory().registerSingleton("footprint", footprint);
+        // A full collection makes the old generation's occupancy after GC known and above zero
+        System.gc();
+
+        HeapPressureMonitor high = new HeapPressureMonitor(context.getBeanProvider(HeapFootprint.class),
+                new SimpleMeterRegistry(), 0.000001, 1.0, Duration.ofMinutes(1));
+        high.check();
+        HeapPressureMonitor critical = new HeapPressureMonitor(context.getBeanProvider(HeapFootprint.class),
+                new SimpleMeterRegistry(), 0.000001, 0.000001, Duration.ofMinutes(1));
+        critical.check();
+
+        assertEquals(List.of(Pressure.HIGH, Pressure.CRITICAL), footprint.relieved);
+        assertEquals(1, critical.status().criticalPressureReliefs());
+        high.destroy();
+        critical.destroy();
+    }
+
+    @Test
+    void testMonitor_InvalidThresholds_ShouldBeRejected() {
+        StaticApplicationContext context = new StaticApplicationContext();
+        assertThrows(IllegalArgumentException.class, () -> new HeapPressureMonitor(
+                context.getBeanProvider(HeapFootprint.class), new SimpleMeterRegistry(), 0.9, 0.8, Duration.ofSeconds(5)));
+    }
+
+    private String createOrderWithItems(int items) {
+        String orderId = UUID.randomUUID().toString();
+        commandGateway.sendAndWait(new CreateOrderCommand(orderId, "CUST-HEAP", "Heap Customer", "heap@test.com", "1 Heap Rd"));
+        for (int i = 0; i < items; i++) {
+            commandGateway.sendAndWait(new AddItemToOrderCommand(orderId, "PROD-" + i, "Product " + i, 1, new BigDecimal("5.00")));
+        }
+        return orderId;
+    }
+
+    private static Usage usage(HeapEndpoint.HeapReport report, String structure) {
+        return report.structures().stream()
+                .filter(usage -> usage.structure().equals(structure))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No usage reported for " + structure));
+    }
+
+    private static class RecordingFootprint implements HeapFootprint {
+
+        private final List<Pressure> relieved = new ArrayList<>();
+
+        @Override
+        public List<Usage> heapUsage() {
+            return List.of(new Usage("recording", 1, 100));
+        }
+
+        @Override
+        public void relieve(Pressure pressure) {
+            relieved.add(pressure);
+        }
+    }
+}
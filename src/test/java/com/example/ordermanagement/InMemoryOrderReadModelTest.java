@@ -0,0 +1,267 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.event.ItemAddedToOrderEvent;
+import com.example.ordermanagement.event.ItemRemovedFromOrderEvent;
+import com.example.ordermanagement.event.OrderConfirmedEvent;
+import com.example.ordermanagement.event.OrderCreatedEvent;
+import com.example.ordermanagement.query.InMemoryOrderReadModel;
+import com.example.ordermanagement.query.OrderAmountBand;
+import com.example.ordermanagement.query.OrderAmountCursor;
+import com.example.ordermanagement.query.OrderArchive;
+import com.example.ordermanagement.query.OrderCursor;
+import com.example.ordermanagement.query.OrderItemSummary;
+import com.example.ordermanagement.query.OrderSummary;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryOrderReadModelTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private InMemoryEventStorageEngine eventStorageEngine;
+    private InMemoryOrderReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        eventStorageEngine = new InMemoryEventStorageEngine();
+        readModel = new InMemoryOrderReadModel(null, eventStorageEngine, noArchive(), DataSize.ofMegabytes(64));
+    }
+
+    @Test
+    void testRebuild_ShouldReplayEventStore() {
+        append("ORD-1", 0, new OrderCreatedEvent("ORD-1", "CUST-1", "John Smith", "john@example.com", "1 Main St", START));
+        append("ORD-1", 1, new ItemAddedToOrderEvent("ORD-1", "PROD-1", "Widget", 2, new BigDecimal("10.00"), START.plusMinutes(1)));
+        append("ORD-1", 2, new OrderConfirmedEvent("ORD-1", START.plusMinutes(2)));
+
+        readModel.rebuild();
+
+        assertTrue(readModel.isServing());
+        OrderSummary order = readModel.findById("ORD-1").orElseThrow();
+        assertEquals(OrderSummary.OrderStatus.CONFIRMED, order.getStatus());
+        assertEquals(0, new BigDecimal("20.00").compareTo(order.getTotalAmount()));
+        assertEquals(1, readModel.findByStatus(OrderSummary.OrderStatus.CONFIRMED, null, 10).size());
+    }
+
+    @Test
+    void testRebuild_ShouldNotKeepReplayedRemovals() {
+        append("ORD-1", 0, new OrderCreatedEvent("ORD-1", "CUST-1", "John Smith", "john@example.com", "1 Main St", START));
+        append("ORD-1", 1, new ItemAddedToOrderEvent("ORD-1", "PROD-1", "Widget", 2, new BigDecimal("10.00"), START.plusMinutes(1)));
+        append("ORD-1", 2, new ItemRemovedFromOrderEvent("ORD-1", "PROD-1", START.plusMinutes(2)));
+
+        readModel.rebuild();
+
+        assertFalse(readModel.findById("ORD-1").orElseThrow().takeRemoval("PROD-1"));
+    }
+
+    @Test
+    void testConcurrentPut_ShouldOnlyReturnMatchingOrders() throws Exception {
+        readModel.rebuild();
+        for (int i = 0; i < 20; i++) {
+            readModel.put(order("ORD-" + i, "CUST-1", i, "10.00", OrderSummary.OrderStatus.CREATED), 0);
+        }
+        Thread writer = new Thread(() -> {
+            for (int sequence = 1; sequence <= 20_000; sequence++) {
+                boolean confirmed = sequence % 2 == 1;
+                readModel.put(order("ORD-" + (sequence % 20), "CUST-1", sequence % 20, confirmed ? "90.00" : "10.00",
+                        confirmed ? OrderSummary.OrderStatus.CONFIRMED : OrderSummary.OrderStatus.CREATED), sequence);
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            readModel.findByStatus(OrderSummary.OrderStatus.CREATED, null, 20)
+                    .forEach(order -> assertEquals(OrderSummary.OrderStatus.CREATED, order.getStatus()));
+            readModel.findByMinAmount(new BigDecimal("50.00"), null, 20)
+                    .forEach(order -> assertEquals(0, new BigDecimal("90.00").compareTo(order.getTotalAmount())));
+            List<String> byAmount = ids(readModel.findByMinAmountOrderByAmount(BigDecimal.ZERO, false, null, 40));
+            assertEquals(byAmount.size(), byAmount.stream().distinct().count());
+        }
+        writer.join();
+    }
+
+    @Test
+    void testPut_ShouldIgnoreStaleSequenceNumbers() {
+        readModel.rebuild();
+        readModel.put(order("ORD-1", "CUST-1", 0, "10.00", OrderSummary.OrderStatus.CONFIRMED), 3);
+        readModel.put(order("ORD-1", "CUST-1", 0, "5.00", OrderSummary.OrderStatus.CREATED), 2);
+
+        assertEquals(OrderSummary.OrderStatus.CONFIRMED, readModel.findById("ORD-1").orElseThrow().getStatus());
+        assertTrue(readModel.findByStatus(OrderSummary.OrderStatus.CREATED, null, 10).isEmpty());
+    }
+
+    @Test
+    void testPut_ShouldMoveOrderBetweenIndices() {
+        readModel.rebuild();
+        readModel.put(order("ORD-1", "CUST-1", 0, "10.00", OrderSummary.OrderStatus.CREATED), 1);
+        readModel.put(order("ORD-1", "CUST-1", 0, "90.00", OrderSummary.OrderStatus.SHIPPED), 2);
+
+        assertTrue(readModel.findByStatus(OrderSummary.OrderStatus.CREATED, null, 10).isEmpty());
+        assertEquals(1, readModel.findByStatus(OrderSummary.OrderStatus.SHIPPED, null, 10).size());
+        assertEquals(1, readModel.findByMinAmount(new BigDecimal("50.00"), null, 10).size());
+        assertTrue(readModel.findByMinAmount(new BigDecimal("95.00"), null, 10).isEmpty());
+    }
+
+    @Test
+    void testKeysetPaging_ShouldFollowCreationOrder() {
+        readModel.rebuild();
+        for (int i = 0; i < 7; i++) {
+            readModel.put(order("ORD-" + i, i % 2 == 0 ? "CUST-EVEN" : "CUST-ODD", i, (i * 10) + ".00",
+                    OrderSummary.OrderStatus.CREATED), 1);
+        }
+
+        List<OrderSummary> first = readModel.findAll(null, 3);
+        assertEquals(List.of("ORD-0", "ORD-1", "ORD-2"), ids(first));
+        List<OrderSummary> second = readModel.findAll(OrderCursor.after(first.get(2)), 3);
+        assertEquals(List.of("ORD-3", "ORD-4", "ORD-5"), ids(second));
+
+        assertEquals(List.of("ORD-0", "ORD-2", "ORD-4", "ORD-6"), ids(readModel.findByCustomerId("CUST-EVEN", null, 10)));
+        assertTrue(readModel.findByCustomerId("CUST-NONE", null, 10).isEmpty());
+    }
+
+    @Test
+    void testFindByMinAmount_ShouldPageInCreationOrder() {
+        readModel.rebuild();
+        // Amounts deliberately out of creation order
+        String[] amounts = {"70.00", "20.00", "90.00", "50.00", "80.00", "60.00"};
+        for (int i = 0; i < amounts.length; i++) {
+            readModel.put(order("ORD-" + i, "CUST-1", i, amounts[i], OrderSummary.OrderStatus.CREATED), 1);
+        }
+
+        List<OrderSummary> first = readModel.findByMinAmount(new BigDecimal("55.00"), null, 2);
+        assertEquals(List.of("ORD-0", "ORD-2"), ids(first));
+        List<OrderSummary> second = readModel.findByMinAmount(new BigDecimal("55.00"), OrderCursor.after(first.get(1)), 2);
+        assertEquals(List.of("ORD-4", "ORD-5"), ids(second));
+    }
+
+    @Test
+    void testFindByMinAmount_AcrossAmountBands_ShouldMatchFullScan() {
+        readModel.rebuild();
+        Random random = new Random(31);
+        List<OrderSummary> all = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            OrderSummary order = order(String.format("ORD-%03d", i), "CUST-1", i,
+                    BigDecimal.valueOf(random.nextInt(100_000), 2).toPlainString(), OrderSummary.OrderStatus.CREATED);
+            readModel.put(order, 1);
+            all.add(order);
+        }
+
+        for (String min : List.of("0.00", "0.50", "64.00", "300.25", "999.99")) {
+            BigDecimal minAmount = new BigDecimal(min);
+            List<String> expected = all.stream().filter(order -> order.getTotalAmount().compareTo(minAmount) >= 0)
+                    .map(OrderSummary::getOrderId).toList();
+            List<String> paged = new ArrayList<>();
+            List<OrderSummary> page = readModel.findByMinAmount(minAmount, null, 7);
+            while (!page.isEmpty()) {
+                paged.addAll(ids(page));
+                page = readModel.findByMinAmount(minAmount, OrderCursor.after(page.get(page.size() - 1)), 7);
+            }
+            assertEquals(expected, paged, "orders of at least " + min);
+        }
+    }
+
+    @Test
+    void testFindByMinAmountOrderByAmount_ShouldPageInAmountOrderBothWays() {
+        readModel.rebuild();
+        String[] amounts = {"70.00", "20.00", "90.00", "50.00", "80.00", "60.00"};
+        for (int i = 0; i < amounts.length; i++) {
+            readModel.put(order("ORD-" + i, "CUST-1", i, amounts[i], OrderSummary.OrderStatus.CREATED), 1);
+        }
+
+        List<OrderSummary> first = readModel.findByMinAmountOrderByAmount(new BigDecimal("55.00"), false, null, 2);
+        assertEquals(List.of("ORD-5", "ORD-0"), ids(first));
+        assertEquals(List.of("ORD-4", "ORD-2"), ids(readModel.findByMinAmountOrderByAmount(
+                new BigDecimal("55.00"), false, OrderAmountCursor.decode(OrderAmountCursor.after(first.get(1)).encode()), 10)));
+
+        List<OrderSummary> descending = readModel.findByMinAmountOrderByAmount(new BigDecimal("55.00"), true, null, 3);
+        assertEquals(List.of("ORD-2", "ORD-4", "ORD-0"), ids(descending));
+        assertEquals(List.of("ORD-5"), ids(readModel.findByMinAmountOrderByAmount(
+                new BigDecimal("55.00"), true, OrderAmountCursor.after(descending.get(2)), 3)));
+    }
+
+    @Test
+    void testAmountHistogram_ShouldCountOrdersPerBand() {
+        readModel.rebuild();
+        String[] amounts = {"70.00", "20.00", "90.00", "50.00", "80.00", "60.00"};
+        for (int i = 0; i < amounts.length; i++) {
+            readModel.put(order("ORD-" + i, "CUST-1", i, amounts[i], OrderSummary.OrderStatus.CREATED), 1);
+        }
+
+        assertEquals(4, readModel.countByAmount(new BigDecimal("55.00"), null));
+        List<OrderAmountBand> bands = readModel.amountHistogram(
+                List.of(new BigDecimal("25"), new BigDecimal("50"), new BigDecimal("80")));
+        assertEquals(List.of(0L, 3L, 2L), bands.stream().map(OrderAmountBand::getCount).toList());
+        assertNull(bands.get(2).getTo());
+    }
+
+    @Test
+    void testFindAllById_ShouldPreserveRequestedOrder() {
+        readModel.rebuild();
+        readModel.put(order("ORD-1", "CUST-1", 0, "10.00", OrderSummary.OrderStatus.CREATED), 1);
+        readModel.put(order("ORD-2", "CUST-1", 1, "10.00", OrderSummary.OrderStatus.CREATED), 1);
+
+        assertEquals(List.of("ORD-2", "ORD-1"), ids(readModel.findAllById(List.of("ORD-2", "ORD-3", "ORD-1"))));
+    }
+
+    @Test
+    void testEvict_ShouldDropOrderFromEveryIndex() {
+        readModel.rebuild();
+        readModel.put(order("ORD-1", "CUST-1", 0, "10.00", OrderSummary.OrderStatus.SHIPPED), 1);
+        readModel.put(order("ORD-2", "CUST-1", 1, "90.00", OrderSummary.OrderStatus.SHIPPED), 1);
+        long bytes = readModel.getEstimatedBytes();
+
+        readModel.evict("ORD-2");
+
+        assertTrue(readModel.findById("ORD-2").isEmpty());
+        assertEquals(List.of("ORD-1"), ids(readModel.findAll(null, 10)));
+        assertEquals(List.of("ORD-1"), ids(readModel.findByStatus(OrderSummary.OrderStatus.SHIPPED, null, 10)));
+        assertEquals(List.of("ORD-1"), ids(readModel.findByCustomerId("CUST-1", null, 10)));
+        assertTrue(readModel.findByMinAmount(new BigDecimal("50.00"), null, 10).isEmpty());
+        assertEquals(0, readModel.countByAmount(new BigDecimal("50.00"), null));
+        assertTrue(readModel.getEstimatedBytes() < bytes);
+    }
+
+    @Test
+    void testPut_OverHeapBudget_ShouldStopServing() {
+        InMemoryOrderReadModel tiny = new InMemoryOrderReadModel(null, eventStorageEngine, noArchive(), DataSize.ofKilobytes(2));
+        tiny.rebuild();
+        for (int i = 0; i < 10; i++) {
+            tiny.put(order("ORD-" + i, "CUST-1", i, "10.00", OrderSummary.OrderStatus.CREATED), 1);
+        }
+
+        assertFalse(tiny.isServing());
+        assertEquals(0, tiny.size());
+    }
+
+    private static ObjectProvider<OrderArchive> noArchive() {
+        return new StaticListableBeanFactory().getBeanProvider(OrderArchive.class);
+    }
+
+    private void append(String orderId, long sequence, Object payload) {
+        eventStorageEngine.appendEvents(new GenericDomainEventMessage<>("Order", orderId, sequence, payload));
+    }
+
+    private static OrderSummary order(String orderId, String customerId, int minute, String amount, OrderSummary.OrderStatus status) {
+        OrderSummary order = new OrderSummary(orderId, customerId, "Customer", "customer@example.com", "1 Main St");
+        order.setCreatedAt(START.plusMinutes(minute));
+        order.setUpdatedAt(START.plusMinutes(minute));
+        order.setStatus(status);
+        order.addItem(new OrderItemSummary("PROD-1", "Widget", 1, new BigDecimal(amount)));
+        return order;
+    }
+
+    private static List<String> ids(List<OrderSummary> orders) {
+        return orders.stream().map(OrderSummary::getOrderId).toList();
+    }
+}
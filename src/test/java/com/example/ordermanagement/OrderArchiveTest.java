@@ -0,0 +1,108 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.query.CustomerNameSearchIndex;
+import com.example.ordermanagement.query.OrderItemSummary;
+import com.example.ordermanagement.query.OrderStatusStatisticsProjection;
+import com.example.ordermanagement.query.OrderSummary;
+import com.example.ordermanagement.query.OrderSummaryRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that archiving moves long-terminal orders out of the order table while order lookups, the
+ * export and the status statistics still see them, and that the customer name search drops them.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"order-management.archive.after=30d", "order-management.archive.batch-size=2"})
+@ActiveProfiles("test")
+class OrderArchiveTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Autowired
+    private OrderStatusStatisticsProjection statisticsProjection;
+
+    @Autowired
+    private CustomerNameSearchIndex searchIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testArchive_ShouldMoveOldTerminalOrdersAndKeepServingThem() throws Exception {
+        LocalDateTime old = LocalDateTime.of(2024, 3, 1, 9, 0, 0, 123_456_000);
+        saveOrder("ARC-1", "CUST-A", OrderSummary.OrderStatus.SHIPPED, old);
+        saveOrder("ARC-2", "CUST-B", OrderSummary.OrderStatus.CANCELLED, old.plusHours(1));
+        saveOrder("ARC-3", "CUST-A", OrderSummary.OrderStatus.SHIPPED, old.plusHours(2));
+        saveOrder("ARC-4", "CUST-A", OrderSummary.OrderStatus.CONFIRMED, old.plusHours(3));
+        saveOrder("ARC-5", "CUST-B", OrderSummary.OrderStatus.SHIPPED, LocalDateTime.now());
+        JsonNode before = objectMapper.readTree(restTemplate.getForObject("/api/orders/ARC-2", String.class));
+
+        ResponseEntity<Long> archived = restTemplate.postForEntity("/api/orders/archive", null, Long.class);
+
+        assertEquals(3L, archived.getBody());
+        assertEquals(List.of("ARC-4", "ARC-5"), orderSummaryRepository.findAll().stream().map(OrderSummary::getOrderId).sorted().toList());
+        assertEquals(0L, restTemplate.postForEntity("/api/orders/archive", null, Long.class).getBody());
+        assertEquals(List.of("ARC-4", "ARC-5"),
+                searchIndex.search("Archive Customer", CustomerNameSearchIndex.MatchMode.CONTAINS, true, null, 10).getOrderIds());
+
+        ResponseEntity<String> lookup = restTemplate.getForEntity("/api/orders/ARC-2", String.class);
+        assertEquals(HttpStatus.OK, lookup.getStatusCode());
+        assertEquals(before, objectMapper.readTree(lookup.getBody()));
+        JsonNode shipped = objectMapper.readTree(restTemplate.getForObject("/api/orders/ARC-1", String.class));
+        assertEquals("TRK-ARC-1", shipped.get("trackingNumber").asText());
+        assertEquals(0, new BigDecimal("20.00").compareTo(shipped.get("totalAmount").decimalValue()));
+        assertEquals("Widget", shipped.get("items").get(0).get("productName").asText());
+
+        assertEquals(List.of("ARC-1", "ARC-2", "ARC-3", "ARC-4", "ARC-5"), export(""));
+        assertEquals(List.of("ARC-1", "ARC-3"), export("?status=shipped&customerId=CUST-A"));
+
+        statisticsProjection.reconcile();
+        assertEquals(3, statisticsProjection.get(OrderSummary.OrderStatus.SHIPPED).getOrderCount());
+        assertEquals(1, statisticsProjection.get(OrderSummary.OrderStatus.CANCELLED).getOrderCount());
+    }
+
+    private List<String> export(String query) throws Exception {
+        String body = restTemplate.getForObject("/api/orders/export" + query, String.class);
+        List<String> orderIds = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            orderIds.add(objectMapper.readTree(line).get("orderId").asText());
+        }
+        return orderIds;
+    }
+
+    private void saveOrder(String orderId, String customerId, OrderSummary.OrderStatus status, LocalDateTime at) {
+        OrderSummary order = new OrderSummary(orderId, customerId, "Archive Customer", "archive@test.com", "1 Archive St");
+        order.addItem(new OrderItemSummary("PROD-1", "Widget", 2, new BigDecimal("10.00")));
+        order.setStatus(status);
+        order.setCreatedAt(at);
+        order.setUpdatedAt(at.plusMinutes(5));
+        order.setVersion(4);
+        if (status == OrderSummary.OrderStatus.SHIPPED) {
+            order.setTrackingNumber("TRK-" + orderId);
+        } else if (status == OrderSummary.OrderStatus.CANCELLED) {
+            order.setCancellationReason("Changed mind");
+        }
+        orderSummaryRepository.save(order);
+        // Saved around the projection, so indexed by hand
+        searchIndex.add(orderId, order.getCustomerName());
+    }
+}
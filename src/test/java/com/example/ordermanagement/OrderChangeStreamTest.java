@@ -0,0 +1,178 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.command.AddItemToOrderCommand;
+import com.example.ordermanagement.command.ConfirmOrderCommand;
+import com.example.ordermanagement.command.CreateOrderCommand;
+import com.example.ordermanagement.query.OrderChangeStream;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies the SSE order change stream over HTTP: filtering, event ids taken from the event stream
+ * position and resuming with Last-Event-ID.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class OrderChangeStreamTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CommandGateway commandGateway;
+
+    @Autowired
+    private OrderChangeStream orderChangeStream;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void testStream_ShouldDeliverMatchingChangesWithPositions() throws Exception {
+        String customerId = "CUST-STREAM-" + UUID.randomUUID();
+        try (EventReader reader = connect("customerId=" + customerId, null)) {
+            String orderId = UUID.randomUUID().toString();
+            commandGateway.sendAndWait(new CreateOrderCommand(UUID.randomUUID().toString(), "CUST-ELSEWHERE",
+                    "Someone Else", "else@test.com", "2 Other St"));
+            commandGateway.sendAndWait(new CreateOrderCommand(orderId, customerId, "Streamer", "stream@test.com", "1 Stream St"));
+            commandGateway.sendAndWait(new AddItemToOrderCommand(orderId, "PROD-1", "Widget", 1, new BigDecimal("9.99")));
+
+            SseEvent created = reader.nextOrderEvent();
+            SseEvent itemAdded = reader.nextOrderEvent();
+            assertTrue(created.data.contains(orderId), created.data);
+            assertTrue(itemAdded.data.contains("\"totalAmount\":9.99"), itemAdded.data);
+            assertTrue(Long.parseLong(itemAdded.id) > Long.parseLong(created.id));
+        }
+    }
+
+    @Test
+    void testStream_ResumingWithLastEventId_ShouldReplayMissedChanges() throws Exception {
+        String customerId = "CUST-RESUME-" + UUID.randomUUID();
+        String orderId = UUID.randomUUID().toString();
+        String resumeFrom;
+        try (EventReader reader = connect("customerId=" + customerId, null)) {
+            commandGateway.sendAndWait(new CreateOrderCommand(orderId, customerId, "Resumer", "resume@test.com", "1 Resume St"));
+            resumeFrom = reader.nextOrderEvent().id;
+        }
+
+        // Disconnected while the order moves on
+        commandGateway.sendAndWait(new AddItemToOrderCommand(orderId, "PROD-1", "Widget", 1, new BigDecimal("5.00")));
+        commandGateway.sendAndWait(new ConfirmOrderCommand(orderId));
+        awaitPosition(Long.parseLong(resumeFrom) + 2);
+
+        try (EventReader reader = connect("customerId=" + customerId, resumeFrom)) {
+            // Both changes concern the same order, so they may be coalesced into its latest state
+            SseEvent replayed = reader.nextOrderEvent();
+            while (!replayed.data.contains("CONFIRMED")) {
+                replayed = reader.nextOrderEvent();
+            }
+            assertTrue(Long.parseLong(replayed.id) > Long.parseLong(resumeFrom));
+        }
+    }
+
+    @Test
+    void testStream_ResumingBeyondReplayWindow_ShouldSendReset() throws Exception {
+        try (EventReader reader = connect("status=SHIPPED", "-5")) {
+            assertEquals("reset", reader.next().event);
+        }
+    }
+
+    private void awaitPosition(long position) throws InterruptedException {
+        for (int attempt = 0; attempt < 50 && orderChangeStream.getLastPosition() < position; attempt++) {
+            Thread.sleep(100);
+        }
+    }
+
+    private EventReader connect(String query, String lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/orders/stream?" + query))
+                .header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<InputStream> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+        return new EventReader(response.body());
+    }
+
+    private record SseEvent(String id, String event, String data) {}
+
+    // Parses the stream on a background thread so reads can time out
+    private static final class EventReader implements AutoCloseable {
+        private final InputStream body;
+        private final BlockingQueue<SseEvent> events = new LinkedBlockingQueue<>();
+
+        EventReader(InputStream body) {
+            this.body = body;
+            Thread thread = new Thread(this::read, "sse-test-reader");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void read() {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+                String id = null;
+                String event = null;
+                List<String> data = new ArrayList<>();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        if (event != null || !data.isEmpty()) {
+                            events.add(new SseEvent(id, event, String.join("\n", data)));
+                        }
+                        id = null;
+                        event = null;
+                        data.clear();
+                    } else if (line.startsWith("id:")) {
+                        id = line.substring(3);
+                    } else if (line.startsWith("event:")) {
+                        event = line.substring(6);
+                    } else if (line.startsWith("data:")) {
+                        data.add(line.substring(5));
+                    }
+                }
+            } catch (Exception e) {
+                // Closed by the test
+            }
+        }
+
+        SseEvent next() throws InterruptedException {
+            SseEvent event = events.poll(10, TimeUnit.SECONDS);
+            assertNotNull(event, "No event received");
+            return event;
+        }
+
+        SseEvent nextOrderEvent() throws InterruptedException {
+            SseEvent event = next();
+            while (!"order".equals(event.event)) {
+                event = next();
+            }
+            return event;
+        }
+
+        @Override
+        public void close() throws Exception {
+            body.close();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.command.AddItemToOrderCommand;
+import com.example.ordermanagement.command.ConfirmOrderCommand;
+import com.example.ordermanagement.command.CreateOrderCommand;
+import com.example.ordermanagement.controller.OrderController;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that order detail lookups are served from the serialized-response cache and that the
+ * projection refreshes cached entries as soon as the order changes.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderDetailCacheTest {
+
+    @Autowired
+    private CommandGateway commandGateway;
+
+    @Autowired
+    private OrderController orderController;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testGetOrder_RepeatedLookups_ShouldBeCacheHits() throws Exception {
+        String orderId = createOrder();
+        JsonNode first = awaitOrder(orderId, order -> true);
+        double hitsBefore = hits();
+
+        ResponseEntity<byte[]> second = orderController.getOrder(orderId, null);
+
+        assertEquals(first, objectMapper.readTree(second.getBody()));
+        assertEquals(hitsBefore + 1, hits());
+        assertTrue(meterRegistry.get("order.detail.cache.bytes").gauge().value() > 0);
+        assertTrue(meterRegistry.get("order.detail.cache.hit.ratio").gauge().value() > 0);
+    }
+
+    @Test
+    void testGetOrder_AfterChange_ShouldReturnRefreshedEntry() throws Exception {
+        String orderId = createOrder();
+        awaitOrder(orderId, order -> true);
+
+        commandGateway.sendAndWait(new AddItemToOrderCommand(orderId, "PROD-1", "Widget", 3, new BigDecimal("4.00")));
+        commandGateway.sendAndWait(new ConfirmOrderCommand(orderId));
+
+        JsonNode confirmed = awaitOrder(orderId, order -> "CONFIRMED".equals(order.get("status").asText()));
+        assertEquals(0, new BigDecimal("12.00").compareTo(confirmed.get("totalAmount").decimalValue()));
+        assertEquals(1, confirmed.get("items").size());
+    }
+
+    @Test
+    void testGetOrder_Unknown_ShouldNotBeCached() {
+        String orderId = UUID.randomUUID().toString();
+        assertTrue(orderController.getOrder(orderId, null).getStatusCode().is4xxClientError());
+
+        commandGateway.sendAndWait(new CreateOrderCommand(orderId, "CUST-CACHE", "Cache Customer", "cache@test.com", "1 Cache St"));
+
+        assertDoesNotThrow(() -> awaitOrder(orderId, order -> true));
+    }
+
+    private String createOrder() {
+        String orderId = UUID.randomUUID().toString();
+        commandGateway.sendAndWait(new CreateOrderCommand(orderId, "CUST-CACHE", "Cache Customer", "cache@test.com", "1 Cache St"));
+        return orderId;
+    }
+
+    // The projection runs on a tracking processor, so poll until it has applied the expected change
+    private JsonNode awaitOrder(String orderId, Predicate<JsonNode> condition) throws Exception {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            ResponseEntity<byte[]> response = orderController.getOrder(orderId, null);
+            if (response.getStatusCode().is2xxSuccessful()) {
+                JsonNode order = objectMapper.readTree(response.getBody());
+                if (condition.test(order)) {
+                    return order;
+                }
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Order " + orderId + " did not reach the expected state");
+    }
+
+    private double hits() {
+        return meterRegistry.get("cache.gets").tag("cache", "orderDetails").tag("result", "hit").functionCounter().count();
+    }
+}
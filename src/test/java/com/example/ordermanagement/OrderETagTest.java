@@ -0,0 +1,98 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.config.ConsistencyTokenFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies conditional GETs: order and list responses carry ETags that only change when the orders do,
+ * and revalidating with an unchanged ETag is answered with 304 and no body.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class OrderETagTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void testGetOrder_WithCurrentETag_ShouldBeNotModifiedUntilOrderChanges() {
+        ResponseEntity<String> created = restTemplate.postForEntity("/api/orders", Map.of(
+                "customerId", "CUST-ETAG", "customerName", "Tag Customer",
+                "customerEmail", "etag@test.com", "shippingAddress", "1 Tag St"), String.class);
+        String orderId = created.getBody().replace("\"", "");
+        String token = created.getHeaders().getFirst(ConsistencyTokenFilter.CONSISTENCY_TOKEN_HEADER);
+
+        ResponseEntity<String> first = get("/api/orders/" + orderId, token, null);
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+        assertFalse(etag.startsWith("W/"));
+
+        ResponseEntity<String> revalidated = get("/api/orders/" + orderId, null, etag);
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getStatusCode());
+        assertEquals(etag, revalidated.getHeaders().getETag());
+        assertNull(revalidated.getBody());
+
+        ResponseEntity<Void> added = restTemplate.postForEntity("/api/orders/" + orderId + "/items", Map.of(
+                "productId", "PROD-1", "productName", "Widget", "quantity", 1, "price", 9.5), Void.class);
+        String addToken = added.getHeaders().getFirst(ConsistencyTokenFilter.CONSISTENCY_TOKEN_HEADER);
+
+        ResponseEntity<String> changed = get("/api/orders/" + orderId, addToken, etag);
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+        assertTrue(changed.getBody().contains("PROD-1"));
+    }
+
+    @Test
+    void testGetOrder_Unknown_ShouldBeNotFoundEvenWithWildcard() {
+        assertEquals(HttpStatus.NOT_FOUND, get("/api/orders/does-not-exist", null, "*").getStatusCode());
+    }
+
+    @Test
+    void testListOrders_WithCurrentETag_ShouldBeNotModified() {
+        String path = "/api/orders/customer/CUST-ETAG-LIST";
+        ResponseEntity<String> created = restTemplate.postForEntity("/api/orders", Map.of(
+                "customerId", "CUST-ETAG-LIST", "customerName", "List Customer",
+                "customerEmail", "list@test.com", "shippingAddress", "2 Tag St"), String.class);
+        String token = created.getHeaders().getFirst(ConsistencyTokenFilter.CONSISTENCY_TOKEN_HEADER);
+
+        ResponseEntity<String> first = get(path, token, null);
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, get(path, null, etag).getStatusCode());
+
+        ResponseEntity<String> another = restTemplate.postForEntity("/api/orders", Map.of(
+                "customerId", "CUST-ETAG-LIST", "customerName", "List Customer",
+                "customerEmail", "list@test.com", "shippingAddress", "3 Tag St"), String.class);
+        String anotherToken = another.getHeaders().getFirst(ConsistencyTokenFilter.CONSISTENCY_TOKEN_HEADER);
+
+        ResponseEntity<String> grown = get(path, anotherToken, etag);
+        assertEquals(HttpStatus.OK, grown.getStatusCode());
+        assertNotEquals(etag, grown.getHeaders().getETag());
+    }
+
+    private ResponseEntity<String> get(String path, String consistencyToken, String ifNoneMatch) {
+        HttpHeaders headers = new HttpHeaders();
+        if (consistencyToken != null) {
+            headers.set(ConsistencyTokenFilter.CONSISTENCY_TOKEN_HEADER, consistencyToken);
+        }
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+        return restTemplate.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.monitoring.sql.SlowQueriesEndpoint;
+import com.example.ordermanagement.query.OrderItemSummary;
+import com.example.ordermanagement.query.OrderSummary;
+import com.example.ordermanagement.query.OrderSummaryRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies the NDJSON export endpoint streams one document per line and applies its filters.
+ * A tiny fetch size splits a single export into several chunks, each loaded with its items in one query.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "order-management.slow-query.threshold=0ms")
+@ActiveProfiles("test")
+@TestPropertySource(properties = "order-management.export.fetch-size=2")
+class OrderExportTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SlowQueriesEndpoint slowQueries;
+
+    private final LocalDateTime base = LocalDateTime.of(2024, 3, 1, 9, 0);
+
+    @BeforeEach
+    void setUp() {
+        orderSummaryRepository.deleteAll();
+        saveOrder("EXP-1", "CUST-A", OrderSummary.OrderStatus.SHIPPED, base);
+        saveOrder("EXP-2", "CUST-A", OrderSummary.OrderStatus.CREATED, base.plusHours(1));
+        saveOrder("EXP-3", "CUST-B", OrderSummary.OrderStatus.SHIPPED, base.plusHours(2));
+        saveOrder("EXP-4", "CUST-B", OrderSummary.OrderStatus.SHIPPED, base.plusHours(3));
+        saveOrder("EXP-5", "CUST-A", OrderSummary.OrderStatus.SHIPPED, base.plusHours(4));
+    }
+
+    @Test
+    void testExport_WithoutFilters_ShouldStreamEveryOrderAsOneLine() throws Exception {
+        ResponseEntity<String> response = restTemplate.getForEntity(url(""), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getHeaders().getContentType().toString().startsWith("application/x-ndjson"));
+        List<JsonNode> lines = parse(response.getBody());
+        assertEquals(List.of("EXP-1", "EXP-2", "EXP-3", "EXP-4", "EXP-5"),
+                lines.stream().map(line -> line.get("orderId").asText()).toList());
+        assertEquals(1, lines.get(0).get("items").size());
+    }
+
+    @Test
+    void testExport_WithFilters_ShouldOnlyStreamMatchingOrders() throws Exception {
+        String query = "?status=shipped&customerId=CUST-A&updatedFrom=" + base.plusHours(1) + "&updatedTo=" + base.plusHours(5);
+        ResponseEntity<String> response = restTemplate.getForEntity(url(query), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of("EXP-5"), parse(response.getBody()).stream().map(line -> line.get("orderId").asText()).toList());
+    }
+
+    @Test
+    void testExport_ShouldLoadItemsPerChunkRatherThanPerOrder() throws Exception {
+        long before = orderQueries();
+
+        assertEquals(5, parse(restTemplate.getForObject(url(""), String.class)).size());
+
+        // One cursor over the order IDs plus one query per chunk of two orders, rather than one per order
+        assertEquals(1 + 3, orderQueries() - before);
+    }
+
+    private long orderQueries() {
+        return slowQueries.slowQueries(500, "count").stream()
+                .filter(statement -> statement.sql().startsWith("select")
+                        && (statement.sql().contains("order_summaries") || statement.sql().contains("order_item_summaries")))
+                .mapToLong(statement -> statement.count())
+                .sum();
+    }
+
+    private String url(String query) {
+        return "http://localhost:" + port + "/api/orders/export" + query;
+    }
+
+    private List<JsonNode> parse(String body) throws Exception {
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private void saveOrder(String orderId, String customerId, OrderSummary.OrderStatus status, LocalDateTime at) {
+        OrderSummary order = new OrderSummary(orderId, customerId, "Export Customer", "export@test.com", "1 Export St");
+        order.addItem(new OrderItemSummary("PROD-1", "Widget", 2, new BigDecimal("10.00")));
+        order.setStatus(status);
+        order.setCreatedAt(at);
+        order.setUpdatedAt(at);
+        orderSummaryRepository.save(order);
+    }
+}
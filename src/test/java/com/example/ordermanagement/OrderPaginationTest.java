@@ -0,0 +1,117 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.controller.OrderController;
+import com.example.ordermanagement.query.OrderAmountBand;
+import com.example.ordermanagement.query.OrderSummary;
+import com.example.ordermanagement.query.OrderSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies keyset pagination on the order list endpoints: stable ordering on (createdAt, orderId),
+ * cursor hand-off between pages and page size limits.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderPaginationTest {
+
+    @Autowired
+    private OrderController orderController;
+
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    private final LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        orderSummaryRepository.deleteAll();
+        // Pairs of orders share a timestamp so the orderId tie-breaker is exercised
+        for (int i = 0; i < 7; i++) {
+            saveOrder("ORD-" + i, "CUST-PAGE", base.plusMinutes(i / 2));
+        }
+        saveOrder("ORD-OTHER", "CUST-OTHER", base);
+    }
+
+    @Test
+    void testGetAllOrders_WalkingCursors_ShouldReturnEveryOrderOnceInOrder() {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ResponseEntity<List<OrderSummary>> response = orderController.getAllOrders(cursor, 3);
+            response.getBody().forEach(order -> seen.add(order.getOrderId()));
+            cursor = response.getHeaders().getFirst(OrderController.NEXT_CURSOR_HEADER);
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(List.of("ORD-0", "ORD-1", "ORD-OTHER", "ORD-2", "ORD-3", "ORD-4", "ORD-5", "ORD-6"), seen);
+    }
+
+    @Test
+    void testGetOrdersByCustomer_LastPage_ShouldNotReturnCursor() {
+        ResponseEntity<List<OrderSummary>> first = orderController.getOrdersByCustomer("CUST-PAGE", null, 4);
+        assertEquals(4, first.getBody().size());
+        String cursor = first.getHeaders().getFirst(OrderController.NEXT_CURSOR_HEADER);
+        assertNotNull(cursor);
+
+        ResponseEntity<List<OrderSummary>> second = orderController.getOrdersByCustomer("CUST-PAGE", cursor, 4);
+        assertEquals(List.of("ORD-4", "ORD-5", "ORD-6"), second.getBody().stream().map(OrderSummary::getOrderId).toList());
+        assertNull(second.getHeaders().getFirst(OrderController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void testGetOrdersByStatus_WithoutSize_ShouldUseDefaultPageSize() {
+        ResponseEntity<List<OrderSummary>> response = orderController.getOrdersByStatus("CREATED", null, null);
+        assertEquals(8, response.getBody().size());
+        assertNull(response.getHeaders().getFirst(OrderController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void testGetAllOrders_WithInvalidCursorOrSize_ShouldBeRejected() {
+        assertThrows(ResponseStatusException.class, () -> orderController.getAllOrders("not-a-cursor", 10));
+        assertThrows(ResponseStatusException.class, () -> orderController.getAllOrders(null, 0));
+    }
+
+    @Test
+    void testGetOrdersByMinAmount_SortedByAmountDescending_ShouldWalkAmountCursors() {
+        String[] amounts = {"30.00", "70.00", "10.00", "70.00", "50.00", "90.00", "20.00"};
+        for (int i = 0; i < amounts.length; i++) {
+            OrderSummary order = orderSummaryRepository.findById("ORD-" + i).orElseThrow();
+            order.setTotalAmount(new BigDecimal(amounts[i]));
+            orderSummaryRepository.save(order);
+        }
+
+        ResponseEntity<List<OrderSummary>> first = orderController.getOrdersByMinAmount(new BigDecimal("25.00"), null, 3, "totalAmount,desc");
+        assertEquals(List.of("ORD-5", "ORD-3", "ORD-1"), first.getBody().stream().map(OrderSummary::getOrderId).toList());
+        String cursor = first.getHeaders().getFirst(OrderController.NEXT_CURSOR_HEADER);
+        ResponseEntity<List<OrderSummary>> second = orderController.getOrdersByMinAmount(new BigDecimal("25.00"), cursor, 3, "totalAmount,desc");
+        assertEquals(List.of("ORD-4", "ORD-0"), second.getBody().stream().map(OrderSummary::getOrderId).toList());
+
+        assertEquals(5, orderController.countOrdersByMinAmount(new BigDecimal("25.00")));
+        assertEquals(List.of(4L, 1L, 3L), orderController.getAmountHistogram(
+                List.of(BigDecimal.ZERO, new BigDecimal("40"), new BigDecimal("70"))).stream().map(OrderAmountBand::getCount).toList());
+        assertThrows(ResponseStatusException.class, () -> orderController.getOrdersByMinAmount(BigDecimal.ONE, null, 3, "customerName"));
+        assertThrows(ResponseStatusException.class, () -> orderController.getAmountHistogram(List.of(BigDecimal.TEN, BigDecimal.ONE)));
+    }
+
+    private void saveOrder(String orderId, String customerId, LocalDateTime createdAt) {
+        OrderSummary order = new OrderSummary(orderId, customerId, "Page Customer", "page@test.com", "1 Page St");
+        order.setCreatedAt(createdAt);
+        order.setUpdatedAt(createdAt);
+        orderSummaryRepository.save(order);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.event.ItemAddedToOrderEvent;
+import com.example.ordermanagement.event.ItemRemovedFromOrderEvent;
+import com.example.ordermanagement.event.OrderCreatedEvent;
+import com.example.ordermanagement.handler.OrderEventHandler;
+import com.example.ordermanagement.query.OrderItemSummary;
+import com.example.ordermanagement.query.OrderSummary;
+import com.example.ordermanagement.query.OrderSummaryRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the order projection directly with item-heavy event streams, several orders per transaction as
+ * a tracking processor does when it catches up, and checks that re-adding a product updates its row in
+ * place.
+ *
+ * The order count defaults to a size that keeps the build fast. Run it as a benchmark with, for example:
+ * <pre>mvn test -Dtest=OrderProjectionWriteBenchmarkTest -Dorder.projection.benchmark.orders=20000</pre>
+ * The projection's write throughput in events per second is then logged.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext
+class OrderProjectionWriteBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderProjectionWriteBenchmarkTest.class);
+    private static final int ORDERS_PER_TRANSACTION = 50;
+    private static final int PRODUCTS_PER_ORDER = 5;
+    // Created, one add per product, a quantity change and a removal
+    private static final int EVENTS_PER_ORDER = PRODUCTS_PER_ORDER + 3;
+
+    @Autowired
+    private OrderEventHandler orderEventHandler;
+
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final int orders = Integer.getInteger("order.projection.benchmark.orders", 1_000);
+
+    @Test
+    void testProjectItemEvents_ShouldUpsertItemRows() {
+        // Warm up the persistence layer so the timed run does not include class loading and statement parsing
+        project("WARMUP", ORDERS_PER_TRANSACTION);
+
+        long started = System.nanoTime();
+        project("BENCH", orders);
+        long elapsedNanos = System.nanoTime() - started;
+        long events = (long) orders * EVENTS_PER_ORDER;
+        logger.info("Projected {} events for {} orders in {} ms: {} events/s", events, orders,
+                elapsedNanos / 1_000_000, events * 1_000_000_000L / elapsedNanos);
+
+        OrderSummary order = orderSummaryRepository.findById("BENCH-0").orElseThrow();
+        Map<String, OrderItemSummary> items = order.getItems().stream()
+                .collect(Collectors.toMap(OrderItemSummary::getProductId, Function.identity()));
+        assertEquals(PRODUCTS_PER_ORDER - 1, items.size());
+        assertEquals(7, items.get("PROD-0").getQuantity());
+        // Updated in place, so it keeps the id it was inserted with before PROD-1
+        assertTrue(items.get("PROD-0").getId() < items.get("PROD-1").getId());
+        assertFalse(items.containsKey("PROD-" + (PRODUCTS_PER_ORDER - 1)));
+        assertEquals(EVENTS_PER_ORDER - 1, order.getVersion());
+    }
+
+    @Test
+    void testRemoveAndReAddProduct_InOneTransaction_ShouldKeepOneLine() {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            orderEventHandler.on(new OrderCreatedEvent("READD-1", "CUST-BENCH", "Bench Customer", "bench@test.com",
+                    "1 Bench St", now), 0);
+            orderEventHandler.on(new ItemAddedToOrderEvent("READD-1", "PROD-0", "Product 0", 1, new BigDecimal("2.50"), now), 1);
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            orderEventHandler.on(new ItemRemovedFromOrderEvent("READD-1", "PROD-0", now), 2);
+            orderEventHandler.on(new ItemAddedToOrderEvent("READD-1", "PROD-0", "Product 0", 3, new BigDecimal("2.50"), now), 3);
+        });
+
+        OrderSummary order = orderSummaryRepository.findById("READD-1").orElseThrow();
+        assertEquals(1, order.getItems().size());
+        assertEquals(3, order.getItems().get(0).getQuantity());
+        assertEquals(0, new BigDecimal("7.50").compareTo(order.getTotalAmount()));
+    }
+
+    private void project(String prefix, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int first = 0; first < count; first += ORDERS_PER_TRANSACTION) {
+            int from = first;
+            int to = Math.min(count, first + ORDERS_PER_TRANSACTION);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = from; i < to; i++) {
+                    projectOrder(prefix + "-" + i, now);
+                }
+            });
+        }
+    }
+
+    private void projectOrder(String orderId, LocalDateTime now) {
+        long sequence = 0;
+        orderEventHandler.on(new OrderCreatedEvent(orderId, "CUST-BENCH", "Bench Customer", "bench@test.com",
+                "1 Bench St", now), sequence++);
+        for (int p = 0; p < PRODUCTS_PER_ORDER; p++) {
+            orderEventHandler.on(new ItemAddedToOrderEvent(orderId, "PROD-" + p, "Product " + p, 1,
+                    new BigDecimal("2.50"), now), sequence++);
+        }
+        orderEventHandler.on(new ItemAddedToOrderEvent(orderId, "PROD-0", "Product 0", 7,
+                new BigDecimal("2.50"), now), sequence++);
+        orderEventHandler.on(new ItemRemovedFromOrderEvent(orderId, "PROD-" + (PRODUCTS_PER_ORDER - 1), now), sequence);
+    }
+}
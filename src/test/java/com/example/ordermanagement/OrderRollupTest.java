@@ -0,0 +1,153 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.command.AddItemToOrderCommand;
+import com.example.ordermanagement.command.ConfirmOrderCommand;
+import com.example.ordermanagement.command.CreateOrderCommand;
+import com.example.ordermanagement.controller.OrderController;
+import com.example.ordermanagement.query.OrderRollup;
+import com.example.ordermanagement.query.OrderRollupBucket;
+import com.example.ordermanagement.query.OrderRollupProjection;
+import com.example.ordermanagement.query.OrderSummary;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies the time-bucketed order rollups: transitions land in their minute, hour and day buckets,
+ * the projection keeps them current from the events, and a year of buckets is served from the rollup
+ * table alone.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderRollupTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderRollupTest.class);
+
+    @Autowired
+    private OrderRollupProjection rollupProjection;
+
+    @Autowired
+    private OrderController orderController;
+
+    @Autowired
+    private CommandGateway commandGateway;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testRecord_ShouldSumTransitionsPerBucketAndGranularity() {
+        LocalDateTime hour = LocalDateTime.of(2021, 3, 4, 10, 0);
+        transactionTemplate.executeWithoutResult(status -> {
+            rollupProjection.record(OrderSummary.OrderStatus.CONFIRMED, hour.plusMinutes(5), new BigDecimal("10.00"));
+            rollupProjection.record(OrderSummary.OrderStatus.CONFIRMED, hour.plusMinutes(5).plusSeconds(30), new BigDecimal("2.50"));
+            rollupProjection.record(OrderSummary.OrderStatus.CONFIRMED, hour.plusMinutes(40), new BigDecimal("7.50"));
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                rollupProjection.record(OrderSummary.OrderStatus.CANCELLED, hour.plusHours(3), new BigDecimal("4.00")));
+
+        List<OrderRollupBucket> minutes = orderController.getOrderRollups("minute", hour, hour.plusMinutes(59));
+        assertEquals(List.of(hour.plusMinutes(5), hour.plusMinutes(40)), minutes.stream().map(OrderRollupBucket::getStart).toList());
+        assertEquals(2, minutes.get(0).getConfirmed());
+        assertEquals(0, new BigDecimal("12.50").compareTo(
+                minutes.get(0).getStatuses().get(OrderSummary.OrderStatus.CONFIRMED).getTotalAmount()));
+
+        List<OrderRollupBucket> days = orderController.getOrderRollups("DAY", hour, hour);
+        assertEquals(1, days.size());
+        assertEquals(hour.toLocalDate().atStartOfDay(), days.get(0).getStart());
+        assertEquals(3, days.get(0).getConfirmed());
+        assertEquals(1, days.get(0).getCancelled());
+        assertEquals(0, new BigDecimal("20.00").compareTo(
+                days.get(0).getStatuses().get(OrderSummary.OrderStatus.CONFIRMED).getTotalAmount()));
+    }
+
+    @Test
+    void testProjection_ShouldRollUpOrderEvents() throws InterruptedException {
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        OrderRollupBucket before = today(today);
+
+        String orderId = UUID.randomUUID().toString();
+        commandGateway.sendAndWait(new CreateOrderCommand(orderId, "CUST-ROLLUP", "Rollup Customer", "rollup@test.com", "1 Rollup St"));
+        commandGateway.sendAndWait(new AddItemToOrderCommand(orderId, "PROD-1", "Widget", 2, new BigDecimal("5.00")));
+        commandGateway.sendAndWait(new ConfirmOrderCommand(orderId));
+
+        // The projection runs on a tracking processor, so poll until it has applied the confirmation
+        for (int attempt = 0; attempt < 50 && today(today).getConfirmed() == before.getConfirmed(); attempt++) {
+            Thread.sleep(100);
+        }
+        OrderRollupBucket after = today(today);
+        assertEquals(before.getCreated() + 1, after.getCreated());
+        assertEquals(before.getConfirmed() + 1, after.getConfirmed());
+        assertEquals(0, confirmedAmount(before).add(new BigDecimal("10.00")).compareTo(confirmedAmount(after)));
+    }
+
+    @Test
+    void testQuery_YearOfBuckets_ShouldReadRollupsOnly() {
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+        List<Object[]> rows = new ArrayList<>();
+        for (LocalDateTime hour = start; hour.getYear() == 2022; hour = hour.plusHours(1)) {
+            rows.add(new Object[]{"HOUR", Timestamp.valueOf(hour), "CONFIRMED", 2, new BigDecimal("30.00")});
+            if (hour.getHour() == 0) {
+                rows.add(new Object[]{"DAY", Timestamp.valueOf(hour), "CONFIRMED", 48, new BigDecimal("720.00")});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO order_rollups (granularity, bucket_start, status, order_count, total_amount) " +
+                "VALUES (?, ?, ?, ?, ?)", rows);
+
+        LocalDateTime end = start.plusYears(1).minusSeconds(1);
+        long started = System.nanoTime();
+        List<OrderRollupBucket> days = orderController.getOrderRollups("DAY", start, end);
+        long dayMicros = (System.nanoTime() - started) / 1_000;
+        started = System.nanoTime();
+        List<OrderRollupBucket> hours = orderController.getOrderRollups("HOUR", start, end);
+        long hourMicros = (System.nanoTime() - started) / 1_000;
+        logger.info("A year of rollups: {} days in {} us, {} hours in {} us", days.size(), dayMicros, hours.size(), hourMicros);
+
+        assertEquals(365, days.size());
+        assertEquals(365 * 24, hours.size());
+        assertEquals(48, days.get(200).getConfirmed());
+
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT * FROM order_rollups WHERE granularity = 'DAY' " +
+                "AND bucket_start >= TIMESTAMP '2022-01-01 00:00:00' AND bucket_start <= TIMESTAMP '2022-12-31 00:00:00'", String.class);
+        assertTrue(plan.contains("IDX_ORDER_ROLLUPS_GRANULARITY_BUCKET"), plan);
+    }
+
+    @Test
+    void testQuery_TooManyBuckets_ShouldBeRejected() {
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> orderController.getOrderRollups("MINUTE", start, start.plusYears(1)));
+        assertEquals(400, e.getStatusCode().value());
+        assertThrows(ResponseStatusException.class, () -> orderController.getOrderRollups("DAY", start, start.minusDays(1)));
+    }
+
+    private OrderRollupBucket today(LocalDateTime today) {
+        List<OrderRollupBucket> buckets = orderController.getOrderRollups("DAY", today, today);
+        return buckets.isEmpty() ? new OrderRollupBucket(today) : buckets.get(0);
+    }
+
+    private static BigDecimal confirmedAmount(OrderRollupBucket bucket) {
+        OrderRollupBucket.StatusTotals totals = bucket.getStatuses().get(OrderSummary.OrderStatus.CONFIRMED);
+        return totals == null ? BigDecimal.ZERO : totals.getTotalAmount();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.command.*;
+import com.example.ordermanagement.query.OrderStatusStatistics;
+import com.example.ordermanagement.query.OrderStatusStatisticsProjection;
+import com.example.ordermanagement.query.OrderSummary;
+import com.example.ordermanagement.query.OrderSummaryRepository;
+import com.example.ordermanagement.query.ProjectionPositionTracker;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that OrderEventHandler keeps the per-status statistics in step with the query model
+ * and that reconciliation agrees with a full scan.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderStatusStatisticsTest {
+
+    @Autowired
+    private CommandGateway commandGateway;
+
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Autowired
+    private OrderStatusStatisticsProjection statisticsProjection;
+
+    @Autowired
+    private EventStore eventStore;
+
+    @Autowired
+    private ProjectionPositionTracker positionTracker;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Rows the projection is still writing for earlier tests would break the delete's foreign keys
+        TrackingToken head = eventStore.createHeadToken();
+        if (head != null) {
+            positionTracker.awaitPosition(head.position().orElse(-1)).copy().get(10, TimeUnit.SECONDS);
+        }
+        orderSummaryRepository.deleteAll();
+        statisticsProjection.reconcile();
+    }
+
+    @Test
+    void testStatistics_FollowItemChangesAndTransitions() {
+        String first = createOrderWithItem(new BigDecimal("100.00"));
+        String second = createOrderWithItem(new BigDecimal("50.00"));
+        commandGateway.sendAndWait(new AddItemToOrderCommand(second, "PROD-2", "Gadget", 2, new BigDecimal("25.00")));
+
+        assertStatistics(OrderSummary.OrderStatus.CREATED, 2, "200.00");
+
+        commandGateway.sendAndWait(new ConfirmOrderCommand(first));
+        commandGateway.sendAndWait(new RemoveItemFromOrderCommand(second, "PROD-2"));
+        commandGateway.sendAndWait(new CancelOrderCommand(second, "Changed mind"));
+
+        assertStatistics(OrderSummary.OrderStatus.CREATED, 0, "0.00");
+        assertStatistics(OrderSummary.OrderStatus.CONFIRMED, 1, "100.00");
+        assertStatistics(OrderSummary.OrderStatus.CANCELLED, 1, "50.00");
+        assertEquals(new BigDecimal("100.00"),
+                statisticsProjection.get(OrderSummary.OrderStatus.CONFIRMED).getAverageOrderValue().orElseThrow());
+        assertTrue(statisticsProjection.get(OrderSummary.OrderStatus.CREATED).getAverageOrderValue().isEmpty());
+    }
+
+    @Test
+    void testReconcile_ShouldMatchFullScan() {
+        createOrderWithItem(new BigDecimal("30.00"));
+        createOrderWithItem(new BigDecimal("45.50"));
+        assertStatistics(OrderSummary.OrderStatus.CREATED, 2, "75.50");
+
+        // Dropping rows behind the projection's back leaves the incremental statistics stale
+        orderSummaryRepository.deleteAll(orderSummaryRepository.findFirstPage(PageRequest.ofSize(1)));
+        assertStatistics(OrderSummary.OrderStatus.CREATED, 2, "75.50");
+
+        statisticsProjection.reconcile();
+
+        OrderStatusStatistics created = statisticsProjection.get(OrderSummary.OrderStatus.CREATED);
+        assertEquals(orderSummaryRepository.findFirstPageByStatus(OrderSummary.OrderStatus.CREATED, PageRequest.ofSize(10)).size(),
+                created.getOrderCount());
+        assertEquals(1, created.getOrderCount());
+    }
+
+    private String createOrderWithItem(BigDecimal price) {
+        String orderId = UUID.randomUUID().toString();
+        commandGateway.sendAndWait(new CreateOrderCommand(orderId, "CUST-STATS", "Stats Customer", "stats@test.com", "1 Stats St"));
+        commandGateway.sendAndWait(new AddItemToOrderCommand(orderId, "PROD-1", "Widget", 1, price));
+        return orderId;
+    }
+
+    // The projection runs on a tracking processor, so give it a moment to catch up
+    private void assertStatistics(OrderSummary.OrderStatus status, long expectedCount, String expectedTotal) {
+        BigDecimal total = new BigDecimal(expectedTotal);
+        OrderStatusStatistics statistics = statisticsProjection.get(status);
+        for (int attempt = 0; attempt < 50 && !matches(statistics, expectedCount, total); attempt++) {
+            sleep();
+            statistics = statisticsProjection.get(status);
+        }
+        assertEquals(expectedCount, statistics.getOrderCount(), "count for " + status);
+        assertEquals(0, total.compareTo(statistics.getTotalAmount()), "total for " + status);
+    }
+
+    private static boolean matches(OrderStatusStatistics statistics, long expectedCount, BigDecimal expectedTotal) {
+        return statistics.getOrderCount() == expectedCount && expectedTotal.compareTo(statistics.getTotalAmount()) == 0;
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.command.*;
+import com.example.ordermanagement.controller.OrderController;
+import com.example.ordermanagement.query.FindOrderQuery;
+import com.example.ordermanagement.query.FindOrdersByMinAmountQuery;
+import com.example.ordermanagement.query.OrderSummary;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.messaging.responsetypes.ResponseTypes;
+import org.axonframework.queryhandling.QueryGateway;
+import org.axonframework.queryhandling.SubscriptionQueryResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that subscription queries deliver the initial result followed by the updates OrderEventHandler
+ * emits as the projection changes.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderSubscriptionQueryTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private CommandGateway commandGateway;
+
+    @Autowired
+    private QueryGateway queryGateway;
+
+    @Autowired
+    private OrderController orderController;
+
+    @Test
+    void testSubscriptionQuery_ShouldPushEveryProjectionChange() {
+        String orderId = createOrder("CUST-SUB-1");
+        awaitProjection(orderId);
+
+        SubscriptionQueryResult<OrderSummary, OrderSummary> result = queryGateway.subscriptionQuery(
+                new FindOrderQuery(orderId), ResponseTypes.instanceOf(OrderSummary.class), ResponseTypes.instanceOf(OrderSummary.class));
+        try {
+            assertEquals(OrderSummary.OrderStatus.CREATED, result.initialResult().block(TIMEOUT).getStatus());
+            CompletableFuture<List<OrderSummary>> updates = result.updates().take(2).collectList().toFuture();
+
+            commandGateway.sendAndWait(new AddItemToOrderCommand(orderId, "PROD-1", "Widget", 2, new BigDecimal("15.00")));
+            commandGateway.sendAndWait(new ConfirmOrderCommand(orderId));
+
+            List<OrderSummary> received = updates.orTimeout(TIMEOUT.toSeconds(), TimeUnit.SECONDS).join();
+            assertEquals(0, new BigDecimal("30.00").compareTo(received.get(0).getTotalAmount()));
+            assertEquals(OrderSummary.OrderStatus.CONFIRMED, received.get(1).getStatus());
+        } finally {
+            result.close();
+        }
+    }
+
+    @Test
+    void testStatusSubscription_ShouldReportOrdersLeavingTheStatus() {
+        String orderId = createOrder("CUST-SUB-2");
+        awaitProjection(orderId);
+
+        Flux<ServerSentEvent<Object>> stream = orderController.subscribeToOrdersByStatus("CREATED", 10);
+        CompletableFuture<List<ServerSentEvent<Object>>> events = stream
+                .filter(event -> !"update".equals(event.event()) || orderId.equals(((OrderSummary) event.data()).getOrderId()))
+                .take(2).collectList().toFuture();
+
+        // Give the subscription time to register before the order moves on
+        sleep(500);
+        commandGateway.sendAndWait(new CancelOrderCommand(orderId, "Changed mind"));
+
+        List<ServerSentEvent<Object>> received = events.orTimeout(TIMEOUT.toSeconds(), TimeUnit.SECONDS).join();
+        assertEquals("initial", received.get(0).event());
+        assertEquals("update", received.get(1).event());
+        assertEquals(OrderSummary.OrderStatus.CANCELLED, ((OrderSummary) received.get(1).data()).getStatus());
+    }
+
+    @Test
+    void testMinAmountSubscription_ShouldPushOrdersReachingTheAmount() {
+        String orderId = createOrder("CUST-SUB-3");
+        awaitProjection(orderId);
+
+        SubscriptionQueryResult<List<OrderSummary>, OrderSummary> result = queryGateway.subscriptionQuery(
+                new FindOrdersByMinAmountQuery(new BigDecimal("100.00"), null, 10),
+                ResponseTypes.multipleInstancesOf(OrderSummary.class), ResponseTypes.instanceOf(OrderSummary.class));
+        try {
+            assertTrue(result.initialResult().block(TIMEOUT).stream().noneMatch(order -> orderId.equals(order.getOrderId())));
+            CompletableFuture<List<OrderSummary>> updates = result.updates()
+                    .filter(order -> orderId.equals(order.getOrderId())).take(1).collectList().toFuture();
+
+            // Below the minimum, so not pushed
+            commandGateway.sendAndWait(new AddItemToOrderCommand(orderId, "PROD-1", "Widget", 1, new BigDecimal("40.00")));
+            commandGateway.sendAndWait(new AddItemToOrderCommand(orderId, "PROD-2", "Gadget", 2, new BigDecimal("35.00")));
+
+            List<OrderSummary> received = updates.orTimeout(TIMEOUT.toSeconds(), TimeUnit.SECONDS).join();
+            assertEquals(0, new BigDecimal("110.00").compareTo(received.get(0).getTotalAmount()));
+        } finally {
+            result.close();
+        }
+    }
+
+    private String createOrder(String customerId) {
+        String orderId = UUID.randomUUID().toString();
+        commandGateway.sendAndWait(new CreateOrderCommand(orderId, customerId, "Subscriber", "sub@test.com", "1 Sub St"));
+        return orderId;
+    }
+
+    // The projection runs on a tracking processor, so wait until it has seen the order
+    private void awaitProjection(String orderId) {
+        for (int attempt = 0; attempt < 50 && !orderController.getOrder(orderId, null).getStatusCode().is2xxSuccessful(); attempt++) {
+            sleep(100);
+        }
+        assertTrue(orderController.getOrder(orderId, null).getStatusCode().is2xxSuccessful());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.ordermanagement;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that the read-model queries are answered from the secondary indexes rather than table scans.
+ *
+ * The row count defaults to a size that keeps the build fast. Run it as a benchmark against a realistic
+ * volume with, for example:
+ * <pre>mvn test -Dtest=OrderSummaryIndexTest -Dorder.index.benchmark.rows=1000000</pre>
+ * Each query is then timed and the average latency is logged next to its plan.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderSummaryIndexTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderSummaryIndexTest.class);
+    private static final String[] STATUSES = {"CREATED", "CONFIRMED", "PROCESSED", "SHIPPED", "DELIVERED", "CANCELLED"};
+    private static final int BATCH_SIZE = 5_000;
+    private static final int TIMED_RUNS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final int rows = Integer.getInteger("order.index.benchmark.rows", 5_000);
+
+    @BeforeAll
+    void setUp() {
+        clear();
+        seed();
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    void tearDown() {
+        clear();
+    }
+
+    @Test
+    void testFindByCustomerId_ShouldUseCustomerIndex() {
+        assertUsesIndex("IDX_ORDER_SUMMARIES_CUSTOMER",
+                "SELECT * FROM order_summaries WHERE customer_id = 'CUST-42' ORDER BY created_at, order_id LIMIT 50");
+    }
+
+    @Test
+    void testFindByStatus_ShouldUseStatusIndex() {
+        assertUsesIndex("IDX_ORDER_SUMMARIES_STATUS_CREATED",
+                "SELECT * FROM order_summaries WHERE status = 'DELIVERED' ORDER BY created_at, order_id LIMIT 50");
+    }
+
+    @Test
+    void testFindByTotalAmountGreaterThanEqual_ShouldUseAmountIndex() {
+        assertUsesIndex("IDX_ORDER_SUMMARIES_TOTAL_AMOUNT",
+                "SELECT * FROM order_summaries WHERE total_amount >= 995");
+    }
+
+    @Test
+    void testKeysetPage_ShouldSeekOnCreatedAtIndex() {
+        assertUsesIndex("IDX_ORDER_SUMMARIES_CREATED_ORDER",
+                "SELECT * FROM order_summaries WHERE created_at > TIMESTAMP '2024-06-01 00:00:00' " +
+                "ORDER BY created_at, order_id LIMIT 50");
+    }
+
+    @Test
+    void testAmountSortedKeysetPage_ShouldSeekOnAmountIndex() {
+        assertUsesIndex("IDX_ORDER_SUMMARIES_TOTAL_AMOUNT",
+                "SELECT * FROM order_summaries WHERE total_amount >= 500 " +
+                "AND (total_amount > 750 OR (total_amount = 750 AND (created_at > TIMESTAMP '2024-06-01 00:00:00' " +
+                "OR (created_at = TIMESTAMP '2024-06-01 00:00:00' AND order_id > 'BENCH-1')))) " +
+                "ORDER BY total_amount, created_at, order_id LIMIT 50");
+    }
+
+    @Test
+    void testAmountBandCount_ShouldUseAmountIndex() {
+        assertUsesIndex("IDX_ORDER_SUMMARIES_TOTAL_AMOUNT",
+                "SELECT COUNT(*) FROM order_summaries WHERE total_amount >= 100 AND total_amount < 200");
+    }
+
+    @Test
+    void testItemLookupByOrder_ShouldUseForeignKeyIndex() {
+        assertUsesIndex("IDX_ORDER_ITEM_SUMMARIES_ORDER_ID",
+                "SELECT * FROM order_item_summaries WHERE order_id = 'BENCH-42'");
+    }
+
+    private void assertUsesIndex(String indexName, String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        logger.info("Plan at {} rows: {}", rows, plan);
+        assertTrue(plan.contains(indexName), "Expected " + indexName + " in plan: " + plan);
+        assertFalse(plan.contains("tableScan"), "Unexpected table scan in plan: " + plan);
+
+        if (rows > 5_000) {
+            long started = System.nanoTime();
+            for (int i = 0; i < TIMED_RUNS; i++) {
+                jdbcTemplate.queryForList(sql);
+            }
+            logger.info("{} rows, {} us/query: {}", rows, (System.nanoTime() - started) / TIMED_RUNS / 1_000, sql);
+        }
+    }
+
+    private void seed() {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Object[]> orders = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> items = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            String orderId = "BENCH-" + i;
+            Timestamp createdAt = Timestamp.valueOf(start.plusSeconds(i * 30L));
+            BigDecimal amount = BigDecimal.valueOf(random.nextInt(100_000), 2);
+            orders.add(new Object[]{orderId, "CUST-" + random.nextInt(Math.max(1, rows / 10)), "Customer " + i,
+                    "customer" + i + "@example.com", "1 Bench St", amount, STATUSES[random.nextInt(STATUSES.length)],
+                    createdAt, createdAt});
+            items.add(new Object[]{orderId, "PROD-" + random.nextInt(100), "Product", 1, amount});
+            if (orders.size() == BATCH_SIZE) {
+                flush(orders, items);
+            }
+        }
+        flush(orders, items);
+    }
+
+    private void flush(List<Object[]> orders, List<Object[]> items) {
+        jdbcTemplate.batchUpdate("INSERT INTO order_summaries (order_id, customer_id, customer_name, customer_email, " +
+                "shipping_address, total_amount, status, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", orders);
+        jdbcTemplate.batchUpdate("INSERT INTO order_item_summaries (id, order_id, product_id, product_name, quantity, price) " +
+                "VALUES (NEXT VALUE FOR order_item_summaries_seq, ?, ?, ?, ?, ?)", items);
+        orders.clear();
+        items.clear();
+    }
+
+    private void clear() {
+        jdbcTemplate.update("DELETE FROM order_item_summaries");
+        jdbcTemplate.update("DELETE FROM order_summaries");
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.monitoring.ResourceUsageMeter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that sampled requests and commands publish their allocated bytes and CPU time, tagged by
+ * endpoint and command type.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "order-management.resource-usage.sample-rate=1")
+@ActiveProfiles("test")
+class ResourceUsageMeterTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testRequests_FullySampled_ShouldPublishUsagePerEndpointAndCommand() {
+        restTemplate.postForEntity("/api/orders", Map.of(
+                "customerId", "CUST-ALLOC", "customerName", "Alloc Customer",
+                "customerEmail", "alloc@test.com", "shippingAddress", "1 Alloc St"), String.class);
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity("/api/orders/status/CREATED", String.class).getStatusCode());
+
+        DistributionSummary createAllocated = meterRegistry.get("order.request.allocated")
+                .tag("endpoint", "POST /api/orders").summary();
+        assertTrue(createAllocated.count() >= 1);
+        assertTrue(createAllocated.totalAmount() > 0);
+        assertTrue(meterRegistry.get("order.request.cpu").tag("endpoint", "GET /api/orders/status/{status}").summary().count() >= 1);
+
+        DistributionSummary commandAllocated = meterRegistry.get("order.command.allocated")
+                .tag("command", "CreateOrderCommand").summary();
+        assertTrue(commandAllocated.count() >= 1);
+        assertTrue(commandAllocated.totalAmount() > 0);
+    }
+
+    @Test
+    void testStart_SampleRateZero_ShouldMeasureNothing() {
+        ResourceUsageMeter disabled = new ResourceUsageMeter(new SimpleMeterRegistry(), 0);
+
+        assertNull(disabled.start());
+        assertThrows(IllegalArgumentException.class, () -> new ResourceUsageMeter(new SimpleMeterRegistry(), 1.5));
+    }
+
+    @Test
+    void testUsage_AllocatingWork_ShouldCountBytes() {
+        ResourceUsageMeter meter = new ResourceUsageMeter(new SimpleMeterRegistry(), 1);
+
+        ResourceUsageMeter.Usage usage = meter.start();
+        byte[][] garbage = new byte[64][];
+        for (int i = 0; i < garbage.length; i++) {
+            garbage[i] = new byte[1024];
+        }
+        usage.pause();
+
+        assertTrue(usage.allocatedBytes() >= 64 * 1024, "allocated " + usage.allocatedBytes());
+        assertEquals(64, garbage.length);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.ordermanagement;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs the read-your-writes tests against the sharded read model, where a token is only reached once
+ * every shard segment has got past it.
+ */
+@TestPropertySource(properties = {
+        "order-management.read-model.backend=sharded",
+        "order-management.read-model.sharded.shards=4"
+})
+class ShardedConsistencyTokenTest extends ConsistencyTokenTest {
+}
@@ -0,0 +1,118 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.command.*;
+import com.example.ordermanagement.query.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that with the sharded read model the archive moves terminal orders out of the shards, the
+ * export reads the shards, and the customer name search is seeded from them.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "order-management.read-model.backend=sharded",
+        "order-management.read-model.sharded.shards=4",
+        "order-management.archive.after=0s"
+})
+@ActiveProfiles("test")
+class ShardedOrderArchiveTest {
+
+    private static final String CUSTOMER_NAME = "Sharded Archive Customer";
+
+    @Autowired
+    private CommandGateway commandGateway;
+
+    @Autowired
+    private OrderQueryModel queryModel;
+
+    @Autowired
+    private ShardedOrderStore store;
+
+    @Autowired
+    private OrderArchive archive;
+
+    @Autowired
+    private CustomerNameSearchIndex searchIndex;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testArchive_ShouldMoveTerminalOrdersOutOfTheShards() throws Exception {
+        String customerId = "CUST-" + UUID.randomUUID();
+        String shipped = createOrder(customerId);
+        commandGateway.sendAndWait(new ConfirmOrderCommand(shipped));
+        commandGateway.sendAndWait(new ProcessOrderCommand(shipped));
+        commandGateway.sendAndWait(new ShipOrderCommand(shipped, "TRK-1"));
+        String cancelled = createOrder(customerId);
+        commandGateway.sendAndWait(new CancelOrderCommand(cancelled, "Changed mind"));
+        String open = createOrder(customerId);
+        awaitProjected(Map.of(shipped, 4L, cancelled, 2L, open, 1L));
+
+        assertEquals(List.of(shipped, cancelled, open), search());
+        assertEquals(2, archive.archive());
+
+        assertTrue(store.shardFor(shipped).findById(shipped).isEmpty());
+        assertTrue(store.shardFor(cancelled).findById(cancelled).isEmpty());
+        assertTrue(store.shardFor(open).findById(open).isPresent());
+        OrderSummary archived = archive.find(shipped).orElseThrow();
+        assertEquals("TRK-1", archived.getTrackingNumber());
+        assertEquals(1, archived.getItems().size());
+        assertEquals(List.of(open), search());
+        // Each shard is archived into its own segments, which the export reads in the order they were written
+        assertEquals(Set.of(shipped, cancelled, open), new HashSet<>(export("?customerId=" + customerId)));
+        assertEquals(List.of(open), export("?customerId=" + customerId + "&status=created"));
+
+        // A restarted index only sees what is left in the shards
+        CustomerNameSearchIndex seeded = new CustomerNameSearchIndex(null,
+                new StaticListableBeanFactory(Map.of("store", store)).getBeanProvider(ShardedOrderStore.class), null);
+        seeded.afterSingletonsInstantiated();
+        assertEquals(List.of(open), seeded.search(CUSTOMER_NAME, CustomerNameSearchIndex.MatchMode.CONTAINS, true, null, 10).getOrderIds());
+    }
+
+    private String createOrder(String customerId) {
+        String orderId = UUID.randomUUID().toString();
+        commandGateway.sendAndWait(new CreateOrderCommand(orderId, customerId, CUSTOMER_NAME, "archive@test.com", "1 Shard St"));
+        commandGateway.sendAndWait(new AddItemToOrderCommand(orderId, "PROD-1", "Widget", 2, new BigDecimal("10.00")));
+        return orderId;
+    }
+
+    private void awaitProjected(Map<String, Long> versions) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            if (versions.entrySet().stream().allMatch(entry -> queryModel.findVersionById(entry.getKey())
+                    .filter(version -> version >= entry.getValue()).isPresent())
+                    && search().size() == versions.size()) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        fail("Orders were not projected");
+    }
+
+    private List<String> search() {
+        return searchIndex.search(CUSTOMER_NAME, CustomerNameSearchIndex.MatchMode.CONTAINS, true, null, 10).getOrderIds();
+    }
+
+    private List<String> export(String query) throws Exception {
+        String body = restTemplate.getForObject("/api/orders/export" + query, String.class);
+        List<String> orderIds = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            orderIds.add(objectMapper.readTree(line).get("orderId").asText());
+        }
+        return orderIds;
+    }
+}
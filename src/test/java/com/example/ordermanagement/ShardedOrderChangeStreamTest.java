@@ -0,0 +1,13 @@
+package com.example.ordermanagement;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs the change stream tests against the sharded read model, whose segments commit out of global order.
+ */
+@TestPropertySource(properties = {
+        "order-management.read-model.backend=sharded",
+        "order-management.read-model.sharded.shards=4"
+})
+class ShardedOrderChangeStreamTest extends OrderChangeStreamTest {
+}
@@ -0,0 +1,152 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.command.AddItemToOrderCommand;
+import com.example.ordermanagement.command.ConfirmOrderCommand;
+import com.example.ordermanagement.command.CreateOrderCommand;
+import com.example.ordermanagement.command.RemoveItemFromOrderCommand;
+import com.example.ordermanagement.query.*;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies the sharded read model: orders land on the shard their ID hashes to, scatter-gathered pages,
+ * lookups and counts match the same queries over all orders, the statistics and rollups kept per shard
+ * add up, and nothing is written to the JPA projection.
+ */
+@SpringBootTest(properties = {
+        "order-management.read-model.backend=sharded",
+        "order-management.read-model.sharded.shards=4"
+})
+@ActiveProfiles("test")
+class ShardedOrderQueryModelTest {
+
+    private static final int ORDERS = 24;
+
+    @Autowired
+    private CommandGateway commandGateway;
+
+    @Autowired
+    private OrderQueryModel queryModel;
+
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Autowired
+    private OrderStatusStatisticsProjection statisticsProjection;
+
+    @Autowired
+    private OrderRollupProjection rollupProjection;
+
+    @Autowired
+    private ShardedOrderStore store;
+
+    @Test
+    void testShardedModel_ShouldMatchJpaProjection() throws Exception {
+        assertInstanceOf(ShardedOrderQueryModel.class, queryModel);
+        List<String> orderIds = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            String orderId = UUID.randomUUID().toString();
+            orderIds.add(orderId);
+            commandGateway.sendAndWait(new CreateOrderCommand(orderId, "CUST-" + (i % 3), "Shard Customer", "shard@test.com", "1 Shard St"));
+            commandGateway.sendAndWait(new AddItemToOrderCommand(orderId, "PROD-1", "Widget", i + 1, new BigDecimal("5.00")));
+            commandGateway.sendAndWait(new AddItemToOrderCommand(orderId, "PROD-2", "Gadget", 1, new BigDecimal("2.50")));
+            if (i % 2 == 0) {
+                commandGateway.sendAndWait(new RemoveItemFromOrderCommand(orderId, "PROD-2"));
+                commandGateway.sendAndWait(new ConfirmOrderCommand(orderId));
+            }
+        }
+        awaitProjected(orderIds);
+        String last = orderIds.get(ORDERS - 2);
+
+        long stored = 0;
+        for (int shard = 0; shard < store.shardCount(); shard++) {
+            stored += store.shard(shard).countOrders();
+        }
+        for (String orderId : orderIds) {
+            assertTrue(store.shardFor(orderId).findById(orderId).isPresent());
+        }
+        assertEquals(ORDERS, stored);
+        assertTrue(store.shardCount() > 1);
+
+        List<OrderSummary> all = new ArrayList<>(queryModel.findAllById(orderIds));
+        all.sort(Comparator.comparing(OrderSummary::getCreatedAt).thenComparing(OrderSummary::getOrderId));
+        BigDecimal minAmount = new BigDecimal("40.00");
+        List<OrderSummary> byAmount = all.stream()
+                .filter(order -> order.getTotalAmount().compareTo(minAmount) >= 0)
+                .sorted(Comparator.comparing(OrderSummary::getTotalAmount)
+                        .thenComparing(OrderSummary::getCreatedAt).thenComparing(OrderSummary::getOrderId).reversed())
+                .toList();
+        assertEquals(ids(all), walk(after -> queryModel.findAll(after, 5)));
+        assertEquals(ids(all.stream().filter(order -> order.getCustomerId().equals("CUST-1")).toList()),
+                ids(queryModel.findByCustomerId("CUST-1", null, 50)));
+        assertEquals(ids(all.stream().filter(order -> order.getStatus() == OrderSummary.OrderStatus.CONFIRMED).limit(7).toList()),
+                ids(queryModel.findByStatus(OrderSummary.OrderStatus.CONFIRMED, null, 7)));
+        assertEquals(ids(byAmount), ids(queryModel.findByMinAmountOrderByAmount(minAmount, true, null, 50)));
+        assertEquals(byAmount.size(), queryModel.countByAmount(minAmount, null));
+
+        OrderSummary sharded = queryModel.findById(last).orElseThrow();
+        assertEquals(0, new BigDecimal("115.00").compareTo(sharded.getTotalAmount()));
+        assertEquals(4, sharded.getVersion());
+        assertEquals(1, sharded.getItems().size());
+        assertEquals(List.of(orderIds.get(3), orderIds.get(0)), ids(queryModel.findAllById(List.of(orderIds.get(3), "missing", orderIds.get(0)))));
+
+        assertEquals(0, orderSummaryRepository.count());
+        OrderStatusStatistics confirmed = statisticsProjection.get(OrderSummary.OrderStatus.CONFIRMED);
+        assertEquals(ORDERS / 2, confirmed.getOrderCount());
+        assertEquals(0, all.stream().filter(order -> order.getStatus() == OrderSummary.OrderStatus.CONFIRMED)
+                .map(OrderSummary::getTotalAmount).reduce(BigDecimal.ZERO, BigDecimal::add).compareTo(confirmed.getTotalAmount()));
+        assertEquals(ORDERS / 2, statisticsProjection.get(OrderSummary.OrderStatus.CREATED).getOrderCount());
+        LocalDateTime now = LocalDateTime.now();
+        assertEquals(ORDERS, rollupProjection.query(OrderRollup.Granularity.DAY, now.minusDays(1), now).stream()
+                .mapToLong(OrderRollupBucket::getCreated).sum());
+        assertEquals(ORDERS / 2, rollupProjection.query(OrderRollup.Granularity.DAY, now.minusDays(1), now).stream()
+                .mapToLong(OrderRollupBucket::getConfirmed).sum());
+        // Recounting from the shards agrees with the incrementally kept rows
+        assertEquals(confirmed.getOrderCount(), statisticsProjection.reconcile().stream()
+                .filter(statistics -> statistics.getStatus() == OrderSummary.OrderStatus.CONFIRMED)
+                .findFirst().orElseThrow().getOrderCount());
+    }
+
+    // Each shard segment progresses independently
+    private void awaitProjected(List<String> orderIds) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            if (orderIds.stream().allMatch(orderId -> queryModel.findVersionById(orderId)
+                    .filter(version -> version >= (orderIds.indexOf(orderId) % 2 == 0 ? 4 : 2)).isPresent())
+                    && statisticsProjection.get(OrderSummary.OrderStatus.CONFIRMED).getOrderCount() == ORDERS / 2
+                    && statisticsProjection.get(OrderSummary.OrderStatus.CREATED).getOrderCount() == ORDERS / 2) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        fail("Orders were not projected");
+    }
+
+    private static List<String> walk(Function<OrderCursor, List<OrderSummary>> page) {
+        List<String> seen = new ArrayList<>();
+        OrderCursor after = null;
+        List<OrderSummary> rows;
+        do {
+            rows = page.apply(after);
+            seen.addAll(ids(rows));
+            after = rows.isEmpty() ? null : OrderCursor.after(rows.get(rows.size() - 1));
+        } while (rows.size() == 5);
+        return seen;
+    }
+
+    private static List<String> ids(List<OrderSummary> orders) {
+        return orders.stream().map(OrderSummary::getOrderId).toList();
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.event.ItemAddedToOrderEvent;
+import com.example.ordermanagement.event.OrderConfirmedEvent;
+import com.example.ordermanagement.event.OrderCreatedEvent;
+import com.example.ordermanagement.handler.ShardedOrderProjection;
+import com.example.ordermanagement.query.*;
+import org.axonframework.queryhandling.QueryUpdateEmitter;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the sharded projection with one thread per shard, as its tracking segments do, for several
+ * shard counts, and checks that the statistics and rollups each shard keeps add up to every order.
+ *
+ * The order count and shard counts default to sizes that keep the build fast. Run it as a benchmark with,
+ * for example:
+ * <pre>mvn test -Dtest=ShardedProjectionThroughputBenchmarkTest -Dorder.shard.benchmark.orders=20000 -Dorder.shard.benchmark.shards=1,2,4,8</pre>
+ * The projection's write throughput in events per second is then logged for each shard count.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ShardedProjectionThroughputBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedProjectionThroughputBenchmarkTest.class);
+    private static final int PRODUCTS_PER_ORDER = 3;
+    // Created, one add per product and a confirmation
+    private static final int EVENTS_PER_ORDER = PRODUCTS_PER_ORDER + 2;
+    private static final BigDecimal ORDER_AMOUNT = new BigDecimal("7.50");
+
+    @Autowired
+    private OrderDetailCache orderDetailCache;
+
+    @Autowired
+    private QueryUpdateEmitter queryUpdateEmitter;
+
+    @Autowired
+    private OrderChangeStream changeStream;
+
+    @Autowired
+    private ProjectionPositionTracker positionTracker;
+
+    private final int orders = Integer.getInteger("order.shard.benchmark.orders", 400);
+    private final String shardCounts = System.getProperty("order.shard.benchmark.shards", "1,2,4");
+
+    @Test
+    void testProjectWithOneThreadPerShard_ShouldKeepStatisticsPerShard() throws Exception {
+        for (String shardCount : shardCounts.split(",")) {
+            int shards = Integer.parseInt(shardCount.trim());
+            ShardedOrderStore store = new ShardedOrderStore(shards);
+            try {
+                ShardedOrderProjection projection = new ShardedOrderProjection(store, orderDetailCache,
+                        queryUpdateEmitter, changeStream, positionTracker);
+                // Warm up every shard so the timed run does not include class loading and statement parsing
+                project(store, projection, "WARMUP", shards * 10);
+
+                long started = System.nanoTime();
+                project(store, projection, "BENCH", orders);
+                long elapsedNanos = System.nanoTime() - started;
+                long events = (long) orders * EVENTS_PER_ORDER;
+                logger.info("Projected {} events for {} orders on {} shards in {} ms: {} events/s", events, orders, shards,
+                        elapsedNanos / 1_000_000, events * 1_000_000_000L / elapsedNanos);
+
+                long expectedOrders = orders + shards * 10L;
+                OrderStatusStatistics confirmed = new OrderStatusStatistics(OrderSummary.OrderStatus.CONFIRMED, 0, BigDecimal.ZERO);
+                long created = 0;
+                for (int i = 0; i < shards; i++) {
+                    for (OrderStatusStatistics statistics : store.shard(i).findStatistics()) {
+                        if (statistics.getStatus() == OrderSummary.OrderStatus.CONFIRMED) {
+                            confirmed = new OrderStatusStatistics(OrderSummary.OrderStatus.CONFIRMED,
+                                    confirmed.getOrderCount() + statistics.getOrderCount(),
+                                    confirmed.getTotalAmount().add(statistics.getTotalAmount()));
+                        } else {
+                            assertEquals(0, statistics.getOrderCount());
+                        }
+                    }
+                    LocalDateTime now = LocalDateTime.now();
+                    created += store.shard(i).findRollups(OrderRollup.Granularity.DAY,
+                                    OrderRollup.Granularity.DAY.bucketOf(now.minusDays(1)), now).stream()
+                            .filter(rollup -> rollup.getStatus() == OrderSummary.OrderStatus.CREATED)
+                            .mapToLong(OrderRollup::getOrderCount).sum();
+                }
+                assertEquals(expectedOrders, confirmed.getOrderCount());
+                assertEquals(0, ORDER_AMOUNT.multiply(BigDecimal.valueOf(expectedOrders)).compareTo(confirmed.getTotalAmount()));
+                assertEquals(expectedOrders, created);
+            } finally {
+                store.destroy();
+            }
+        }
+    }
+
+    // Every thread projects the orders of one shard, as the segment owning it would
+    private static void project(ShardedOrderStore store, ShardedOrderProjection projection, String prefix, int count)
+            throws Exception {
+        List<List<String>> orderIdsByShard = new ArrayList<>();
+        for (int i = 0; i < store.shardCount(); i++) {
+            orderIdsByShard.add(new ArrayList<>());
+        }
+        for (int i = 0; i < count; i++) {
+            String orderId = prefix + "-" + UUID.randomUUID();
+            orderIdsByShard.get(store.shardOf(orderId)).add(orderId);
+        }
+        ExecutorService threads = Executors.newFixedThreadPool(store.shardCount());
+        try {
+            List<Future<?>> segments = new ArrayList<>();
+            for (List<String> orderIds : orderIdsByShard) {
+                segments.add(threads.submit(() -> orderIds.forEach(orderId -> projectOrder(projection, orderId))));
+            }
+            for (Future<?> segment : segments) {
+                segment.get();
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private static void projectOrder(ShardedOrderProjection projection, String orderId) {
+        LocalDateTime now = LocalDateTime.now();
+        long sequence = 0;
+        projection.on(new OrderCreatedEvent(orderId, "CUST-BENCH", "Bench Customer", "bench@test.com", "1 Bench St", now),
+                sequence++);
+        for (int p = 0; p < PRODUCTS_PER_ORDER; p++) {
+            projection.on(new ItemAddedToOrderEvent(orderId, "PROD-" + p, "Product " + p, 1, new BigDecimal("2.50"), now),
+                    sequence++);
+        }
+        projection.on(new OrderConfirmedEvent(orderId, now), sequence);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.command.CreateOrderCommand;
+import com.example.ordermanagement.monitoring.sql.SlowQueriesEndpoint;
+import com.example.ordermanagement.monitoring.sql.SlowQueryLog;
+import com.example.ordermanagement.query.OrderSummaryRepository;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that statements over the threshold, here all of them, are grouped by normalized SQL with
+ * their parameters, row counts and a captured plan.
+ */
+@SpringBootTest(properties = "order-management.slow-query.threshold=0ms")
+@ActiveProfiles("test")
+class SlowQueryLogTest {
+
+    @Autowired
+    private CommandGateway commandGateway;
+
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SlowQueriesEndpoint endpoint;
+
+    @Test
+    void testSlowQueries_RepositorySearch_ShouldRecordParametersRowsAndPlan() throws Exception {
+        commandGateway.sendAndWait(new CreateOrderCommand(UUID.randomUUID().toString(), "CUST-SLOW", "Slow Customer", "slow@test.com", "1 Slow St"));
+        for (int attempt = 0; attempt < 50 && orderSummaryRepository.findFirstPageByCustomerId("CUST-SLOW", PageRequest.ofSize(10)).isEmpty(); attempt++) {
+            Thread.sleep(100);
+        }
+
+        SlowQueryLog.SlowStatement search = awaitPlan("customer_id=?");
+        assertTrue(search.count() >= 1);
+        assertTrue(search.slowest().parameters().contains("CUST-SLOW"), search.slowest().parameters().toString());
+        assertTrue(search.slowest().rows() >= 1 || search.count() > 1);
+        assertFalse(search.plan().startsWith("EXPLAIN failed"), search.plan());
+        assertTrue(search.plan().toLowerCase().contains("order_summaries"), search.plan());
+    }
+
+    @Test
+    void testSlowQueries_LiteralsAndInLists_ShouldBeNormalized() {
+        jdbcTemplate.queryForList("select order_id from order_summaries where customer_id in ('A', 'B', 'C') and total_amount >= 10.5");
+        jdbcTemplate.queryForList("select order_id from order_summaries where customer_id in ('D') and total_amount >= 7");
+
+        SlowQueryLog.SlowStatement statement = endpoint.slowQueries(500, "count").stream()
+                .filter(recorded -> recorded.sql().startsWith("select order_id from order_summaries where customer_id in"))
+                .findFirst().orElseThrow();
+        assertEquals("select order_id from order_summaries where customer_id in (...) and total_amount >= ?", statement.sql());
+        assertEquals(2, statement.count());
+    }
+
+    @Test
+    void testSlowQueries_UnknownSort_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> endpoint.slowQueries(10, "median"));
+    }
+
+    // Plans are captured in the background after the first slow execution
+    private SlowQueryLog.SlowStatement awaitPlan(String fragment) throws InterruptedException {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            SlowQueryLog.SlowStatement found = endpoint.slowQueries(500, "count").stream()
+                    .filter(statement -> statement.sql().contains(fragment) && statement.sql().contains("order_summaries"))
+                    .findFirst().orElse(null);
+            if (found != null && found.plan() != null) {
+                return found;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("No statement with a plan containing " + fragment);
+    }
+}
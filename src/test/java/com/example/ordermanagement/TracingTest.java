@@ -0,0 +1,88 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.config.ConsistencyTokenFilter;
+import com.example.ordermanagement.monitoring.tracing.Span;
+import com.example.ordermanagement.monitoring.tracing.Trace;
+import com.example.ordermanagement.monitoring.tracing.TracesEndpoint;
+import com.example.ordermanagement.monitoring.tracing.TracingFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that a trace ID sent with a request is carried through the command and its events into the
+ * projection, and that the resulting spans can be looked up by order and by trace.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "order-management.tracing.sample-rate=0")
+@ActiveProfiles("test")
+class TracingTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TracesEndpoint tracesEndpoint;
+
+    @Test
+    void testTrace_RequestWithTraceId_ShouldFollowCommandIntoProjection() throws Exception {
+        String traceId = UUID.randomUUID().toString();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(TracingFilter.TRACE_ID_HEADER, traceId);
+
+        ResponseEntity<String> created = restTemplate.exchange("/api/orders", HttpMethod.POST, new HttpEntity<>(Map.of(
+                "customerId", "CUST-TRACE", "customerName", "Trace Customer",
+                "customerEmail", "trace@test.com", "shippingAddress", "1 Trace St"), headers), String.class);
+        assertEquals(traceId, created.getHeaders().getFirst(TracingFilter.TRACE_ID_HEADER));
+        String orderId = created.getBody().replace("\"", "");
+
+        headers.set(ConsistencyTokenFilter.CONSISTENCY_TOKEN_HEADER, created.getHeaders().getFirst(ConsistencyTokenFilter.CONSISTENCY_TOKEN_HEADER));
+        ResponseEntity<String> order = restTemplate.exchange("/api/orders/" + orderId, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertEquals(HttpStatus.OK, order.getStatusCode());
+
+        Trace trace = awaitSpans(traceId, "project OrderCreatedEvent", "POST /api/orders", "GET /api/orders/{orderId}");
+        List<String> names = trace.spans().stream().map(Span::name).toList();
+        assertTrue(names.contains("command CreateOrderCommand"), names.toString());
+        assertTrue(names.stream().anyMatch(name -> name.startsWith("wait ")), names.toString());
+        assertEquals(List.of(orderId), trace.orderIds());
+
+        assertTrue(tracesEndpoint.traces(orderId, null).stream().anyMatch(found -> found.traceId().equals(traceId)));
+        assertTrue(tracesEndpoint.traces(null, 100).stream().anyMatch(found -> found.traceId().equals(traceId)));
+    }
+
+    @Test
+    void testTrace_UnsampledRequest_ShouldReturnTraceIdWithoutRecording() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/orders/status/CREATED", String.class);
+
+        String traceId = response.getHeaders().getFirst(TracingFilter.TRACE_ID_HEADER);
+        assertNotNull(traceId);
+        assertNull(tracesEndpoint.trace(traceId));
+    }
+
+    // Projection spans are recorded when the tracking processor commits, and request spans once the
+    // response has been completed, both possibly after the client already has the response
+    private Trace awaitSpans(String traceId, String... names) throws InterruptedException {
+        List<String> expected = List.of(names);
+        for (int attempt = 0; attempt < 50; attempt++) {
+            Trace trace = tracesEndpoint.trace(traceId);
+            if (trace != null && trace.spans().stream().map(Span::name).toList().containsAll(expected)) {
+                return trace;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Trace " + traceId + " lacks one of the spans " + expected + ": " + tracesEndpoint.trace(traceId));
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.ordermanagement.cucumber;
 
 import com.example.ordermanagement.controller.OrderController;
+import com.example.ordermanagement.query.CustomerNameSearchIndex;
 import com.example.ordermanagement.query.OrderSummary;
 import com.example.ordermanagement.query.OrderSummaryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.cucumber.java.Before;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
@@ -25,6 +27,9 @@ public class OrderQuerySteps {
     @Autowired
     private OrderSummaryRepository orderSummaryRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
 
 
 
@@ -32,7 +37,7 @@ public class OrderQuerySteps {
 
 
 
-    private ResponseEntity<OrderSummary> orderResponse;
+    private ResponseEntity<byte[]> orderResponse;
     private List<OrderSummary> ordersResponse;
     private long countResponse;
     private ResponseEntity<BigDecimal> averageResponse;
@@ -113,7 +118,7 @@ public class OrderQuerySteps {
     @When("I retrieve the order by ID {string}")
     public void iRetrieveTheOrderById(String orderId) {
         try {
-            orderResponse = orderController.getOrder(orderId);
+            orderResponse = orderController.getOrder(orderId, null);
         } catch (Exception e) {
             fail("Failed: " + e.getMessage());
         }
@@ -122,7 +127,7 @@ public class OrderQuerySteps {
     @When("I retrieve all orders")
     public void iRetrieveAllOrders() {
         try {
-            ordersResponse = orderController.getAllOrders();
+            ordersResponse = orderController.getAllOrders(null, null).getBody();
         } catch (Exception e) {
             fail("Failed: " + e.getMessage());
         }
@@ -131,7 +136,7 @@ public class OrderQuerySteps {
     @When("I retrieve orders for customer {string}")
     public void iRetrieveOrdersForCustomer(String customerId) {
         try {
-            ordersResponse = orderController.getOrdersByCustomer(customerId);
+            ordersResponse = orderController.getOrdersByCustomer(customerId, null, null).getBody();
         } catch (Exception e) {
             fail("Failed: " + e.getMessage());
         }
@@ -140,7 +145,7 @@ public class OrderQuerySteps {
     @When("I retrieve orders with status {string}")
     public void iRetrieveOrdersWithStatus(String status) {
         try {
-            ordersResponse = orderController.getOrdersByStatus(status);
+            ordersResponse = orderController.getOrdersByStatus(status, null, null).getBody();
         } catch (Exception e) {
             fail("Failed: " + e.getMessage());
         }
@@ -149,7 +154,7 @@ public class OrderQuerySteps {
     @When("I search orders by customer name {string}")
     public void iSearchOrdersByCustomerName(String customerName) {
         try {
-            ordersResponse = orderController.searchOrdersByCustomerName(customerName);
+            ordersResponse = orderController.searchOrdersByCustomerName(customerName, CustomerNameSearchIndex.MatchMode.CONTAINS, false, null, null).getBody();
         } catch (Exception e) {
             fail("Failed: " + e.getMessage());
         }
@@ -158,7 +163,7 @@ public class OrderQuerySteps {
     @When("I retrieve orders with minimum amount {bigdecimal}")
     public void iRetrieveOrdersWithMinimumAmount(BigDecimal minAmount) {
         try {
-            ordersResponse = orderController.getOrdersByMinAmount(minAmount);
+            ordersResponse = orderController.getOrdersByMinAmount(minAmount, null, null, "createdAt").getBody();
         } catch (Exception e) {
             fail("Failed: " + e.getMessage());
         }
@@ -190,8 +195,8 @@ public class OrderQuerySteps {
     }
 
     @Then("the order ID should be {string}")
-    public void theOrderIdShouldBe(String expectedOrderId) {
-        assertEquals(expectedOrderId, orderResponse.getBody().getOrderId());
+    public void theOrderIdShouldBe(String expectedOrderId) throws Exception {
+        assertEquals(expectedOrderId, objectMapper.readValue(orderResponse.getBody(), OrderSummary.class).getOrderId());
     }
 
     @Then("no order should be returned")
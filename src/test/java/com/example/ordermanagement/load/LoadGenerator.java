@@ -0,0 +1,156 @@
+package com.example.ordermanagement.load;
+
+import com.example.ordermanagement.load.LoadScenario.LoadRequest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the REST API with the multi-day order lifecycle scenarios and reports latency per endpoint.
+ *
+ * The closed model runs a fixed number of users, each sending its next request when the previous one has
+ * completed. The open model starts requests at a fixed rate regardless of how fast they complete, taking
+ * idle users from a pool that grows as needed. Its latencies are measured from the time a request was due
+ * to start, so a server that falls behind shows up as queueing delay instead of fewer samples.
+ *
+ * <pre>
+ * mvn -Pload -DskipTests verify -Dload.args="--model=open --rate=200 --duration=2m --query-ratio=0.7"
+ * </pre>
+ */
+public final class LoadGenerator {
+
+    private final LoadOptions options;
+    private final List<LoadScenario> scenarios;
+    private final List<String> customerIds;
+    private final VirtualUser.RecentOrders recentOrders = new VirtualUser.RecentOrders(4096);
+    private final HttpClient client;
+
+    public LoadGenerator(LoadOptions options) {
+        this.options = options;
+        this.scenarios = LoadScenario.read(options.scenarios());
+        Set<String> customers = new LinkedHashSet<>();
+        scenarios.forEach(scenario -> customers.addAll(scenario.customerIds()));
+        this.customerIds = customers.isEmpty() ? List.of("CUST-001") : List.copyOf(customers);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        LoadReport report = new LoadGenerator(options).run();
+        report.print(System.out);
+        report.write(options.output());
+        System.out.println("Report written to " + options.output().toAbsolutePath());
+    }
+
+    public LoadReport run() throws InterruptedException {
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+        LoadReport.Collector collector = new LoadReport.Collector();
+
+        if (options.model() == LoadOptions.Model.CLOSED) {
+            runClosed(collector, measureFrom, end);
+        } else {
+            runOpen(collector, start, measureFrom, end);
+        }
+        return collector.report(startedAt, options.model().name().toLowerCase(), options.baseUrl(),
+                options.duration().toNanos() / 1e9);
+    }
+
+    private void runClosed(LoadReport.Collector collector, long measureFrom, long end) throws InterruptedException {
+        ExecutorService users = Executors.newFixedThreadPool(options.users(), daemonThreads("load-user"));
+        for (int i = 0; i < options.users(); i++) {
+            VirtualUser user = newUser(i);
+            users.execute(() -> {
+                Random random = ThreadLocalRandom.current();
+                while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                    long sent = System.nanoTime();
+                    execute(user, random, collector, sent, sent >= measureFrom);
+                    if (!options.thinkTime().isZero()) {
+                        LockSupport.parkNanos(options.thinkTime().toNanos());
+                    }
+                }
+            });
+        }
+        awaitCompletion(users);
+    }
+
+    private void runOpen(LoadReport.Collector collector, long start, long measureFrom, long end) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(options.maxInFlight(), daemonThreads("load-worker"));
+        Queue<VirtualUser> idleUsers = new ConcurrentLinkedQueue<>();
+        AtomicInteger userCount = new AtomicInteger();
+        double interval = 1e9 / options.rate();
+
+        for (long arrival = 0; ; arrival++) {
+            long due = start + (long) (arrival * interval);
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            workers.execute(() -> {
+                VirtualUser user = idleUsers.poll();
+                if (user == null) {
+                    user = newUser(userCount.getAndIncrement());
+                }
+                execute(user, ThreadLocalRandom.current(), collector, due, due >= measureFrom);
+                idleUsers.offer(user);
+            });
+        }
+        awaitCompletion(workers);
+    }
+
+    private void execute(VirtualUser user, Random random, LoadReport.Collector collector, long startedAt, boolean measured) {
+        LoadRequest request = user.next(random);
+        int status;
+        String body = null;
+        try {
+            HttpResponse<String> response = client.send(request.request(), HttpResponse.BodyHandlers.ofString());
+            status = response.statusCode();
+            body = response.body();
+        } catch (IOException e) {
+            status = 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (measured) {
+            collector.record(request.endpoint(), System.nanoTime() - startedAt, status);
+        }
+        user.completed(request, status, body);
+    }
+
+    private VirtualUser newUser(int index) {
+        return new VirtualUser(index, scenarios, customerIds, recentOrders, options.baseUrl(), options.queryRatio());
+    }
+
+    // Requests started before the end of the run are allowed to complete
+    private static void awaitCompletion(ExecutorService executor) throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.ordermanagement.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class LoadGeneratorTest {
+
+    @LocalServerPort
+    private int port;
+
+    @TempDir
+    private Path output;
+
+    @Test
+    void closedModelRunsScenariosAndWritesReports() throws Exception {
+        LoadReport report = new LoadGenerator(options("--model=closed", "--users=2", "--duration=3s")).run();
+        report.write(output);
+
+        LoadReport.Endpoint creates = report.endpoint("POST /api/orders").orElseThrow();
+        assertTrue(creates.requests() > 0);
+        assertEquals(0, creates.errors());
+        assertTrue(report.endpoint("POST /api/orders/{orderId}/items").isPresent());
+        assertTrue(report.total().requests() >= creates.requests());
+        assertTrue(report.total().p50() <= report.total().p99());
+
+        JsonNode json = new ObjectMapper().readTree(output.resolve(LoadReport.JSON_FILE).toFile());
+        assertEquals("closed", json.path("model").asText());
+        assertEquals(report.total().requests(), json.path("total").path("requests").asLong());
+        assertTrue(Files.readString(output.resolve(LoadReport.HTML_FILE)).contains("POST /api/orders/{orderId}/items"));
+    }
+
+    @Test
+    void openModelIssuesRequestsAtTheTargetRate() throws Exception {
+        LoadReport report = new LoadGenerator(options("--model=open", "--rate=20", "--duration=3s")).run();
+
+        // 60 arrivals are due in the measured period, and every one of them is recorded
+        assertEquals(60, report.total().requests());
+        assertEquals(0, report.endpoint("POST /api/orders").orElseThrow().errors());
+    }
+
+    @Test
+    void rejectsUnknownOptions() {
+        assertThrows(IllegalArgumentException.class, () -> LoadOptions.parse("--rate=10", "--users"));
+        assertThrows(IllegalArgumentException.class, () -> LoadOptions.parse("--concurrency=10"));
+        assertThrows(IllegalArgumentException.class, () -> LoadOptions.parse("--query-ratio=2"));
+    }
+
+    private LoadOptions options(String... args) {
+        String[] all = new String[args.length + 4];
+        System.arraycopy(args, 0, all, 0, args.length);
+        all[args.length] = "--base-url=http://localhost:" + port;
+        all[args.length + 1] = "--warmup=0s";
+        all[args.length + 2] = "--query-ratio=0.3";
+        all[args.length + 3] = "--scenarios=test-cases/multi-day-order-lifecycle.csv";
+        return LoadOptions.parse(all);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.ordermanagement.load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Settings of a load run, parsed from {@code --name=value} arguments.
+ *
+ * <ul>
+ *   <li>{@code base-url}: the API to drive (default {@code http://localhost:8080})</li>
+ *   <li>{@code model}: {@code closed} for a fixed number of users, {@code open} for a fixed arrival rate</li>
+ *   <li>{@code users}: concurrent users of the closed model (default 10)</li>
+ *   <li>{@code think-time}: pause of a closed-model user between requests (default 0ms)</li>
+ *   <li>{@code rate}: requests per second of the open model (default 50)</li>
+ *   <li>{@code max-in-flight}: threads issuing open-model requests (default 200)</li>
+ *   <li>{@code duration} and {@code warmup}: measured period and the unmeasured period before it (defaults 60s and 10s)</li>
+ *   <li>{@code query-ratio}: share of requests that are standalone queries instead of the next scenario step (default 0.5)</li>
+ *   <li>{@code scenarios}: classpath test case file, {@code .xlsx} or {@code .csv}</li>
+ *   <li>{@code output}: directory for {@code load-report.json} and {@code load-report.html}</li>
+ * </ul>
+ */
+public record LoadOptions(String baseUrl,
+                          Model model,
+                          int users,
+                          Duration thinkTime,
+                          double rate,
+                          int maxInFlight,
+                          Duration duration,
+                          Duration warmup,
+                          double queryRatio,
+                          String scenarios,
+                          Path output) {
+
+    public enum Model { OPEN, CLOSED }
+
+    public LoadOptions {
+        if (users < 1 || maxInFlight < 1) {
+            throw new IllegalArgumentException("users and max-in-flight must be positive");
+        }
+        if (rate <= 0) {
+            throw new IllegalArgumentException("rate must be positive");
+        }
+        if (queryRatio < 0 || queryRatio > 1) {
+            throw new IllegalArgumentException("query-ratio must be between 0 and 1");
+        }
+    }
+
+    public static LoadOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String[] pair = arg.substring(2).split("=", 2);
+            values.put(pair[0], pair[1]);
+        }
+        LoadOptions options = new LoadOptions(
+                values.getOrDefault("base-url", "http://localhost:8080"),
+                Model.valueOf(values.getOrDefault("model", "closed").toUpperCase()),
+                Integer.parseInt(values.getOrDefault("users", "10")),
+                DurationStyle.detectAndParse(values.getOrDefault("think-time", "0ms")),
+                Double.parseDouble(values.getOrDefault("rate", "50")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "200")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "60s")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+                Double.parseDouble(values.getOrDefault("query-ratio", "0.5")),
+                values.getOrDefault("scenarios", "test-cases/multi-day-order-lifecycle.xlsx"),
+                Path.of(values.getOrDefault("output", "target/load-report")));
+        values.keySet().removeAll(Set.of("base-url", "model", "users", "think-time", "rate", "max-in-flight",
+                "duration", "warmup", "query-ratio", "scenarios", "output"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        return options;
+    }
+}
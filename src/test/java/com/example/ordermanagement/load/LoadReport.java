@@ -0,0 +1,147 @@
+package com.example.ordermanagement.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput and latency percentiles of a load run, overall and per endpoint, in milliseconds.
+ */
+public record LoadReport(Instant startedAt,
+                         String model,
+                         String target,
+                         double measuredSeconds,
+                         Endpoint total,
+                         List<Endpoint> endpoints) {
+
+    public static final String JSON_FILE = "load-report.json";
+    public static final String HTML_FILE = "load-report.html";
+
+    /**
+     * Statistics of one endpoint; {@code statuses} counts responses by HTTP status, with 0 for requests
+     * that got no response.
+     */
+    public record Endpoint(String endpoint,
+                           long requests,
+                           long errors,
+                           double throughput,
+                           double mean,
+                           double p50,
+                           double p90,
+                           double p99,
+                           double p999,
+                           double max,
+                           Map<Integer, Long> statuses) {
+
+        static Endpoint of(String endpoint, Histogram micros, Map<Integer, Long> statuses, double seconds) {
+            long errors = statuses.entrySet().stream()
+                    .filter(status -> status.getKey() < 200 || status.getKey() >= 400)
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+            return new Endpoint(endpoint, micros.getTotalCount(), errors, micros.getTotalCount() / seconds,
+                    micros.getMean() / 1000.0,
+                    micros.getValueAtPercentile(50) / 1000.0,
+                    micros.getValueAtPercentile(90) / 1000.0,
+                    micros.getValueAtPercentile(99) / 1000.0,
+                    micros.getValueAtPercentile(99.9) / 1000.0,
+                    micros.getMaxValue() / 1000.0,
+                    statuses);
+        }
+    }
+
+    public Optional<Endpoint> endpoint(String endpoint) {
+        return endpoints.stream().filter(candidate -> candidate.endpoint().equals(endpoint)).findFirst();
+    }
+
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writerWithDefaultPrettyPrinter()
+                .writeValue(directory.resolve(JSON_FILE).toFile(), this);
+        Files.writeString(directory.resolve(HTML_FILE), html());
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%s model against %s, %.1f s measured%n", model, target, measuredSeconds);
+        out.printf("%-50s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "Max ms");
+        for (Endpoint endpoint : rows()) {
+            out.printf("%-50s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", endpoint.endpoint(), endpoint.requests(),
+                    endpoint.errors(), endpoint.throughput(), endpoint.p50(), endpoint.p90(), endpoint.p99(),
+                    endpoint.p999(), endpoint.max());
+        }
+    }
+
+    private List<Endpoint> rows() {
+        List<Endpoint> rows = new ArrayList<>(endpoints);
+        rows.add(total);
+        return rows;
+    }
+
+    private String html() {
+        StringBuilder html = new StringBuilder()
+                .append("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Load report</title>\n")
+                .append("<style>body{font-family:sans-serif}table{border-collapse:collapse}")
+                .append("th,td{border:1px solid #ccc;padding:4px 8px;text-align:right}th:first-child,td:first-child{text-align:left}")
+                .append("tr:last-child{font-weight:bold}</style></head><body>\n")
+                .append("<h1>Load report</h1>\n<p>")
+                .append(HtmlUtils.htmlEscape(String.format("%s model against %s, started %s, %.1f s measured",
+                        model, target, startedAt, measuredSeconds)))
+                .append("</p>\n<table><tr><th>Endpoint</th><th>Requests</th><th>Errors</th><th>Req/s</th><th>Mean ms</th>")
+                .append("<th>p50 ms</th><th>p90 ms</th><th>p99 ms</th><th>p99.9 ms</th><th>Max ms</th><th>Statuses</th></tr>\n");
+        for (Endpoint endpoint : rows()) {
+            html.append(String.format("<tr><td>%s</td><td>%d</td><td>%d</td><td>%.1f</td><td>%.2f</td><td>%.2f</td>"
+                            + "<td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%s</td></tr>%n",
+                    HtmlUtils.htmlEscape(endpoint.endpoint()), endpoint.requests(), endpoint.errors(), endpoint.throughput(),
+                    endpoint.mean(), endpoint.p50(), endpoint.p90(), endpoint.p99(), endpoint.p999(), endpoint.max(),
+                    endpoint.statuses()));
+        }
+        return html.append("</table>\n</body></html>\n").toString();
+    }
+
+    /**
+     * Collects latencies per endpoint while a run is in progress; safe for concurrent recording.
+     */
+    static final class Collector {
+
+        private final ConcurrentMap<String, Recorder> latencies = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, ConcurrentMap<Integer, LongAdder>> statuses = new ConcurrentHashMap<>();
+
+        void record(String endpoint, long latencyNanos, int status) {
+            latencies.computeIfAbsent(endpoint, key -> new Recorder(3)).recordValue(Math.max(1, latencyNanos / 1000));
+            statuses.computeIfAbsent(endpoint, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(status, key -> new LongAdder())
+                    .increment();
+        }
+
+        LoadReport report(Instant startedAt, String model, String target, double measuredSeconds) {
+            Histogram total = new Histogram(3);
+            Map<Integer, Long> totalStatuses = new TreeMap<>();
+            List<Endpoint> endpoints = new ArrayList<>();
+            new TreeMap<>(latencies).forEach((endpoint, recorder) -> {
+                Histogram histogram = recorder.getIntervalHistogram();
+                Map<Integer, Long> counts = new TreeMap<>();
+                statuses.get(endpoint).forEach((status, count) -> counts.put(status, count.sum()));
+                counts.forEach((status, count) -> totalStatuses.merge(status, count, Long::sum));
+                total.add(histogram);
+                endpoints.add(Endpoint.of(endpoint, histogram, counts, measuredSeconds));
+            });
+            return new LoadReport(startedAt, model, target, measuredSeconds,
+                    Endpoint.of("Total", total, totalStatuses, measuredSeconds), endpoints);
+        }
+    }
+}
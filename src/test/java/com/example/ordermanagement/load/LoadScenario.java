@@ -0,0 +1,155 @@
+package com.example.ordermanagement.load;
+
+import com.example.ordermanagement.excel.CSVTestCaseReader;
+import com.example.ordermanagement.excel.ExcelTestCaseReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * One order lifecycle from the multi-day test case files, replayed as REST calls.
+ *
+ * The files are read with the readers {@link com.example.ordermanagement.excel.MultiDayOrderLifecycleExcelTest}
+ * uses, keeping only its enabled Day-N steps; the Unit edge cases expect failures and are skipped. Steps run
+ * day by day in step order, and order IDs are kept per context key the same way the test does.
+ */
+final class LoadScenario {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final String id;
+    private final List<ExcelTestCaseReader.TestCase> steps;
+
+    private LoadScenario(String id, List<ExcelTestCaseReader.TestCase> steps) {
+        this.id = id;
+        this.steps = steps;
+    }
+
+    static List<LoadScenario> read(String resource) {
+        List<ExcelTestCaseReader.TestCase> testCases = resource.endsWith(".csv")
+                ? CSVTestCaseReader.readTestCasesFromCSV(resource)
+                : readExcelOrCsv(resource);
+        List<LoadScenario> scenarios = new ArrayList<>();
+        ExcelTestCaseReader.groupByTestCaseAndDay(testCases).forEach((testCaseId, days) -> {
+            List<ExcelTestCaseReader.TestCase> steps = new ArrayList<>();
+            days.keySet().stream()
+                    .filter(day -> day.startsWith("Day-"))
+                    .sorted()
+                    .forEach(day -> days.get(day).stream()
+                            .sorted(Comparator.comparingInt(ExcelTestCaseReader.TestCase::getStepNumber))
+                            .forEach(steps::add));
+            if (!steps.isEmpty()) {
+                scenarios.add(new LoadScenario(testCaseId, steps));
+            }
+        });
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("No enabled Day-N scenarios in " + resource);
+        }
+        return scenarios;
+    }
+
+    // Like the lifecycle test: the Excel workbook if it exists, else the CSV next to it
+    private static List<ExcelTestCaseReader.TestCase> readExcelOrCsv(String resource) {
+        try {
+            return ExcelTestCaseReader.readTestCases(resource);
+        } catch (RuntimeException e) {
+            return CSVTestCaseReader.readTestCasesFromCSV(resource.replaceFirst("\\.xlsx$", ".csv"));
+        }
+    }
+
+    String id() {
+        return id;
+    }
+
+    int size() {
+        return steps.size();
+    }
+
+    /**
+     * The customers this scenario creates orders for, which customer queries pick from.
+     */
+    Set<String> customerIds() {
+        Set<String> customerIds = new LinkedHashSet<>();
+        steps.stream()
+                .filter(step -> "CREATE_ORDER".equalsIgnoreCase(step.getAction()) && step.getParameters() != null)
+                .forEach(step -> customerIds.add(step.getParameters().getOrDefault("customerId", "CUST-001")));
+        return customerIds;
+    }
+
+    /**
+     * The request for step {@code index}, with order IDs taken from {@code context}.
+     */
+    LoadRequest request(int index, Map<String, String> context, String baseUrl) {
+        ExcelTestCaseReader.TestCase step = steps.get(index);
+        Map<String, String> params = step.getParameters() == null ? Map.of() : step.getParameters();
+        String orders = baseUrl + "/api/orders";
+        String orderId = context.get(params.getOrDefault("orderId", params.getOrDefault("contextKey", "orderId")));
+
+        return switch (step.getAction().toUpperCase()) {
+            case "CREATE_ORDER" -> new LoadRequest("POST /api/orders",
+                    post(orders, Map.of(
+                            "customerId", params.getOrDefault("customerId", "CUST-001"),
+                            "customerName", params.getOrDefault("customerName", "Test Customer"),
+                            "customerEmail", params.getOrDefault("customerEmail", "test@example.com"),
+                            "shippingAddress", params.getOrDefault("shippingAddress", "123 Test St"))),
+                    params.getOrDefault("contextKey", "orderId"));
+            case "ADD_ITEM" -> new LoadRequest("POST /api/orders/{orderId}/items",
+                    post(orders + "/" + orderId + "/items", Map.of(
+                            "productId", params.getOrDefault("productId", "PROD-001"),
+                            "productName", params.getOrDefault("productName", "Test Product"),
+                            "quantity", Integer.parseInt(params.getOrDefault("quantity", "1")),
+                            "price", params.getOrDefault("price", "99.99"))),
+                    null);
+            case "REMOVE_ITEM" -> new LoadRequest("DELETE /api/orders/{orderId}/items/{productId}",
+                    builder(orders + "/" + orderId + "/items/" + encode(params.getOrDefault("productId", "PROD-001"))).DELETE().build(),
+                    null);
+            case "CONFIRM_ORDER" -> new LoadRequest("POST /api/orders/{orderId}/confirm",
+                    builder(orders + "/" + orderId + "/confirm").POST(HttpRequest.BodyPublishers.noBody()).build(), null);
+            case "PROCESS_ORDER" -> new LoadRequest("POST /api/orders/{orderId}/process",
+                    builder(orders + "/" + orderId + "/process").POST(HttpRequest.BodyPublishers.noBody()).build(), null);
+            case "SHIP_ORDER" -> new LoadRequest("POST /api/orders/{orderId}/ship",
+                    post(orders + "/" + orderId + "/ship",
+                            Map.of("trackingNumber", params.getOrDefault("trackingNumber", "TRK" + System.nanoTime()))),
+                    null);
+            case "CANCEL_ORDER" -> new LoadRequest("POST /api/orders/{orderId}/cancel",
+                    post(orders + "/" + orderId + "/cancel", Map.of("reason", params.getOrDefault("reason", "Load test cancellation"))),
+                    null);
+            case "VERIFY_ORDER" -> new LoadRequest("GET /api/orders/{orderId}",
+                    builder(orders + "/" + orderId).GET().build(), null);
+            default -> throw new IllegalArgumentException("Unknown action in scenario " + id + ": " + step.getAction());
+        };
+    }
+
+    static HttpRequest.Builder builder(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).timeout(TIMEOUT);
+    }
+
+    static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static HttpRequest post(String uri, Map<String, ?> body) {
+        try {
+            return builder(uri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A request and the endpoint it is reported under. Creations name the context key their order ID is
+     * kept under.
+     */
+    record LoadRequest(String endpoint, HttpRequest request, String createsOrder) {
+    }
+}
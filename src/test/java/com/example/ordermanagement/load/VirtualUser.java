@@ -0,0 +1,119 @@
+package com.example.ordermanagement.load;
+
+import com.example.ordermanagement.load.LoadScenario.LoadRequest;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A simulated client working through the scenarios one after another, each with its own orders, and
+ * interleaving standalone queries at the configured ratio. Not thread-safe: a user issues one request
+ * at a time.
+ */
+final class VirtualUser {
+
+    private static final String[] STATUSES = {"CREATED", "CONFIRMED", "PROCESSED", "SHIPPED", "CANCELLED"};
+
+    private final List<LoadScenario> scenarios;
+    private final List<String> customerIds;
+    private final RecentOrders recentOrders;
+    private final String baseUrl;
+    private final double queryRatio;
+    private final Map<String, String> context = new HashMap<>();
+
+    private int scenario;
+    private int step;
+    private boolean stepPending;
+
+    VirtualUser(int index, List<LoadScenario> scenarios, List<String> customerIds, RecentOrders recentOrders,
+                String baseUrl, double queryRatio) {
+        this.scenarios = scenarios;
+        this.customerIds = customerIds;
+        this.recentOrders = recentOrders;
+        this.baseUrl = baseUrl;
+        this.queryRatio = queryRatio;
+        // Users start at different scenarios, so a small number of them still covers all
+        this.scenario = index % scenarios.size();
+    }
+
+    LoadRequest next(Random random) {
+        if (random.nextDouble() < queryRatio) {
+            stepPending = false;
+            return query(random);
+        }
+        stepPending = true;
+        return scenarios.get(scenario).request(step, context, baseUrl);
+    }
+
+    /**
+     * Records the outcome of the request last returned by {@link #next}. A failed step abandons the
+     * scenario, as every later step depends on it.
+     */
+    void completed(LoadRequest request, int status, String body) {
+        if (!stepPending) {
+            return;
+        }
+        boolean succeeded = status >= 200 && status < 300;
+        if (succeeded && request.createsOrder() != null && body != null) {
+            String orderId = body.replace("\"", "").trim();
+            context.put(request.createsOrder(), orderId);
+            recentOrders.add(orderId);
+        }
+        if (succeeded && step + 1 < scenarios.get(scenario).size()) {
+            step++;
+        } else {
+            scenario = (scenario + 1) % scenarios.size();
+            step = 0;
+            context.clear();
+        }
+    }
+
+    private LoadRequest query(Random random) {
+        String orders = baseUrl + "/api/orders";
+        String status = STATUSES[random.nextInt(STATUSES.length)];
+        return switch (random.nextInt(6)) {
+            case 0 -> {
+                String orderId = recentOrders.pick(random);
+                yield orderId == null
+                        ? get("GET /api/orders", orders + "?size=20")
+                        : get("GET /api/orders/{orderId}", orders + "/" + orderId);
+            }
+            case 1 -> get("GET /api/orders", orders + "?size=20");
+            case 2 -> get("GET /api/orders/customer/{customerId}",
+                    orders + "/customer/" + LoadScenario.encode(customerIds.get(random.nextInt(customerIds.size()))) + "?size=20");
+            case 3 -> get("GET /api/orders/status/{status}", orders + "/status/" + status + "?size=20");
+            case 4 -> get("GET /api/orders/min-amount/{minAmount}", orders + "/min-amount/100?size=20");
+            default -> get("GET /api/orders/statistics/status/{status}/count", orders + "/statistics/status/" + status + "/count");
+        };
+    }
+
+    private static LoadRequest get(String endpoint, String uri) {
+        return new LoadRequest(endpoint, LoadScenario.builder(uri).GET().build(), null);
+    }
+
+    /**
+     * Order IDs created during the run, shared by all users so lookups by ID hit real orders.
+     */
+    static final class RecentOrders {
+
+        private final AtomicReferenceArray<String> orderIds;
+        private final AtomicLong added = new AtomicLong();
+
+        RecentOrders(int capacity) {
+            this.orderIds = new AtomicReferenceArray<>(capacity);
+        }
+
+        void add(String orderId) {
+            orderIds.set((int) (added.getAndIncrement() % orderIds.length()), orderId);
+        }
+
+        String pick(Random random) {
+            long count = Math.min(added.get(), orderIds.length());
+            return count == 0 ? null : orderIds.get(random.nextInt((int) count));
+        }
+    }
+}